@@ -3,15 +3,21 @@
 -- Evam-style Audit Trail & Analytics
 -- ═══════════════════════════════════════════════════════════════
 
--- Events table: Immutable audit trail of all customer events
+-- Events table: Immutable audit trail of all customer events.
+-- Range partitioned by month on timestamp; PartitionMaintenance creates the
+-- monthly partitions (events_pYYYY_MM) ahead and expires old ones. Rows
+-- outside every monthly partition land in events_default until theirs exists.
 CREATE TABLE IF NOT EXISTS events (
-    event_id    VARCHAR(36)  PRIMARY KEY,
+    event_id    VARCHAR(36)  NOT NULL,
     customer_id VARCHAR(64)  NOT NULL,
     event_type  VARCHAR(32)  NOT NULL,
     timestamp   TIMESTAMP    NOT NULL,
     payload     JSONB,
-    created_at  TIMESTAMP    DEFAULT CURRENT_TIMESTAMP
-);
+    created_at  TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (event_id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS events_default PARTITION OF events DEFAULT;
 
 -- Composite index: customer timeline queries
 CREATE INDEX IF NOT EXISTS idx_events_customer_time
@@ -21,21 +27,60 @@ CREATE INDEX IF NOT EXISTS idx_events_customer_time
 CREATE INDEX IF NOT EXISTS idx_events_event_type
     ON events (event_type);
 
--- Actions table: Audit trail of all outbound actions
+-- Actions table: Audit trail of all outbound actions.
+-- Range partitioned by month on sent_at, like events. Databases created
+-- before partitioning are converted by migrate-partitions.sql
 CREATE TABLE IF NOT EXISTS actions (
-    action_id   VARCHAR(36)  PRIMARY KEY,
+    action_id   VARCHAR(36)  NOT NULL,
     customer_id VARCHAR(64)  NOT NULL,
     action_type VARCHAR(32)  NOT NULL,
     message     TEXT,
     channel     VARCHAR(32),
     sent_at     TIMESTAMP    NOT NULL,
-    created_at  TIMESTAMP    DEFAULT CURRENT_TIMESTAMP
-);
+    created_at  TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (action_id, sent_at)
+) PARTITION BY RANGE (sent_at);
+
+CREATE TABLE IF NOT EXISTS actions_default PARTITION OF actions DEFAULT;
 
 -- Index: customer action history
 CREATE INDEX IF NOT EXISTS idx_actions_customer
     ON actions (customer_id);
 
+-- Index: most recent actions (dashboard)
+CREATE INDEX IF NOT EXISTS idx_actions_sent_at
+    ON actions (sent_at DESC);
+
+-- Action ids: the deduplication key of actions. The actions primary key must
+-- include sent_at, so it only catches a repeat sent at the same instant; every
+-- actions insert claims the id here first. Pruned with expired actions
+-- partitions (PartitionMaintenance)
+CREATE TABLE IF NOT EXISTS action_ids (
+    action_id   VARCHAR(36)  PRIMARY KEY,
+    recorded_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Index: pruning by age
+CREATE INDEX IF NOT EXISTS idx_action_ids_recorded_at
+    ON action_ids (recorded_at);
+
+-- Action outbox: actions waiting to be relayed to the actions topic
+-- (journey.outbox.enabled). shard = customer hash, claimed by one relay at a time
+CREATE TABLE IF NOT EXISTS action_outbox (
+    id          BIGSERIAL    PRIMARY KEY,
+    shard       SMALLINT     NOT NULL,
+    action_id   VARCHAR(36)  NOT NULL,
+    customer_id VARCHAR(64)  NOT NULL,
+    action_type VARCHAR(32)  NOT NULL,
+    message     TEXT,
+    channel     VARCHAR(32),
+    created_at  TIMESTAMP    NOT NULL
+);
+
+-- Index: relay claims a shard's oldest rows
+CREATE INDEX IF NOT EXISTS idx_action_outbox_shard
+    ON action_outbox (shard, id);
+
 -- Journey states table: Backup/analytics snapshot of journey states
 CREATE TABLE IF NOT EXISTS journey_states (
     customer_id    VARCHAR(64)  PRIMARY KEY,
@@ -0,0 +1,103 @@
+-- ═══════════════════════════════════════════════════════════════
+-- Mini Banking Journey Orchestrator - Partitioning Migration
+-- Converts events and actions tables created before monthly partitioning
+-- ═══════════════════════════════════════════════════════════════
+--
+-- init.sql only runs on a fresh volume. On an existing database run this
+-- once, in one transaction, with the orchestrators stopped:
+--
+--   psql -U journey -d journey -v ON_ERROR_STOP=1 -1 -f migrate-partitions.sql
+--
+-- Each heap table is renamed to <table>_legacy and recreated partitioned as
+-- in init.sql, with one <table>_pYYYY_MM partition per month that holds rows
+-- (the names PartitionMaintenance manages). The rows are copied over and the
+-- legacy table is dropped. Tables that are partitioned already are left
+-- alone, so running the script again is harmless. action_ids, the
+-- deduplication key of actions, is created and backfilled either way.
+
+-- Creates <parent>_pYYYY_MM for every month of <column> found in <source>
+CREATE OR REPLACE FUNCTION pg_temp.create_monthly_partitions(parent TEXT, source TEXT, col TEXT) RETURNS VOID AS $$
+DECLARE
+    month TIMESTAMP;
+BEGIN
+    FOR month IN EXECUTE format('SELECT DISTINCT date_trunc(''month'', %I) FROM %I', col, source) LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                parent || to_char(month, '"_p"YYYY"_"MM'), parent, month, month + INTERVAL '1 month');
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('events')) THEN
+        RAISE NOTICE 'events is partitioned already';
+        RETURN;
+    END IF;
+    ALTER TABLE events RENAME TO events_legacy;
+    ALTER TABLE events_legacy RENAME CONSTRAINT events_pkey TO events_legacy_pkey;
+    ALTER INDEX IF EXISTS idx_events_customer_time RENAME TO idx_events_legacy_customer_time;
+    ALTER INDEX IF EXISTS idx_events_event_type RENAME TO idx_events_legacy_event_type;
+
+    CREATE TABLE events (
+        event_id    VARCHAR(36)  NOT NULL,
+        customer_id VARCHAR(64)  NOT NULL,
+        event_type  VARCHAR(32)  NOT NULL,
+        timestamp   TIMESTAMP    NOT NULL,
+        payload     JSONB,
+        created_at  TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+        PRIMARY KEY (event_id, timestamp)
+    ) PARTITION BY RANGE (timestamp);
+    CREATE TABLE events_default PARTITION OF events DEFAULT;
+    PERFORM pg_temp.create_monthly_partitions('events', 'events_legacy', 'timestamp');
+
+    INSERT INTO events (event_id, customer_id, event_type, timestamp, payload, created_at)
+        SELECT event_id, customer_id, event_type, timestamp, payload, created_at FROM events_legacy;
+    DROP TABLE events_legacy;
+
+    CREATE INDEX idx_events_customer_time ON events (customer_id, timestamp DESC);
+    CREATE INDEX idx_events_event_type ON events (event_type);
+END $$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('actions')) THEN
+        RAISE NOTICE 'actions is partitioned already';
+        RETURN;
+    END IF;
+    ALTER TABLE actions RENAME TO actions_legacy;
+    ALTER TABLE actions_legacy RENAME CONSTRAINT actions_pkey TO actions_legacy_pkey;
+    ALTER INDEX IF EXISTS idx_actions_customer RENAME TO idx_actions_legacy_customer;
+    ALTER INDEX IF EXISTS idx_actions_sent_at RENAME TO idx_actions_legacy_sent_at;
+
+    CREATE TABLE actions (
+        action_id   VARCHAR(36)  NOT NULL,
+        customer_id VARCHAR(64)  NOT NULL,
+        action_type VARCHAR(32)  NOT NULL,
+        message     TEXT,
+        channel     VARCHAR(32),
+        sent_at     TIMESTAMP    NOT NULL,
+        created_at  TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+        PRIMARY KEY (action_id, sent_at)
+    ) PARTITION BY RANGE (sent_at);
+    CREATE TABLE actions_default PARTITION OF actions DEFAULT;
+    PERFORM pg_temp.create_monthly_partitions('actions', 'actions_legacy', 'sent_at');
+
+    INSERT INTO actions (action_id, customer_id, action_type, message, channel, sent_at, created_at)
+        SELECT action_id, customer_id, action_type, message, channel, sent_at, created_at FROM actions_legacy;
+    DROP TABLE actions_legacy;
+
+    CREATE INDEX idx_actions_customer ON actions (customer_id);
+    CREATE INDEX idx_actions_sent_at ON actions (sent_at DESC);
+END $$;
+
+CREATE TABLE IF NOT EXISTS action_ids (
+    action_id   VARCHAR(36)  PRIMARY KEY,
+    recorded_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_action_ids_recorded_at
+    ON action_ids (recorded_at);
+
+INSERT INTO action_ids (action_id, recorded_at)
+    SELECT action_id, MIN(sent_at) FROM actions GROUP BY action_id
+    ON CONFLICT DO NOTHING;
@@ -0,0 +1,62 @@
+package com.banking.journey.adapters.out.kafka;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banking.journey.adapters.codec.ActionWireCodec;
+import com.banking.journey.bootstrap.config.ApplicationConfig;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.Action;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Action value encoding on the publish path: KafkaActionPublisher's JSON
+ * {@code serializeAction} versus the binary {@link ActionWireCodec}.
+ * <p>
+ * Lives in the adapter's package to reach the package-private
+ * {@code serializeAction}. Run with {@code -prof gc} to compare allocation
+ * per action.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActionSerializationBenchmark {
+
+    private KafkaActionPublisher publisher;
+    private Action action;
+
+    @Setup
+    public void setUp() {
+        // Only serializeAction is exercised: no Kafka, Redis or JDBC needed
+        publisher = new KafkaActionPublisher(null, null, null, null,
+                new ApplicationConfig().objectMapper(), new JourneyProperties(), new SimpleMeterRegistry(), null, null, null, null);
+        action = Action.create("CUST-000123", Action.TYPE_PUSH_NOTIFICATION,
+                "Başvurunuz inceleniyor, 24 saat içinde sonuç alacaksınız.",
+                Action.CHANNEL_MOBILE_APP, "campaign-card-onboarding", null);
+    }
+
+    @Benchmark
+    public String serializeActionJson() {
+        return publisher.serializeAction(action);
+    }
+
+    @Benchmark
+    public byte[] encodeActionBinary() {
+        return ActionWireCodec.encode(action);
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.journey.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banking.journey.adapters.in.kafka.CustomerEventParser;
+import com.banking.journey.adapters.in.kafka.EventConsumer;
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.bootstrap.config.ApplicationConfig;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Record value → CustomerEvent: the original String + databind EventDto path
+ * versus the streaming byte[] parser used by the listeners.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per event.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventParsingBenchmark {
+
+    private static final String EVENT_JSON = "{"
+            + "\"event_id\":\"3f2b8c1e-7d4a-4b5e-9c6f-1a2b3c4d5e6f\","
+            + "\"customer_id\":\"CUST-000123\","
+            + "\"event_type\":\"DOCUMENT_UPLOAD\","
+            + "\"timestamp\":\"2024-01-15T10:30:00.123Z\","
+            + "\"metadata\":{\"segment\":\"VIP\",\"channel\":\"mobile_app\"}"
+            + "}";
+
+    private ObjectMapper objectMapper;
+    private CustomerEventParser streamingParser;
+    private byte[] eventBytes;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ApplicationConfig().objectMapper();
+        streamingParser = new CustomerEventParser(objectMapper, ProcessingMetrics.NOOP);
+        eventBytes = EVENT_JSON.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public CustomerEvent eventDtoFromString() throws Exception {
+        // Baseline: StringDeserializer + databind into EventDto
+        String json = new String(eventBytes, StandardCharsets.UTF_8);
+        return objectMapper.readValue(json, EventConsumer.EventDto.class).toDomain();
+    }
+
+    @Benchmark
+    public CustomerEvent streamingFromBytes() throws Exception {
+        return streamingParser.parse(eventBytes);
+    }
+}
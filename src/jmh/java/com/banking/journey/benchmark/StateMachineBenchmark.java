@@ -0,0 +1,96 @@
+package com.banking.journey.benchmark;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banking.journey.application.service.StateMachineEngine;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.Action;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.entity.Customer;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
+import com.banking.journey.domain.valueobject.Segment;
+import com.banking.journey.domain.valueobject.StateType;
+
+/**
+ * Domain decision path per event: next-step decision, the immutable state
+ * transition and action generation (message formatting + UUID).
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per event.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateMachineBenchmark {
+
+    private StateMachineEngine engine;
+    private CardApplicationState documentPending;
+    private CardApplicationState underReview;
+    private CardApplicationState approved;
+    private CustomerEvent documentUpload;
+    private CustomerEvent approval;
+    private Customer vipCustomer;
+    private Customer regularCustomer;
+
+    @Setup
+    public void setUp() {
+        JourneyProperties properties = new JourneyProperties();
+        CardApplicationState.configureRequiredDocumentCount(properties.getRequiredDocumentCount());
+        engine = new StateMachineEngine(properties);
+
+        Instant now = Instant.now();
+        Map<String, String> metadata = Map.of("segment", "VIP", "channel", "mobile_app");
+        documentPending = CardApplicationState.reconstruct("CUST-000123", StateType.DOCUMENT_PENDING, 1,
+                now, now, metadata);
+        underReview = CardApplicationState.reconstruct("CUST-000123", StateType.UNDER_REVIEW, 2,
+                now, now, metadata);
+        approved = CardApplicationState.reconstruct("CUST-000123", StateType.APPROVED, 2,
+                now, now, metadata);
+        documentUpload = new CustomerEvent("evt-1", "CUST-000123", EventType.DOCUMENT_UPLOAD, now, metadata);
+        approval = new CustomerEvent("evt-2", "CUST-000123", EventType.APPROVAL, now, metadata);
+        vipCustomer = new Customer("CUST-000123", Segment.VIP);
+        regularCustomer = new Customer("CUST-000123", Segment.REGULAR);
+    }
+
+    @Benchmark
+    public StateType determineNextStepDocumentUpload() {
+        return engine.determineNextStep(documentPending, documentUpload);
+    }
+
+    @Benchmark
+    public StateType determineNextStepApproval() {
+        return engine.determineNextStep(underReview, approval);
+    }
+
+    @Benchmark
+    public CardApplicationState transitionToUnderReview() {
+        return documentPending.transitionTo(StateType.UNDER_REVIEW, documentUpload);
+    }
+
+    @Benchmark
+    public Action generateActionApprovedVip() {
+        return engine.generateAction(approved, vipCustomer);
+    }
+
+    @Benchmark
+    public Action generateActionDocumentPending() {
+        return engine.generateAction(documentPending, regularCustomer);
+    }
+}
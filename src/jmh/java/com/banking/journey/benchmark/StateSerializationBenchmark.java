@@ -0,0 +1,85 @@
+package com.banking.journey.benchmark;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banking.journey.adapters.codec.StateWireCodec;
+import com.banking.journey.adapters.out.redis.RedisStateStore;
+import com.banking.journey.bootstrap.config.ApplicationConfig;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.StateType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * RedisStateStore value encoding: CardApplicationState ↔ StateDto ↔ JSON,
+ * as done on every state GET and SET, against the binary StateWireCodec.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per event.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CardApplicationState state;
+    private String stateJson;
+    private byte[] stateBinary;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ApplicationConfig().objectMapper();
+        Instant now = Instant.parse("2024-01-15T10:30:00.123Z");
+        state = CardApplicationState.reconstruct("CUST-000123", StateType.DOCUMENT_PENDING, 1,
+                now, now.plusSeconds(90), Map.of("segment", "VIP", "channel", "mobile_app"));
+        stateJson = objectMapper.writeValueAsString(RedisStateStore.StateDto.fromDomain(state));
+        stateBinary = StateWireCodec.encode(state, 0);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(RedisStateStore.StateDto.fromDomain(state));
+    }
+
+    @Benchmark
+    public CardApplicationState deserialize() throws Exception {
+        return objectMapper.readValue(stateJson, RedisStateStore.StateDto.class).toDomain();
+    }
+
+    @Benchmark
+    public CardApplicationState roundTrip() throws Exception {
+        String json = objectMapper.writeValueAsString(RedisStateStore.StateDto.fromDomain(state));
+        return objectMapper.readValue(json, RedisStateStore.StateDto.class).toDomain();
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return StateWireCodec.encode(state, 0);
+    }
+
+    @Benchmark
+    public CardApplicationState binaryDeserialize() {
+        return StateWireCodec.decode("CUST-000123", stateBinary);
+    }
+
+    @Benchmark
+    public CardApplicationState binaryRoundTrip() {
+        return StateWireCodec.decode("CUST-000123", StateWireCodec.encode(state, 0));
+    }
+}
@@ -0,0 +1,329 @@
+package com.banking.journey.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.banking.journey.adapters.in.kafka.CustomerEventParser;
+import com.banking.journey.adapters.out.memory.InMemoryActionPublisher;
+import com.banking.journey.adapters.out.memory.InMemoryEventStore;
+import com.banking.journey.adapters.out.memory.InMemoryStateStore;
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.application.service.CardApplicationOrchestrator;
+import com.banking.journey.application.service.StateMachineEngine;
+import com.banking.journey.bootstrap.config.ApplicationConfig;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
+
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Infra-free end-to-end throughput harness for {@link CardApplicationOrchestrator}.
+ * <p>
+ * Drives synthetic card journeys (CARD_APPLY → 2 × DOCUMENT_UPLOAD →
+ * APPROVAL, 20% REJECTION) through the orchestrator wired to the in-memory
+ * EventStore, StateStore and ActionPublisher, across many threads, and
+ * reports throughput (total and per core) and HdrHistogram latency
+ * percentiles of {@code process()}.
+ * </p>
+ * <ul>
+ * <li>{@code --mode=memory} (default): events are generated in-process;
+ * each thread owns a disjoint set of customers and advances them one step
+ * at a time, a batch of customers at a time.</li>
+ * <li>{@code --mode=embedded-kafka}: events are first produced as JSON to
+ * an embedded KRaft broker ({@code spring-kafka-test}), then consumed by
+ * {@code --threads} consumers in one group and parsed with the production
+ * {@link CustomerEventParser}; latency covers parse + process.</li>
+ * </ul>
+ * <p>
+ * Run: {@code mvn -Pjmh compile exec:exec@harness -Dharness.args="--journeys=2000000 --threads=8"}
+ * </p>
+ */
+public final class ThroughputHarness {
+
+    private static final String TOPIC = "customer-events";
+    private static final int STEPS_PER_JOURNEY = 4;
+    private static final int CUSTOMER_BATCH = 1024;
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Options options;
+    private final CardApplicationOrchestrator orchestrator;
+    private final InMemoryEventStore eventStore;
+    private final InMemoryStateStore stateStore;
+    private final InMemoryActionPublisher actionPublisher;
+
+    private ThroughputHarness(Options options) {
+        this.options = options;
+        JourneyProperties properties = new JourneyProperties();
+        CardApplicationState.configureRequiredDocumentCount(properties.getRequiredDocumentCount());
+        this.eventStore = new InMemoryEventStore(0);
+        this.stateStore = new InMemoryStateStore(options.journeys + options.warmupJourneys);
+        this.actionPublisher = new InMemoryActionPublisher(100_000);
+        this.orchestrator = new CardApplicationOrchestrator(eventStore, stateStore,
+                new StateMachineEngine(properties), actionPublisher, ProcessingMetrics.NOOP);
+    }
+
+    public static void main(String[] args) throws Exception {
+        quietLogging();
+        Options options = Options.parse(args);
+        ThroughputHarness harness = new ThroughputHarness(options);
+
+        System.out.printf("mode=%s threads=%d journeys=%d warmupJourneys=%d cores=%d%n",
+                options.mode, options.threads, options.journeys, options.warmupJourneys,
+                Runtime.getRuntime().availableProcessors());
+
+        harness.runInMemory("WARM-", options.warmupJourneys);
+        Result result = "embedded-kafka".equals(options.mode)
+                ? harness.runEmbeddedKafka()
+                : harness.runInMemory("CUST-", options.journeys);
+        harness.report(result);
+    }
+
+    // ─────────────────── In-memory mode ───────────────────
+
+    private Result runInMemory(String customerPrefix, int journeys) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(options.threads);
+        List<Future<Histogram>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < options.threads; t++) {
+            int thread = t;
+            workers.add(pool.submit(() -> driveJourneys(customerPrefix, journeys, thread)));
+        }
+        Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        for (Future<Histogram> worker : workers) {
+            latency.add(worker.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        return new Result((long) journeys * STEPS_PER_JOURNEY, elapsed, latency);
+    }
+
+    /**
+     * Customers {@code thread, thread + threads, ...}: every step of a batch of
+     * customers before the next step, so state reads do not always hit the
+     * entry written just before.
+     */
+    private Histogram driveJourneys(String customerPrefix, int journeys, int thread) {
+        Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        List<Integer> batch = new ArrayList<>(CUSTOMER_BATCH);
+        for (int journey = thread; journey < journeys; journey += options.threads) {
+            batch.add(journey);
+            if (batch.size() == CUSTOMER_BATCH || journey + options.threads >= journeys) {
+                for (int step = 0; step < STEPS_PER_JOURNEY; step++) {
+                    for (int customer : batch) {
+                        CustomerEvent event = syntheticEvent(customerPrefix + customer, customer, step);
+                        long start = System.nanoTime();
+                        orchestrator.process(event);
+                        latency.recordValue(Math.min(System.nanoTime() - start, HIGHEST_TRACKABLE_NANOS));
+                    }
+                }
+                batch.clear();
+            }
+        }
+        return latency;
+    }
+
+    // ─────────────────── Embedded Kafka mode ───────────────────
+
+    private Result runEmbeddedKafka() throws Exception {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, options.partitions, TOPIC);
+        broker.afterPropertiesSet();
+        try {
+            long events = (long) options.journeys * STEPS_PER_JOURNEY;
+            produceJourneys(broker.getBrokersAsString());
+            System.out.printf("produced=%d partitions=%d%n", events, options.partitions);
+
+            CustomerEventParser parser = new CustomerEventParser(
+                    new ApplicationConfig().objectMapper(), ProcessingMetrics.NOOP);
+            AtomicLong processed = new AtomicLong();
+            ExecutorService pool = Executors.newFixedThreadPool(options.threads);
+            List<Future<Histogram>> consumers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < options.threads; t++) {
+                consumers.add(pool.submit(() -> consume(broker.getBrokersAsString(), parser, processed, events)));
+            }
+            Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+            for (Future<Histogram> consumer : consumers) {
+                latency.add(consumer.get());
+            }
+            long elapsed = System.nanoTime() - start;
+            pool.shutdown();
+            return new Result(processed.get(), elapsed, latency);
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private void produceJourneys(String bootstrapServers) throws Exception {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(props)) {
+            for (int from = 0; from < options.journeys; from += CUSTOMER_BATCH) {
+                int to = Math.min(from + CUSTOMER_BATCH, options.journeys);
+                for (int step = 0; step < STEPS_PER_JOURNEY; step++) {
+                    for (int customer = from; customer < to; customer++) {
+                        String customerId = "CUST-" + customer;
+                        producer.send(new ProducerRecord<>(TOPIC, customerId,
+                                toJson(syntheticEvent(customerId, customer, step))));
+                    }
+                }
+            }
+            producer.flush();
+        }
+    }
+
+    private Histogram consume(String bootstrapServers, CustomerEventParser parser,
+            AtomicLong processed, long expected) throws Exception {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "journey-harness");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2000);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(options.timeoutMinutes);
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(TOPIC));
+            while (processed.get() < expected && System.nanoTime() < deadline) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(200));
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    long start = System.nanoTime();
+                    orchestrator.process(parser.parse(record));
+                    latency.recordValue(Math.min(System.nanoTime() - start, HIGHEST_TRACKABLE_NANOS));
+                }
+                processed.addAndGet(records.count());
+                consumer.commitAsync();
+            }
+        }
+        return latency;
+    }
+
+    // ─────────────────── Synthetic journeys ───────────────────
+
+    private static CustomerEvent syntheticEvent(String customerId, int customer, int step) {
+        EventType type = switch (step) {
+            case 0 -> EventType.CARD_APPLY;
+            case 1, 2 -> EventType.DOCUMENT_UPLOAD;
+            default -> customer % 5 == 0 ? EventType.REJECTION : EventType.APPROVAL;
+        };
+        Map<String, String> metadata = step == 0
+                ? Map.of("segment", customer % 10 == 0 ? "VIP" : "REGULAR", "channel", "mobile_app")
+                : Map.of("channel", "mobile_app");
+        return new CustomerEvent(UUID.randomUUID().toString(), customerId, type, Instant.now(), metadata);
+    }
+
+    private static byte[] toJson(CustomerEvent event) {
+        StringBuilder json = new StringBuilder(192)
+                .append("{\"event_id\":\"").append(event.getEventId())
+                .append("\",\"customer_id\":\"").append(event.getCustomerId())
+                .append("\",\"event_type\":\"").append(event.getEventType().name())
+                .append("\",\"timestamp\":\"").append(event.getTimestamp())
+                .append("\",\"metadata\":{");
+        String separator = "";
+        for (Map.Entry<String, String> entry : event.getMetadata().entrySet()) {
+            json.append(separator).append('"').append(entry.getKey()).append("\":\"")
+                    .append(entry.getValue()).append('"');
+            separator = ",";
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ─────────────────── Reporting ───────────────────
+
+    private void report(Result result) {
+        double seconds = result.elapsedNanos() / 1e9;
+        double throughput = result.events() / seconds;
+        int busyCores = Math.min(options.threads, Runtime.getRuntime().availableProcessors());
+        Histogram latency = result.latency();
+
+        System.out.printf("events=%d elapsed=%.2fs throughput=%.0f events/s perCore=%.0f events/s%n",
+                result.events(), seconds, throughput, throughput / busyCores);
+        System.out.printf("latency_us p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f p99.99=%.1f max=%.1f%n",
+                micros(latency.getValueAtPercentile(50)), micros(latency.getValueAtPercentile(90)),
+                micros(latency.getValueAtPercentile(99)), micros(latency.getValueAtPercentile(99.9)),
+                micros(latency.getValueAtPercentile(99.99)), micros(latency.getMaxValue()));
+        System.out.printf("totals incl. warmup: states=%d auditedEvents=%d publishedActions=%d duplicateActions=%d%n",
+                stateStore.size(), eventStore.countAll(), actionPublisher.countAll(),
+                actionPublisher.duplicateCount());
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+
+    /**
+     * The orchestrator logs every event at INFO (java.util.logging) and the
+     * Kafka clients log through logback; both would dominate the measurement.
+     */
+    private static void quietLogging() {
+        java.util.logging.Logger.getLogger("").setLevel(Level.WARNING);
+        java.util.logging.Logger.getLogger(CardApplicationOrchestrator.class.getName()).setLevel(Level.WARNING);
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+    }
+
+    private record Result(long events, long elapsedNanos, Histogram latency) {
+    }
+
+    private record Options(String mode, int journeys, int warmupJourneys, int threads, int partitions,
+            long timeoutMinutes) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+                }
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            String mode = values.getOrDefault("mode", "memory");
+            if (!mode.equals("memory") && !mode.equals("embedded-kafka")) {
+                throw new IllegalArgumentException("--mode must be memory or embedded-kafka");
+            }
+            int defaultJourneys = mode.equals("memory") ? 1_000_000 : 100_000;
+            int cores = Runtime.getRuntime().availableProcessors();
+            return new Options(mode,
+                    Integer.parseInt(values.getOrDefault("journeys", String.valueOf(defaultJourneys))),
+                    Integer.parseInt(values.getOrDefault("warmup", "100000")),
+                    Integer.parseInt(values.getOrDefault("threads", String.valueOf(cores))),
+                    Integer.parseInt(values.getOrDefault("partitions", "10")),
+                    Long.parseLong(values.getOrDefault("timeout-minutes", "10")));
+        }
+    }
+}
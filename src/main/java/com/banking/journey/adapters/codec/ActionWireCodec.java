@@ -0,0 +1,102 @@
+package com.banking.journey.adapters.codec;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.banking.journey.domain.entity.Action;
+
+/**
+ * Binary codec for {@link Action} ('actions' topic).
+ *
+ * <pre>
+ * Schema v1 (record kind 2):
+ *   1  action_id           string
+ *   2  customer_id         string
+ *   3  action_type         string
+ *   4  message             string
+ *   5  channel             string
+ *   6  campaign_id         string   (optional)
+ *   7  created_at_seconds  zigzag varint, epoch seconds
+ *   8  created_at_nanos    varint   (omitted when 0)
+ *   9  metadata            repeated entry { 1 key string, 2 value string }
+ * </pre>
+ */
+public final class ActionWireCodec {
+
+    static final int FIELD_ACTION_ID = 1;
+    static final int FIELD_CUSTOMER_ID = 2;
+    static final int FIELD_ACTION_TYPE = 3;
+    static final int FIELD_MESSAGE = 4;
+    static final int FIELD_CHANNEL = 5;
+    static final int FIELD_CAMPAIGN_ID = 6;
+    static final int FIELD_CREATED_AT_SECONDS = 7;
+    static final int FIELD_CREATED_AT_NANOS = 8;
+    static final int FIELD_METADATA = 9;
+
+    private ActionWireCodec() {
+    }
+
+    public static byte[] encode(Action action) {
+        WireWriter writer = new WireWriter(256);
+        writer.header(WireFormat.KIND_ACTION);
+        writer.writeString(FIELD_ACTION_ID, action.getActionId());
+        writer.writeString(FIELD_CUSTOMER_ID, action.getCustomerId());
+        writer.writeString(FIELD_ACTION_TYPE, action.getActionType());
+        writer.writeString(FIELD_MESSAGE, action.getMessage());
+        writer.writeString(FIELD_CHANNEL, action.getChannel());
+        writer.writeString(FIELD_CAMPAIGN_ID, action.getCampaignId());
+        writer.writeSignedField(FIELD_CREATED_AT_SECONDS, action.getCreatedAt().getEpochSecond());
+        if (action.getCreatedAt().getNano() != 0) {
+            writer.writeVarintField(FIELD_CREATED_AT_NANOS, action.getCreatedAt().getNano());
+        }
+        writer.writeStringMap(FIELD_METADATA, action.getMetadata());
+        return writer.toByteArray();
+    }
+
+    /**
+     * @throws WireFormatException      if the payload is malformed
+     * @throws IllegalArgumentException if the decoded action violates invariants
+     */
+    public static Action decode(byte[] payload) {
+        WireReader reader = WireReader.open(payload, WireFormat.KIND_ACTION);
+
+        String actionId = null;
+        String customerId = null;
+        String actionType = null;
+        String message = null;
+        String channel = null;
+        String campaignId = null;
+        Long seconds = null;
+        long nanos = 0;
+        Map<String, String> metadata = null;
+
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (WireReader.fieldOf(tag)) {
+                case FIELD_ACTION_ID -> actionId = reader.readString(tag);
+                case FIELD_CUSTOMER_ID -> customerId = reader.readString(tag);
+                case FIELD_ACTION_TYPE -> actionType = reader.readString(tag);
+                case FIELD_MESSAGE -> message = reader.readString(tag);
+                case FIELD_CHANNEL -> channel = reader.readString(tag);
+                case FIELD_CAMPAIGN_ID -> campaignId = reader.readString(tag);
+                case FIELD_CREATED_AT_SECONDS -> seconds = reader.readSigned(tag);
+                case FIELD_CREATED_AT_NANOS -> nanos = reader.readVarint(tag);
+                case FIELD_METADATA -> {
+                    if (metadata == null) {
+                        metadata = new HashMap<>(8);
+                    }
+                    CustomerEventWireCodec.readEntry(reader.readNested(tag), metadata);
+                }
+                default -> reader.skip(tag);
+            }
+        }
+
+        // Required: Action would otherwise default a missing time to now
+        if (seconds == null) {
+            throw new IllegalArgumentException("createdAt cannot be null");
+        }
+        return new Action(actionId, customerId, actionType, message, channel, campaignId,
+                Instant.ofEpochSecond(seconds, nanos), metadata);
+    }
+}
@@ -0,0 +1,130 @@
+package com.banking.journey.adapters.codec;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
+
+/**
+ * Binary codec for {@link CustomerEvent} ('customer-events' topic).
+ *
+ * <pre>
+ * Schema v1 (record kind 1):
+ *   1  event_id           string
+ *   2  customer_id        string
+ *   3  event_type         varint   (stable code, see below)
+ *   4  timestamp_seconds  zigzag varint, epoch seconds
+ *   5  timestamp_nanos    varint   (omitted when 0)
+ *   6  metadata           repeated entry { 1 key string, 2 value string }
+ *
+ * event_type codes: 1 CARD_APPLY, 2 DOCUMENT_UPLOAD, 3 APPROVAL, 4 REJECTION
+ * </pre>
+ *
+ * Codes are explicit rather than enum ordinals so reordering EventType can
+ * never change the meaning of records already on the topic.
+ */
+public final class CustomerEventWireCodec {
+
+    static final int FIELD_EVENT_ID = 1;
+    static final int FIELD_CUSTOMER_ID = 2;
+    static final int FIELD_EVENT_TYPE = 3;
+    static final int FIELD_TIMESTAMP_SECONDS = 4;
+    static final int FIELD_TIMESTAMP_NANOS = 5;
+    static final int FIELD_METADATA = 6;
+
+    private CustomerEventWireCodec() {
+    }
+
+    public static byte[] encode(CustomerEvent event) {
+        WireWriter writer = new WireWriter(128);
+        writer.header(WireFormat.KIND_CUSTOMER_EVENT);
+        writer.writeString(FIELD_EVENT_ID, event.getEventId());
+        writer.writeString(FIELD_CUSTOMER_ID, event.getCustomerId());
+        writer.writeVarintField(FIELD_EVENT_TYPE, eventTypeCode(event.getEventType()));
+        writer.writeSignedField(FIELD_TIMESTAMP_SECONDS, event.getTimestamp().getEpochSecond());
+        if (event.getTimestamp().getNano() != 0) {
+            writer.writeVarintField(FIELD_TIMESTAMP_NANOS, event.getTimestamp().getNano());
+        }
+        writer.writeStringMap(FIELD_METADATA, event.getMetadata());
+        return writer.toByteArray();
+    }
+
+    /**
+     * @throws WireFormatException      if the payload is malformed
+     * @throws IllegalArgumentException if the decoded event violates invariants
+     */
+    public static CustomerEvent decode(byte[] payload) {
+        WireReader reader = WireReader.open(payload, WireFormat.KIND_CUSTOMER_EVENT);
+
+        String eventId = null;
+        String customerId = null;
+        EventType eventType = null;
+        Long seconds = null;
+        long nanos = 0;
+        Map<String, String> metadata = null;
+
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (WireReader.fieldOf(tag)) {
+                case FIELD_EVENT_ID -> eventId = reader.readString(tag);
+                case FIELD_CUSTOMER_ID -> customerId = reader.readString(tag);
+                case FIELD_EVENT_TYPE -> eventType = eventTypeOf(reader.readVarint(tag));
+                case FIELD_TIMESTAMP_SECONDS -> seconds = reader.readSigned(tag);
+                case FIELD_TIMESTAMP_NANOS -> nanos = reader.readVarint(tag);
+                case FIELD_METADATA -> {
+                    if (metadata == null) {
+                        metadata = new HashMap<>(8);
+                    }
+                    readEntry(reader.readNested(tag), metadata);
+                }
+                default -> reader.skip(tag);
+            }
+        }
+
+        if (eventType == null) {
+            throw new IllegalArgumentException("eventType cannot be null");
+        }
+        if (seconds == null) {
+            throw new IllegalArgumentException("timestamp cannot be null");
+        }
+        return new CustomerEvent(eventId, customerId, eventType, Instant.ofEpochSecond(seconds, nanos), metadata);
+    }
+
+    static void readEntry(WireReader entry, Map<String, String> target) {
+        String key = null;
+        String value = null;
+        int tag;
+        while ((tag = entry.readTag()) != 0) {
+            switch (WireReader.fieldOf(tag)) {
+                case 1 -> key = entry.readString(tag);
+                case 2 -> value = entry.readString(tag);
+                default -> entry.skip(tag);
+            }
+        }
+        if (key == null) {
+            throw new WireFormatException("Map entry without key");
+        }
+        target.put(key, value);
+    }
+
+    static int eventTypeCode(EventType eventType) {
+        return switch (eventType) {
+            case CARD_APPLY -> 1;
+            case DOCUMENT_UPLOAD -> 2;
+            case APPROVAL -> 3;
+            case REJECTION -> 4;
+        };
+    }
+
+    static EventType eventTypeOf(long code) {
+        return switch ((int) code) {
+            case 1 -> EventType.CARD_APPLY;
+            case 2 -> EventType.DOCUMENT_UPLOAD;
+            case 3 -> EventType.APPROVAL;
+            case 4 -> EventType.REJECTION;
+            default -> throw new IllegalArgumentException("Unknown event_type code: " + code);
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package com.banking.journey.adapters.codec;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.StateType;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Binary codec for {@link CardApplicationState} values in Redis.
+ * <p>
+ * The customer id is not stored: it is already part of the Redis key.
+ * Instants are stored at millisecond precision.
+ * </p>
+ *
+ * <pre>
+ * Schema v1 (record kind 3):
+ *   head (untagged varints, fixed order; read and rewritten by the Lua scripts)
+ *     flags              bit 0: tail is LZ4-compressed
+ *     version            state version
+ *     current_step       StateType ordinal
+ *     document_count
+ *     updated_at_millis  zigzag, epoch millis
+ *   tail (tagged fields; when compressed: varint raw length + LZ4 block)
+ *     1  started_at_millis  zigzag varint, epoch millis
+ *     2  metadata           repeated entry { 1 key code varint | 3 key string, 2 value string }
+ * </pre>
+ *
+ * Metadata keys in {@link #METADATA_KEYS} are written as their 1-based
+ * position in that list; the list and the StateType constants are
+ * append-only.
+ */
+public final class StateWireCodec {
+
+    static final int FLAG_LZ4 = 1;
+
+    static final int FIELD_STARTED_AT_MILLIS = 1;
+    static final int FIELD_METADATA = 2;
+
+    static final int ENTRY_KEY_CODE = 1;
+    static final int ENTRY_VALUE = 2;
+    static final int ENTRY_KEY = 3;
+
+    /** Dictionary of common metadata keys. Append only: the position is the stored code. */
+    static final List<String> METADATA_KEYS = List.of(
+            "segment", "channel", "source", "campaign_id", "device", "locale", "product", "referrer");
+
+    private static final Map<String, Integer> KEY_CODES = new HashMap<>();
+    private static final StateType[] STEPS = StateType.values();
+
+    static {
+        for (int i = 0; i < METADATA_KEYS.size(); i++) {
+            KEY_CODES.put(METADATA_KEYS.get(i), i + 1);
+        }
+    }
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private StateWireCodec() {
+    }
+
+    /**
+     * @return true if the stored value was written by this codec (as opposed
+     *         to the JSON StateDto format)
+     */
+    public static boolean isBinary(byte[] value) {
+        return value != null && value.length >= 3
+                && value[0] == WireFormat.MAGIC && value[2] == WireFormat.KIND_JOURNEY_STATE;
+    }
+
+    /**
+     * @param compressionThreshold LZ4-compress tails of at least this many
+     *                             bytes when that makes them smaller; 0 never
+     *                             compresses
+     */
+    public static byte[] encode(CardApplicationState state, int compressionThreshold) {
+        WireWriter tail = new WireWriter(64);
+        tail.writeSignedField(FIELD_STARTED_AT_MILLIS, state.getStartedAt().toEpochMilli());
+        tail.writeCodedStringMap(FIELD_METADATA, state.getMetadata(), KEY_CODES);
+        byte[] tailBytes = tail.toByteArray();
+
+        byte[] compressed = null;
+        if (compressionThreshold > 0 && tailBytes.length >= compressionThreshold) {
+            LZ4Compressor compressor = LZ4.fastCompressor();
+            byte[] block = compressor.compress(tailBytes);
+            if (block.length + 5 < tailBytes.length) {
+                compressed = block;
+            }
+        }
+
+        WireWriter writer = new WireWriter(32 + tailBytes.length);
+        writer.header(WireFormat.KIND_JOURNEY_STATE);
+        writer.writeRawVarint(compressed != null ? FLAG_LZ4 : 0);
+        writer.writeRawVarint(state.getVersion());
+        writer.writeRawVarint(state.getCurrentStep().ordinal());
+        writer.writeRawVarint(state.getDocumentCount());
+        writer.writeRawVarint(zigzag(state.getUpdatedAt().toEpochMilli()));
+        if (compressed != null) {
+            writer.writeRawVarint(tailBytes.length);
+            writer.writeRaw(compressed, 0, compressed.length);
+        } else {
+            writer.writeRaw(tailBytes, 0, tailBytes.length);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * @param customerId customer the value was stored under
+     * @throws WireFormatException      if the payload is malformed
+     * @throws IllegalArgumentException if the decoded state violates invariants
+     */
+    public static CardApplicationState decode(String customerId, byte[] payload) {
+        if (payload == null) {
+            throw new WireFormatException("Not a binary journey payload");
+        }
+        return decode(customerId, payload, 0, payload.length);
+    }
+
+    /**
+     * Decodes the payload at {@code buffer[offset, offset + length)}, e.g. a
+     * reused read buffer.
+     *
+     * @throws WireFormatException      if the payload is malformed
+     * @throws IllegalArgumentException if the decoded state violates invariants
+     */
+    public static CardApplicationState decode(String customerId, byte[] buffer, int offset, int length) {
+        int limit = offset + length;
+        WireReader reader = WireReader.open(buffer, offset, length, WireFormat.KIND_JOURNEY_STATE);
+
+        long flags = reader.readVarint();
+        long version = reader.readVarint();
+        int stepOrdinal = (int) reader.readVarint();
+        int documentCount = (int) reader.readVarint();
+        long updatedAtMillis = unzigzag(reader.readVarint());
+        if (stepOrdinal < 0 || stepOrdinal >= STEPS.length) {
+            throw new WireFormatException("Unknown state step ordinal: " + stepOrdinal);
+        }
+
+        WireReader tail = (flags & FLAG_LZ4) != 0
+                ? decompress(reader, buffer, limit)
+                : WireReader.wrap(buffer, reader.position(), limit);
+
+        Long startedAtMillis = null;
+        Map<String, String> metadata = null;
+        int tag;
+        while ((tag = tail.readTag()) != 0) {
+            switch (WireReader.fieldOf(tag)) {
+                case FIELD_STARTED_AT_MILLIS -> startedAtMillis = tail.readSigned(tag);
+                case FIELD_METADATA -> {
+                    if (metadata == null) {
+                        metadata = new HashMap<>(8);
+                    }
+                    readEntry(tail.readNested(tag), metadata);
+                }
+                default -> tail.skip(tag);
+            }
+        }
+
+        return CardApplicationState.reconstruct(
+                customerId,
+                STEPS[stepOrdinal],
+                documentCount,
+                startedAtMillis != null ? Instant.ofEpochMilli(startedAtMillis) : null,
+                Instant.ofEpochMilli(updatedAtMillis),
+                metadata,
+                version);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private static WireReader decompress(WireReader reader, byte[] payload, int limit) {
+        long rawLength = reader.readVarint();
+        if (rawLength < 0 || rawLength > (1 << 20)) {
+            throw new WireFormatException("Invalid decompressed state length: " + rawLength);
+        }
+        byte[] raw = new byte[(int) rawLength];
+        try {
+            LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+            int read = decompressor.decompress(payload, reader.position(), raw, 0, raw.length);
+            if (reader.position() + read != limit) {
+                throw new WireFormatException("Trailing bytes after compressed state");
+            }
+        } catch (LZ4Exception e) {
+            throw new WireFormatException("Corrupt compressed state: " + e.getMessage());
+        }
+        return WireReader.wrap(raw, 0, raw.length);
+    }
+
+    private static void readEntry(WireReader entry, Map<String, String> metadata) {
+        String key = null;
+        String value = null;
+        int tag;
+        while ((tag = entry.readTag()) != 0) {
+            switch (WireReader.fieldOf(tag)) {
+                case ENTRY_KEY_CODE -> {
+                    long code = entry.readVarint(tag);
+                    if (code < 1 || code > METADATA_KEYS.size()) {
+                        throw new WireFormatException("Unknown metadata key code: " + code);
+                    }
+                    key = METADATA_KEYS.get((int) code - 1);
+                }
+                case ENTRY_KEY -> key = entry.readString(tag);
+                case ENTRY_VALUE -> value = entry.readString(tag);
+                default -> entry.skip(tag);
+            }
+        }
+        if (key == null) {
+            throw new WireFormatException("Metadata entry without key");
+        }
+        metadata.put(key, value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long raw) {
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+}
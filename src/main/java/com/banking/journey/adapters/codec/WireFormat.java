@@ -0,0 +1,63 @@
+package com.banking.journey.adapters.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * Wire formats for the 'customer-events' and 'actions' topics, and for
+ * journey states in Redis ({@link StateWireCodec}).
+ * <p>
+ * The format of each record is selected by its {@code content-type} header.
+ * Records without the header are JSON, so existing producers and consumers
+ * keep working unchanged.
+ * </p>
+ *
+ * <pre>
+ * Binary envelope: [magic 'J'] [codec version] [record kind] [fields...]
+ * Field:           varint tag (field &lt;&lt; 3 | wire type) + value
+ * Wire types:      0 = varint, 2 = length-delimited (UTF-8 string / nested entry)
+ * </pre>
+ *
+ * Decoders skip unknown field numbers, so fields can be added without a
+ * version bump; the version byte only changes for breaking layout changes.
+ */
+public final class WireFormat {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String JSON = "application/json";
+    public static final String BINARY = "application/vnd.journey+binary";
+
+    static final byte MAGIC = 'J';
+    static final byte VERSION_1 = 1;
+    static final byte CURRENT_VERSION = VERSION_1;
+
+    static final byte KIND_CUSTOMER_EVENT = 1;
+    static final byte KIND_ACTION = 2;
+    static final byte KIND_JOURNEY_STATE = 3;
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private static final byte[] BINARY_BYTES = BINARY.getBytes(StandardCharsets.UTF_8);
+
+    private WireFormat() {
+    }
+
+    /**
+     * @return true if the record headers declare the binary wire format
+     */
+    public static boolean isBinary(Headers headers) {
+        if (headers == null) {
+            return false;
+        }
+        Header header = headers.lastHeader(CONTENT_TYPE_HEADER);
+        return header != null && Arrays.equals(BINARY_BYTES, header.value());
+    }
+
+    public static byte[] contentTypeValue(String contentType) {
+        return BINARY.equals(contentType) ? BINARY_BYTES : contentType.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,14 @@
+package com.banking.journey.adapters.codec;
+
+/**
+ * Thrown when a binary wire payload is truncated, malformed or written by an
+ * unsupported codec version. Treated like a JSON parse error (DLQ + skip).
+ */
+public class WireFormatException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WireFormatException(String message) {
+        super(message);
+    }
+}
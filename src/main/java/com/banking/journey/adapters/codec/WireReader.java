@@ -0,0 +1,170 @@
+package com.banking.journey.adapters.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor-based decoder for the binary wire format. Not thread-safe.
+ * <p>
+ * The field readers take the field's tag and reject a wire type that does
+ * not match the read, so a known field number written with another type
+ * fails with {@link WireFormatException} instead of decoding garbage.
+ * </p>
+ */
+final class WireReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    private WireReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Opens a payload after validating its envelope.
+     *
+     * @throws WireFormatException if the magic, version or kind is wrong
+     */
+    static WireReader open(byte[] payload, byte expectedKind) {
+        if (payload == null) {
+            throw new WireFormatException("Not a binary journey payload");
+        }
+        return open(payload, 0, payload.length, expectedKind);
+    }
+
+    /**
+     * Opens the payload at {@code buffer[offset, offset + length)}.
+     *
+     * @throws WireFormatException if the magic, version or kind is wrong
+     */
+    static WireReader open(byte[] buffer, int offset, int length, byte expectedKind) {
+        if (length < 3 || buffer[offset] != WireFormat.MAGIC) {
+            throw new WireFormatException("Not a binary journey payload");
+        }
+        byte version = buffer[offset + 1];
+        if (version < WireFormat.VERSION_1 || version > WireFormat.CURRENT_VERSION) {
+            throw new WireFormatException("Unsupported codec version: " + version);
+        }
+        if (buffer[offset + 2] != expectedKind) {
+            throw new WireFormatException(
+                    "Unexpected record kind: " + buffer[offset + 2] + ", expected " + expectedKind);
+        }
+        return new WireReader(buffer, offset + 3, offset + length);
+    }
+
+    /**
+     * Reads a section of a payload whose envelope was already validated,
+     * e.g. a decompressed block.
+     */
+    static WireReader wrap(byte[] buffer, int offset, int limit) {
+        return new WireReader(buffer, offset, limit);
+    }
+
+    int position() {
+        return position;
+    }
+
+    /**
+     * @return next field tag, or 0 at the end of the payload
+     */
+    int readTag() {
+        if (position >= limit) {
+            return 0;
+        }
+        long tag = readVarint();
+        if (tag <= 0 || tag > Integer.MAX_VALUE) {
+            throw new WireFormatException("Invalid field tag: " + tag);
+        }
+        return (int) tag;
+    }
+
+    static int fieldOf(int tag) {
+        return tag >>> 3;
+    }
+
+    /** Reads a varint field. */
+    long readVarint(int tag) {
+        expect(tag, WireFormat.WIRE_VARINT);
+        return readVarint();
+    }
+
+    /** Reads an untagged varint (the fixed head of a state payload). */
+    long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new WireFormatException("Malformed varint");
+    }
+
+    /** Reads a zigzag-encoded varint field. */
+    long readSigned(int tag) {
+        expect(tag, WireFormat.WIRE_VARINT);
+        long raw = readVarint();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    String readString(int tag) {
+        expect(tag, WireFormat.WIRE_LENGTH_DELIMITED);
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * @return a reader over the next length-delimited field (nested entry)
+     */
+    WireReader readNested(int tag) {
+        expect(tag, WireFormat.WIRE_LENGTH_DELIMITED);
+        int length = readLength();
+        WireReader nested = new WireReader(buffer, position, position + length);
+        position += length;
+        return nested;
+    }
+
+    /**
+     * Skips the value of a field this decoder does not know.
+     */
+    void skip(int tag) {
+        switch (tag & 0x7) {
+            case WireFormat.WIRE_VARINT -> readVarint();
+            case WireFormat.WIRE_LENGTH_DELIMITED -> {
+                // Not 'position += readLength()': that adds to the position before the length varint
+                int length = readLength();
+                position += length;
+            }
+            default -> throw new WireFormatException("Unsupported wire type: " + (tag & 0x7));
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private static void expect(int tag, int wireType) {
+        if ((tag & 0x7) != wireType) {
+            throw new WireFormatException("Field " + fieldOf(tag) + " has wire type " + (tag & 0x7)
+                    + ", expected " + wireType);
+        }
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new WireFormatException("Truncated payload: field length " + length);
+        }
+        return (int) length;
+    }
+
+    private byte readByte() {
+        if (position >= limit) {
+            throw new WireFormatException("Truncated payload");
+        }
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,152 @@
+package com.banking.journey.adapters.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Append-only encoder for the binary wire format. Not thread-safe.
+ */
+final class WireWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    WireWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void header(byte kind) {
+        ensureCapacity(3);
+        buffer[position++] = WireFormat.MAGIC;
+        buffer[position++] = WireFormat.CURRENT_VERSION;
+        buffer[position++] = kind;
+    }
+
+    void writeString(int field, String value) {
+        if (value == null) {
+            return;
+        }
+        writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writeVarintField(int field, long value) {
+        writeVarint(tag(field, WireFormat.WIRE_VARINT));
+        writeVarint(value);
+    }
+
+    void writeSignedField(int field, long value) {
+        writeVarintField(field, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes each map entry as a repeated length-delimited field holding
+     * key (field 1) and value (field 2).
+     */
+    void writeStringMap(int field, Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = entry.getValue() != null ? entry.getValue().getBytes(StandardCharsets.UTF_8) : null;
+            int entryLength = 1 + varintSize(key.length) + key.length
+                    + (value != null ? 1 + varintSize(value.length) + value.length : 0);
+
+            writeVarint(tag(field, WireFormat.WIRE_LENGTH_DELIMITED));
+            writeVarint(entryLength);
+            writeBytes(1, key);
+            if (value != null) {
+                writeBytes(2, value);
+            }
+        }
+    }
+
+    /**
+     * Writes an untagged varint, for fixed-order sections.
+     */
+    void writeRawVarint(long value) {
+        writeVarint(value);
+    }
+
+    void writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Encodes each map entry as a repeated length-delimited field; keys found
+     * in {@code keyCodes} are written as varint field 1, others as string
+     * field 3, values as string field 2.
+     */
+    void writeCodedStringMap(int field, Map<String, String> map, Map<String, Integer> keyCodes) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            Integer keyCode = keyCodes.get(entry.getKey());
+            byte[] key = keyCode == null ? entry.getKey().getBytes(StandardCharsets.UTF_8) : null;
+            byte[] value = entry.getValue() != null ? entry.getValue().getBytes(StandardCharsets.UTF_8) : null;
+            int entryLength = (key != null ? 1 + varintSize(key.length) + key.length : 1 + varintSize(keyCode))
+                    + (value != null ? 1 + varintSize(value.length) + value.length : 0);
+
+            writeVarint(tag(field, WireFormat.WIRE_LENGTH_DELIMITED));
+            writeVarint(entryLength);
+            if (key != null) {
+                writeBytes(3, key);
+            } else {
+                writeVarintField(1, keyCode);
+            }
+            if (value != null) {
+                writeBytes(2, value);
+            }
+        }
+    }
+
+    int size() {
+        return position;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void writeBytes(int field, byte[] bytes) {
+        writeVarint(tag(field, WireFormat.WIRE_LENGTH_DELIMITED));
+        writeVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private static int tag(int field, int wireType) {
+        return (field << 3) | wireType;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.banking.journey.adapters.flowcontrol;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Semaphore whose number of permits is moved by {@link BackpressureController}:
+ * additive increase while the downstream ports are healthy, multiplicative
+ * decrease when they are not. Lowering the limit never revokes permits
+ * already held; callers just wait until in-flight work drains below it.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private int limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Blocks until in-flight work is below the current limit.
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            while (inFlight >= limit) {
+                available.awaitUninterruptibly();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean atFloor() {
+        return limit() == minLimit;
+    }
+
+    int increase(int step) {
+        lock.lock();
+        try {
+            limit = Math.min(maxLimit, limit + step);
+            available.signalAll();
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int decrease(double factor) {
+        lock.lock();
+        try {
+            limit = Math.max(minLimit, (int) (limit * factor));
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.banking.journey.adapters.flowcontrol;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.application.port.out.ActionPublisher;
+import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adaptive flow control between the Kafka listeners and the outbound ports.
+ * <p>
+ * The EventStore, StateStore and ActionPublisher handed to the orchestrator
+ * are wrapped ({@link #observe(EventStore)} etc.) to record call latency and
+ * failures. Every {@code evaluation-interval-ms} each port's window is
+ * checked against {@code p99-threshold-ms} and {@code error-rate-threshold}:
+ * </p>
+ * <ul>
+ * <li><b>congested:</b> the in-flight {@link #concurrencyLimit()} is cut
+ * multiplicatively; once it is at {@code min-concurrency} the listener
+ * containers are paused. A paused consumer keeps polling (and returns no
+ * records), so a slow Postgres no longer blows {@code max.poll.interval.ms}
+ * and triggers rebalances.</li>
+ * <li><b>healthy:</b> paused containers are resumed, otherwise the limit grows
+ * by {@code additive-increase}.</li>
+ * </ul>
+ * <p>
+ * The concurrency limit applies to the parallel consumer's lanes; record and
+ * batch modes process one event at a time and are governed by pausing only.
+ * Windows with fewer than {@code min-samples} calls (e.g. while paused) count
+ * as healthy, so a pause lasts one interval before the next probe.
+ * </p>
+ * <p>
+ * Enabled with {@code journey.backpressure.enabled=true}; otherwise ports are
+ * not wrapped and the limit never blocks.
+ * </p>
+ */
+@Component
+public class BackpressureController implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BackpressureController.class);
+
+    private final JourneyProperties.Backpressure config;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Map<String, LatencyWindow> windows = new LinkedHashMap<>();
+    private final Map<String, PortStats> lastStats = new LinkedHashMap<>();
+    private final AtomicInteger paused = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService scheduler;
+
+    public BackpressureController(JourneyProperties journeyProperties,
+            KafkaListenerEndpointRegistry listenerRegistry,
+            MeterRegistry meterRegistry) {
+        this.config = journeyProperties.getBackpressure();
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimit = config.isEnabled()
+                ? new AdaptiveConcurrencyLimit(config.getMinConcurrency(), config.getMaxConcurrency())
+                : new AdaptiveConcurrencyLimit(1, Integer.MAX_VALUE);
+
+        Gauge.builder("journey.backpressure.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .register(meterRegistry);
+        Gauge.builder("journey.backpressure.paused", paused, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public AdaptiveConcurrencyLimit concurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public EventStore observe(EventStore eventStore) {
+        return isEnabled() ? new ObservedPorts.ObservedEventStore(eventStore, window("eventStore")) : eventStore;
+    }
+
+    public StateStore observe(StateStore stateStore) {
+        return isEnabled() ? new ObservedPorts.ObservedStateStore(stateStore, window("stateStore")) : stateStore;
+    }
+
+    public ActionPublisher observe(ActionPublisher actionPublisher) {
+        return isEnabled()
+                ? new ObservedPorts.ObservedActionPublisher(actionPublisher, window("actionPublisher"))
+                : actionPublisher;
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled() || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("journey-backpressure").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(this::evaluateSafely,
+                config.getEvaluationIntervalMs(), config.getEvaluationIntervalMs(), TimeUnit.MILLISECONDS);
+        log.info("action=backpressure_started ports={} p99ThresholdMs={} errorRateThreshold={}",
+                windows.keySet(), config.getP99ThresholdMs(), config.getErrorRateThreshold());
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * One control step: drain every port window, then decrease / pause or
+     * resume / increase.
+     */
+    void evaluate() {
+        String congestedPort = null;
+        PortStats congestedStats = null;
+        for (Map.Entry<String, LatencyWindow> entry : windows.entrySet()) {
+            LatencyWindow.Snapshot snapshot = entry.getValue().drain();
+            PortStats stats = lastStats.get(entry.getKey());
+            stats.update(snapshot);
+            if (snapshot.calls() < config.getMinSamples()) {
+                continue;
+            }
+            if (stats.p99Ms > config.getP99ThresholdMs() || snapshot.errorRate() > config.getErrorRateThreshold()) {
+                congestedPort = entry.getKey();
+                congestedStats = stats;
+            }
+        }
+
+        if (congestedPort != null) {
+            if (!concurrencyLimit.atFloor()) {
+                int limit = concurrencyLimit.decrease(config.getMultiplicativeDecrease());
+                log.warn("action=backpressure_decrease port={} p99Ms={} errorRate={} limit={}",
+                        congestedPort, congestedStats.p99Ms, congestedStats.errorRate, limit);
+            } else if (paused.compareAndSet(0, 1)) {
+                listenerRegistry.getListenerContainers().forEach(MessageListenerContainer::pause);
+                log.warn("action=backpressure_paused port={} p99Ms={} errorRate={}",
+                        congestedPort, congestedStats.p99Ms, congestedStats.errorRate);
+            }
+        } else if (paused.compareAndSet(1, 0)) {
+            listenerRegistry.getListenerContainers().forEach(MessageListenerContainer::resume);
+            log.info("action=backpressure_resumed limit={}", concurrencyLimit.limit());
+        } else {
+            concurrencyLimit.increase(config.getAdditiveIncrease());
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private LatencyWindow window(String port) {
+        return windows.computeIfAbsent(port, p -> {
+            PortStats stats = new PortStats();
+            lastStats.put(p, stats);
+            Gauge.builder("journey.port.latency.p99", stats, s -> s.p99Ms)
+                    .tag("port", p).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("journey.port.error.rate", stats, s -> s.errorRate)
+                    .tag("port", p).register(meterRegistry);
+            return new LatencyWindow(config.getWindowSize());
+        });
+    }
+
+    private void evaluateSafely() {
+        try {
+            evaluate();
+        } catch (Exception e) {
+            // Keep the schedule alive; a failed step just skips one interval
+            log.error("action=backpressure_evaluation_failed error={}", e.getMessage(), e);
+        }
+    }
+
+    /** Last evaluated window of one port, exported as gauges. */
+    private static final class PortStats {
+        private volatile double p99Ms;
+        private volatile double errorRate;
+
+        void update(LatencyWindow.Snapshot snapshot) {
+            p99Ms = snapshot.p99Nanos() / 1_000_000.0;
+            errorRate = snapshot.errorRate();
+        }
+    }
+}
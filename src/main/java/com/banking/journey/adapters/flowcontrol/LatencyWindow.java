@@ -0,0 +1,60 @@
+package com.banking.journey.adapters.flowcontrol;
+
+import java.util.Arrays;
+
+/**
+ * Latency and error samples of one port since the last {@link #drain()}.
+ * <p>
+ * Keeps at most {@code capacity} latencies (later samples overwrite the
+ * oldest), which bounds both memory and the sort done per evaluation.
+ * </p>
+ */
+final class LatencyWindow {
+
+    private final long[] latenciesNanos;
+    private int next;
+    private int size;
+    private long calls;
+    private long errors;
+
+    LatencyWindow(int capacity) {
+        this.latenciesNanos = new long[capacity];
+    }
+
+    synchronized void record(long latencyNanos, boolean success) {
+        latenciesNanos[next] = latencyNanos;
+        next = (next + 1) % latenciesNanos.length;
+        size = Math.min(size + 1, latenciesNanos.length);
+        calls++;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    /**
+     * Returns the window's p99 and error rate and starts a new window.
+     */
+    Snapshot drain() {
+        long[] sorted;
+        long drainedCalls;
+        long drainedErrors;
+        synchronized (this) {
+            sorted = Arrays.copyOf(latenciesNanos, size);
+            drainedCalls = calls;
+            drainedErrors = errors;
+            next = 0;
+            size = 0;
+            calls = 0;
+            errors = 0;
+        }
+        if (sorted.length == 0) {
+            return new Snapshot(0, 0, 0.0);
+        }
+        Arrays.sort(sorted);
+        int p99Index = (int) Math.ceil(sorted.length * 0.99) - 1;
+        return new Snapshot(drainedCalls, sorted[Math.max(p99Index, 0)], (double) drainedErrors / drainedCalls);
+    }
+
+    record Snapshot(long calls, long p99Nanos, double errorRate) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.banking.journey.adapters.flowcontrol;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import com.banking.journey.application.port.out.ActionPublisher;
+import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.domain.entity.Action;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
+
+/**
+ * Port decorators that time the calls made on the processing path. Read-only
+ * dashboard queries pass straight through.
+ */
+final class ObservedPorts {
+
+    private ObservedPorts() {
+    }
+
+    static <T> T timed(LatencyWindow window, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            window.record(System.nanoTime() - start, true);
+            return result;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // Business rejection: the downstream answered, it is not degraded
+            window.record(System.nanoTime() - start, true);
+            throw e;
+        } catch (RuntimeException e) {
+            window.record(System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    static void timed(LatencyWindow window, Runnable call) {
+        timed(window, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    static <T> CompletableFuture<T> timedAsync(LatencyWindow window, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            boolean healthy = cause == null
+                    || cause instanceof IllegalStateException || cause instanceof IllegalArgumentException;
+            window.record(System.nanoTime() - start, healthy);
+        });
+    }
+
+    record ObservedEventStore(EventStore delegate, LatencyWindow window) implements EventStore {
+
+        @Override
+        public void save(CustomerEvent event) {
+            timed(window, () -> delegate.save(event));
+        }
+
+        @Override
+        public CompletableFuture<Void> saveAsync(CustomerEvent event) {
+            return timedAsync(window, () -> delegate.saveAsync(event));
+        }
+
+        @Override
+        public List<CustomerEvent> findByCustomerId(String customerId, int limit) {
+            return delegate.findByCustomerId(customerId, limit);
+        }
+
+        @Override
+        public long countAll() {
+            return delegate.countAll();
+        }
+
+        @Override
+        public List<Object[]> countByEventType() {
+            return delegate.countByEventType();
+        }
+    }
+
+    record ObservedStateStore(StateStore delegate, LatencyWindow window) implements StateStore {
+
+        @Override
+        public CardApplicationState getState(String customerId) {
+            return timed(window, () -> delegate.getState(customerId));
+        }
+
+        @Override
+        public CompletableFuture<CardApplicationState> getStateAsync(String customerId) {
+            return timedAsync(window, () -> delegate.getStateAsync(customerId));
+        }
+
+        @Override
+        public Map<String, CardApplicationState> getStates(Collection<String> customerIds) {
+            return timed(window, () -> delegate.getStates(customerIds));
+        }
+
+        @Override
+        public void saveState(CardApplicationState state) {
+            timed(window, () -> delegate.saveState(state));
+        }
+
+        @Override
+        public void saveStates(Collection<CardApplicationState> states) {
+            timed(window, () -> delegate.saveStates(states));
+        }
+
+        @Override
+        public boolean compareAndSet(String customerId, long expectedVersion, CardApplicationState newState) {
+            return timed(window, () -> delegate.compareAndSet(customerId, expectedVersion, newState));
+        }
+
+        @Override
+        public TransitionResult applyTransition(String customerId, EventType eventType) {
+            return timed(window, () -> delegate.applyTransition(customerId, eventType));
+        }
+
+        @Override
+        public void deleteState(String customerId) {
+            timed(window, () -> delegate.deleteState(customerId));
+        }
+    }
+
+    record ObservedActionPublisher(ActionPublisher delegate, LatencyWindow window) implements ActionPublisher {
+
+        @Override
+        public void publish(Action action) {
+            timed(window, () -> delegate.publish(action));
+        }
+
+        @Override
+        public CompletableFuture<Void> publishAsync(Action action) {
+            return timedAsync(window, () -> delegate.publishAsync(action));
+        }
+
+        @Override
+        public List<Action> getRecentActions(int limit) {
+            return delegate.getRecentActions(limit);
+        }
+
+        @Override
+        public long countAll() {
+            return delegate.countAll();
+        }
+    }
+}
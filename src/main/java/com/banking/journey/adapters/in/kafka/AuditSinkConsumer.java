@@ -0,0 +1,130 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.adapters.codec.ActionWireCodec;
+import com.banking.journey.adapters.codec.WireFormat;
+import com.banking.journey.application.port.out.ActionRecorder;
+import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.Action;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Kafka inbound adapter that loads the audit trail
+ * ({@code journey.audit-sink.enabled=true}).
+ * <p>
+ * A separate consumer group reads customer-events and actions in large
+ * batches and writes each poll as two JDBC batches: events through
+ * {@link EventStore#saveAll}, actions through {@link ActionRecorder#recordAll}.
+ * Both inserts are idempotent, so a batch redelivered after a failure or
+ * rebalance is simply written again. Records that cannot be decoded are
+ * counted and skipped; the orchestrator sends those events to the DLQ.
+ * </p>
+ * <p>
+ * Exports {@code journey.audit.sink.records} (tagged {@code table}),
+ * {@code journey.audit.sink.skipped} and {@code journey.audit.sink.batch.latency}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "journey.audit-sink", name = "enabled", havingValue = "true")
+public class AuditSinkConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSinkConsumer.class);
+
+    private final EventStore eventStore;
+    private final ActionRecorder actionRecorder;
+    private final CustomerEventParser eventParser;
+    private final ObjectMapper objectMapper;
+    private final String actionsTopic;
+
+    private final Counter eventsWritten;
+    private final Counter actionsWritten;
+    private final Counter skipped;
+    private final Timer batchLatency;
+
+    public AuditSinkConsumer(EventStore eventStore,
+            ActionRecorder actionRecorder,
+            CustomerEventParser eventParser,
+            ObjectMapper objectMapper,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
+        this.eventStore = eventStore;
+        this.actionRecorder = actionRecorder;
+        this.eventParser = eventParser;
+        this.objectMapper = objectMapper;
+        this.actionsTopic = journeyProperties.getKafka().getTopics().getActions();
+
+        this.eventsWritten = meterRegistry.counter("journey.audit.sink.records", "table", "events");
+        this.actionsWritten = meterRegistry.counter("journey.audit.sink.records", "table", "actions");
+        this.skipped = meterRegistry.counter("journey.audit.sink.skipped");
+        this.batchLatency = meterRegistry.timer("journey.audit.sink.batch.latency");
+    }
+
+    @KafkaListener(topics = {
+            "${journey.kafka.topics.customer-events:customer-events}",
+            "${journey.kafka.topics.actions:actions}" }, groupId = "${journey.audit-sink.group-id:journey-audit-sink}", containerFactory = "auditSinkContainerFactory")
+    public void consumeBatch(List<ConsumerRecord<String, byte[]>> records) {
+        List<CustomerEvent> events = new ArrayList<>(records.size());
+        List<Action> actions = new ArrayList<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                if (actionsTopic.equals(record.topic())) {
+                    actions.add(decodeAction(record));
+                } else {
+                    events.add(eventParser.parse(record));
+                }
+            } catch (Exception e) {
+                skipped.increment();
+                log.warn("action=audit_record_skipped topic={} partition={} offset={} error={}",
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+            }
+        }
+
+        // A failure propagates to the container, which retries the whole batch
+        Timer.Sample sample = Timer.start();
+        if (!events.isEmpty()) {
+            eventStore.saveAll(events);
+            eventsWritten.increment(events.size());
+        }
+        if (!actions.isEmpty()) {
+            actionRecorder.recordAll(actions);
+            actionsWritten.increment(actions.size());
+        }
+        sample.stop(batchLatency);
+        log.debug("action=audit_batch_written events={} actions={}", events.size(), actions.size());
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private Action decodeAction(ConsumerRecord<String, byte[]> record) throws Exception {
+        if (WireFormat.isBinary(record.headers())) {
+            return ActionWireCodec.decode(record.value());
+        }
+        JsonNode json = objectMapper.readTree(record.value());
+        return new Action(
+                json.path("action_id").asText(null),
+                json.path("customer_id").asText(null),
+                json.path("action_type").asText(null),
+                json.path("message").asText(null),
+                json.path("channel").asText(null),
+                null,
+                Instant.parse(json.path("created_at").asText()),
+                null);
+    }
+}
@@ -0,0 +1,174 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.application.port.in.ProcessEventUseCase;
+import com.banking.journey.application.port.in.ProcessEventUseCase.BatchResult;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.CustomerEvent;
+
+/**
+ * Kafka inbound adapter (batch mode): Consumes a whole poll of customer events
+ * per listener invocation.
+ * <p>
+ * Keeps the per-record error handling of {@link EventConsumer}:
+ * parse, business and unknown errors send that single record to the DLQ and
+ * processing continues with the next one. A transient error stops the batch;
+ * only the prefix of records before it is committed and the rest is
+ * redelivered (nack). With {@code journey.kafka.retry.enabled=true} the
+ * record is parked in the retry topics instead and the batch continues; later
+ * records of a parked customer are parked behind it ({@link RetryTopicRouter}).
+ * </p>
+ * <p>
+ * Enabled with {@code journey.kafka.consumer-mode=batch}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "journey.kafka", name = "consumer-mode", havingValue = "batch")
+public class BatchEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchEventConsumer.class);
+
+    private final ProcessEventUseCase processEventUseCase;
+    private final CustomerEventParser eventParser;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final RetryTopicRouter retryRouter;
+    private final Duration redeliveryBackoff;
+
+    public BatchEventConsumer(ProcessEventUseCase processEventUseCase,
+            CustomerEventParser eventParser,
+            DeadLetterPublisher deadLetterPublisher,
+            RetryTopicRouter retryRouter,
+            JourneyProperties journeyProperties) {
+        this.processEventUseCase = processEventUseCase;
+        this.eventParser = eventParser;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.retryRouter = retryRouter;
+        this.redeliveryBackoff = Duration.ofMillis(
+                journeyProperties.getKafka().getConsumerBatchRedeliveryBackoffMs());
+    }
+
+    @KafkaListener(topics = "${journey.kafka.topics.customer-events:customer-events}", groupId = "journey-orchestrator", containerFactory = "kafkaListenerContainerFactory")
+    public void consumeBatch(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        log.info("action=batch_received size={}", records.size());
+
+        int index = 0;
+        while (index < records.size()) {
+            // Parse the longest run of well-formed, unparked records starting at index
+            int runStart = index;
+            List<CustomerEvent> run = new ArrayList<>();
+            Exception parseFailure = null;
+            boolean parkedKey = false;
+            for (; index < records.size(); index++) {
+                if (retryRouter.isParked(records.get(index).key())) {
+                    parkedKey = true;
+                    break;
+                }
+                try {
+                    run.add(eventParser.parse(records.get(index)));
+                } catch (Exception e) {
+                    parseFailure = e;
+                    break;
+                }
+            }
+
+            RunOutcome outcome = processRun(records, runStart, run);
+            if (outcome.redeliverFrom() >= 0) {
+                redeliver(ack, records, outcome.redeliverFrom());
+                return;
+            }
+            if (outcome.resumeAt() >= 0) {
+                // A record was parked: later records may now belong to a parked key
+                index = outcome.resumeAt();
+                continue;
+            }
+
+            if (parseFailure != null) {
+                ConsumerRecord<String, byte[]> record = records.get(index);
+                String errorType = DeadLetterPublisher.classify(parseFailure);
+                log.error("action=parse_error key={} offset={} errorType={} error={}",
+                        record.key(), record.offset(), errorType, parseFailure.getMessage());
+                deadLetterPublisher.send(record, errorType, parseFailure);
+                index++;
+            } else if (parkedKey) {
+                if (!retryRouter.park(records.get(index), null)) {
+                    redeliver(ack, records, index);
+                    return;
+                }
+                index++;
+            }
+        }
+
+        ack.acknowledge();
+        log.info("action=batch_acknowledged size={}", records.size());
+    }
+
+    /**
+     * Pushes a run of parsed events through the orchestrator, routing
+     * non-transient failures to the DLQ and resubmitting the remainder.
+     * A transient failure is parked in the retry topics when enabled,
+     * otherwise the batch is redelivered from it.
+     */
+    private RunOutcome processRun(List<ConsumerRecord<String, byte[]>> records, int runStart, List<CustomerEvent> run) {
+        int done = 0;
+        while (done < run.size()) {
+            BatchResult result = processEventUseCase.processBatch(run.subList(done, run.size()));
+            done += result.processedCount();
+            if (result.isComplete()) {
+                break;
+            }
+
+            ConsumerRecord<String, byte[]> record = records.get(runStart + done);
+            String errorType = DeadLetterPublisher.classify(result.failure());
+            if (errorType == null) {
+                log.error("action=transient_error key={} offset={} error={}",
+                        record.key(), record.offset(), result.failure().getMessage());
+                if (retryRouter.park(record, result.failure())) {
+                    return RunOutcome.parked(runStart + done + 1);
+                }
+                return RunOutcome.redeliver(runStart + done);
+            }
+
+            log.error("action=batch_record_failed key={} offset={} errorType={} error={}",
+                    record.key(), record.offset(), errorType, result.failure().getMessage());
+            deadLetterPublisher.send(record, errorType, result.failure());
+            done++;
+        }
+        return RunOutcome.COMPLETE;
+    }
+
+    private void redeliver(Acknowledgment ack, List<ConsumerRecord<String, byte[]>> records, int redeliverFrom) {
+        // Commit records before redeliverFrom, re-seek the rest
+        ack.nack(redeliverFrom, redeliveryBackoff);
+        log.warn("action=batch_partially_acknowledged committed={} redelivered={}",
+                redeliverFrom, records.size() - redeliverFrom);
+    }
+
+    /**
+     * Where the batch loop goes after a run: on to the next run, re-parse
+     * from {@code resumeAt} (a record was parked), or redeliver from
+     * {@code redeliverFrom}.
+     */
+    private record RunOutcome(int resumeAt, int redeliverFrom) {
+
+        static final RunOutcome COMPLETE = new RunOutcome(-1, -1);
+
+        static RunOutcome parked(int nextIndex) {
+            return new RunOutcome(nextIndex, -1);
+        }
+
+        static RunOutcome redeliver(int index) {
+            return new RunOutcome(-1, index);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.adapters.codec.CustomerEventWireCodec;
+import com.banking.journey.adapters.codec.WireFormat;
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.application.port.out.ProcessingMetrics.Stage;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parses raw 'customer-events' record values into domain CustomerEvent
+ * entities. Shared by all listener modes.
+ * <p>
+ * Records carrying {@code content-type: application/vnd.journey+binary} are
+ * decoded with {@link CustomerEventWireCodec}; everything else is JSON.
+ * </p>
+ * <p>
+ * Decodes straight from the record bytes with a Jackson streaming
+ * {@link JsonParser} instead of String → databind {@link EventConsumer.EventDto}
+ * → {@code EventType.valueOf} → {@code Instant.parse}:
+ * </p>
+ * <ul>
+ * <li>event types are matched against the enum constants on the parser's
+ * char buffer, without materialising a String</li>
+ * <li>timestamps go through {@link FastInstantParser}</li>
+ * <li>metadata keys come from Jackson's canonical field-name table and short
+ * metadata values (segment, channel, ...) from a small shared string
+ * cache, so repeated values are not re-allocated per event</li>
+ * </ul>
+ * <p>
+ * Accepts the same documents as the EventDto path: unknown fields are
+ * skipped, scalar metadata values are read as text.
+ * </p>
+ */
+@Component
+public class CustomerEventParser {
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final char[][] EVENT_TYPE_NAMES = new char[EVENT_TYPES.length][];
+
+    static {
+        for (int i = 0; i < EVENT_TYPES.length; i++) {
+            EVENT_TYPE_NAMES[i] = EVENT_TYPES[i].name().toCharArray();
+        }
+    }
+
+    private final JsonFactory jsonFactory;
+    private final ProcessingMetrics processingMetrics;
+    private final StringCache metadataValues = new StringCache(1024, 32);
+
+    public CustomerEventParser(ObjectMapper objectMapper, ProcessingMetrics processingMetrics) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.processingMetrics = processingMetrics;
+    }
+
+    /**
+     * Parses a record into a domain CustomerEvent entity, choosing the wire
+     * format from its content-type header. Timed as the PARSE stage.
+     *
+     * @throws JsonProcessingException  if a JSON payload is not valid JSON
+     * @throws com.banking.journey.adapters.codec.WireFormatException if a
+     *                                  binary payload is malformed
+     * @throws IllegalArgumentException if the payload violates event invariants
+     */
+    public CustomerEvent parse(ConsumerRecord<String, byte[]> record) throws JsonProcessingException {
+        long start = System.nanoTime();
+        try {
+            if (WireFormat.isBinary(record.headers())) {
+                return CustomerEventWireCodec.decode(record.value());
+            }
+            return parse(record.value());
+        } finally {
+            processingMetrics.recordStage(Stage.PARSE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Parses a JSON record value into a domain CustomerEvent entity.
+     *
+     * @throws JsonProcessingException  if the payload is not valid JSON
+     * @throws IllegalArgumentException if the payload violates event invariants
+     */
+    public CustomerEvent parse(byte[] json) throws JsonProcessingException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return readEvent(parser);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new JsonParseException(null, "Unreadable customer event", e);
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private CustomerEvent readEvent(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object for customer event");
+        }
+
+        String eventId = null;
+        String customerId = null;
+        EventType eventType = null;
+        Instant timestamp = null;
+        Map<String, String> metadata = null;
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "event_id" -> eventId = readText(parser, token);
+                case "customer_id" -> customerId = readText(parser, token);
+                case "event_type" -> eventType = readEventType(parser, token);
+                case "timestamp" -> timestamp = readTimestamp(parser, token);
+                case "metadata" -> metadata = readMetadata(parser, token);
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Malformed customer event object");
+        }
+
+        // NullPointerException, as EventType.valueOf / Instant.parse threw on
+        // the EventDto path, so these records keep their UNKNOWN_ERROR class
+        Objects.requireNonNull(eventType, "event_type is missing");
+        Objects.requireNonNull(timestamp, "timestamp is missing");
+        return new CustomerEvent(eventId, customerId, eventType, timestamp, metadata);
+    }
+
+    private String readText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a scalar value for '" + parser.currentName() + "'");
+        }
+        return parser.getText();
+    }
+
+    private EventType readEventType(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Expected a string value for 'event_type'");
+        }
+
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        for (int i = 0; i < EVENT_TYPES.length; i++) {
+            if (regionMatches(EVENT_TYPE_NAMES[i], chars, offset, length)) {
+                return EVENT_TYPES[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown event_type: " + parser.getText());
+    }
+
+    private Instant readTimestamp(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Expected a string value for 'timestamp'");
+        }
+        return FastInstantParser.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    private Map<String, String> readMetadata(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an object for 'metadata'");
+        }
+
+        // A fresh map per event: CustomerEvent keeps a view of it, not a copy
+        Map<String, String> metadata = new HashMap<>(8);
+        String key;
+        while ((key = parser.nextFieldName()) != null) {
+            JsonToken valueToken = parser.nextToken();
+            if (valueToken == JsonToken.VALUE_NULL) {
+                metadata.put(key, null);
+            } else if (valueToken.isScalarValue()) {
+                metadata.put(key, metadataValues.get(
+                        parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+            } else {
+                throw new JsonParseException(parser, "Expected a scalar value for metadata '" + key + "'");
+            }
+        }
+        return metadata;
+    }
+
+    private static boolean regionMatches(char[] expected, char[] chars, int offset, int length) {
+        if (expected.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (expected[i] != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Direct-mapped cache of short strings looked up by character content.
+     * Racy slot overwrites are harmless: Strings are immutable and a miss
+     * only costs an allocation.
+     */
+    static final class StringCache {
+
+        private final String[] slots;
+        private final int maxLength;
+
+        StringCache(int size, int maxLength) {
+            this.slots = new String[Integer.highestOneBit(size)];
+            this.maxLength = maxLength;
+        }
+
+        String get(char[] chars, int offset, int length) {
+            if (length > maxLength) {
+                return new String(chars, offset, length);
+            }
+            int hash = 0;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & (slots.length - 1);
+            String cached = slots[slot];
+            if (cached != null && cached.hashCode() == hash && regionMatches(cached, chars, offset, length)) {
+                return cached;
+            }
+            String value = new String(chars, offset, length);
+            slots[slot] = value;
+            return value;
+        }
+
+        private static boolean regionMatches(String cached, char[] chars, int offset, int length) {
+            if (cached.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (cached.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.adapters.codec.WireFormat;
+import com.banking.journey.adapters.codec.WireFormatException;
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Routes records that cannot be processed to the Dead Letter Queue.
+ * Shared by the record and batch listeners.
+ */
+@Component
+public class DeadLetterPublisher {
+
+    public static final String PARSE_ERROR = "PARSE_ERROR";
+    public static final String BUSINESS_ERROR = "BUSINESS_ERROR";
+    public static final String UNKNOWN_ERROR = "UNKNOWN_ERROR";
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String dlqTopic;
+
+    public DeadLetterPublisher(KafkaTemplate<String, String> kafkaTemplate,
+            ObjectMapper objectMapper,
+            JourneyProperties journeyProperties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.dlqTopic = journeyProperties.getKafka().getTopics().getDlq();
+    }
+
+    /**
+     * Classifies a processing failure the same way {@link EventConsumer} does.
+     *
+     * @return DLQ error type, or null if the failure is transient and the
+     *         record should be redelivered instead
+     */
+    public static String classify(Exception error) {
+        if (error instanceof JsonProcessingException || error instanceof WireFormatException) {
+            return PARSE_ERROR;
+        }
+        if (error instanceof IllegalStateException || error instanceof IllegalArgumentException) {
+            return BUSINESS_ERROR;
+        }
+        if (error instanceof DataAccessException || error instanceof StateStore.VersionConflictException) {
+            return null;
+        }
+        return UNKNOWN_ERROR;
+    }
+
+    /**
+     * Sends a failed message to the Dead Letter Queue with error context.
+     */
+    public void send(ConsumerRecord<String, byte[]> record, String errorType, Exception error) {
+        try {
+            boolean binary = WireFormat.isBinary(record.headers());
+            EventConsumer.DlqMessage dlqMessage = new EventConsumer.DlqMessage(
+                    record.topic(),
+                    record.partition(),
+                    record.offset(),
+                    record.key(),
+                    originalValue(record.value(), binary),
+                    errorType,
+                    error.getMessage(),
+                    getStackTrace(error),
+                    Instant.now().toString(),
+                    binary ? WireFormat.BINARY : WireFormat.JSON);
+
+            String dlqJson = objectMapper.writeValueAsString(dlqMessage);
+            kafkaTemplate.send(dlqTopic, record.key(), dlqJson);
+            log.warn("action=sent_to_dlq errorType={} key={} originalTopic={}",
+                    errorType, record.key(), record.topic());
+        } catch (Exception dlqError) {
+            // If DLQ itself fails, just log — nothing more we can do
+            log.error("action=dlq_send_failed key={} error={}",
+                    record.key(), dlqError.getMessage());
+        }
+    }
+
+    private String originalValue(byte[] value, boolean binary) {
+        if (value == null) {
+            return null;
+        }
+        return binary ? Base64.getEncoder().encodeToString(value) : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private String getStackTrace(Exception e) {
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement element : e.getStackTrace()) {
+            sb.append(element.toString()).append("\n");
+            if (sb.length() > 500)
+                break; // Limit stacktrace size
+        }
+        return sb.toString();
+    }
+}
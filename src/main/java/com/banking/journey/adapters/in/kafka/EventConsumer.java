@@ -1,25 +1,32 @@
 package com.banking.journey.adapters.in.kafka;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import com.banking.journey.adapters.codec.WireFormatException;
 import com.banking.journey.application.port.in.ProcessEventUseCase;
+import com.banking.journey.application.port.out.StateStore;
 import com.banking.journey.bootstrap.config.JourneyProperties;
 import com.banking.journey.domain.entity.CustomerEvent;
 import com.banking.journey.domain.valueobject.EventType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Kafka inbound adapter: Consumes customer events from the 'customer-events'
@@ -29,29 +36,52 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * <ol>
  * <li><b>Parse Error:</b> DLQ + skip</li>
  * <li><b>Business Logic Error:</b> DLQ + skip</li>
- * <li><b>Transient Error:</b> Throw → Kafka retry</li>
+ * <li><b>Transient Error:</b> Throw → Kafka retry, or park in the retry
+ * topics when {@code journey.kafka.retry.enabled=true}
+ * ({@link RetryTopicRouter})</li>
  * <li><b>Unknown Error:</b> DLQ + skip</li>
  * </ol>
  * </p>
+ * <p>
+ * With {@code journey.kafka.async-publish.enabled=true} the listener does not
+ * wait for the action publish: it moves on once the state change is
+ * persisted, and the record is acknowledged when its action is published, in
+ * offset order per partition ({@link OrderedAcknowledgments}). A failed
+ * publish is handled like a failure on the listener thread.
+ * </p>
+ * <p>
+ * Active in the default {@code journey.kafka.consumer-mode=record}; see
+ * {@link BatchEventConsumer} for the batch listener and
+ * {@link com.banking.journey.adapters.in.streams.JourneyStreamsTopology} for
+ * the Kafka Streams mode.
+ * </p>
  */
 @Component
-public class EventConsumer {
+@ConditionalOnProperty(prefix = "journey.kafka", name = "consumer-mode", havingValue = "record", matchIfMissing = true)
+public class EventConsumer implements ConsumerSeekAware {
 
     private static final Logger log = LoggerFactory.getLogger(EventConsumer.class);
-    private final String dlqTopic;
 
     private final ProcessEventUseCase processEventUseCase;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final CustomerEventParser eventParser;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final RetryTopicRouter retryRouter;
+    /** Null unless actions are published asynchronously */
+    private final OrderedAcknowledgments acks;
+    private final long redeliveryBackoffMs;
 
     public EventConsumer(ProcessEventUseCase processEventUseCase,
-            KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper,
+            CustomerEventParser eventParser,
+            DeadLetterPublisher deadLetterPublisher,
+            RetryTopicRouter retryRouter,
             JourneyProperties journeyProperties) {
         this.processEventUseCase = processEventUseCase;
-        this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
-        this.dlqTopic = journeyProperties.getKafka().getTopics().getDlq();
+        this.eventParser = eventParser;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.retryRouter = retryRouter;
+        JourneyProperties.AsyncPublish asyncPublish = journeyProperties.getKafka().getAsyncPublish();
+        this.acks = asyncPublish.isEnabled() ? new OrderedAcknowledgments(asyncPublish.getMaxPendingRecords()) : null;
+        this.redeliveryBackoffMs = journeyProperties.getKafka().getConsumerBatchRedeliveryBackoffMs();
     }
 
     /**
@@ -59,9 +89,25 @@ public class EventConsumer {
      * Uses manual acknowledgment for fine-grained offset control.
      */
     @KafkaListener(topics = "${journey.kafka.topics.customer-events:customer-events}", groupId = "journey-orchestrator", containerFactory = "kafkaListenerContainerFactory")
-    public void consume(ConsumerRecord<String, String> record, Acknowledgment ack) {
+    public void consume(ConsumerRecord<String, byte[]> record, Acknowledgment ack, Consumer<?, ?> consumer) {
         String key = record.key();
-        String value = record.value();
+        if (acks != null) {
+            switch (acks.admit(record, consumer)) {
+                case RESEEKED -> {
+                    sleepBeforeRedelivery();
+                    return;
+                }
+                case SKIP -> {
+                    return;
+                }
+                case COMPLETED -> {
+                    acknowledge(record, ack);
+                    return;
+                }
+                case PROCESS -> {
+                }
+            }
+        }
 
         // Set MDC context for structured logging
         try {
@@ -72,13 +118,30 @@ public class EventConsumer {
             log.info("action=event_received key={} partition={} offset={}",
                     key, record.partition(), record.offset());
 
+            // Keep per-customer order: an earlier record is waiting in a retry tier
+            if (retryRouter.isParked(key)) {
+                if (!retryRouter.park(record, null)) {
+                    throw new RuntimeException("Could not park record behind retrying key=" + key);
+                }
+                acknowledge(record, ack);
+                return;
+            }
+
             // Step 1: Parse the event
-            CustomerEvent event = parseEvent(value);
+            CustomerEvent event = eventParser.parse(record);
             MDC.put("customerId", event.getCustomerId());
             MDC.put("eventId", event.getEventId());
             MDC.put("eventType", event.getEventType().name());
 
             // Step 2: Process through orchestrator
+            if (acks != null) {
+                // Step 3 (async): acknowledge once the action is published
+                acks.track(record, ack, processEventUseCase.processAsync(event)
+                        .handle((ignored, error) -> error == null || handlePublishFailure(record, error)));
+                log.info("action=event_processed eventId={} customerId={} ack=pending",
+                        event.getEventId(), event.getCustomerId());
+                return;
+            }
             processEventUseCase.process(event);
 
             // Step 3: Acknowledge on success
@@ -86,82 +149,97 @@ public class EventConsumer {
             log.info("action=event_acknowledged eventId={} customerId={}",
                     event.getEventId(), event.getCustomerId());
 
-        } catch (JsonProcessingException e) {
-            // ── PARSE ERROR: Bad JSON → DLQ, skip ──
+        } catch (JsonProcessingException | WireFormatException e) {
+            // ── PARSE ERROR: Bad JSON / binary payload → DLQ, skip ──
             log.error("action=parse_error key={} error={}", key, e.getMessage());
-            sendToDlq(record, "PARSE_ERROR", e);
-            ack.acknowledge(); // Skip the bad message
+            deadLetterPublisher.send(record, DeadLetterPublisher.PARSE_ERROR, e);
+            acknowledge(record, ack); // Skip the bad message
 
         } catch (IllegalStateException | IllegalArgumentException e) {
             // ── BUSINESS LOGIC ERROR: Invalid state/data → DLQ, skip ──
             log.error("action=business_error key={} error={}", key, e.getMessage());
-            sendToDlq(record, "BUSINESS_ERROR", e);
-            ack.acknowledge(); // Skip, retry won't fix this
+            deadLetterPublisher.send(record, DeadLetterPublisher.BUSINESS_ERROR, e);
+            acknowledge(record, ack); // Skip, retry won't fix this
 
-        } catch (org.springframework.data.redis.RedisConnectionFailureException
-                | org.springframework.dao.DataAccessException e) {
-            // ── TRANSIENT ERROR: Redis/DB down → throw for Kafka retry ──
+        } catch (org.springframework.dao.DataAccessException | StateStore.VersionConflictException e) {
+            // ── TRANSIENT ERROR: Redis/DB down or concurrent state writes → retry tier, or throw for Kafka retry ──
+            // (RedisConnectionFailureException is a DataAccessException)
             log.error("action=transient_error key={} error={}", key, e.getMessage());
+            if (retryRouter.park(record, e)) {
+                acknowledge(record, ack); // Parked; the partition moves on
+                return;
+            }
             throw new RuntimeException("Transient infrastructure error", e);
             // Don't acknowledge → Kafka will redeliver
 
         } catch (Exception e) {
             // ── UNKNOWN ERROR: Catch-all → DLQ, skip (prevent infinite loop) ──
             log.error("action=unknown_error key={} error={}", key, e.getMessage(), e);
-            sendToDlq(record, "UNKNOWN_ERROR", e);
-            ack.acknowledge(); // Skip to prevent infinite retry loop
+            deadLetterPublisher.send(record, DeadLetterPublisher.UNKNOWN_ERROR, e);
+            acknowledge(record, ack); // Skip to prevent infinite retry loop
 
         } finally {
             MDC.clear();
         }
     }
 
+    @Override
+    public void onIdleContainer(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // A publish may fail after the partition's last record was delivered
+        if (acks != null) {
+            acks.reseekFailed((partition, offset) -> callback.seek(partition.topic(), partition.partition(), offset));
+        }
+    }
+
+    /** The container calls this for lost partitions too. */
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        if (acks != null) {
+            acks.forget(partitions);
+        }
+    }
+
     // ─────────────────── Private Helpers ───────────────────
 
     /**
-     * Parses raw JSON into a domain CustomerEvent entity.
+     * Acknowledges now, or in offset order after earlier records' actions
+     * when publishing asynchronously.
      */
-    private CustomerEvent parseEvent(String json) throws JsonProcessingException {
-        EventDto dto = objectMapper.readValue(json, EventDto.class);
-        return dto.toDomain();
+    private void acknowledge(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        if (acks != null) {
+            acks.track(record, ack, CompletableFuture.completedFuture(true));
+        } else {
+            ack.acknowledge();
+        }
     }
 
     /**
-     * Sends a failed message to the Dead Letter Queue with error context.
+     * A failed asynchronous publish, classified like the listener's own
+     * failures. Runs on the completion thread.
+     *
+     * @return true if the record is done (DLQ or parked), false to redeliver it
      */
-    private void sendToDlq(ConsumerRecord<String, String> record,
-            String errorType, Exception error) {
-        try {
-            DlqMessage dlqMessage = new DlqMessage(
-                    record.topic(),
-                    record.partition(),
-                    record.offset(),
-                    record.key(),
-                    record.value(),
-                    errorType,
-                    error.getMessage(),
-                    getStackTrace(error),
-                    Instant.now().toString());
-
-            String dlqJson = objectMapper.writeValueAsString(dlqMessage);
-            kafkaTemplate.send(dlqTopic, record.key(), dlqJson);
-            log.warn("action=sent_to_dlq errorType={} key={} originalTopic={}",
-                    errorType, record.key(), record.topic());
-        } catch (Exception dlqError) {
-            // If DLQ itself fails, just log — nothing more we can do
-            log.error("action=dlq_send_failed key={} error={}",
-                    record.key(), dlqError.getMessage());
+    private boolean handlePublishFailure(ConsumerRecord<String, byte[]> record, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Exception failure = cause instanceof Exception exception ? exception : new RuntimeException(cause);
+        String errorType = DeadLetterPublisher.classify(failure);
+        if (errorType == null) {
+            log.error("action=transient_error key={} offset={} error={}", record.key(), record.offset(),
+                    failure.getMessage());
+            return retryRouter.park(record, failure);
         }
+        log.error("action=publish_error key={} offset={} errorType={} error={}",
+                record.key(), record.offset(), errorType, failure.getMessage());
+        deadLetterPublisher.send(record, errorType, failure);
+        return true;
     }
 
-    private String getStackTrace(Exception e) {
-        StringBuilder sb = new StringBuilder();
-        for (StackTraceElement element : e.getStackTrace()) {
-            sb.append(element.toString()).append("\n");
-            if (sb.length() > 500)
-                break; // Limit stacktrace size
+    private void sleepBeforeRedelivery() {
+        try {
+            Thread.sleep(redeliveryBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return sb.toString();
     }
 
     // ─────────────────── Inner DTO Classes ───────────────────
@@ -240,6 +318,7 @@ public class EventConsumer {
 
     /**
      * DLQ message envelope with error context.
+     * Binary payloads are carried Base64-encoded in originalValue.
      */
     public record DlqMessage(
             String originalTopic,
@@ -250,6 +329,7 @@ public class EventConsumer {
             String errorType,
             String errorMessage,
             String stackTrace,
-            String timestamp) {
+            String timestamp,
+            String originalContentType) {
     }
 }
@@ -0,0 +1,103 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.time.Instant;
+
+/**
+ * Allocation-light parser for the UTC ISO-8601 timestamps producers put in
+ * 'customer-events' ({@code 2024-01-15T10:30:00Z}, optional 1-9 fraction
+ * digits).
+ * <p>
+ * Reads straight from the parser's character buffer. Anything outside the
+ * fast path (offsets, leap seconds, out-of-range fields) falls back to
+ * {@link Instant#parse}, so accepted input and error behaviour are unchanged.
+ * </p>
+ */
+public final class FastInstantParser {
+
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+    private static final int[] NANO_SCALE = {
+            1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1 };
+
+    private FastInstantParser() {
+    }
+
+    public static Instant parse(char[] c, int off, int len) {
+        Instant fast = tryParseUtc(c, off, len);
+        return fast != null ? fast : Instant.parse(new String(c, off, len));
+    }
+
+    private static Instant tryParseUtc(char[] c, int off, int len) {
+        if (len < 20 || c[off + 4] != '-' || c[off + 7] != '-' || c[off + 10] != 'T'
+                || c[off + 13] != ':' || c[off + 16] != ':' || c[off + len - 1] != 'Z') {
+            return null;
+        }
+
+        int year = digits(c, off, 4);
+        int month = digits(c, off + 5, 2);
+        int day = digits(c, off + 8, 2);
+        int hour = digits(c, off + 11, 2);
+        int minute = digits(c, off + 14, 2);
+        int second = digits(c, off + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+
+        int nanos = 0;
+        int pos = off + 19;
+        int end = off + len - 1;
+        if (pos < end) {
+            int fractionDigits = end - pos - 1;
+            if (c[pos] != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                return null;
+            }
+            int fraction = digits(c, pos + 1, fractionDigits);
+            if (fraction < 0) {
+                return null;
+            }
+            nanos = fraction * NANO_SCALE[fractionDigits];
+        }
+
+        long epochSecond = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return Instant.ofEpochSecond(epochSecond, nanos);
+    }
+
+    /** @return the decimal value of count digits, or -1 if any is not a digit */
+    private static int digits(char[] c, int off, int count) {
+        int value = 0;
+        for (int i = off; i < off + count; i++) {
+            int d = c[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static boolean isLeap(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /** Same arithmetic as LocalDate.toEpochDay, for non-negative years. */
+    private static long epochDay(long year, long month, long day) {
+        long total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
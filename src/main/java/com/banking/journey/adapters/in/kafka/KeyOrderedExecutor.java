@@ -0,0 +1,80 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of single-threaded lanes. Tasks submitted with the same key
+ * always land on the same lane, so they run one at a time in submission
+ * order, while different keys run in parallel.
+ * <p>
+ * Lanes are platform threads by default; {@link #virtual(int, String)} backs
+ * each lane with a JDK 21 virtual thread, so thousands of lanes (and thus
+ * in-flight blocking events) cost almost nothing while parked on I/O.
+ * </p>
+ */
+public class KeyOrderedExecutor {
+
+    private final ExecutorService[] lanes;
+
+    public KeyOrderedExecutor(int laneCount, String threadNamePrefix) {
+        this(laneCount, i -> Thread.ofPlatform().name(threadNamePrefix + i).daemon(true).factory());
+    }
+
+    private KeyOrderedExecutor(int laneCount, LaneThreadFactory threadFactory) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be >= 1");
+        }
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(threadFactory.forLane(i));
+        }
+    }
+
+    /**
+     * Creates an executor whose lanes run on virtual threads. The lane count
+     * is the bound on concurrently processed keys.
+     */
+    public static KeyOrderedExecutor virtual(int laneCount, String threadNamePrefix) {
+        return new KeyOrderedExecutor(laneCount, i -> Thread.ofVirtual().name(threadNamePrefix + i).factory());
+    }
+
+    /**
+     * Runs the task on the lane owning the given key.
+     *
+     * @param key  ordering key (null keys share one lane)
+     * @param task work to run
+     * @return future completed with the task result
+     */
+    public <T> CompletableFuture<T> submit(String key, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, laneFor(key));
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public void shutdown(long timeoutMs) throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ExecutorService laneFor(String key) {
+        int hash = key != null ? key.hashCode() : 0;
+        return lanes[Math.floorMod(hash, lanes.length)];
+    }
+
+    @FunctionalInterface
+    private interface LaneThreadFactory {
+        ThreadFactory forLane(int lane);
+    }
+}
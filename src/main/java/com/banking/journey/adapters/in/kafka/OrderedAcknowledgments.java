@@ -0,0 +1,187 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * Acknowledges the records of each partition in offset order once their
+ * asynchronous work has finished, for {@link EventConsumer} with
+ * {@code journey.kafka.async-publish.enabled=true}.
+ * <p>
+ * Each tracked record carries a future of whether it is done (true) or must
+ * be redelivered (false). A record is acknowledged only when it and every
+ * earlier tracked record of its partition are done, so the committed offset
+ * never passes unfinished work. Acknowledgments may happen on completion
+ * threads; the container commits them on the consumer thread.
+ * </p>
+ * <p>
+ * When a record must be redelivered, later records of its partition are not
+ * acknowledged; the next {@link #admit} call (or {@link #reseekFailed} while
+ * the container is idle) re-seeks the partition to it.
+ * Records after it that did finish are remembered in a
+ * {@link PartitionOffsetTracker} and not processed again.
+ * </p>
+ */
+final class OrderedAcknowledgments {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderedAcknowledgments.class);
+
+    /** What the listener does with a delivered record. */
+    enum Admission {
+        /** Process it and {@link #track} the result */
+        PROCESS,
+        /** Finished before a re-seek: track it as done without processing */
+        COMPLETED,
+        /** Delivered ahead of a re-seek: ignore, it comes again */
+        SKIP,
+        /** The partition was just re-seeked: ignore, it comes again after the redelivery backoff */
+        RESEEKED
+    }
+
+    private final Map<TopicPartition, Lane> lanes = new ConcurrentHashMap<>();
+    private final PartitionOffsetTracker completedAfterFailure = new PartitionOffsetTracker();
+    private final Semaphore pending;
+
+    OrderedAcknowledgments(int maxPendingRecords) {
+        this.pending = new Semaphore(Math.max(1, maxPendingRecords));
+    }
+
+    /**
+     * Called on the consumer thread before a record is processed. Re-seeks the
+     * record's partition if an earlier record of it must be redelivered.
+     */
+    Admission admit(ConsumerRecord<?, ?> record, Consumer<?, ?> consumer) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        Lane lane = lanes.computeIfAbsent(partition, tp -> new Lane());
+        if (reseek(partition, lane, consumer::seek)) {
+            return Admission.RESEEKED;
+        }
+
+        if (lane.resumeOffset != null) {
+            // Records of the poll before the seek are still being delivered
+            if (record.offset() > lane.resumeOffset) {
+                return Admission.SKIP;
+            }
+            lane.resumeOffset = null;
+        }
+        return completedAfterFailure.isCompleted(partition, record.offset())
+                ? Admission.COMPLETED
+                : Admission.PROCESS;
+    }
+
+    /**
+     * Called on the consumer thread after a record was handed off. Blocks while
+     * {@code max-pending-records} tracked records are unfinished.
+     *
+     * @param done completes with true once the record is finished, false (or
+     *             exceptionally) if it must be redelivered
+     */
+    void track(ConsumerRecord<?, ?> record, Acknowledgment ack, CompletableFuture<Boolean> done) {
+        pending.acquireUninterruptibly();
+        done.whenComplete((result, error) -> pending.release());
+
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        Lane lane = lanes.computeIfAbsent(partition, tp -> new Lane());
+        long offset = record.offset();
+        synchronized (lane) {
+            lane.tail = lane.tail.thenCombine(done.exceptionally(error -> false),
+                    (earlierDone, recordDone) -> settle(lane, partition, offset, ack, earlierDone, recordDone));
+        }
+    }
+
+    /**
+     * Called on the consumer thread while no records arrive: re-seeks every
+     * partition that has a record to redeliver.
+     *
+     * @return true if any partition was re-seeked
+     */
+    boolean reseekFailed(BiConsumer<TopicPartition, Long> seek) {
+        boolean reseeked = false;
+        for (Map.Entry<TopicPartition, Lane> entry : lanes.entrySet()) {
+            reseeked |= reseek(entry.getKey(), entry.getValue(), seek);
+        }
+        return reseeked;
+    }
+
+    /**
+     * Forgets partitions no longer assigned to this consumer. Records of them
+     * still in flight settle without being remembered.
+     */
+    void forget(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            Lane lane = lanes.remove(partition);
+            if (lane != null) {
+                synchronized (lane) {
+                    lane.revoked = true;
+                }
+            }
+        }
+        completedAfterFailure.forget(partitions);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private boolean reseek(TopicPartition partition, Lane lane, BiConsumer<TopicPartition, Long> seek) {
+        Long failedOffset;
+        synchronized (lane) {
+            failedOffset = lane.failedOffset;
+            if (failedOffset == null) {
+                return false;
+            }
+            lane.failedOffset = null;
+            lane.tail = CompletableFuture.completedFuture(true);
+        }
+        seek.accept(partition, failedOffset);
+        lane.resumeOffset = failedOffset;
+        log.warn("action=partition_reseeked partition={} offset={} trackedOutOfOrder={}",
+                partition, failedOffset, completedAfterFailure.pendingCount());
+        return true;
+    }
+
+    private boolean settle(Lane lane, TopicPartition partition, long offset, Acknowledgment ack,
+            boolean earlierDone, boolean recordDone) {
+        if (earlierDone && recordDone) {
+            ack.acknowledge();
+            completedAfterFailure.committed(partition, offset + 1);
+            return true;
+        }
+        if (earlierDone) {
+            synchronized (lane) {
+                if (lane.failedOffset == null) {
+                    lane.failedOffset = offset;
+                }
+            }
+            log.warn("action=record_redelivery_pending partition={} offset={}", partition, offset);
+        } else if (recordDone) {
+            synchronized (lane) {
+                if (!lane.revoked) {
+                    completedAfterFailure.markCompleted(partition, offset);
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Acknowledgment chain of one partition. */
+    private static final class Lane {
+        /** Completes with true once every record tracked so far is acknowledged. Guarded by the lane. */
+        private CompletableFuture<Boolean> tail = CompletableFuture.completedFuture(true);
+        /** First record to redeliver. Guarded by the lane. */
+        private Long failedOffset;
+        /** Offset the partition was re-seeked to. Consumer thread only. */
+        private Long resumeOffset;
+        /** Set once the partition is revoked or lost. Guarded by the lane. */
+        private boolean revoked;
+    }
+}
@@ -0,0 +1,255 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.adapters.flowcontrol.AdaptiveConcurrencyLimit;
+import com.banking.journey.adapters.flowcontrol.BackpressureController;
+import com.banking.journey.application.port.in.ProcessEventUseCase;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.CustomerEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Kafka inbound adapter (parallel mode): Processes records of one partition
+ * concurrently, sharded by record key (customerId).
+ * <p>
+ * Ordering only matters per customer, and {@code customerId} is the record
+ * key, so each poll is fanned out over a {@link KeyOrderedExecutor}: records
+ * with the same key run sequentially on one lane, different keys run in
+ * parallel. Error handling per record matches {@link EventConsumer}.
+ * </p>
+ * <p>
+ * <b>Offsets:</b> after the poll completes, each partition commits up to its
+ * highest contiguous completed offset. On a transient error the key is
+ * blocked for the rest of the poll (later records of that customer are not
+ * run) and the partition is re-seeked to the first incomplete record. Records
+ * after it that already completed are remembered in a
+ * {@link PartitionOffsetTracker} and skipped on redelivery, until the
+ * partition is revoked or lost. With
+ * {@code journey.kafka.retry.enabled=true} transient failures are parked in
+ * the retry topics instead ({@link RetryTopicRouter}).
+ * </p>
+ * <p>
+ * With {@code journey.execution.virtual-threads=true} the lanes are virtual
+ * threads and {@code journey.execution.max-in-flight} bounds how many events
+ * are processed concurrently.
+ * </p>
+ * <p>
+ * With {@code journey.backpressure.enabled=true} each event also takes a
+ * permit from the {@link BackpressureController}'s adaptive concurrency
+ * limit, so fewer events are in flight while the downstream ports are slow.
+ * </p>
+ * <p>
+ * Enabled with {@code journey.kafka.consumer-mode=parallel}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "journey.kafka", name = "consumer-mode", havingValue = "parallel")
+public class ParallelEventConsumer implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelEventConsumer.class);
+
+    private final ProcessEventUseCase processEventUseCase;
+    private final CustomerEventParser eventParser;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final RetryTopicRouter retryRouter;
+    private final KeyOrderedExecutor executor;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final PartitionOffsetTracker offsetTracker = new PartitionOffsetTracker();
+    private final long redeliveryBackoffMs;
+
+    public ParallelEventConsumer(ProcessEventUseCase processEventUseCase,
+            CustomerEventParser eventParser,
+            DeadLetterPublisher deadLetterPublisher,
+            RetryTopicRouter retryRouter,
+            BackpressureController backpressureController,
+            JourneyProperties journeyProperties) {
+        this.processEventUseCase = processEventUseCase;
+        this.eventParser = eventParser;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.retryRouter = retryRouter;
+        JourneyProperties.Execution execution = journeyProperties.getExecution();
+        this.executor = execution.isVirtualThreads()
+                ? KeyOrderedExecutor.virtual(execution.getMaxInFlight(), "journey-vworker-")
+                : new KeyOrderedExecutor(journeyProperties.getKafka().getConsumerParallelism(), "journey-worker-");
+        this.concurrencyLimit = backpressureController.concurrencyLimit();
+        this.redeliveryBackoffMs = journeyProperties.getKafka().getConsumerBatchRedeliveryBackoffMs();
+    }
+
+    @KafkaListener(topics = "${journey.kafka.topics.customer-events:customer-events}", groupId = "journey-orchestrator", containerFactory = "kafkaListenerContainerFactory")
+    public void consumeParallel(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        log.info("action=parallel_batch_received size={} lanes={}", records.size(), executor.laneCount());
+
+        // Keys that hit a transient error in this poll: their later records must wait
+        Set<String> blockedKeys = ConcurrentHashMap.newKeySet();
+        Map<ConsumerRecord<String, byte[]>, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (offsetTracker.isCompleted(partition, record.offset())) {
+                results.put(record, CompletableFuture.completedFuture(true));
+                continue;
+            }
+            String laneKey = partition + "/" + record.key();
+            results.put(record, executor.submit(record.key(), () -> handle(record, laneKey, blockedKeys)));
+        }
+
+        CompletableFuture.allOf(results.values().toArray(new CompletableFuture<?>[0])).join();
+
+        commitContiguous(results, consumer);
+    }
+
+    /**
+     * Forgets out-of-order completions of partitions no longer assigned here.
+     * The container calls this for lost partitions too.
+     */
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        offsetTracker.forget(partitions);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown(redeliveryBackoffMs + 5000);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    /**
+     * Processes one record on its lane.
+     *
+     * @return true if the record is done (processed or routed to the DLQ),
+     *         false if it must be redelivered
+     */
+    private boolean handle(ConsumerRecord<String, byte[]> record, String laneKey, Set<String> blockedKeys) {
+        if (blockedKeys.contains(laneKey)) {
+            return false;
+        }
+        if (retryRouter.isParked(record.key())) {
+            // An earlier record of this customer is in a retry tier
+            if (retryRouter.park(record, null)) {
+                return true;
+            }
+            blockedKeys.add(laneKey);
+            return false;
+        }
+
+        try {
+            MDC.put("kafkaTopic", record.topic());
+            MDC.put("kafkaPartition", String.valueOf(record.partition()));
+            MDC.put("kafkaOffset", String.valueOf(record.offset()));
+
+            CustomerEvent event = eventParser.parse(record);
+            MDC.put("customerId", event.getCustomerId());
+            MDC.put("eventId", event.getEventId());
+            MDC.put("eventType", event.getEventType().name());
+
+            concurrencyLimit.acquire();
+            try {
+                processEventUseCase.process(event);
+            } finally {
+                concurrencyLimit.release();
+            }
+            return true;
+
+        } catch (Exception e) {
+            String errorType = DeadLetterPublisher.classify(e);
+            if (errorType == null) {
+                log.error("action=transient_error key={} partition={} offset={} error={}",
+                        record.key(), record.partition(), record.offset(), e.getMessage());
+                if (retryRouter.park(record, e)) {
+                    return true;
+                }
+                blockedKeys.add(laneKey);
+                return false;
+            }
+            log.error("action=record_failed key={} partition={} offset={} errorType={} error={}",
+                    record.key(), record.partition(), record.offset(), errorType, e.getMessage());
+            deadLetterPublisher.send(record, errorType, e);
+            return true;
+
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * Commits each partition up to its highest contiguous completed offset and
+     * re-seeks partitions that still have incomplete records.
+     */
+    private void commitContiguous(Map<ConsumerRecord<String, byte[]>, CompletableFuture<Boolean>> results,
+            Consumer<?, ?> consumer) {
+        Map<TopicPartition, List<ConsumerRecord<String, byte[]>>> byPartition = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> record : results.keySet()) {
+            byPartition.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                    tp -> new ArrayList<>()).add(record);
+        }
+
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        Map<TopicPartition, Long> seeks = new HashMap<>();
+
+        byPartition.forEach((partition, partitionRecords) -> {
+            Long firstIncomplete = null;
+            long lastContiguous = -1;
+            for (ConsumerRecord<String, byte[]> record : partitionRecords) {
+                boolean done = results.get(record).join();
+                if (!done) {
+                    if (firstIncomplete == null) {
+                        firstIncomplete = record.offset();
+                    }
+                } else if (firstIncomplete == null) {
+                    lastContiguous = record.offset();
+                } else {
+                    offsetTracker.markCompleted(partition, record.offset());
+                }
+            }
+            if (lastContiguous >= 0) {
+                commits.put(partition, new OffsetAndMetadata(lastContiguous + 1));
+            }
+            if (firstIncomplete != null) {
+                seeks.put(partition, firstIncomplete);
+            }
+        });
+
+        if (!commits.isEmpty()) {
+            consumer.commitSync(commits);
+            commits.forEach((partition, offset) -> offsetTracker.committed(partition, offset.offset()));
+        }
+
+        if (!seeks.isEmpty()) {
+            seeks.forEach(consumer::seek);
+            log.warn("action=partitions_reseeked partitions={} trackedOutOfOrder={}",
+                    seeks, offsetTracker.pendingCount());
+            sleepBeforeRedelivery();
+        }
+    }
+
+    private void sleepBeforeRedelivery() {
+        try {
+            Thread.sleep(redeliveryBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
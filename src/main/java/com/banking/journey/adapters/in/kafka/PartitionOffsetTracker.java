@@ -0,0 +1,65 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Remembers offsets that were processed out of order, above the last
+ * committed offset of each partition.
+ * <p>
+ * When a partition is re-seeked to redeliver a failed record, records after
+ * it that already completed are recognised here and skipped instead of being
+ * processed twice. Entries below the committed offset are discarded, and
+ * all of a partition's entries once it is revoked or lost.
+ * </p>
+ */
+public class PartitionOffsetTracker {
+
+    private final Map<TopicPartition, NavigableSet<Long>> completed = new ConcurrentHashMap<>();
+
+    public boolean isCompleted(TopicPartition partition, long offset) {
+        NavigableSet<Long> offsets = completed.get(partition);
+        return offsets != null && offsets.contains(offset);
+    }
+
+    public void markCompleted(TopicPartition partition, long offset) {
+        completed.computeIfAbsent(partition, tp -> new ConcurrentSkipListSet<>()).add(offset);
+    }
+
+    /**
+     * Drops tracking for everything below the newly committed offset.
+     *
+     * @param partition  partition that was committed
+     * @param nextOffset committed offset (next offset to consume)
+     */
+    public void committed(TopicPartition partition, long nextOffset) {
+        NavigableSet<Long> offsets = completed.get(partition);
+        if (offsets != null) {
+            offsets.headSet(nextOffset).clear();
+            if (offsets.isEmpty()) {
+                completed.remove(partition, offsets);
+            }
+        }
+    }
+
+    /**
+     * Drops tracking for partitions no longer assigned to this consumer: their
+     * next owner starts from the committed offset, and so does this consumer
+     * if they come back.
+     */
+    public void forget(Collection<TopicPartition> partitions) {
+        partitions.forEach(completed::remove);
+    }
+
+    /**
+     * @return number of out-of-order completed offsets currently tracked
+     */
+    public int pendingCount() {
+        return completed.values().stream().mapToInt(NavigableSet::size).sum();
+    }
+}
@@ -0,0 +1,178 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.application.port.in.ProcessEventUseCase;
+import com.banking.journey.domain.entity.CustomerEvent;
+
+/**
+ * Kafka inbound adapter for the retry tiers: one listener container per
+ * {@code customer-events-retry-*} topic, so a long tier never holds up a
+ * short one.
+ * <p>
+ * Every record in a tier was parked with the same delay, so records come due
+ * in offset order. A record that is not due yet is nacked with the time left
+ * until its {@code journey-retry-not-before}: the container pauses the
+ * consumer, keeps polling (so the group stays healthy) and redelivers the
+ * record once it is due. Each tier is its own consumer group
+ * ({@code journey-orchestrator-retry-<tier>}), so a waiting tier never holds up
+ * a rebalance of the main listeners or of another tier. A due record is then
+ * handled like this:
+ * </p>
+ * <ol>
+ * <li>re-parks the record if an older record of the same customer is still
+ * pending ({@link RetryTopicRouter#isHead})</li>
+ * <li>processes it; a transient failure escalates to the next tier or, after
+ * the last one, to the DLQ as {@code RETRY_EXHAUSTED}</li>
+ * <li>sends parse, business and unknown errors to the DLQ as
+ * {@link EventConsumer} does</li>
+ * </ol>
+ * <p>
+ * Enabled with {@code journey.kafka.retry.enabled=true}, for every consumer
+ * mode.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "journey.kafka.retry", name = "enabled", havingValue = "true")
+public class RetryTopicConsumer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryTopicConsumer.class);
+
+    private final ProcessEventUseCase processEventUseCase;
+    private final CustomerEventParser eventParser;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final RetryTopicRouter retryRouter;
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    /** Created on the first start, once this bean is fully constructed. */
+    private final List<KafkaMessageListenerContainer<String, byte[]>> containers = new ArrayList<>();
+
+    public RetryTopicConsumer(ProcessEventUseCase processEventUseCase,
+            CustomerEventParser eventParser,
+            DeadLetterPublisher deadLetterPublisher,
+            RetryTopicRouter retryRouter,
+            ConsumerFactory<String, byte[]> consumerFactory) {
+        this.processEventUseCase = processEventUseCase;
+        this.eventParser = eventParser;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.retryRouter = retryRouter;
+        this.consumerFactory = consumerFactory;
+    }
+
+    void consumeRetry(int tier, ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        String key = record.key();
+        try {
+            MDC.put("kafkaTopic", record.topic());
+            MDC.put("kafkaPartition", String.valueOf(record.partition()));
+            MDC.put("kafkaOffset", String.valueOf(record.offset()));
+
+            long dueInMs = dueInMs(record);
+            if (dueInMs > 0) {
+                // Redelivered (this record first) once due; the consumer polls paused meanwhile
+                ack.nack(Duration.ofMillis(dueInMs));
+                return;
+            }
+
+            if (!retryRouter.isHead(record)) {
+                requireRouted(retryRouter.requeueBehind(record, tier), record);
+                ack.acknowledge();
+                return;
+            }
+
+            try {
+                CustomerEvent event = eventParser.parse(record);
+                MDC.put("customerId", event.getCustomerId());
+                MDC.put("eventId", event.getEventId());
+                MDC.put("eventType", event.getEventType().name());
+
+                processEventUseCase.process(event);
+                retryRouter.resolve(record, tier);
+                log.info("action=retry_succeeded key={} topic={} attempt={}",
+                        key, record.topic(), RetryTopicRouter.intHeader(
+                                record.headers(), RetryTopicRouter.ATTEMPT_HEADER, 0) + 1);
+
+            } catch (Exception e) {
+                String errorType = DeadLetterPublisher.classify(e);
+                if (errorType == null) {
+                    log.error("action=retry_transient_error key={} topic={} error={}",
+                            key, record.topic(), e.getMessage());
+                    requireRouted(retryRouter.escalate(record, tier, e), record);
+                } else {
+                    log.error("action=retry_record_failed key={} topic={} errorType={} error={}",
+                            key, record.topic(), errorType, e.getMessage());
+                    deadLetterPublisher.send(record, errorType, e);
+                    retryRouter.resolve(record, tier);
+                }
+            }
+            ack.acknowledge();
+
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (containers.isEmpty()) {
+            createContainers();
+        }
+        containers.forEach(KafkaMessageListenerContainer::start);
+        log.info("action=retry_consumers_started topics={}", retryRouter.tierTopics());
+    }
+
+    @Override
+    public void stop() {
+        containers.forEach(KafkaMessageListenerContainer::stop);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return containers.stream().anyMatch(KafkaMessageListenerContainer::isRunning);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void createContainers() {
+        List<String> topics = retryRouter.tierTopics();
+        for (int tier = 0; tier < topics.size(); tier++) {
+            int currentTier = tier;
+            ContainerProperties properties = new ContainerProperties(topics.get(tier));
+            properties.setGroupId("journey-orchestrator-retry-" + tier);
+            properties.setAckMode(ContainerProperties.AckMode.MANUAL);
+            properties.setMessageListener((AcknowledgingMessageListener<String, byte[]>) (record,
+                    ack) -> consumeRetry(currentTier, record, ack));
+
+            KafkaMessageListenerContainer<String, byte[]> container = new KafkaMessageListenerContainer<>(
+                    consumerFactory, properties);
+            container.setBeanName("retryTier" + tier);
+            containers.add(container);
+        }
+    }
+
+    private static long dueInMs(ConsumerRecord<String, byte[]> record) {
+        long notBefore = RetryTopicRouter.longHeader(record.headers(), RetryTopicRouter.NOT_BEFORE_HEADER, 0L);
+        return notBefore - System.currentTimeMillis();
+    }
+
+    private static void requireRouted(boolean routed, ConsumerRecord<String, byte[]> record) {
+        if (!routed) {
+            // Not acknowledged → redelivered from the retry topic
+            throw new RuntimeException("Could not re-park retried record key=" + record.key()
+                    + " offset=" + record.offset());
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.banking.journey.adapters.in.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.adapters.out.cache.LocalStateCache;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routes transiently failed records through the non-blocking retry tiers
+ * ({@code customer-events-retry-1s/10s/60s} by default) instead of
+ * redelivering them on the main topic, so one customer's outage does not
+ * stall the whole partition.
+ * <p>
+ * <b>Per-key ordering:</b> while a customer has a record parked in a tier,
+ * its later records are parked behind it (reason {@code PARKED_BEHIND}),
+ * and a retry tier only processes the oldest parked record of a key; younger
+ * ones are re-parked until it resolves.
+ * </p>
+ * <p>
+ * Parked records live in Redis, shared by all instances, because a retry
+ * tier's partition can be consumed by another instance than the one owning
+ * the main partition. Each customer has a hash
+ * {@code <key-prefix>parked:<customerId>} of sequence → tier. Sequences come
+ * from {@code INCR <key-prefix>seq}, so they order records across instances.
+ * The hash expires {@code parked-ttl} after its last change. A resolution
+ * that never happens (a crash, or a record lost from a retry topic) therefore
+ * releases the key after that long instead of parking it forever.
+ * </p>
+ * <p>
+ * {@link #isParked} runs for every main-topic record and asks Redis
+ * ({@code EXISTS}) every time, so a partition's new owner after a rebalance
+ * keeps parking behind the keys its old owner parked.
+ * </p>
+ * <p>
+ * Disabled unless {@code journey.kafka.retry.enabled=true}; then
+ * {@link #isParked} is always false and {@link #park} returns false, and
+ * listeners keep redelivering transient failures as before.
+ * </p>
+ */
+@Component
+public class RetryTopicRouter {
+
+    public static final String ATTEMPT_HEADER = "journey-retry-attempt";
+    public static final String TIER_HEADER = "journey-retry-tier";
+    public static final String NOT_BEFORE_HEADER = "journey-retry-not-before";
+    public static final String SEQUENCE_HEADER = "journey-retry-seq";
+    public static final String REASON_HEADER = "journey-retry-reason";
+    public static final String RETRY_EXHAUSTED = "RETRY_EXHAUSTED";
+
+    private static final String PARKED_BEHIND = "PARKED_BEHIND";
+    private static final int MAX_REASON_LENGTH = 200;
+
+    private static final Logger log = LoggerFactory.getLogger(RetryTopicRouter.class);
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final LocalStateCache stateCache;
+    private final boolean enabled;
+    private final List<String> tierTopics = new ArrayList<>();
+    private final List<Duration> tierDelays;
+    private final long publishAckTimeoutMs;
+    private final String parkedPrefix;
+    private final String sequenceKey;
+    private final Duration parkedTtl;
+
+    private final Counter[] routedCounters;
+    private final Counter exhaustedCounter;
+    private final DistributionSummary resolvedDepth;
+
+    public RetryTopicRouter(KafkaTemplate<String, byte[]> binaryKafkaTemplate,
+            StringRedisTemplate redisTemplate,
+            DeadLetterPublisher deadLetterPublisher,
+            LocalStateCache stateCache,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
+        this.kafkaTemplate = binaryKafkaTemplate;
+        this.redisTemplate = redisTemplate;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.stateCache = stateCache;
+        JourneyProperties.Retry retry = journeyProperties.getKafka().getRetry();
+        this.enabled = retry.isEnabled() && !retry.getDelays().isEmpty();
+        this.tierDelays = List.copyOf(retry.getDelays());
+        this.publishAckTimeoutMs = journeyProperties.getKafka().getPublishAckTimeoutMs();
+        this.parkedPrefix = retry.getKeyPrefix() + "parked:";
+        this.sequenceKey = retry.getKeyPrefix() + "seq";
+        this.parkedTtl = retry.getParkedTtl();
+
+        String customerEvents = journeyProperties.getKafka().getTopics().getCustomerEvents();
+        this.routedCounters = new Counter[tierDelays.size()];
+        for (int tier = 0; tier < tierDelays.size(); tier++) {
+            String topic = retry.topicName(customerEvents, tier);
+            tierTopics.add(topic);
+            routedCounters[tier] = meterRegistry.counter("journey.retry.routed", "topic", topic);
+        }
+        this.exhaustedCounter = meterRegistry.counter("journey.retry.exhausted");
+        this.resolvedDepth = DistributionSummary.builder("journey.retry.depth")
+                .description("Retry tiers a parked record went through before it resolved")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> tierTopics() {
+        return tierTopics;
+    }
+
+    public Duration tierDelay(int tier) {
+        return tierDelays.get(tier);
+    }
+
+    /**
+     * @return true if the key has records parked in a retry tier, so a new
+     *         record for it must be parked behind them
+     */
+    public boolean isParked(String key) {
+        if (!enabled || key == null) {
+            return false;
+        }
+        try {
+            // Parked by any instance, including a previous owner of this partition
+            return Boolean.TRUE.equals(redisTemplate.hasKey(parkedKey(key)));
+        } catch (RuntimeException e) {
+            // Cannot tell: keep parking behind, which preserves the order
+            log.warn("action=retry_parked_check_failed key={} error={}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Parks a record from the main topic in the first retry tier.
+     *
+     * @param cause the transient failure, or null if the record is parked
+     *              behind an earlier record of the same key
+     * @return true once the retry topic acknowledged the record, false if
+     *         retries are disabled or the send failed (redeliver instead)
+     */
+    public boolean park(ConsumerRecord<String, byte[]> record, Exception cause) {
+        if (!enabled) {
+            return false;
+        }
+        // The retry consumer may run on another instance: stop trusting the cached state
+        stateCache.invalidate(record.key());
+        long seq;
+        try {
+            seq = nextSequence();
+            track(record.key(), seq, 0);
+        } catch (RuntimeException e) {
+            log.error("action=record_park_failed key={} error={}", record.key(), e.getMessage());
+            return false;
+        }
+        if (!forward(record, 0, 0, seq, reason(cause))) {
+            untrack(record.key(), seq);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Moves a retried record that failed transiently again to the next tier,
+     * or to the DLQ once the last tier is exhausted.
+     *
+     * @return false if the record could not be forwarded and must be
+     *         redelivered from its retry topic
+     */
+    public boolean escalate(ConsumerRecord<String, byte[]> record, int tier, Exception cause) {
+        int attempt = intHeader(record.headers(), ATTEMPT_HEADER, 0) + 1;
+        long seq = sequenceOf(record);
+        if (tier + 1 >= tierTopics.size()) {
+            log.error("action=retry_exhausted key={} topic={} attempts={} error={}",
+                    record.key(), record.topic(), attempt, cause.getMessage());
+            deadLetterPublisher.send(record, RETRY_EXHAUSTED, cause);
+            exhaustedCounter.increment();
+            resolve(record, tier);
+            return true;
+        }
+        move(record.key(), seq, tier + 1);
+        if (!forward(record, tier + 1, attempt, seq, reason(cause))) {
+            move(record.key(), seq, tier);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Re-parks a retried record whose key still has an older record pending,
+     * in the tier that older record is waiting in. Does not count as an
+     * attempt.
+     */
+    public boolean requeueBehind(ConsumerRecord<String, byte[]> record, int tier) {
+        long seq = sequenceOf(record);
+        int headTier = Math.max(tier, headTier(record.key()));
+        move(record.key(), seq, headTier);
+        if (!forward(record, headTier, intHeader(record.headers(), ATTEMPT_HEADER, 0), seq, PARKED_BEHIND)) {
+            move(record.key(), seq, tier);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the record is the oldest one parked for its key (or its
+     *         key has nothing parked any more) and may be processed now
+     */
+    public boolean isHead(ConsumerRecord<String, byte[]> record) {
+        if (record.key() == null) {
+            return true;
+        }
+        try {
+            Map.Entry<Long, Integer> head = head(record.key());
+            return head == null || head.getKey() >= sequenceOf(record);
+        } catch (RuntimeException e) {
+            // Processing needs Redis too and will fail transiently if it is really down
+            log.warn("action=retry_head_check_failed key={} error={}", record.key(), e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Marks a retried record as done (processed or sent to the DLQ) and
+     * releases its key once nothing else is parked for it.
+     */
+    public void resolve(ConsumerRecord<String, byte[]> record, int tier) {
+        resolvedDepth.record(tier + 1);
+        untrack(record.key(), sequenceOf(record));
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private boolean forward(ConsumerRecord<String, byte[]> record, int tier, int attempt, long seq, String reason) {
+        String topic = tierTopics.get(tier);
+        long notBefore = System.currentTimeMillis() + tierDelays.get(tier).toMillis();
+
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("journey-retry-")) {
+                headers.add(header);
+            }
+        }
+        headers.add(ATTEMPT_HEADER, bytes(Integer.toString(attempt)));
+        headers.add(TIER_HEADER, bytes(Integer.toString(tier)));
+        headers.add(NOT_BEFORE_HEADER, bytes(Long.toString(notBefore)));
+        headers.add(SEQUENCE_HEADER, bytes(Long.toString(seq)));
+        headers.add(REASON_HEADER, bytes(reason));
+
+        try {
+            kafkaTemplate.send(new ProducerRecord<>(topic, null, record.key(), record.value(), headers))
+                    .get(publishAckTimeoutMs, TimeUnit.MILLISECONDS);
+            routedCounters[tier].increment();
+            log.warn("action=record_parked key={} from={} offset={} retryTopic={} attempt={} reason={}",
+                    record.key(), record.topic(), record.offset(), topic, attempt, reason);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("action=record_park_interrupted key={} retryTopic={}", record.key(), topic);
+            return false;
+        } catch (Exception e) {
+            log.error("action=record_park_failed key={} retryTopic={} error={}", record.key(), topic, e.getMessage());
+            return false;
+        }
+    }
+
+    private long nextSequence() {
+        Long seq = redisTemplate.opsForValue().increment(sequenceKey);
+        if (seq == null) {
+            throw new IllegalStateException("INCR " + sequenceKey + " returned no value");
+        }
+        return seq;
+    }
+
+    // Records without a key carry no ordering and are not tracked
+    private void track(String key, long seq, int tier) {
+        if (key == null) {
+            return;
+        }
+        String parkedKey = parkedKey(key);
+        redisTemplate.opsForHash().put(parkedKey, Long.toString(seq), Integer.toString(tier));
+        redisTemplate.expire(parkedKey, parkedTtl);
+    }
+
+    private void move(String key, long seq, int toTier) {
+        if (key == null) {
+            return;
+        }
+        // Only the consumer handling this record moves or resolves it, so the field is still there
+        track(key, seq, toTier);
+    }
+
+    private void untrack(String key, long seq) {
+        if (key == null) {
+            return;
+        }
+        try {
+            // The hash disappears with its last field
+            redisTemplate.opsForHash().delete(parkedKey(key), Long.toString(seq));
+        } catch (RuntimeException e) {
+            // Left to expire after parked-ttl
+            log.warn("action=retry_untrack_failed key={} seq={} error={}", key, seq, e.getMessage());
+        }
+    }
+
+    private int headTier(String key) {
+        Map.Entry<Long, Integer> head = key != null ? head(key) : null;
+        return head != null ? head.getValue() : 0;
+    }
+
+    /**
+     * @return the oldest parked record of the key as (sequence, tier), or null
+     */
+    private Map.Entry<Long, Integer> head(String key) {
+        Map.Entry<Long, Integer> head = null;
+        for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(parkedKey(key)).entrySet()) {
+            long seq = Long.parseLong((String) entry.getKey());
+            if (head == null || seq < head.getKey()) {
+                head = Map.entry(seq, Integer.parseInt((String) entry.getValue()));
+            }
+        }
+        return head;
+    }
+
+    private String parkedKey(String key) {
+        return parkedPrefix + key;
+    }
+
+    private static long sequenceOf(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(SEQUENCE_HEADER);
+        return header != null ? Long.parseLong(new String(header.value(), StandardCharsets.UTF_8)) : Long.MAX_VALUE;
+    }
+
+    static int intHeader(Headers headers, String name, int defaultValue) {
+        Header header = headers.lastHeader(name);
+        return header != null ? Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8)) : defaultValue;
+    }
+
+    static long longHeader(Headers headers, String name, long defaultValue) {
+        Header header = headers.lastHeader(name);
+        return header != null ? Long.parseLong(new String(header.value(), StandardCharsets.UTF_8)) : defaultValue;
+    }
+
+    private static String reason(Exception cause) {
+        if (cause == null) {
+            return PARKED_BEHIND;
+        }
+        String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return message.length() > MAX_REASON_LENGTH ? message.substring(0, MAX_REASON_LENGTH) : message;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,9 +1,12 @@
 package com.banking.journey.adapters.in.rest;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -15,8 +18,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.banking.journey.adapters.codec.CustomerEventWireCodec;
+import com.banking.journey.adapters.codec.WireFormat;
+import com.banking.journey.adapters.out.redis.RedisStateStore;
+import com.banking.journey.adapters.out.redis.StateBucketMaintenance;
 import com.banking.journey.application.port.out.StateStore;
 import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -34,14 +43,23 @@ public class TestController {
     private static final String CUSTOMER_EVENTS_TOPIC = "customer-events";
 
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> binaryKafkaTemplate;
     private final StateStore stateStore;
+    private final RedisStateStore redisStateStore;
+    private final StateBucketMaintenance stateBucketMaintenance;
     private final ObjectMapper objectMapper;
 
     public TestController(KafkaTemplate<String, String> kafkaTemplate,
+            KafkaTemplate<String, byte[]> binaryKafkaTemplate,
             StateStore stateStore,
+            RedisStateStore redisStateStore,
+            StateBucketMaintenance stateBucketMaintenance,
             ObjectMapper objectMapper) {
         this.kafkaTemplate = kafkaTemplate;
+        this.binaryKafkaTemplate = binaryKafkaTemplate;
         this.stateStore = stateStore;
+        this.redisStateStore = redisStateStore;
+        this.stateBucketMaintenance = stateBucketMaintenance;
         this.objectMapper = objectMapper;
     }
 
@@ -55,18 +73,34 @@ public class TestController {
      * @param eventType  event type: CARD_APPLY, DOCUMENT_UPLOAD, APPROVAL,
      *                   REJECTION
      * @param segment    optional customer segment for metadata
+     * @param format     wire format: json (default) or binary
      * @return the published event details
      */
     @PostMapping("/events/{customerId}/{eventType}")
     public ResponseEntity<Map<String, Object>> publishEvent(
             @PathVariable String customerId,
             @PathVariable String eventType,
-            @RequestParam(required = false, defaultValue = "REGULAR") String segment) {
+            @RequestParam(required = false, defaultValue = "REGULAR") String segment,
+            @RequestParam(required = false, defaultValue = "json") String format) {
 
         String eventId = UUID.randomUUID().toString();
         String timestamp = Instant.now().toString();
 
         try {
+            if ("binary".equalsIgnoreCase(format)) {
+                publishBinary(eventId, customerId, eventType, timestamp, segment);
+                log.info("action=test_event_published eventId={} customerId={} eventType={} format=binary",
+                        eventId, customerId, eventType);
+                return ResponseEntity.ok(Map.of(
+                        "status", "published",
+                        "eventId", eventId,
+                        "customerId", customerId,
+                        "eventType", eventType.toUpperCase(),
+                        "timestamp", timestamp,
+                        "topic", CUSTOMER_EVENTS_TOPIC,
+                        "format", WireFormat.BINARY));
+            }
+
             Map<String, Object> event = Map.of(
                     "event_id", eventId,
                     "customer_id", customerId,
@@ -99,6 +133,21 @@ public class TestController {
         }
     }
 
+    private void publishBinary(String eventId, String customerId, String eventType,
+            String timestamp, String segment) {
+        CustomerEvent event = new CustomerEvent(
+                eventId,
+                customerId,
+                EventType.valueOf(eventType.toUpperCase()),
+                Instant.parse(timestamp),
+                Map.of("segment", segment.toUpperCase(), "channel", "rest_api"));
+
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(CUSTOMER_EVENTS_TOPIC, customerId,
+                CustomerEventWireCodec.encode(event));
+        record.headers().add(WireFormat.CONTENT_TYPE_HEADER, WireFormat.contentTypeValue(WireFormat.BINARY));
+        binaryKafkaTemplate.send(record);
+    }
+
     /**
      * Retrieves the current journey state for a customer.
      * <p>
@@ -115,7 +164,32 @@ public class TestController {
                     "status", "no_active_journey"));
         }
 
-        Map<String, Object> response = Map.of(
+        return ResponseEntity.ok(stateView(state));
+    }
+
+    /**
+     * Retrieves the journey states of several customers with one store round
+     * trip.
+     * <p>
+     * Usage: GET /api/test/states?customerIds=C1,C2,C3
+     * </p>
+     */
+    @GetMapping("/states")
+    public ResponseEntity<Map<String, Object>> getStates(@RequestParam List<String> customerIds) {
+        Map<String, CardApplicationState> states = stateStore.getStates(customerIds);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        for (String customerId : customerIds) {
+            CardApplicationState state = states.get(customerId);
+            response.put(customerId, state != null
+                    ? stateView(state)
+                    : Map.of("customerId", customerId, "status", "no_active_journey"));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    private static Map<String, Object> stateView(CardApplicationState state) {
+        return Map.of(
                 "customerId", state.getCustomerId(),
                 "currentStep", state.getCurrentStep().name(),
                 "documentCount", state.getDocumentCount(),
@@ -123,8 +197,80 @@ public class TestController {
                 "isComplete", state.isComplete(),
                 "startedAt", state.getStartedAt().toString(),
                 "updatedAt", state.getUpdatedAt().toString());
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Byte size of a journey's stored state, next to its size as JSON,
+     * binary and LZ4-compressed binary.
+     * <p>
+     * Usage: GET /api/test/state/{customerId}/size
+     * </p>
+     */
+    @GetMapping("/state/{customerId}/size")
+    public ResponseEntity<Map<String, Object>> getStateSize(@PathVariable String customerId) {
+        RedisStateStore.StateSizeReport report = redisStateStore.sizeReport(customerId);
+
+        if (report == null) {
+            return ResponseEntity.ok(Map.of(
+                    "customerId", customerId,
+                    "status", "no_active_journey"));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "customerId", report.customerId(),
+                "storedFormat", report.storedFormat().name(),
+                "storedBytes", report.storedBytes(),
+                "jsonBytes", report.jsonBytes(),
+                "binaryBytes", report.binaryBytes(),
+                "binaryCompressedBytes", report.binaryCompressedBytes()));
+    }
+
+    /**
+     * Memory per journey of the key layout (one key per customer) next to the
+     * bucketed hash layout, from sampled {@code MEMORY USAGE}.
+     * <p>
+     * Usage: GET /api/test/state/memory?sample=200
+     * </p>
+     */
+    @GetMapping("/state/memory")
+    public ResponseEntity<Map<String, Object>> getStateMemory(
+            @RequestParam(required = false, defaultValue = "200") int sample) {
+        StateBucketMaintenance.StateMemoryReport report = stateBucketMaintenance.memoryReport(sample);
+
+        return ResponseEntity.ok(Map.of(
+                "layout", report.layout().name(),
+                "customerKeys", layoutSample(report.customerKeys()),
+                "buckets", layoutSample(report.buckets())));
+    }
+
+    /**
+     * Moves journey states stored one key per customer into their buckets
+     * (hash layout). Repeat until {@code complete} is true.
+     * <p>
+     * Usage: POST /api/test/state/migrate?maxKeys=10000
+     * </p>
+     */
+    @PostMapping("/state/migrate")
+    public ResponseEntity<Map<String, Object>> migrateStates(
+            @RequestParam(required = false, defaultValue = "10000") int maxKeys) {
+        try {
+            StateBucketMaintenance.MigrationReport report = stateBucketMaintenance.migrate(maxKeys);
+            return ResponseEntity.ok(Map.of(
+                    "scannedKeys", report.scannedKeys(),
+                    "migratedKeys", report.migratedKeys(),
+                    "complete", report.complete()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+        }
+    }
+
+    private static Map<String, Object> layoutSample(StateBucketMaintenance.LayoutSample sample) {
+        return Map.of(
+                "keysSampled", sample.keys(),
+                "journeys", sample.journeys(),
+                "bytes", sample.bytes(),
+                "bytesPerJourney", sample.bytesPerJourney(),
+                "listpackKeys", sample.listpackKeys());
     }
 
     /**
@@ -0,0 +1,157 @@
+package com.banking.journey.adapters.in.streams;
+
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.streams.errors.StreamsException;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.processor.api.RecordMetadata;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import com.banking.journey.adapters.in.kafka.CustomerEventParser;
+import com.banking.journey.adapters.in.kafka.DeadLetterPublisher;
+import com.banking.journey.application.port.in.ProcessEventUseCase;
+import com.banking.journey.application.service.CardApplicationOrchestrator;
+import com.banking.journey.domain.entity.CustomerEvent;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Processes the customer events of one stream task through its own
+ * {@link CardApplicationOrchestrator}, whose StateStore is the task's
+ * partition-local store ({@link StreamsStateStore}).
+ * <p>
+ * Error handling matches EventConsumer: parse, business and unknown errors go
+ * to the DLQ and the record is skipped. Transient errors are rethrown after
+ * {@code consumer-batch-redelivery-backoff-ms}; the stream thread is then
+ * replaced and the task resumes from its last committed offset.
+ * </p>
+ * <p>
+ * Under {@code at_least_once} the state store can be ahead of the committed
+ * offset, so records are replayed into states that already reflect them. A
+ * processed record marks the customer's state with its offset
+ * ({@link StreamsStateStore#markApplied}); a record at or below the mark is
+ * skipped instead of being applied (and its action sent) twice. Counted as
+ * {@code journey.streams.events.replayed}.
+ * </p>
+ */
+final class JourneyEventProcessor implements Processor<String, byte[], Void, Void> {
+
+    private static final Logger log = LoggerFactory.getLogger(JourneyEventProcessor.class);
+
+    private final JourneyStreamsTopology topology;
+    private final CustomerEventParser eventParser;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final Counter expired;
+    private final Counter replayed;
+    private ProcessorContext<Void, Void> context;
+    private StreamsStateStore stateStore;
+    private ProcessEventUseCase orchestrator;
+
+    JourneyEventProcessor(JourneyStreamsTopology topology, CustomerEventParser eventParser,
+            DeadLetterPublisher deadLetterPublisher, Counter expired, Counter replayed) {
+        this.topology = topology;
+        this.eventParser = eventParser;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.expired = expired;
+        this.replayed = replayed;
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        this.context = context;
+        KeyValueStore<String, byte[]> store = context.getStateStore(JourneyStreamsTopology.STATE_STORE);
+        this.stateStore = topology.stateStore(store);
+        this.orchestrator = topology.orchestrator(stateStore);
+        context.schedule(topology.stateSweepInterval(), PunctuationType.WALL_CLOCK_TIME, now -> sweep());
+    }
+
+    @Override
+    public void process(Record<String, byte[]> record) {
+        ConsumerRecord<String, byte[]> consumerRecord = toConsumerRecord(record);
+        String key = record.key();
+        try {
+            MDC.put("kafkaTopic", consumerRecord.topic());
+            MDC.put("kafkaPartition", String.valueOf(consumerRecord.partition()));
+            MDC.put("kafkaOffset", String.valueOf(consumerRecord.offset()));
+            log.debug("action=event_received key={} partition={} offset={}",
+                    key, consumerRecord.partition(), consumerRecord.offset());
+
+            CustomerEvent event = eventParser.parse(consumerRecord);
+            MDC.put("customerId", event.getCustomerId());
+            MDC.put("eventId", event.getEventId());
+            MDC.put("eventType", event.getEventType().name());
+
+            long offset = consumerRecord.offset();
+            if (offset >= 0 && stateStore.appliedOffset(event.getCustomerId()) >= offset) {
+                replayed.increment();
+                log.info("action=event_replay_skipped key={} offset={}", key, offset);
+                return;
+            }
+
+            orchestrator.process(event);
+            if (offset >= 0) {
+                stateStore.markApplied(event.getCustomerId(), offset);
+            }
+
+        } catch (Exception e) {
+            String errorType = DeadLetterPublisher.classify(e);
+            if (errorType == null) {
+                log.error("action=transient_error key={} error={}", key, e.getMessage());
+                backOff();
+                throw new StreamsException("Transient infrastructure error", e);
+            }
+            log.error("action=event_failed key={} errorType={} error={}", key, errorType, e.getMessage());
+            deadLetterPublisher.send(consumerRecord, errorType, e);
+
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void sweep() {
+        try {
+            int removed = stateStore.sweepExpired();
+            if (removed > 0) {
+                expired.increment(removed);
+                log.info("action=streams_state_swept taskId={} expired={}", context.taskId(), removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("action=streams_state_sweep_failed taskId={} error={}", context.taskId(), e.getMessage());
+        }
+    }
+
+    private void backOff() {
+        try {
+            Thread.sleep(topology.redeliveryBackoffMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Same shape the listener adapters hand to the parser and the DLQ. */
+    private ConsumerRecord<String, byte[]> toConsumerRecord(Record<String, byte[]> record) {
+        Optional<RecordMetadata> metadata = context.recordMetadata();
+        return new ConsumerRecord<>(
+                metadata.map(RecordMetadata::topic).orElse(topology.customerEventsTopic()),
+                metadata.map(RecordMetadata::partition).orElse(-1),
+                metadata.map(RecordMetadata::offset).orElse(-1L),
+                record.timestamp(),
+                TimestampType.CREATE_TIME,
+                ConsumerRecord.NULL_SIZE,
+                ConsumerRecord.NULL_SIZE,
+                record.key(),
+                record.value(),
+                record.headers(),
+                Optional.empty());
+    }
+}
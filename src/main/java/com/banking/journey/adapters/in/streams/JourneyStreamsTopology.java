@@ -0,0 +1,132 @@
+package com.banking.journey.adapters.in.streams;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.adapters.in.kafka.CustomerEventParser;
+import com.banking.journey.adapters.in.kafka.DeadLetterPublisher;
+import com.banking.journey.application.port.in.ProcessEventUseCase;
+import com.banking.journey.application.port.out.ActionPublisher;
+import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.application.service.CardApplicationOrchestrator;
+import com.banking.journey.application.service.StateMachineEngine;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Kafka inbound adapter for {@code journey.kafka.consumer-mode=streams}: runs
+ * the same orchestrator and {@link StateMachineEngine} as the listener
+ * consumers, as a Kafka Streams topology
+ * <pre>
+ *   customer-events ──▶ JourneyEventProcessor ──▶ (actions via ActionPublisher)
+ *                              │
+ *                       journey-states (RocksDB) ──▶ &lt;application-id&gt;-journey-states-changelog
+ * </pre>
+ * Each stream task owns one customer-events partition and the journey states
+ * of exactly the customers keyed to it, so state reads and compare-and-set
+ * writes are local instead of a Redis round trip. The store is restored from
+ * its compacted changelog when a task moves, and standby replicas
+ * ({@code journey.kafka.streams.num-standby-replicas}) keep it warm elsewhere.
+ * <p>
+ * Audit records and actions still go through the EventStore and
+ * ActionPublisher ports. The non-blocking retry topics, backpressure and the
+ * local state cache only apply to the listener modes.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "journey.kafka", name = "consumer-mode", havingValue = "streams")
+public class JourneyStreamsTopology {
+
+    public static final String STATE_STORE = "journey-states";
+
+    private final EventStore eventStore;
+    private final StateStore fallbackStore;
+    private final StateMachineEngine stateMachineEngine;
+    private final ActionPublisher actionPublisher;
+    private final ProcessingMetrics processingMetrics;
+    private final CustomerEventParser eventParser;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final JourneyProperties journeyProperties;
+    private final Counter expired;
+    private final Counter replayed;
+
+    public JourneyStreamsTopology(EventStore eventStore,
+            StateStore stateStore,
+            StateMachineEngine stateMachineEngine,
+            ActionPublisher actionPublisher,
+            ProcessingMetrics processingMetrics,
+            CustomerEventParser eventParser,
+            DeadLetterPublisher deadLetterPublisher,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
+        this.eventStore = eventStore;
+        this.fallbackStore = journeyProperties.getKafka().getStreams().isStateFallback() ? stateStore : null;
+        this.stateMachineEngine = stateMachineEngine;
+        this.actionPublisher = actionPublisher;
+        this.processingMetrics = processingMetrics;
+        this.eventParser = eventParser;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.journeyProperties = journeyProperties;
+        this.expired = meterRegistry.counter("journey.state.streams.expired");
+        this.replayed = meterRegistry.counter("journey.streams.events.replayed");
+    }
+
+    /**
+     * Adds the journey state store and the customer-events processor to the
+     * builder.
+     */
+    public KStream<String, byte[]> build(StreamsBuilder builder) {
+        // Logging: writes go to a compacted changelog topic. Caching: repeated
+        // writes to a customer within a commit interval reach it once.
+        StoreBuilder<KeyValueStore<String, byte[]>> stateStore = Stores
+                .keyValueStoreBuilder(Stores.persistentKeyValueStore(STATE_STORE), Serdes.String(), Serdes.ByteArray())
+                .withLoggingEnabled(Map.of())
+                .withCachingEnabled();
+        builder.addStateStore(stateStore);
+
+        KStream<String, byte[]> events = builder.stream(customerEventsTopic(),
+                Consumed.with(Serdes.String(), Serdes.ByteArray()));
+        events.process(() -> new JourneyEventProcessor(this, eventParser, deadLetterPublisher, expired, replayed),
+                STATE_STORE);
+        return events;
+    }
+
+    // ─────────────────── Per-task wiring (JourneyEventProcessor) ───────────────────
+
+    StreamsStateStore stateStore(KeyValueStore<String, byte[]> store) {
+        JourneyProperties.Redis redis = journeyProperties.getRedis();
+        return new StreamsStateStore(store, fallbackStore, Duration.ofDays(redis.getStateTtlDays()),
+                redis.getStateCompressionThresholdBytes());
+    }
+
+    ProcessEventUseCase orchestrator(StateStore taskStateStore) {
+        return new CardApplicationOrchestrator(eventStore, taskStateStore, stateMachineEngine, actionPublisher,
+                processingMetrics, false, !journeyProperties.getAuditSink().isEnabled());
+    }
+
+    String customerEventsTopic() {
+        return journeyProperties.getKafka().getTopics().getCustomerEvents();
+    }
+
+    Duration stateSweepInterval() {
+        return journeyProperties.getKafka().getStreams().getStateSweepInterval();
+    }
+
+    long redeliveryBackoffMs() {
+        return journeyProperties.getKafka().getConsumerBatchRedeliveryBackoffMs();
+    }
+}
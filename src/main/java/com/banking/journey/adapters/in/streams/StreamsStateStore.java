@@ -0,0 +1,187 @@
+package com.banking.journey.adapters.in.streams;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.banking.journey.adapters.codec.StateWireCodec;
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.domain.entity.CardApplicationState;
+
+/**
+ * StateStore over the key-value store of one Kafka Streams task: the journey
+ * states of one customer-events partition, in RocksDB, with every write
+ * mirrored to the compacted changelog topic.
+ * <p>
+ * A task is only ever run by one stream thread, so compare-and-set is a plain
+ * read-compare-write. Values are {@link StateWireCodec} payloads, once
+ * {@link #markApplied marked} prefixed with the offset of the last
+ * customer-events record applied to the state:
+ * <pre>
+ *   'A' | long applied offset (big-endian) | StateWireCodec payload
+ * </pre>
+ * The mark is written by the same put as the state, so a state restored from
+ * the changelog tells which replayed records it already reflects.
+ * </p>
+ * <p>
+ * States expire {@code journey.redis.state-ttl-days} after their last update:
+ * expired entries read as absent and are removed by {@link #sweepExpired}.
+ * With a fallback store, a customer missing locally is read from it once and
+ * copied into the task store, so journeys started before the switch to
+ * streams mode carry on.
+ * </p>
+ */
+final class StreamsStateStore implements StateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamsStateStore.class);
+
+    /** {@link #appliedOffset} of a state never marked. */
+    static final long NO_OFFSET = -1;
+
+    /** First byte of a marked value; a bare payload starts with the wire magic. */
+    private static final byte APPLIED_MARK = 'A';
+    private static final int APPLIED_HEADER_BYTES = 1 + Long.BYTES;
+
+    private final KeyValueStore<String, byte[]> store;
+    private final StateStore fallback;
+    private final Duration ttl;
+    private final int compressionThresholdBytes;
+
+    /**
+     * @param fallback store to read customers missing locally from, or null
+     */
+    StreamsStateStore(KeyValueStore<String, byte[]> store, StateStore fallback, Duration ttl,
+            int compressionThresholdBytes) {
+        this.store = store;
+        this.fallback = fallback;
+        this.ttl = ttl;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+    }
+
+    @Override
+    public CardApplicationState getState(String customerId) {
+        byte[] value = store.get(customerId);
+        if (value != null) {
+            CardApplicationState state = decode(customerId, value);
+            if (!isExpired(state, System.currentTimeMillis())) {
+                return state;
+            }
+        }
+        CardApplicationState state = fallback != null ? fallback.getState(customerId) : null;
+        if (state == null) {
+            log.debug("action=state_not_found customerId={}", customerId);
+            return null;
+        }
+        store.put(customerId, StateWireCodec.encode(state, compressionThresholdBytes));
+        log.debug("action=state_imported customerId={} version={}", customerId, state.getVersion());
+        return state;
+    }
+
+    @Override
+    public void saveState(CardApplicationState state) {
+        store.put(state.getCustomerId(), StateWireCodec.encode(state, compressionThresholdBytes));
+        log.debug("action=state_saved customerId={} step={}", state.getCustomerId(), state.getCurrentStep());
+    }
+
+    @Override
+    public boolean compareAndSet(String customerId, long expectedVersion, CardApplicationState newState) {
+        if (newState.getVersion() != expectedVersion + 1) {
+            throw new IllegalArgumentException("State version " + newState.getVersion()
+                    + " does not follow expected version " + expectedVersion + " for customer: " + customerId);
+        }
+        byte[] value = store.get(customerId);
+        CardApplicationState stored = value != null ? decode(customerId, value) : null;
+        long storedVersion = stored != null && !isExpired(stored, System.currentTimeMillis())
+                ? stored.getVersion()
+                : NO_VERSION;
+        if (storedVersion != expectedVersion) {
+            log.warn("action=state_version_conflict customerId={} expectedVersion={} storedVersion={}",
+                    customerId, expectedVersion, storedVersion);
+            return false;
+        }
+        store.put(customerId, StateWireCodec.encode(newState, compressionThresholdBytes));
+        log.debug("action=state_saved customerId={} step={} version={}",
+                customerId, newState.getCurrentStep(), newState.getVersion());
+        return true;
+    }
+
+    @Override
+    public void deleteState(String customerId) {
+        boolean existed = store.delete(customerId) != null;
+        log.info("action=state_deleted customerId={} existed={}", customerId, existed);
+    }
+
+    /**
+     * Removes every state of this task last updated more than the TTL ago.
+     *
+     * @return the number of states removed
+     */
+    int sweepExpired() {
+        long now = System.currentTimeMillis();
+        List<String> expired = new ArrayList<>();
+        try (KeyValueIterator<String, byte[]> entries = store.all()) {
+            while (entries.hasNext()) {
+                KeyValue<String, byte[]> entry = entries.next();
+                if (isExpired(decode(entry.key, entry.value), now)) {
+                    expired.add(entry.key);
+                }
+            }
+        }
+        // Deleted after the scan: each delete is also a changelog tombstone
+        for (String customerId : expired) {
+            store.delete(customerId);
+        }
+        return expired.size();
+    }
+
+    /**
+     * @return offset of the last record applied to the customer's state, or
+     *         {@link #NO_OFFSET} if there is no state or it was never marked
+     */
+    long appliedOffset(String customerId) {
+        byte[] value = store.get(customerId);
+        return value != null && isMarked(value) ? ByteBuffer.wrap(value, 1, Long.BYTES).getLong() : NO_OFFSET;
+    }
+
+    /**
+     * Marks the customer's state as reflecting the record at {@code offset}.
+     * Called once the record is fully processed, so a record whose processing
+     * failed is not taken for applied. No-op if the customer has no state.
+     */
+    void markApplied(String customerId, long offset) {
+        byte[] value = store.get(customerId);
+        if (value == null) {
+            return;
+        }
+        int start = payloadStart(value);
+        ByteBuffer marked = ByteBuffer.allocate(APPLIED_HEADER_BYTES + value.length - start);
+        marked.put(APPLIED_MARK).putLong(offset).put(value, start, value.length - start);
+        store.put(customerId, marked.array());
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private static CardApplicationState decode(String customerId, byte[] value) {
+        int start = payloadStart(value);
+        return StateWireCodec.decode(customerId, value, start, value.length - start);
+    }
+
+    private static int payloadStart(byte[] value) {
+        return isMarked(value) ? APPLIED_HEADER_BYTES : 0;
+    }
+
+    private static boolean isMarked(byte[] value) {
+        return value.length >= APPLIED_HEADER_BYTES && value[0] == APPLIED_MARK;
+    }
+
+    private boolean isExpired(CardApplicationState state, long nowMillis) {
+        return state.getUpdatedAt().toEpochMilli() < nowMillis - ttl.toMillis();
+    }
+}
@@ -0,0 +1,145 @@
+package com.banking.journey.adapters.out.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.EventType;
+
+/**
+ * Write-through StateStore decorator backed by {@link LocalStateCache}.
+ * Writes always reach the delegate first; the cache only ever holds what
+ * the delegate acknowledged.
+ */
+record CachingStateStore(StateStore delegate, LocalStateCache cache) implements StateStore {
+
+    @Override
+    public CardApplicationState getState(String customerId) {
+        CardApplicationState cached = cache.get(customerId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        CardApplicationState state = delegate.getState(customerId);
+        if (state != null) {
+            cache.put(state, generation);
+        }
+        return state;
+    }
+
+    @Override
+    public CompletableFuture<CardApplicationState> getStateAsync(String customerId) {
+        CardApplicationState cached = cache.get(customerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long generation = cache.generation();
+        return delegate.getStateAsync(customerId).thenApply(state -> {
+            if (state != null) {
+                cache.put(state, generation);
+            }
+            return state;
+        });
+    }
+
+    @Override
+    public Map<String, CardApplicationState> getStates(Collection<String> customerIds) {
+        Map<String, CardApplicationState> states = new HashMap<>(customerIds.size() * 2);
+        List<String> misses = new ArrayList<>();
+        for (String customerId : customerIds) {
+            CardApplicationState cached = cache.get(customerId);
+            if (cached != null) {
+                states.put(customerId, cached);
+            } else {
+                misses.add(customerId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return states;
+        }
+        long generation = cache.generation();
+        Map<String, CardApplicationState> loaded = delegate.getStates(misses);
+        for (CardApplicationState state : loaded.values()) {
+            cache.put(state, generation);
+        }
+        states.putAll(loaded);
+        return states;
+    }
+
+    @Override
+    public void saveState(CardApplicationState state) {
+        long generation = cache.generation();
+        try {
+            delegate.saveState(state);
+        } catch (RuntimeException e) {
+            // The stored value is unknown now: fall back to the delegate
+            cache.invalidate(state.getCustomerId());
+            throw e;
+        }
+        cache.put(state, generation);
+    }
+
+    @Override
+    public void saveStates(Collection<CardApplicationState> states) {
+        long generation = cache.generation();
+        try {
+            delegate.saveStates(states);
+        } catch (RuntimeException e) {
+            // Some of the states may have been written
+            states.forEach(state -> cache.invalidate(state.getCustomerId()));
+            throw e;
+        }
+        states.forEach(state -> cache.put(state, generation));
+    }
+
+    @Override
+    public boolean compareAndSet(String customerId, long expectedVersion, CardApplicationState newState) {
+        long generation = cache.generation();
+        boolean saved;
+        try {
+            saved = delegate.compareAndSet(customerId, expectedVersion, newState);
+        } catch (RuntimeException e) {
+            cache.invalidate(customerId);
+            throw e;
+        }
+        if (saved) {
+            cache.put(newState, generation);
+        } else {
+            // Someone else wrote: the cached copy is stale
+            cache.invalidate(customerId);
+        }
+        return saved;
+    }
+
+    @Override
+    public TransitionResult applyTransition(String customerId, EventType eventType) {
+        // Always a store round trip: the store decides on its own copy
+        long generation = cache.generation();
+        TransitionResult result;
+        try {
+            result = delegate.applyTransition(customerId, eventType);
+        } catch (RuntimeException e) {
+            cache.invalidate(customerId);
+            throw e;
+        }
+        CardApplicationState latest = result.isApplied() ? result.applied() : result.previous();
+        if (latest != null) {
+            cache.put(latest, generation);
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteState(String customerId) {
+        try {
+            delegate.deleteState(customerId);
+        } finally {
+            cache.invalidate(customerId);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.banking.journey.adapters.out.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.CardApplicationState;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Local, write-through cache of journey states for the customers whose
+ * customer-events partition this instance owns.
+ * <p>
+ * Records are keyed by customerId, so while a partition is assigned here no
+ * other instance processes its customers and a state this instance saved is
+ * the latest one. The StateStore handed to the orchestrator is wrapped
+ * ({@link #decorate}); a hit skips the Redis GET and the StateDto decode.
+ * </p>
+ * <ul>
+ * <li><b>Populated</b> on {@code saveState} and on a store read, only for
+ * partitions currently assigned (default partitioner: murmur2 of the key
+ * modulo the topic's partition count, read from the consumer's metadata on
+ * every assignment, since partitions may have been added to the topic).
+ * Absent states are not cached.</li>
+ * <li><b>Bounded</b> by {@code max-entries} (LRU, striped) and {@code ttl}
+ * (checked on read).</li>
+ * <li><b>Invalidated</b> per partition on revocation, loss and assignment
+ * (registered on the listener container factory), per key on delete, on a
+ * failed save and when a record is parked in a retry tier, since the retry
+ * consumer may run on another instance.</li>
+ * </ul>
+ * <p>
+ * Exports {@code journey.state.cache.hits}, {@code journey.state.cache.misses},
+ * {@code journey.state.cache.evictions{cause=size|expired|rebalance}} and
+ * {@code journey.state.cache.size}.
+ * </p>
+ * <p>
+ * Enabled with {@code journey.state-cache.enabled=true}; otherwise the
+ * StateStore is not wrapped.
+ * </p>
+ */
+@Component
+public class LocalStateCache implements ConsumerAwareRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalStateCache.class);
+
+    private static final int STRIPES = 16;
+
+    private static final Duration METADATA_TIMEOUT = Duration.ofSeconds(5);
+
+    private final boolean enabled;
+    private final String topic;
+    /** Partition count of the topic at the last assignment; 0 (nothing cached) until known. */
+    private volatile int partitions;
+    private final long ttlNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Set<Integer> ownedPartitions = ConcurrentHashMap.newKeySet();
+    /** Bumped on every rebalance; store reads started before it are not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter rebalanceEvictions;
+
+    public LocalStateCache(JourneyProperties journeyProperties, MeterRegistry meterRegistry) {
+        JourneyProperties.StateCache config = journeyProperties.getStateCache();
+        this.enabled = config.isEnabled();
+        this.topic = journeyProperties.getKafka().getTopics().getCustomerEvents();
+        this.ttlNanos = config.getTtl().toNanos();
+        int stripeCapacity = Math.max(1, config.getMaxEntries() / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+
+        this.hits = meterRegistry.counter("journey.state.cache.hits");
+        this.misses = meterRegistry.counter("journey.state.cache.misses");
+        this.sizeEvictions = meterRegistry.counter("journey.state.cache.evictions", "cause", "size");
+        this.expiredEvictions = meterRegistry.counter("journey.state.cache.evictions", "cause", "expired");
+        this.rebalanceEvictions = meterRegistry.counter("journey.state.cache.evictions", "cause", "rebalance");
+        Gauge.builder("journey.state.cache.size", stripes, LocalStateCache::sizeOf).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public StateStore decorate(StateStore stateStore) {
+        return enabled ? new CachingStateStore(stateStore, this) : stateStore;
+    }
+
+    /**
+     * @return the cached state, or null on a miss (absent or expired)
+     */
+    CardApplicationState get(String customerId) {
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            Entry entry = stripe.get(customerId);
+            if (entry != null && System.nanoTime() - entry.expiresAt() >= 0) {
+                stripe.remove(customerId);
+                expiredEvictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.state();
+        }
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a state read from or written to the store, unless its partition
+     * is not owned or a rebalance happened since {@code readGeneration}.
+     */
+    void put(CardApplicationState state, long readGeneration) {
+        String customerId = state.getCustomerId();
+        int partitionCount = partitions;
+        if (partitionCount <= 0) {
+            return;
+        }
+        int partition = partitionOf(customerId, partitionCount);
+        if (!ownedPartitions.contains(partition)) {
+            return;
+        }
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            if (generation.get() != readGeneration) {
+                return;
+            }
+            stripe.put(customerId, new Entry(state, partition, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void invalidate(String customerId) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            stripe.remove(customerId);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+        Set<Integer> dropped = partitionsOf(revoked);
+        ownedPartitions.removeAll(dropped);
+        evictPartitions(dropped);
+    }
+
+    /**
+     * Reads the topic's current partition count before taking ownership; if
+     * it cannot be read, nothing is cached until the next assignment.
+     */
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+        if (enabled && !partitionsOf(assigned).isEmpty()) {
+            int partitionCount = 0;
+            try {
+                List<PartitionInfo> infos = consumer.partitionsFor(topic, METADATA_TIMEOUT);
+                partitionCount = infos != null ? infos.size() : 0;
+            } catch (RuntimeException e) {
+                log.warn("action=state_cache_metadata_failed topic={} error={}", topic, e.getMessage());
+            }
+            if (partitionCount != partitions) {
+                // Keys map to other partitions now: nothing cached is attributable.
+                // Count first, so a put racing the eviction is dropped by the generation check
+                partitions = partitionCount;
+                evictPartitions(new HashSet<>(ownedPartitions));
+                log.info("action=state_cache_partition_count topic={} partitions={}", topic, partitionCount);
+            }
+        }
+        onPartitionsAssigned(assigned);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> assigned) {
+        Set<Integer> added = partitionsOf(assigned);
+        // Anything left from an earlier ownership may have been overwritten elsewhere
+        evictPartitions(added);
+        ownedPartitions.addAll(added);
+    }
+
+    public int size() {
+        return sizeOf(stripes);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private static int sizeOf(Stripe[] stripes) {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private void evictPartitions(Set<Integer> dropped) {
+        if (!enabled || dropped.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Entry> entries = stripe.values().iterator();
+                while (entries.hasNext()) {
+                    if (dropped.contains(entries.next().partition())) {
+                        entries.remove();
+                        evicted++;
+                    }
+                }
+            }
+        }
+        rebalanceEvictions.increment(evicted);
+        log.info("action=state_cache_partitions_evicted partitions={} entries={}", dropped, evicted);
+    }
+
+    private Set<Integer> partitionsOf(Collection<TopicPartition> topicPartitions) {
+        Set<Integer> result = new HashSet<>();
+        for (TopicPartition topicPartition : topicPartitions) {
+            if (topic.equals(topicPartition.topic())) {
+                result.add(topicPartition.partition());
+            }
+        }
+        return result;
+    }
+
+    private static int partitionOf(String customerId, int partitionCount) {
+        // Same as the producer's default partitioner for keyed records
+        return Utils.toPositive(Utils.murmur2(customerId.getBytes(StandardCharsets.UTF_8))) % partitionCount;
+    }
+
+    private Stripe stripeFor(String customerId) {
+        int hash = customerId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private record Entry(CardApplicationState state, int partition, long expiresAt) {
+    }
+
+    /** Access-ordered LRU segment; guarded by its own monitor. */
+    private final class Stripe extends LinkedHashMap<String, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                sizeEvictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.banking.journey.adapters.out.embedded;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.adapters.codec.StateWireCodec;
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.CardApplicationState;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Embedded StateStore for single-node deployments: journey states live in a
+ * memory-mapped, off-heap hash table on local disk ({@link MappedStateTable})
+ * instead of Redis, so tens of millions of journeys cost neither heap nor GC
+ * time.
+ * <p>
+ * Values are {@link StateWireCodec} payloads (LZ4 above
+ * {@code compression-threshold-bytes}) in fixed-size slots. Reads are
+ * lock-free. Writers take one of {@code lock-stripes} locks by customer, so
+ * compare-and-set is a plain read-compare-write under that lock. Every write
+ * is appended to a redo log ({@link StateAppendLog}) first; a checkpoint every
+ * {@code checkpoint-interval} forces the mapping to disk and empties the log,
+ * and the log is replayed on startup.
+ * </p>
+ * <p>
+ * States expire {@code journey.redis.state-ttl-days} after their last update,
+ * as in Redis: expired entries read as absent and are removed every
+ * {@code sweep-interval}.
+ * </p>
+ * <p>
+ * Enabled with {@code journey.embedded-state.enabled=true}; it then takes
+ * precedence over RedisStateStore for the StateStore port.
+ * </p>
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "journey.embedded-state", name = "enabled", havingValue = "true")
+public class EmbeddedStateStore implements StateStore, SmartLifecycle, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedStateStore.class);
+
+    private final JourneyProperties.EmbeddedState config;
+    private final MappedStateTable table;
+    private final StateAppendLog appendLog;
+    private final ReentrantLock[] stripes;
+    /** Writers share it; a checkpoint takes it exclusively between log and table. */
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final ThreadLocal<MappedStateTable.ReadBuffer> readBuffers;
+    private final Duration ttl;
+    private final Counter expired;
+    private ScheduledExecutorService scheduler;
+
+    public EmbeddedStateStore(JourneyProperties journeyProperties, MeterRegistry meterRegistry) throws IOException {
+        this.config = journeyProperties.getEmbeddedState();
+        this.ttl = Duration.ofDays(journeyProperties.getRedis().getStateTtlDays());
+
+        Path directory = Path.of(config.getDirectory());
+        Files.createDirectories(directory);
+        long capacity = Long.highestOneBit(Math.max(1024, (long) Math.ceil(config.getMaxEntries() / 0.75)) * 2 - 1);
+        this.table = new MappedStateTable(directory.resolve("states.tbl"), capacity,
+                config.getSlotBytes(), config.getMaxCustomerIdLength());
+        this.appendLog = new StateAppendLog(directory.resolve("states.log"), table.maxKeyChars(),
+                table.maxValueBytes(), config.isSyncWrites());
+
+        long replayed = appendLog.replay(table);
+        if (replayed > 0) {
+            // The checkpoint, without its lock: nothing else can reach the store yet
+            table.force();
+            appendLog.reset();
+        }
+
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, config.getLockStripes()))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        int bufferBytes = table.maxValueBytes();
+        this.readBuffers = ThreadLocal.withInitial(() -> new MappedStateTable.ReadBuffer(bufferBytes));
+
+        this.expired = meterRegistry.counter("journey.state.embedded.expired");
+        Gauge.builder("journey.state.embedded.entries", table, MappedStateTable::size).register(meterRegistry);
+        Gauge.builder("journey.state.embedded.tombstones", table, MappedStateTable::tombstones)
+                .register(meterRegistry);
+
+        log.info("action=embedded_state_opened directory={} capacity={} slotBytes={} entries={} replayed={}",
+                directory.toAbsolutePath(), capacity, config.getSlotBytes(), table.size(), replayed);
+    }
+
+    @Override
+    public CardApplicationState getState(String customerId) {
+        MappedStateTable.ReadBuffer buffer = readBuffers.get();
+        if (!table.read(customerId, customerId.hashCode(), buffer) || isExpired(buffer.updatedAtMillis)) {
+            log.debug("action=state_not_found customerId={}", customerId);
+            return null;
+        }
+        return StateWireCodec.decode(customerId, buffer.bytes, 0, buffer.length);
+    }
+
+    @Override
+    public void saveState(CardApplicationState state) {
+        String customerId = requireStorable(state.getCustomerId());
+        byte[] value = StateWireCodec.encode(state, config.getCompressionThresholdBytes());
+        ReentrantLock stripe = lockFor(customerId);
+        try {
+            put(customerId, state, value);
+        } finally {
+            unlock(stripe);
+        }
+        log.debug("action=state_saved customerId={} step={}", customerId, state.getCurrentStep());
+    }
+
+    @Override
+    public boolean compareAndSet(String customerId, long expectedVersion, CardApplicationState newState) {
+        if (newState.getVersion() != expectedVersion + 1) {
+            throw new IllegalArgumentException("State version " + newState.getVersion()
+                    + " does not follow expected version " + expectedVersion + " for customer: " + customerId);
+        }
+        requireStorable(customerId);
+        byte[] value = StateWireCodec.encode(newState, config.getCompressionThresholdBytes());
+        MappedStateTable.ReadBuffer buffer = readBuffers.get();
+        ReentrantLock stripe = lockFor(customerId);
+        try {
+            long storedVersion = table.read(customerId, customerId.hashCode(), buffer)
+                    && !isExpired(buffer.updatedAtMillis) ? buffer.version : NO_VERSION;
+            if (storedVersion != expectedVersion) {
+                log.warn("action=state_version_conflict customerId={} expectedVersion={} storedVersion={}",
+                        customerId, expectedVersion, storedVersion);
+                return false;
+            }
+            put(customerId, newState, value);
+        } finally {
+            unlock(stripe);
+        }
+        log.debug("action=state_saved customerId={} step={} version={}",
+                customerId, newState.getCurrentStep(), newState.getVersion());
+        return true;
+    }
+
+    @Override
+    public void deleteState(String customerId) {
+        if (customerId.length() > table.maxKeyChars()) {
+            log.info("action=state_deleted customerId={} existed=false", customerId);
+            return;
+        }
+        ReentrantLock stripe = lockFor(customerId);
+        boolean deleted;
+        try {
+            appendLog.appendRemove(customerId);
+            deleted = table.remove(customerId, customerId.hashCode(), Long.MAX_VALUE);
+        } finally {
+            unlock(stripe);
+        }
+        log.info("action=state_deleted customerId={} existed={}", customerId, deleted);
+    }
+
+    /**
+     * Removes every state last updated more than the TTL ago.
+     *
+     * @return the number of states removed
+     */
+    public long sweepExpired() {
+        long cutoff = Instant.now().minus(ttl).toEpochMilli();
+        long[] removed = new long[1];
+        table.forEachUpdatedBefore(cutoff, (customerId, hash) -> {
+            ReentrantLock stripe = lockFor(customerId);
+            try {
+                MappedStateTable.ReadBuffer buffer = readBuffers.get();
+                // Re-checked under the lock: the customer may have been written since the scan
+                if (table.read(customerId, hash, buffer) && buffer.updatedAtMillis < cutoff) {
+                    appendLog.appendRemove(customerId);
+                    table.remove(customerId, hash, cutoff);
+                    removed[0]++;
+                }
+            } finally {
+                unlock(stripe);
+            }
+        });
+        if (removed[0] > 0) {
+            expired.increment(removed[0]);
+            log.info("action=embedded_state_swept expired={} entries={}", removed[0], table.size());
+        }
+        return removed[0];
+    }
+
+    /**
+     * Forces the mapped table to disk and empties the redo log. Writers wait
+     * for the duration.
+     */
+    public void checkpoint() {
+        checkpointLock.writeLock().lock();
+        try {
+            long logBytes = appendLog.sizeBytes();
+            table.force();
+            appendLog.reset();
+            log.debug("action=embedded_state_checkpoint entries={} logBytes={}", table.size(), logBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Embedded state checkpoint failed", e);
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("journey-embedded-state").daemon(true).factory());
+        long checkpointMs = config.getCheckpointInterval().toMillis();
+        long sweepMs = config.getSweepInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> runSafely("checkpoint", this::checkpoint),
+                checkpointMs, checkpointMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely("sweep", this::sweepExpired),
+                sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        checkpointLock.writeLock().lock();
+        try {
+            table.close();
+            appendLog.reset();
+            appendLog.close();
+            log.info("action=embedded_state_closed entries={}", table.size());
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        return table.size();
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    /**
+     * Caller holds the customer's stripe lock. A put that fails after its
+     * record was logged can only be the insert of a new key into a full
+     * table, so a logged remove undoes it for replay.
+     */
+    private void put(String customerId, CardApplicationState state, byte[] value) {
+        long updatedAtMillis = state.getUpdatedAt().toEpochMilli();
+        table.requireFits(customerId, value.length);
+        appendLog.appendPut(customerId, state.getVersion(), updatedAtMillis, value, value.length);
+        try {
+            table.put(customerId, customerId.hashCode(), state.getVersion(), updatedAtMillis, value, value.length);
+        } catch (CapacityExceededException e) {
+            appendLog.appendRemove(customerId);
+            throw e;
+        }
+    }
+
+    private ReentrantLock lockFor(String customerId) {
+        checkpointLock.readLock().lock();
+        int hash = customerId.hashCode();
+        ReentrantLock stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        stripe.lock();
+        return stripe;
+    }
+
+    private void unlock(ReentrantLock stripe) {
+        stripe.unlock();
+        checkpointLock.readLock().unlock();
+    }
+
+    private boolean isExpired(long updatedAtMillis) {
+        return updatedAtMillis < System.currentTimeMillis() - ttl.toMillis();
+    }
+
+    private String requireStorable(String customerId) {
+        if (customerId.length() > table.maxKeyChars()) {
+            throw new CapacityExceededException(String.format(
+                    "Customer id %s is longer than journey.embedded-state.max-customer-id-length=%d",
+                    customerId, table.maxKeyChars()));
+        }
+        return customerId;
+    }
+
+    private void runSafely(String task, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("action=embedded_state_task_failed task={} error={}", task, e.getMessage());
+        }
+    }
+
+    /**
+     * Thrown when a state does not fit: the table is full, or the customer id
+     * or encoded state is larger than a slot allows. Not transient.
+     */
+    public static class CapacityExceededException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public CapacityExceededException(String message) {
+            super(message);
+        }
+    }
+}
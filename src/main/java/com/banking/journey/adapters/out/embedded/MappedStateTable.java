@@ -0,0 +1,479 @@
+package com.banking.journey.adapters.out.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-addressing hash table of journey states in a memory-mapped file, off
+ * the Java heap.
+ * <p>
+ * The file is a 4 KiB header (geometry, entry counts and a clean-shutdown
+ * flag) followed by {@code capacity} fixed-size slots
+ * (a power of two, linear probing), mapped in segments of at most 1 GiB.
+ * Untouched slots stay sparse on disk. Each slot is:
+ * </p>
+ *
+ * <pre>
+ *   0  int    seq         seqlock: odd while a writer is inside the slot
+ *   4  int    status      EMPTY, CLAIMED (being inserted), USED, TOMBSTONE
+ *   8  long   version     state version, for compare-and-set
+ *  16  long   updated_at  epoch millis, for expiry
+ *  24  short  key length  in chars
+ *  26  short  value length
+ *  28  int    key hash
+ *  32  char[] key         maxKeyChars
+ *  ..  byte[] value       StateWireCodec payload
+ * </pre>
+ * <p>
+ * Readers never lock: they probe, compare the key in place and copy the value
+ * into a caller-owned {@link ReadBuffer}, retrying a slot whose seq changed
+ * underneath them, so a lookup allocates nothing. A writer makes seq odd,
+ * then a store-store fence keeps its slot writes from becoming visible
+ * before that, and a release store makes seq even again. Writers of the same
+ * key must be serialized by the caller; different keys race only for free
+ * slots, which are claimed with a CAS on the status word. Slots never go back
+ * to EMPTY, so probe chains stay valid; removed entries become tombstones
+ * that later inserts reuse.
+ * </p>
+ */
+final class MappedStateTable implements Closeable {
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long MAGIC = 0x4A524E5953544154L; // "JRNYSTAT"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4096;
+    private static final int HEADER_USED = 32;
+    private static final int HEADER_TOMBSTONES = 40;
+    private static final int HEADER_CLEAN = 48;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    static final int EMPTY = 0;
+    static final int CLAIMED = 1;
+    static final int USED = 2;
+    static final int TOMBSTONE = 3;
+
+    private static final int SEQ = 0;
+    private static final int STATUS = 4;
+    private static final int VERSION = 8;
+    private static final int UPDATED_AT = 16;
+    private static final int KEY_LENGTH = 24;
+    private static final int VALUE_LENGTH = 26;
+    private static final int HASH = 28;
+    private static final int KEY = 32;
+
+    /** Inserts fail beyond this share of used and tombstoned slots: long probe chains. */
+    private static final double MAX_FILL = 0.9;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final int slotBytes;
+    private final int maxKeyChars;
+    private final int valueOffset;
+    private final int maxValueBytes;
+    private final long capacity;
+    private final long mask;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong tombstones = new AtomicLong();
+
+    /**
+     * Opens the table file, creating it if missing. After an unclean shutdown
+     * every slot is scanned to repair those a crash left mid-write (the
+     * append log replays their content afterwards).
+     *
+     * @throws IllegalStateException if an existing file was created with a
+     *                               different geometry
+     */
+    MappedStateTable(Path file, long capacity, int slotBytes, int maxKeyChars) throws IOException {
+        if (Long.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        if (slotBytes % 8 != 0 || Integer.bitCount(slotBytes) != 1) {
+            throw new IllegalArgumentException("slotBytes must be a power of two and a multiple of 8: " + slotBytes);
+        }
+        this.slotBytes = slotBytes;
+        this.maxKeyChars = maxKeyChars;
+        this.valueOffset = KEY + 2 * maxKeyChars;
+        this.maxValueBytes = Math.min(slotBytes - valueOffset, Short.MAX_VALUE);
+        if (maxValueBytes < 32) {
+            throw new IllegalArgumentException("slotBytes " + slotBytes + " leaves no room for a state next to "
+                    + maxKeyChars + "-char customer ids");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+
+        long slotsPerSegment = Math.min(capacity, MAX_SEGMENT_BYTES / slotBytes);
+        this.segmentShift = Long.numberOfTrailingZeros(slotsPerSegment);
+        this.segmentMask = slotsPerSegment - 1;
+
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (created) {
+            header.putLong(0, MAGIC);
+            header.putInt(8, FORMAT_VERSION);
+            header.putInt(12, slotBytes);
+            header.putInt(16, maxKeyChars);
+            header.putLong(24, capacity);
+            header.force();
+        } else {
+            validateHeader(file);
+        }
+
+        int segmentCount = (int) (capacity >>> segmentShift);
+        this.segments = new MappedByteBuffer[segmentCount];
+        long segmentBytes = slotsPerSegment * slotBytes;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * segmentBytes, segmentBytes);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (!created && header.getInt(HEADER_CLEAN) == 1) {
+            used.set(header.getLong(HEADER_USED));
+            tombstones.set(header.getLong(HEADER_TOMBSTONES));
+        } else if (!created) {
+            recover();
+        }
+        header.putInt(HEADER_CLEAN, 0);
+        header.force();
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    int maxKeyChars() {
+        return maxKeyChars;
+    }
+
+    int maxValueBytes() {
+        return maxValueBytes;
+    }
+
+    long size() {
+        return used.get();
+    }
+
+    long tombstones() {
+        return tombstones.get();
+    }
+
+    /**
+     * Lock-free lookup.
+     *
+     * @return true if the key is stored; its version, update time and value
+     *         are then in {@code out}
+     */
+    boolean read(String key, int hash, ReadBuffer out) {
+        long slot = home(hash);
+        for (long probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            MappedByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            while (true) {
+                int seq = (int) INT.getAcquire(segment, offset + SEQ);
+                if ((seq & 1) != 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                int status = segment.getInt(offset + STATUS);
+                boolean match = status == USED && matches(segment, offset, key, hash);
+                if (match) {
+                    int length = segment.getShort(offset + VALUE_LENGTH);
+                    if (length >= 0 && length <= maxValueBytes) {
+                        out.version = segment.getLong(offset + VERSION);
+                        out.updatedAtMillis = segment.getLong(offset + UPDATED_AT);
+                        out.length = length;
+                        segment.get(offset + valueOffset, out.bytes, 0, length);
+                    } else {
+                        match = false; // torn read, caught by the seq check below
+                    }
+                }
+                VarHandle.loadLoadFence();
+                if ((int) INT.getAcquire(segment, offset + SEQ) != seq) {
+                    continue;
+                }
+                if (match) {
+                    return true;
+                }
+                if (status == EMPTY) {
+                    return false;
+                }
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts or replaces a key. The caller serializes writers of this key.
+     *
+     * @throws EmbeddedStateStore.CapacityExceededException if the table is
+     *                                                      full
+     */
+    void put(String key, int hash, long version, long updatedAtMillis, byte[] value, int length) {
+        requireFits(key, length);
+        while (true) {
+            long free = -1;
+            int freeStatus = EMPTY;
+            long slot = home(hash);
+            long probes = 0;
+            for (; probes < capacity; probes++, slot = (slot + 1) & mask) {
+                MappedByteBuffer segment = segment(slot);
+                int offset = offset(slot);
+                int status = (int) INT.getAcquire(segment, offset + STATUS);
+                if (status == USED && matches(segment, offset, key, hash)) {
+                    write(segment, offset, version, updatedAtMillis, value, length);
+                    return;
+                }
+                if (status == TOMBSTONE && free < 0) {
+                    free = slot;
+                    freeStatus = TOMBSTONE;
+                } else if (status == EMPTY) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                    break;
+                }
+            }
+            if (free < 0) {
+                throw new EmbeddedStateStore.CapacityExceededException("Embedded state table is full");
+            }
+            if (freeStatus == EMPTY) {
+                checkFill();
+            }
+
+            MappedByteBuffer segment = segment(free);
+            int offset = offset(free);
+            if (!INT.compareAndSet(segment, offset + STATUS, freeStatus, CLAIMED)) {
+                continue; // another key took the slot: probe again
+            }
+            int seq = (int) INT.getAcquire(segment, offset + SEQ);
+            INT.setRelease(segment, offset + SEQ, seq + 1);
+            VarHandle.storeStoreFence();
+            segment.putInt(offset + HASH, hash);
+            segment.putShort(offset + KEY_LENGTH, (short) key.length());
+            for (int i = 0; i < key.length(); i++) {
+                segment.putChar(offset + KEY + 2 * i, key.charAt(i));
+            }
+            writeFields(segment, offset, version, updatedAtMillis, value, length);
+            INT.setRelease(segment, offset + STATUS, USED);
+            INT.setRelease(segment, offset + SEQ, seq + 2);
+            used.incrementAndGet();
+            if (freeStatus == TOMBSTONE) {
+                tombstones.decrementAndGet();
+            }
+            return;
+        }
+    }
+
+    /**
+     * Rejects a value too long for a slot, so callers can check before they
+     * log a write.
+     *
+     * @throws EmbeddedStateStore.CapacityExceededException if it does not fit
+     */
+    void requireFits(String key, int length) {
+        if (length > maxValueBytes) {
+            throw new EmbeddedStateStore.CapacityExceededException(String.format(
+                    "State of customer %s takes %d bytes, slots hold %d", key, length, maxValueBytes));
+        }
+    }
+
+    /**
+     * Removes a key if it was last updated before {@code updatedBeforeMillis}
+     * (Long.MAX_VALUE: unconditionally). The caller serializes writers of
+     * this key.
+     *
+     * @return true if an entry was removed
+     */
+    boolean remove(String key, int hash, long updatedBeforeMillis) {
+        long slot = home(hash);
+        for (long probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            MappedByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            int status = (int) INT.getAcquire(segment, offset + STATUS);
+            if (status == EMPTY) {
+                return false;
+            }
+            if (status == USED && matches(segment, offset, key, hash)) {
+                if (segment.getLong(offset + UPDATED_AT) >= updatedBeforeMillis) {
+                    return false;
+                }
+                int seq = (int) INT.getAcquire(segment, offset + SEQ);
+                INT.setRelease(segment, offset + SEQ, seq + 1);
+                VarHandle.storeStoreFence();
+                INT.setRelease(segment, offset + STATUS, TOMBSTONE);
+                INT.setRelease(segment, offset + SEQ, seq + 2);
+                used.decrementAndGet();
+                tombstones.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visits the keys of used slots last updated before
+     * {@code updatedBeforeMillis}. Keys are read without locking: the visitor
+     * re-checks under its own lock.
+     */
+    void forEachUpdatedBefore(long updatedBeforeMillis, KeyVisitor visitor) {
+        char[] chars = new char[maxKeyChars];
+        for (long slot = 0; slot < capacity; slot++) {
+            MappedByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            if ((int) INT.getAcquire(segment, offset + STATUS) != USED
+                    || segment.getLong(offset + UPDATED_AT) >= updatedBeforeMillis) {
+                continue;
+            }
+            int length = Math.min(segment.getShort(offset + KEY_LENGTH), maxKeyChars);
+            for (int i = 0; i < length; i++) {
+                chars[i] = segment.getChar(offset + KEY + 2 * i);
+            }
+            visitor.visit(new String(chars, 0, length), segment.getInt(offset + HASH));
+        }
+    }
+
+    /** Writes every dirty page back to the file. */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.putLong(HEADER_USED, used.get());
+        header.putLong(HEADER_TOMBSTONES, tombstones.get());
+        header.force();
+    }
+
+    /** Forces the table and marks it cleanly closed. No writers may be active. */
+    @Override
+    public void close() throws IOException {
+        force();
+        header.putInt(HEADER_CLEAN, 1);
+        header.force();
+        channel.close();
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void write(MappedByteBuffer segment, int offset, long version, long updatedAtMillis,
+            byte[] value, int length) {
+        int seq = (int) INT.getAcquire(segment, offset + SEQ);
+        INT.setRelease(segment, offset + SEQ, seq + 1);
+        VarHandle.storeStoreFence();
+        writeFields(segment, offset, version, updatedAtMillis, value, length);
+        INT.setRelease(segment, offset + SEQ, seq + 2);
+    }
+
+    private void writeFields(MappedByteBuffer segment, int offset, long version, long updatedAtMillis,
+            byte[] value, int length) {
+        segment.putLong(offset + VERSION, version);
+        segment.putLong(offset + UPDATED_AT, updatedAtMillis);
+        segment.putShort(offset + VALUE_LENGTH, (short) length);
+        segment.put(offset + valueOffset, value, 0, length);
+    }
+
+    private boolean matches(MappedByteBuffer segment, int offset, String key, int hash) {
+        if (segment.getInt(offset + HASH) != hash || segment.getShort(offset + KEY_LENGTH) != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (segment.getChar(offset + KEY + 2 * i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkFill() {
+        if (used.get() + tombstones.get() >= capacity * MAX_FILL) {
+            throw new EmbeddedStateStore.CapacityExceededException(String.format(
+                    "Embedded state table is full: %d used and %d removed slots of %d",
+                    used.get(), tombstones.get(), capacity));
+        }
+    }
+
+    private long home(int hash) {
+        // Spread the String hash: sequential customer ids would otherwise cluster
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (h ^ (h >>> 32)) & mask;
+    }
+
+    private MappedByteBuffer segment(long slot) {
+        return segments[(int) (slot >>> segmentShift)];
+    }
+
+    private int offset(long slot) {
+        return (int) ((slot & segmentMask) * slotBytes);
+    }
+
+    private void validateHeader(Path file) {
+        if (header.getLong(0) != MAGIC || header.getInt(8) != FORMAT_VERSION) {
+            throw new IllegalStateException("Not an embedded state table: " + file);
+        }
+        if (header.getInt(12) != slotBytes || header.getInt(16) != maxKeyChars || header.getLong(24) != capacity) {
+            throw new IllegalStateException(String.format(
+                    "%s was created with slot-bytes=%d, max-customer-id-length=%d and capacity %d; "
+                            + "configured: %d, %d, %d",
+                    file, header.getInt(12), header.getInt(16), header.getLong(24),
+                    slotBytes, maxKeyChars, capacity));
+        }
+    }
+
+    /**
+     * Counts used and tombstoned slots, and turns slots a crash left mid-write
+     * back into consistent ones: odd seqs are evened, unfinished claims become
+     * tombstones. Their content is rewritten by the append log replay.
+     */
+    private void recover() {
+        for (long slot = 0; slot < capacity; slot++) {
+            MappedByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            int seq = segment.getInt(offset + SEQ);
+            if ((seq & 1) != 0) {
+                segment.putInt(offset + SEQ, seq + 1);
+            }
+            switch (segment.getInt(offset + STATUS)) {
+                case USED -> used.incrementAndGet();
+                case TOMBSTONE -> tombstones.incrementAndGet();
+                case CLAIMED -> {
+                    segment.putInt(offset + STATUS, TOMBSTONE);
+                    tombstones.incrementAndGet();
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-thread landing area for {@link #read}: reused across lookups.
+     */
+    static final class ReadBuffer {
+
+        final byte[] bytes;
+        int length;
+        long version;
+        long updatedAtMillis;
+
+        ReadBuffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+    }
+
+    @FunctionalInterface
+    interface KeyVisitor {
+        void visit(String key, int hash);
+    }
+}
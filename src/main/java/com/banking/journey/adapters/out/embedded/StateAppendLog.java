@@ -0,0 +1,199 @@
+package com.banking.journey.adapters.out.embedded;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Redo log of {@link MappedStateTable} writes since the last checkpoint.
+ * <p>
+ * Every put and remove is appended here before it touches the mapped table;
+ * a checkpoint forces the table and then truncates the log. On startup the log
+ * is replayed over the table, so writes the OS had not flushed from the
+ * mapping are restored. Replaying twice is harmless: records carry whole
+ * values. Records are length-prefixed and CRC32-checked; replay stops at the
+ * first torn record of a crash, and skips puts the table has no room for
+ * (e.g. after {@code max-entries} or {@code slot-bytes} was lowered).
+ * </p>
+ *
+ * <pre>
+ *   int    body length
+ *   int    CRC32 of body
+ *   body:  byte op (1 put, 2 remove), short key length, char[] key,
+ *          put only: long version, long updated_at, short value length, byte[] value
+ * </pre>
+ */
+final class StateAppendLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(StateAppendLog.class);
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final FileChannel channel;
+    private final boolean syncWrites;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ByteBuffer record;
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * @param syncWrites force every record to disk before the write returns;
+     *                   otherwise records reach the OS page cache only and a
+     *                   power loss can drop up to one checkpoint interval
+     */
+    StateAppendLog(Path file, int maxKeyChars, int maxValueBytes, boolean syncWrites) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        this.syncWrites = syncWrites;
+        this.record = ByteBuffer.allocateDirect(8 + 3 + 2 * maxKeyChars + 18 + maxValueBytes)
+                .order(ByteOrder.BIG_ENDIAN);
+    }
+
+    void appendPut(String key, long version, long updatedAtMillis, byte[] value, int length) {
+        appendLock.lock();
+        try {
+            record.clear().position(8);
+            writeKey(OP_PUT, key);
+            record.putLong(version).putLong(updatedAtMillis).putShort((short) length).put(value, 0, length);
+            flush();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void appendRemove(String key) {
+        appendLock.lock();
+        try {
+            record.clear().position(8);
+            writeKey(OP_REMOVE, key);
+            flush();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Applies every intact record in order, then cuts off a torn tail.
+     *
+     * @return the number of records replayed
+     */
+    long replay(MappedStateTable table) throws IOException {
+        long replayed = 0;
+        long intactBytes = 0;
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        byte[] body = new byte[record.capacity()];
+        CRC32 check = new CRC32();
+        while (true) {
+            int length;
+            int expectedCrc;
+            try {
+                length = in.readInt();
+                expectedCrc = in.readInt();
+                if (length <= 0 || length > body.length) {
+                    break;
+                }
+                in.readFully(body, 0, length);
+            } catch (EOFException e) {
+                break;
+            }
+            check.reset();
+            check.update(body, 0, length);
+            if ((int) check.getValue() != expectedCrc) {
+                break;
+            }
+            try {
+                apply(table, ByteBuffer.wrap(body, 0, length));
+                replayed++;
+            } catch (EmbeddedStateStore.CapacityExceededException e) {
+                log.warn("action=embedded_state_replay_skipped offset={} error={}", intactBytes, e.getMessage());
+            }
+            intactBytes += 8 + length;
+        }
+        channel.truncate(intactBytes);
+        channel.position(intactBytes);
+        return replayed;
+    }
+
+    /** Drops every record: the table holds all of them now. */
+    void reset() throws IOException {
+        appendLock.lock();
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    long sizeBytes() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(true);
+        channel.close();
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void writeKey(byte op, String key) {
+        record.put(op).putShort((short) key.length());
+        for (int i = 0; i < key.length(); i++) {
+            record.putChar(key.charAt(i));
+        }
+    }
+
+    private void flush() {
+        int end = record.position();
+        crc.reset();
+        crc.update(record.duplicate().position(8).limit(end));
+        record.putInt(0, end - 8).putInt(4, (int) crc.getValue());
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (syncWrites) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to the embedded state log", e);
+        }
+    }
+
+    private static void apply(MappedStateTable table, ByteBuffer body) {
+        byte op = body.get();
+        char[] chars = new char[body.getShort()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = body.getChar();
+        }
+        String key = new String(chars);
+        if (op == OP_REMOVE) {
+            table.remove(key, key.hashCode(), Long.MAX_VALUE);
+            return;
+        }
+        long version = body.getLong();
+        long updatedAtMillis = body.getLong();
+        byte[] value = new byte[body.getShort()];
+        body.get(value);
+        table.put(key, key.hashCode(), version, updatedAtMillis, value, value.length);
+    }
+}
@@ -0,0 +1,233 @@
+package com.banking.journey.adapters.out.kafka;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.Action;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Relays the {@code action_outbox} queue written by OutboxActionPublisher to
+ * the actions topic ({@code journey.outbox.enabled=true}).
+ * <p>
+ * Each of {@code relay-threads} threads walks the non-empty shards in random
+ * order and drains each one in its own transaction:
+ * <ol>
+ * <li>{@code pg_try_advisory_xact_lock} on the shard; skip it if another relay
+ * (thread or instance) holds it</li>
+ * <li>claim up to {@code batch-size} of its oldest rows
+ * ({@code FOR UPDATE SKIP LOCKED})</li>
+ * <li>send them all, then wait for every broker ack</li>
+ * <li>delete the claimed rows and commit</li>
+ * </ol>
+ * A failed send rolls the transaction back and the rows are sent again, so
+ * delivery is at-least-once; consumers deduplicate by {@code action_id}.
+ * One relay per shard keeps each customer's actions in order.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "journey.outbox", name = "enabled", havingValue = "true")
+public class ActionOutboxRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ActionOutboxRelay.class);
+
+    /** First key of the shard advisory locks, so they do not clash with other advisory lock users. */
+    private static final int ADVISORY_LOCK_CLASS = 0x6f626f78;
+
+    private static final String SELECT_SHARDS_SQL = "SELECT DISTINCT shard FROM action_outbox";
+
+    private static final String LOCK_SHARD_SQL = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    private static final String CLAIM_BATCH_SQL = "SELECT id, action_id, customer_id, action_type, message, channel, created_at "
+            + "FROM action_outbox WHERE shard = ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_BATCH_SQL = "DELETE FROM action_outbox WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaActionPublisher actionPublisher;
+    private final int batchSize;
+    private final int relayThreads;
+    private final long pollIntervalMs;
+    private final long publishAckTimeoutMs;
+
+    private final Counter relayed;
+    private final Counter relayFailures;
+    private final Timer batchLatency;
+    private ScheduledExecutorService relays;
+
+    public ActionOutboxRelay(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            KafkaActionPublisher actionPublisher,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.actionPublisher = actionPublisher;
+        JourneyProperties.Outbox outbox = journeyProperties.getOutbox();
+        this.batchSize = outbox.getBatchSize();
+        this.relayThreads = Math.max(1, outbox.getRelayThreads());
+        this.pollIntervalMs = outbox.getPollInterval().toMillis();
+        this.publishAckTimeoutMs = journeyProperties.getKafka().getPublishAckTimeoutMs();
+
+        this.relayed = meterRegistry.counter("journey.outbox.relayed");
+        this.relayFailures = meterRegistry.counter("journey.outbox.relay.failures");
+        this.batchLatency = meterRegistry.timer("journey.outbox.relay.batch.latency");
+    }
+
+    @Override
+    public void start() {
+        if (relays != null) {
+            return;
+        }
+        relays = Executors.newScheduledThreadPool(relayThreads,
+                Thread.ofPlatform().name("journey-outbox-relay-", 0).daemon(true).factory());
+        for (int i = 0; i < relayThreads; i++) {
+            relays.scheduleWithFixedDelay(this::relaySafely, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("action=outbox_relay_started threads={} batchSize={} pollIntervalMs={}",
+                relayThreads, batchSize, pollIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        if (relays != null) {
+            relays.shutdownNow();
+            relays = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return relays != null;
+    }
+
+    /**
+     * Drains the outbox until a pass over the shards relays nothing.
+     *
+     * @return the number of actions relayed
+     */
+    public long relay() {
+        long total = 0;
+        int passRelayed;
+        do {
+            passRelayed = 0;
+            List<Integer> shards = jdbcTemplate.queryForList(SELECT_SHARDS_SQL, Integer.class);
+            Collections.shuffle(shards);
+            for (int shard : shards) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return total + passRelayed;
+                }
+                passRelayed += relayShard(shard);
+            }
+            total += passRelayed;
+        } while (passRelayed > 0);
+        return total;
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void relaySafely() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.warn("action=outbox_relay_failed error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * Relays one batch of a shard.
+     *
+     * @return the number of actions relayed, 0 if the shard is held elsewhere or empty
+     */
+    private int relayShard(int shard) {
+        try {
+            Integer count = transactionTemplate.execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(LOCK_SHARD_SQL, Boolean.class, ADVISORY_LOCK_CLASS, shard);
+                if (!Boolean.TRUE.equals(locked)) {
+                    return 0;
+                }
+                List<Long> ids = new ArrayList<>();
+                List<Action> actions = jdbcTemplate.query(CLAIM_BATCH_SQL, (rs, rowNum) -> {
+                    ids.add(rs.getLong("id"));
+                    return new Action(
+                            rs.getString("action_id"),
+                            rs.getString("customer_id"),
+                            rs.getString("action_type"),
+                            rs.getString("message"),
+                            rs.getString("channel"),
+                            null,
+                            rs.getTimestamp("created_at").toInstant(),
+                            null);
+                }, shard, batchSize);
+                if (actions.isEmpty()) {
+                    return 0;
+                }
+
+                Timer.Sample sample = Timer.start();
+                sendAll(shard, actions);
+                delete(ids);
+                sample.stop(batchLatency);
+                return actions.size();
+            });
+            int sent = count != null ? count : 0;
+            if (sent > 0) {
+                relayed.increment(sent);
+                log.debug("action=outbox_batch_relayed shard={} actions={}", shard, sent);
+            }
+            return sent;
+        } catch (RuntimeException e) {
+            relayFailures.increment();
+            log.error("action=outbox_batch_failed shard={} error={}", shard, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Sends the batch in order and waits for every ack; throws (rolling the
+     * claim back) if any send fails.
+     */
+    private void sendAll(int shard, List<Action> actions) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[actions.size()];
+        for (int i = 0; i < sends.length; i++) {
+            sends[i] = actionPublisher.send(actions.get(i));
+        }
+        try {
+            CompletableFuture.allOf(sends).get(publishAckTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Outbox relay interrupted for shard=" + shard, e);
+        } catch (Exception e) {
+            throw new RuntimeException("Outbox relay send failed for shard=" + shard, e);
+        }
+    }
+
+    private void delete(List<Long> ids) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_BATCH_SQL);
+            Array array = con.createArrayOf("bigint", ids.toArray());
+            ps.setArray(1, array);
+            return ps;
+        });
+    }
+}
@@ -1,19 +1,37 @@
 package com.banking.journey.adapters.out.kafka;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.banking.journey.adapters.codec.ActionWireCodec;
+import com.banking.journey.adapters.codec.WireFormat;
+import com.banking.journey.adapters.out.postgres.GroupCommitWriter;
+import com.banking.journey.adapters.out.redis.IdempotencyLedger;
 import com.banking.journey.application.port.out.ActionPublisher;
+import com.banking.journey.application.port.out.ActionRecorder;
 import com.banking.journey.bootstrap.config.JourneyProperties;
 import com.banking.journey.domain.entity.Action;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -23,23 +41,65 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 
+/**
+ * Publishes actions to the actions topic, records them in the
+ * {@code actions} table and marks them DONE in Redis. An {@code actions} row
+ * is only written if its id is not in {@code action_ids} yet: the primary
+ * key of the partitioned table includes {@code sent_at}, so it cannot
+ * deduplicate ids on its own.
+ * <p>
+ * A Redis {@code PROCESSING} marker (SET NX) guards each action id. The
+ * synchronous {@link #publish} waits for the broker ack on the calling
+ * thread. {@link #publishAsync} returns once the send is queued: several
+ * actions are then in flight on the producer (idempotence keeps them in
+ * order), and the JDBC insert and DONE marker run on the port I/O executor
+ * when the ack arrives.
+ * </p>
+ * <p>
+ * Inside the listener's Kafka transaction
+ * ({@code journey.kafka.transactions.enabled=true}) the action is sent through
+ * the transactional template instead and no Redis marker is kept: its id is
+ * derived from the source event, and it commits together with the consumed
+ * offset. The {@code actions} row is written once the transaction commits.
+ * The journey state is not part of that transaction: an abort after the
+ * state write loses the action (see {@code JourneyProperties.Transactions}).
+ * </p>
+ * <p>
+ * With {@code journey.idempotency-ledger.enabled=true} the markers are
+ * replaced by {@link IdempotencyLedger}: an action id the ledger has not seen
+ * is published without a Redis call, a ledger hit is confirmed against the
+ * {@code action_ids} table, and published ids are recorded in the ledger.
+ * </p>
+ * <p>
+ * With {@code journey.group-commit.enabled=true} the {@code actions} inserts
+ * go through a {@link GroupCommitWriter}. With
+ * {@code journey.audit-sink.enabled=true} they are left to the audit sink,
+ * which loads the actions topic through {@link #recordAll}.
+ * </p>
+ */
 @Component
-public class KafkaActionPublisher implements ActionPublisher {
+public class KafkaActionPublisher implements ActionPublisher, ActionRecorder, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaActionPublisher.class);
 
-    private static final String INSERT_ACTION_SQL = "INSERT INTO actions (action_id, customer_id, action_type, message, channel, sent_at) "
-            +
-            "VALUES (?, ?, ?, ?, ?, ?) " +
-            "ON CONFLICT (action_id) DO NOTHING";
+    // The row is only inserted if its id was not claimed in action_ids before
+    private static final String INSERT_ACTION_SQL = "WITH claimed AS ("
+            + "INSERT INTO action_ids (action_id) VALUES (?) ON CONFLICT DO NOTHING RETURNING action_id) "
+            + "INSERT INTO actions (action_id, customer_id, action_type, message, channel, sent_at) "
+            + "SELECT action_id, ?, ?, ?, ?, ? FROM claimed "
+            + "ON CONFLICT DO NOTHING";
 
     private static final String SELECT_RECENT_SQL = "SELECT action_id, customer_id, action_type, message, channel, sent_at "
             +
-            "FROM actions ORDER BY sent_at DESC LIMIT ?";
+            "FROM actions WHERE sent_at >= ? ORDER BY sent_at DESC LIMIT ?";
+
+    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM actions WHERE sent_at >= ?";
 
-    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM actions";
+    private static final String EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM action_ids WHERE action_id = ?)";
 
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> binaryKafkaTemplate;
+    private final KafkaTemplate<String, byte[]> transactionalKafkaTemplate;
     private final StringRedisTemplate redisTemplate;
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
@@ -48,6 +108,12 @@ public class KafkaActionPublisher implements ActionPublisher {
     private final long idempotencyTtlHours;
     private final long processingTtlMinutes;
     private final long publishAckTimeoutMs;
+    private final boolean binaryWireFormat;
+    private final ExecutorService ioExecutor;
+    private final IdempotencyLedger ledger;
+    private final GroupCommitWriter actionsWriter;
+    private final boolean recordActions;
+    private final JourneyProperties.Partitions partitions;
 
     private final Counter actionPublishSuccess;
     private final Counter actionPublishFailure;
@@ -55,12 +121,21 @@ public class KafkaActionPublisher implements ActionPublisher {
     private final Timer actionPublishLatency;
 
     public KafkaActionPublisher(KafkaTemplate<String, String> kafkaTemplate,
+            KafkaTemplate<String, byte[]> binaryKafkaTemplate,
             StringRedisTemplate redisTemplate,
             JdbcTemplate jdbcTemplate,
             ObjectMapper objectMapper,
             JourneyProperties journeyProperties,
-            MeterRegistry meterRegistry) {
+            MeterRegistry meterRegistry,
+            @Qualifier("portIoExecutor") ExecutorService ioExecutor,
+            @Qualifier("transactionalKafkaTemplate") ObjectProvider<KafkaTemplate<String, byte[]>> transactionalKafkaTemplate,
+            IdempotencyLedger idempotencyLedger,
+            PlatformTransactionManager transactionManager) {
         this.kafkaTemplate = kafkaTemplate;
+        this.binaryKafkaTemplate = binaryKafkaTemplate;
+        this.transactionalKafkaTemplate = transactionalKafkaTemplate != null
+                ? transactionalKafkaTemplate.getIfAvailable()
+                : null;
         this.redisTemplate = redisTemplate;
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
@@ -69,6 +144,16 @@ public class KafkaActionPublisher implements ActionPublisher {
         this.idempotencyTtlHours = journeyProperties.getRedis().getIdempotencyTtlHours();
         this.processingTtlMinutes = journeyProperties.getRedis().getProcessingTtlMinutes();
         this.publishAckTimeoutMs = journeyProperties.getKafka().getPublishAckTimeoutMs();
+        this.binaryWireFormat = journeyProperties.getKafka().getActionWireFormat() == JourneyProperties.WireFormatType.BINARY;
+        this.ioExecutor = ioExecutor;
+        this.ledger = idempotencyLedger != null && idempotencyLedger.isEnabled() ? idempotencyLedger : null;
+        this.recordActions = !journeyProperties.getAuditSink().isEnabled();
+        this.partitions = journeyProperties.getPartitions();
+        JourneyProperties.GroupCommit groupCommit = journeyProperties.getGroupCommit();
+        this.actionsWriter = groupCommit.isEnabled()
+                ? new GroupCommitWriter("actions", INSERT_ACTION_SQL, jdbcTemplate, transactionManager, groupCommit,
+                        meterRegistry)
+                : null;
 
         this.actionPublishSuccess = meterRegistry.counter("journey.action.publish.outcome", "status", "success");
         this.actionPublishFailure = meterRegistry.counter("journey.action.publish.outcome", "status", "failure");
@@ -78,61 +163,72 @@ public class KafkaActionPublisher implements ActionPublisher {
 
     @Override
     public void publish(Action action) {
+        if (inKafkaTransaction()) {
+            publishInTransaction(action);
+            return;
+        }
         Timer.Sample sample = Timer.start();
         String actionStatusKey = idempotencyPrefix + action.getActionId();
-        String processingValue = "PROCESSING";
-
-        Boolean lockAcquired = redisTemplate.opsForValue()
-                .setIfAbsent(actionStatusKey, processingValue, processingTtlMinutes, TimeUnit.MINUTES);
-
-        if (Boolean.FALSE.equals(lockAcquired)) {
-            String existingStatus = redisTemplate.opsForValue().get(actionStatusKey);
-            if ("DONE".equals(existingStatus)) {
-                actionPublishDuplicate.increment();
-                log.warn("action=duplicate_action_skipped actionId={} customerId={} status={}",
-                        action.getActionId(), action.getCustomerId(), existingStatus);
-                return;
-            }
-            log.warn("action=action_inflight_skipped actionId={} customerId={} status={}",
-                    action.getActionId(), action.getCustomerId(), existingStatus);
-            throw new IllegalStateException("Action publish already in progress for actionId=" + action.getActionId());
+        if (!acquire(action, actionStatusKey)) {
+            return;
         }
 
         try {
-            String actionJson = serializeAction(action);
-            SendResult<String, String> sendResult = kafkaTemplate.send(actionsTopic, action.getCustomerId(), actionJson)
-                    .completable()
-                    .get(publishAckTimeoutMs, TimeUnit.MILLISECONDS);
-
-            log.info("action=action_published actionId={} customerId={} type={} channel={} topic={} partition={} offset={}",
-                    action.getActionId(), action.getCustomerId(),
-                    action.getActionType(), action.getChannel(),
-                    sendResult.getRecordMetadata().topic(),
-                    sendResult.getRecordMetadata().partition(),
-                    sendResult.getRecordMetadata().offset());
-
-            jdbcTemplate.update(INSERT_ACTION_SQL,
-                    action.getActionId(),
-                    action.getCustomerId(),
-                    action.getActionType(),
-                    action.getMessage(),
-                    action.getChannel(),
-                    Timestamp.from(action.getCreatedAt()));
-
-            redisTemplate.opsForValue().set(actionStatusKey, "DONE", idempotencyTtlHours, TimeUnit.HOURS);
-            actionPublishSuccess.increment();
-
+            RecordMetadata metadata = send(action).get(publishAckTimeoutMs, TimeUnit.MILLISECONDS);
+            recordPublished(action, actionStatusKey, metadata);
         } catch (Exception e) {
-            actionPublishFailure.increment();
-            redisTemplate.delete(actionStatusKey);
-            log.error("action=action_publish_failed actionId={} customerId={} error={}",
-                    action.getActionId(), action.getCustomerId(), e.getMessage(), e);
-            throw new RuntimeException("Action publish failed for actionId=" + action.getActionId(), e);
+            throw publishFailed(action, actionStatusKey, unwrap(e));
         } finally {
             sample.stop(actionPublishLatency);
         }
     }
 
+    @Override
+    public CompletableFuture<Void> publishAsync(Action action) {
+        if (inKafkaTransaction()) {
+            // The send must join the transaction on this thread
+            publishInTransaction(action);
+            return CompletableFuture.completedFuture(null);
+        }
+        Timer.Sample sample = Timer.start();
+        String actionStatusKey = idempotencyPrefix + action.getActionId();
+        if (!acquire(action, actionStatusKey)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<RecordMetadata> sent;
+        try {
+            sent = send(action).orTimeout(publishAckTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        // Off the producer I/O thread: the completion writes to Postgres and Redis
+        return sent.handleAsync((metadata, error) -> {
+            try {
+                if (error != null) {
+                    throw publishFailed(action, actionStatusKey, unwrap(error));
+                }
+                try {
+                    recordPublished(action, actionStatusKey, metadata);
+                } catch (RuntimeException e) {
+                    throw publishFailed(action, actionStatusKey, e);
+                }
+                return null;
+            } finally {
+                sample.stop(actionPublishLatency);
+            }
+        }, ioExecutor);
+    }
+
+    @Override
+    public void recordAll(List<Action> actions) {
+        List<Object[]> rows = new ArrayList<>(actions.size());
+        for (Action action : actions) {
+            rows.add(toRow(action));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ACTION_SQL, rows);
+    }
+
     @Override
     public List<Action> getRecentActions(int limit) {
         return jdbcTemplate.query(SELECT_RECENT_SQL,
@@ -145,16 +241,214 @@ public class KafkaActionPublisher implements ActionPublisher {
                         null,
                         rs.getTimestamp("sent_at").toInstant(),
                         null),
+                Timestamp.valueOf(partitions.queryWindowStart()),
                 limit);
     }
 
     @Override
     public long countAll() {
-        Long count = jdbcTemplate.queryForObject(COUNT_ALL_SQL, Long.class);
+        Long count = jdbcTemplate.queryForObject(COUNT_ALL_SQL, Long.class,
+                Timestamp.valueOf(partitions.queryWindowStart()));
         return count != null ? count : 0;
     }
 
-    private String serializeAction(Action action) {
+    @Override
+    public void destroy() {
+        if (actionsWriter != null) {
+            actionsWriter.close();
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private boolean inKafkaTransaction() {
+        return transactionalKafkaTemplate != null && transactionalKafkaTemplate.inTransaction();
+    }
+
+    /**
+     * Sends the action in the current Kafka transaction; a failed send fails
+     * the commit, which rolls the transaction back and redelivers the event.
+     */
+    private void publishInTransaction(Action action) {
+        Timer.Sample sample = Timer.start();
+        try {
+            ProducerRecord<String, byte[]> record = binaryWireFormat
+                    ? binaryRecord(action)
+                    : new ProducerRecord<>(actionsTopic, action.getCustomerId(),
+                            serializeAction(action).getBytes(StandardCharsets.UTF_8));
+            transactionalKafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            actionPublishFailure.increment();
+            log.error("action=action_publish_failed actionId={} customerId={} transactional=true error={}",
+                    action.getActionId(), action.getCustomerId(), e.getMessage(), e);
+            throw new RuntimeException("Action publish failed for actionId=" + action.getActionId(), e);
+        } finally {
+            sample.stop(actionPublishLatency);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordCommitted(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordCommitted(action);
+            }
+        });
+    }
+
+    /**
+     * Transaction committed: records the action. The offset is already
+     * committed, so a failed insert is only logged.
+     */
+    private void recordCommitted(Action action) {
+        try {
+            insertAction(action);
+            actionPublishSuccess.increment();
+            log.info("action=action_published actionId={} customerId={} type={} channel={} transactional=true",
+                    action.getActionId(), action.getCustomerId(), action.getActionType(), action.getChannel());
+        } catch (RuntimeException e) {
+            log.error("action=action_record_failed actionId={} customerId={} error={}",
+                    action.getActionId(), action.getCustomerId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Takes the PROCESSING marker of the action; with the ledger, checks it
+     * instead (no marker: a concurrent publish of the same action is already
+     * excluded by the state compare-and-set that produced it).
+     *
+     * @return false if the action was published before (DONE)
+     * @throws IllegalStateException if another publish of it is in progress
+     */
+    private boolean acquire(Action action, String actionStatusKey) {
+        if (ledger != null) {
+            return !publishedBefore(action);
+        }
+        Boolean lockAcquired = redisTemplate.opsForValue()
+                .setIfAbsent(actionStatusKey, "PROCESSING", processingTtlMinutes, TimeUnit.MINUTES);
+        if (!Boolean.FALSE.equals(lockAcquired)) {
+            return true;
+        }
+
+        String existingStatus = redisTemplate.opsForValue().get(actionStatusKey);
+        if ("DONE".equals(existingStatus)) {
+            actionPublishDuplicate.increment();
+            log.warn("action=duplicate_action_skipped actionId={} customerId={} status={}",
+                    action.getActionId(), action.getCustomerId(), existingStatus);
+            return false;
+        }
+        log.warn("action=action_inflight_skipped actionId={} customerId={} status={}",
+                action.getActionId(), action.getCustomerId(), existingStatus);
+        throw new IllegalStateException("Action publish already in progress for actionId=" + action.getActionId());
+    }
+
+    /**
+     * Ledger hit: confirmed against the {@code action_ids} table.
+     */
+    private boolean publishedBefore(Action action) {
+        if (!ledger.mightContain(action.getActionId())) {
+            return false;
+        }
+        boolean duplicate = Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, action.getActionId()));
+        ledger.confirmed(duplicate);
+        if (duplicate) {
+            actionPublishDuplicate.increment();
+            log.warn("action=duplicate_action_skipped actionId={} customerId={} source=ledger",
+                    action.getActionId(), action.getCustomerId());
+        }
+        return duplicate;
+    }
+
+    /**
+     * Broker ack received: records the action and marks it DONE.
+     */
+    private void recordPublished(Action action, String actionStatusKey, RecordMetadata metadata) {
+        log.info("action=action_published actionId={} customerId={} type={} channel={} topic={} partition={} offset={}",
+                action.getActionId(), action.getCustomerId(),
+                action.getActionType(), action.getChannel(),
+                metadata.topic(),
+                metadata.partition(),
+                metadata.offset());
+
+        insertAction(action);
+
+        if (ledger != null) {
+            ledger.record(action.getActionId());
+        } else {
+            redisTemplate.opsForValue().set(actionStatusKey, "DONE", idempotencyTtlHours, TimeUnit.HOURS);
+        }
+        actionPublishSuccess.increment();
+    }
+
+    /**
+     * Releases the PROCESSING marker so the action can be published again.
+     */
+    private RuntimeException publishFailed(Action action, String actionStatusKey, Throwable error) {
+        actionPublishFailure.increment();
+        if (ledger == null) {
+            redisTemplate.delete(actionStatusKey);
+        }
+        log.error("action=action_publish_failed actionId={} customerId={} error={}",
+                action.getActionId(), action.getCustomerId(), error.getMessage(), error);
+        return new RuntimeException("Action publish failed for actionId=" + action.getActionId(), error);
+    }
+
+    private void insertAction(Action action) {
+        if (!recordActions) {
+            return;
+        }
+        Object[] row = toRow(action);
+        if (actionsWriter != null) {
+            actionsWriter.write(row);
+        } else {
+            jdbcTemplate.update(INSERT_ACTION_SQL, row);
+        }
+    }
+
+    private static Object[] toRow(Action action) {
+        return new Object[] {
+                action.getActionId(),
+                action.getCustomerId(),
+                action.getActionType(),
+                action.getMessage(),
+                action.getChannel(),
+                Timestamp.from(action.getCreatedAt()) };
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if ((error instanceof ExecutionException || error instanceof CompletionException) && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Sends the action in the configured wire format. Package-private for
+     * ActionOutboxRelay, which sends without the Redis marker and insert.
+     *
+     * @return future completed with the broker ack
+     */
+    CompletableFuture<RecordMetadata> send(Action action) {
+        if (binaryWireFormat) {
+            return binaryKafkaTemplate.send(binaryRecord(action)).thenApply(result -> result.getRecordMetadata());
+        }
+
+        return kafkaTemplate.send(actionsTopic, action.getCustomerId(), serializeAction(action))
+                .thenApply(result -> result.getRecordMetadata());
+    }
+
+    private ProducerRecord<String, byte[]> binaryRecord(Action action) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(actionsTopic, action.getCustomerId(),
+                ActionWireCodec.encode(action));
+        record.headers().add(WireFormat.CONTENT_TYPE_HEADER, WireFormat.contentTypeValue(WireFormat.BINARY));
+        return record;
+    }
+
+    // Package-private for ActionSerializationBenchmark (src/jmh)
+    String serializeAction(Action action) {
         try {
             return objectMapper.writeValueAsString(Map.of(
                     "action_id", action.getActionId(),
@@ -0,0 +1,78 @@
+package com.banking.journey.adapters.out.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.banking.journey.application.port.out.ActionPublisher;
+import com.banking.journey.domain.entity.Action;
+
+/**
+ * In-memory implementation of the ActionPublisher outbound port.
+ * <p>
+ * "Publishing" appends to a ring of the most recent {@code capacity}
+ * actions. Idempotency mirrors the Redis action status keys: an actionId
+ * seen within the last {@code capacity} publishes is skipped, older ones
+ * expire (like the idempotency TTL), so memory stays bounded however many
+ * actions go through.
+ * </p>
+ * <p>
+ * Not wired into the application context.
+ * </p>
+ */
+public class InMemoryActionPublisher implements ActionPublisher {
+
+    private final Action[] recent;
+    private final Set<String> recentIds;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private long sequence;
+
+    public InMemoryActionPublisher(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        this.recent = new Action[capacity];
+        this.recentIds = ConcurrentHashMap.newKeySet(capacity);
+    }
+
+    @Override
+    public void publish(Action action) {
+        if (!recentIds.add(action.getActionId())) {
+            duplicates.increment();
+            return;
+        }
+        synchronized (recent) {
+            int slot = (int) (sequence++ % recent.length);
+            Action evicted = recent[slot];
+            if (evicted != null) {
+                recentIds.remove(evicted.getActionId());
+            }
+            recent[slot] = action;
+        }
+        published.increment();
+    }
+
+    @Override
+    public List<Action> getRecentActions(int limit) {
+        synchronized (recent) {
+            int count = (int) Math.min(Math.min(limit, sequence), recent.length);
+            List<Action> result = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                result.add(recent[(int) ((sequence - i) % recent.length)]);
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public long countAll() {
+        return published.sum();
+    }
+
+    public long duplicateCount() {
+        return duplicates.sum();
+    }
+}
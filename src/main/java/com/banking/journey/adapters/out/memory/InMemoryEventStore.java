@@ -0,0 +1,109 @@
+package com.banking.journey.adapters.out.memory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
+
+/**
+ * In-memory implementation of the EventStore outbound port.
+ * <p>
+ * Keeps the last {@code retainedPerCustomer} events of each customer, newest
+ * first, and exact counters for everything saved. Idempotency (same eventId
+ * = no-op) holds within the retained window, like a TTL'd dedupe store; with
+ * {@code retainedPerCustomer = 0} only counters are kept, which is what the
+ * throughput harness uses for millions of journeys.
+ * </p>
+ * <p>
+ * Not wired into the application context.
+ * </p>
+ */
+public class InMemoryEventStore implements EventStore {
+
+    private final int retainedPerCustomer;
+    private final Map<String, ArrayDeque<CustomerEvent>> eventsByCustomer = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+    private final Map<EventType, LongAdder> totalByType = new EnumMap<>(EventType.class);
+
+    public InMemoryEventStore(int retainedPerCustomer) {
+        if (retainedPerCustomer < 0) {
+            throw new IllegalArgumentException("retainedPerCustomer must be >= 0");
+        }
+        this.retainedPerCustomer = retainedPerCustomer;
+        for (EventType eventType : EventType.values()) {
+            totalByType.put(eventType, new LongAdder());
+        }
+    }
+
+    @Override
+    public void save(CustomerEvent event) {
+        if (retainedPerCustomer > 0 && !retain(event)) {
+            return; // Duplicate eventId
+        }
+        total.increment();
+        totalByType.get(event.getEventType()).increment();
+    }
+
+    @Override
+    public List<CustomerEvent> findByCustomerId(String customerId, int limit) {
+        ArrayDeque<CustomerEvent> events = eventsByCustomer.get(customerId);
+        if (events == null) {
+            return Collections.emptyList();
+        }
+        synchronized (events) {
+            List<CustomerEvent> result = new ArrayList<>(Math.min(limit, events.size()));
+            Iterator<CustomerEvent> newestFirst = events.iterator();
+            while (newestFirst.hasNext() && result.size() < limit) {
+                result.add(newestFirst.next());
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public long countAll() {
+        return total.sum();
+    }
+
+    @Override
+    public List<Object[]> countByEventType() {
+        List<Object[]> counts = new ArrayList<>();
+        totalByType.forEach((type, count) -> {
+            if (count.sum() > 0) {
+                counts.add(new Object[] { type.name(), count.sum() });
+            }
+        });
+        counts.sort((a, b) -> Long.compare((Long) b[1], (Long) a[1]));
+        return counts;
+    }
+
+    /**
+     * @return false if the event is already retained for its customer
+     */
+    private boolean retain(CustomerEvent event) {
+        ArrayDeque<CustomerEvent> events = eventsByCustomer.computeIfAbsent(
+                event.getCustomerId(), id -> new ArrayDeque<>(Math.min(retainedPerCustomer, 16)));
+        synchronized (events) {
+            for (CustomerEvent existing : events) {
+                if (existing.getEventId().equals(event.getEventId())) {
+                    return false;
+                }
+            }
+            // Events arrive in timestamp order per customer: newest goes first
+            events.addFirst(event);
+            if (events.size() > retainedPerCustomer) {
+                events.removeLast();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.banking.journey.adapters.out.memory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.domain.entity.CardApplicationState;
+
+/**
+ * In-memory implementation of the StateStore outbound port.
+ * <p>
+ * CardApplicationState is immutable, so instances are stored as-is with no
+ * serialization. No TTL: states live until deleted. Not wired into the
+ * application context; used by the throughput harness (src/jmh) to measure
+ * the domain path without Redis.
+ * </p>
+ */
+public class InMemoryStateStore implements StateStore {
+
+    private final Map<String, CardApplicationState> states;
+
+    public InMemoryStateStore(int expectedCustomers) {
+        this.states = new ConcurrentHashMap<>(expectedCustomers);
+    }
+
+    @Override
+    public CardApplicationState getState(String customerId) {
+        return states.get(customerId);
+    }
+
+    @Override
+    public void saveState(CardApplicationState state) {
+        states.put(state.getCustomerId(), state);
+    }
+
+    @Override
+    public boolean compareAndSet(String customerId, long expectedVersion, CardApplicationState newState) {
+        boolean[] saved = new boolean[1];
+        states.compute(customerId, (id, current) -> {
+            long currentVersion = current != null ? current.getVersion() : NO_VERSION;
+            if (currentVersion != expectedVersion) {
+                return current;
+            }
+            saved[0] = true;
+            return newState;
+        });
+        return saved[0];
+    }
+
+    @Override
+    public void deleteState(String customerId) {
+        states.remove(customerId);
+    }
+
+    public int size() {
+        return states.size();
+    }
+}
@@ -0,0 +1,100 @@
+package com.banking.journey.adapters.out.metrics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.domain.valueobject.EventType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer implementation of the ProcessingMetrics outbound port.
+ * <p>
+ * Exports:
+ * </p>
+ * <ul>
+ * <li>{@code journey.stage.latency{stage}}: timer per pipeline stage, with
+ * percentile histogram (p50/p95/p99)</li>
+ * <li>{@code journey.event.processed{outcome,event_type}}: counter per
+ * outcome and event type</li>
+ * <li>{@code journey.event.process.latency{outcome}}: total processing time
+ * per outcome</li>
+ * <li>{@code journey.event.e2e.latency}: timer from event timestamp to
+ * completion, and {@code journey.event.e2e.lag}: gauge of the latest value in
+ * milliseconds</li>
+ * </ul>
+ * <p>
+ * All meters are registered up front, so the hot path is a map lookup and a
+ * record call.
+ * </p>
+ */
+@Component
+public class MicrometerProcessingMetrics implements ProcessingMetrics {
+
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<ProcessingOutcome, Map<EventType, Counter>> outcomeCounters = new EnumMap<>(ProcessingOutcome.class);
+    private final Map<ProcessingOutcome, Timer> outcomeTimers = new EnumMap<>(ProcessingOutcome.class);
+    private final Timer endToEndLatency;
+    private final AtomicLong lastEndToEndLagMs = new AtomicLong();
+
+    public MicrometerProcessingMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("journey.stage.latency")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .publishPercentiles(PERCENTILES)
+                    .register(meterRegistry));
+        }
+        for (ProcessingOutcome outcome : ProcessingOutcome.values()) {
+            Map<EventType, Counter> byType = new EnumMap<>(EventType.class);
+            for (EventType eventType : EventType.values()) {
+                byType.put(eventType, meterRegistry.counter("journey.event.processed",
+                        "outcome", outcome.name(), "event_type", eventType.name()));
+            }
+            outcomeCounters.put(outcome, byType);
+            outcomeTimers.put(outcome, Timer.builder("journey.event.process.latency")
+                    .tag("outcome", outcome.name())
+                    .publishPercentiles(PERCENTILES)
+                    .register(meterRegistry));
+        }
+        this.endToEndLatency = Timer.builder("journey.event.e2e.latency")
+                .description("Event timestamp to end of processing")
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+        Gauge.builder("journey.event.e2e.lag", lastEndToEndLagMs, AtomicLong::get)
+                .description("End-to-end lag of the most recently completed event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordStage(Stage stage, long durationNanos) {
+        stageTimers.get(stage).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordOutcome(ProcessingOutcome outcome, EventType eventType, long durationNanos) {
+        outcomeCounters.get(outcome).get(eventType).increment();
+        outcomeTimers.get(outcome).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordEndToEndLag(Duration lag) {
+        // Producer clock skew can make the lag negative; clamp rather than drop
+        long lagMs = Math.max(0, lag.toMillis());
+        endToEndLatency.record(lagMs, TimeUnit.MILLISECONDS);
+        lastEndToEndLagMs.set(lagMs);
+    }
+}
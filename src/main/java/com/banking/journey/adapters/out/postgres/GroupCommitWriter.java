@@ -0,0 +1,249 @@
+package com.banking.journey.adapters.out.postgres;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Group commit for one idempotent INSERT statement
+ * ({@code journey.group-commit.enabled=true}).
+ * <p>
+ * Callers on any thread {@link #submit} their row's parameters to a bounded
+ * queue (blocking while it is full). One writer thread takes whatever is
+ * queued, waiting up to {@code max-latency} for a batch to fill to
+ * {@code max-batch-size}, and writes it as one JDBC batch in one transaction;
+ * with the driver's {@code reWriteBatchedInserts} that is a few multi-row
+ * INSERTs. Each caller's future completes when its batch commits. If the
+ * batch fails, its rows are written again one at a time, so only the rows
+ * that fail on their own fail their callers, and are redelivered like a
+ * failed single insert. The statement must be idempotent (ON CONFLICT DO
+ * NOTHING): rows of a failed batch may be written twice.
+ * </p>
+ * <p>
+ * Exports {@code journey.group.commit.batch.size},
+ * {@code journey.group.commit.flush.latency} and
+ * {@code journey.group.commit.queue.depth}, tagged {@code writer}.
+ * </p>
+ */
+public final class GroupCommitWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+
+    private final String name;
+    private final String sql;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+
+    public GroupCommitWriter(String name, String sql, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            JourneyProperties.GroupCommit config,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.sql = sql;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+        Duration maxLatency = config.getMaxLatency();
+        this.maxLatencyNanos = maxLatency != null ? maxLatency.toNanos() : 0;
+        this.queue = new ArrayBlockingQueue<>(Math.max(maxBatchSize, config.getQueueCapacity()));
+
+        this.batchSize = DistributionSummary.builder("journey.group.commit.batch.size")
+                .tag("writer", name)
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("journey.group.commit.flush.latency")
+                .tag("writer", name)
+                .register(meterRegistry);
+        Gauge.builder("journey.group.commit.queue.depth", queue, BlockingQueue::size)
+                .tag("writer", name)
+                .register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("journey-group-commit-" + name).daemon(true).start(this::run);
+    }
+
+    /**
+     * Queues a row.
+     *
+     * @return future completed once the row's batch is committed
+     */
+    public CompletableFuture<Void> submit(Object[] args) {
+        CompletableFuture<Void> committed = new CompletableFuture<>();
+        if (closed) {
+            committed.completeExceptionally(new IllegalStateException("Group commit writer " + name + " is closed"));
+            return committed;
+        }
+        try {
+            queue.put(new Pending(args, committed));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            committed.completeExceptionally(e);
+            return committed;
+        }
+        if (closed && !writer.isAlive()) {
+            // Closed while this row was queued, after the writer's last drain
+            failQueued();
+        }
+        return committed;
+    }
+
+    /**
+     * Queues a row and waits for its batch to commit.
+     */
+    public void write(Object[] args) {
+        try {
+            submit(args).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Group commit failed for writer " + name, cause);
+        }
+    }
+
+    /**
+     * Writes what is queued and stops the writer thread. Rows still queued
+     * once it has stopped fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writer.isAlive()) {
+            failQueued();
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // close(): write the rest without waiting for more
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        // Queued while closing, after the last drain
+        failQueued();
+        log.info("action=group_commit_writer_stopped writer={}", name);
+    }
+
+    /**
+     * Blocks for the first row, then gathers more until the batch is full or
+     * {@code max-latency} has passed since the first one.
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxLatencyNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            rows.add(pending.args());
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+        } catch (RuntimeException e) {
+            log.warn("action=group_commit_failed writer={} size={} error={}", name, batch.size(), e.getMessage());
+            if (batch.size() == 1) {
+                batch.get(0).committed().completeExceptionally(e);
+            } else {
+                writeEach(batch);
+            }
+            return;
+        } finally {
+            sample.stop(flushLatency);
+            batchSize.record(batch.size());
+        }
+        for (Pending pending : batch) {
+            pending.committed().complete(null);
+        }
+    }
+
+    /**
+     * Writes the rows of a failed batch one by one, so one bad row does not
+     * fail the callers of the others.
+     */
+    private void writeEach(List<Pending> batch) {
+        int failed = 0;
+        for (Pending pending : batch) {
+            try {
+                jdbcTemplate.update(sql, pending.args());
+                pending.committed().complete(null);
+            } catch (RuntimeException e) {
+                failed++;
+                pending.committed().completeExceptionally(e);
+            }
+        }
+        if (failed > 0) {
+            log.error("action=group_commit_rows_failed writer={} size={} failed={}", name, batch.size(), failed);
+        }
+    }
+
+    private void failQueued() {
+        List<Pending> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        for (Pending pending : leftovers) {
+            pending.committed().completeExceptionally(
+                    new IllegalStateException("Group commit writer " + name + " is closed"));
+        }
+    }
+
+    private record Pending(Object[] args, CompletableFuture<Void> committed) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.banking.journey.adapters.out.postgres;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.application.port.out.ActionPublisher;
+import com.banking.journey.application.port.out.ActionRecorder;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.Action;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * ActionPublisher of the transactional outbox
+ * ({@code journey.outbox.enabled=true}): an action is recorded in
+ * {@code actions} and queued in {@code action_outbox} by one statement, so
+ * both commit or neither does. ActionOutboxRelay publishes the queue to the
+ * actions topic.
+ * <p>
+ * One round trip per action instead of the Redis lock, Kafka send, insert
+ * and DONE marker of KafkaActionPublisher. The {@code action_ids} table is
+ * the idempotency check: an action id claimed there before is not recorded or
+ * queued again. {@code sent_at} is the time the action was queued.
+ * </p>
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "journey.outbox", name = "enabled", havingValue = "true")
+public class OutboxActionPublisher implements ActionPublisher, ActionRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxActionPublisher.class);
+
+    // Data-modifying CTEs: the actions row only exists if the id was claimed, and
+    // the outbox row only if the actions row was inserted
+    private static final String ENQUEUE_ACTION_SQL = "WITH claimed AS ("
+            + "INSERT INTO action_ids (action_id) VALUES (?) ON CONFLICT DO NOTHING RETURNING action_id), "
+            + "recorded AS ("
+            + "INSERT INTO actions (action_id, customer_id, action_type, message, channel, sent_at) "
+            + "SELECT action_id, ?, ?, ?, ?, ?::timestamp FROM claimed "
+            + "ON CONFLICT DO NOTHING "
+            + "RETURNING action_id, customer_id, action_type, message, channel, sent_at) "
+            + "INSERT INTO action_outbox (shard, action_id, customer_id, action_type, message, channel, created_at) "
+            + "SELECT ?, action_id, customer_id, action_type, message, channel, sent_at FROM recorded";
+
+    private static final String INSERT_ACTION_SQL = "WITH claimed AS ("
+            + "INSERT INTO action_ids (action_id) VALUES (?) ON CONFLICT DO NOTHING RETURNING action_id) "
+            + "INSERT INTO actions (action_id, customer_id, action_type, message, channel, sent_at) "
+            + "SELECT action_id, ?, ?, ?, ?, ? FROM claimed "
+            + "ON CONFLICT DO NOTHING";
+
+    private static final String SELECT_RECENT_SQL = "SELECT action_id, customer_id, action_type, message, channel, sent_at "
+            + "FROM actions WHERE sent_at >= ? ORDER BY sent_at DESC LIMIT ?";
+
+    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM actions WHERE sent_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService ioExecutor;
+    private final int shards;
+    private final JourneyProperties.Partitions partitions;
+
+    private final Counter actionPublishSuccess;
+    private final Counter actionPublishFailure;
+    private final Counter actionPublishDuplicate;
+
+    public OutboxActionPublisher(JdbcTemplate jdbcTemplate,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry,
+            @Qualifier("portIoExecutor") ExecutorService ioExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ioExecutor = ioExecutor;
+        this.shards = journeyProperties.getOutbox().getShards();
+        this.partitions = journeyProperties.getPartitions();
+        if (shards <= 0 || shards > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("journey.outbox.shards must be in 1.." + Short.MAX_VALUE + ": " + shards);
+        }
+
+        this.actionPublishSuccess = meterRegistry.counter("journey.action.publish.outcome", "status", "success");
+        this.actionPublishFailure = meterRegistry.counter("journey.action.publish.outcome", "status", "failure");
+        this.actionPublishDuplicate = meterRegistry.counter("journey.action.publish.outcome", "status", "duplicate");
+    }
+
+    @Override
+    public void publish(Action action) {
+        int rows;
+        try {
+            rows = jdbcTemplate.update(ENQUEUE_ACTION_SQL,
+                    action.getActionId(),
+                    action.getCustomerId(),
+                    action.getActionType(),
+                    action.getMessage(),
+                    action.getChannel(),
+                    Timestamp.from(action.getCreatedAt()),
+                    shardOf(action.getCustomerId()));
+        } catch (RuntimeException e) {
+            actionPublishFailure.increment();
+            log.error("action=action_enqueue_failed actionId={} customerId={} error={}",
+                    action.getActionId(), action.getCustomerId(), e.getMessage());
+            throw e;
+        }
+
+        if (rows == 0) {
+            actionPublishDuplicate.increment();
+            log.warn("action=duplicate_action_skipped actionId={} customerId={}",
+                    action.getActionId(), action.getCustomerId());
+            return;
+        }
+        actionPublishSuccess.increment();
+        log.info("action=action_enqueued actionId={} customerId={} type={} channel={}",
+                action.getActionId(), action.getCustomerId(), action.getActionType(), action.getChannel());
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(Action action) {
+        return CompletableFuture.runAsync(() -> publish(action), ioExecutor);
+    }
+
+    /**
+     * Actions relayed from the outbox are recorded already; this only adds
+     * the ones published another way.
+     */
+    @Override
+    public void recordAll(List<Action> actions) {
+        List<Object[]> rows = new ArrayList<>(actions.size());
+        for (Action action : actions) {
+            rows.add(new Object[] {
+                    action.getActionId(),
+                    action.getCustomerId(),
+                    action.getActionType(),
+                    action.getMessage(),
+                    action.getChannel(),
+                    Timestamp.from(action.getCreatedAt()) });
+        }
+        jdbcTemplate.batchUpdate(INSERT_ACTION_SQL, rows);
+    }
+
+    @Override
+    public List<Action> getRecentActions(int limit) {
+        return jdbcTemplate.query(SELECT_RECENT_SQL,
+                (rs, rowNum) -> new Action(
+                        rs.getString("action_id"),
+                        rs.getString("customer_id"),
+                        rs.getString("action_type"),
+                        rs.getString("message"),
+                        rs.getString("channel"),
+                        null,
+                        rs.getTimestamp("sent_at").toInstant(),
+                        null),
+                Timestamp.valueOf(partitions.queryWindowStart()),
+                limit);
+    }
+
+    @Override
+    public long countAll() {
+        Long count = jdbcTemplate.queryForObject(COUNT_ALL_SQL, Long.class,
+                Timestamp.valueOf(partitions.queryWindowStart()));
+        return count != null ? count : 0;
+    }
+
+    private short shardOf(String customerId) {
+        return (short) Math.floorMod(customerId.hashCode(), shards);
+    }
+}
@@ -0,0 +1,244 @@
+package com.banking.journey.adapters.out.postgres;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.bootstrap.config.JourneyProperties.ExpiredPartitions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the monthly range partitions of {@code events} and {@code actions}
+ * ({@code journey.partitions.enabled}, on by default).
+ * <p>
+ * Every {@code check-interval}, and once at startup, each table is
+ * maintained in its own transaction under {@code pg_try_advisory_xact_lock},
+ * so only one instance does it at a time:
+ * <ol>
+ * <li>the partitions {@code <table>_pYYYY_MM} of the current and the next
+ * {@code premake-months} months are created if missing. Rows of that month
+ * already in {@code <table>_default} are moved into the new partition before
+ * it is attached, which PostgreSQL otherwise refuses.</li>
+ * <li>partitions whose month ended more than {@code retention-months} ago are
+ * detached, or dropped; with DROP, expired rows of the default partition are
+ * deleted too. Action ids recorded before the retention period are removed
+ * from {@code action_ids}, whatever the policy.</li>
+ * </ol>
+ * Month boundaries are in the JVM time zone, like the stored timestamps.
+ * A table that is not partitioned (a schema from before partitioning) is
+ * skipped with a warning until {@code migrate-partitions.sql} converts it.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "journey.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenance implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    /** First key of the maintenance advisory locks; the second is the table's index. */
+    private static final int ADVISORY_LOCK_CLASS = 0x70617274;
+
+    private static final String LOCK_TABLE_SQL = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    private static final String IS_PARTITIONED_SQL = "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table "
+            + "WHERE partrelid = to_regclass(?))";
+
+    private static final String SELECT_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JourneyProperties.Partitions config;
+    private final List<PartitionedTable> tables;
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService scheduler;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = journeyProperties.getPartitions();
+        this.tables = List.of(
+                new PartitionedTable("events", "timestamp", config.getEvents(), null),
+                new PartitionedTable("actions", "sent_at", config.getActions(), "action_ids"));
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("journey-partition-maintenance").daemon(true).factory());
+        long intervalMs = config.getCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintainSafely, 0, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("action=partition_maintenance_started premakeMonths={} intervalMs={}",
+                config.getPremakeMonths(), intervalMs);
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Runs one maintenance pass over both tables.
+     */
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i < tables.size(); i++) {
+            int lockKey = i;
+            PartitionedTable table = tables.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Boolean locked = jdbcTemplate.queryForObject(LOCK_TABLE_SQL, Boolean.class,
+                            ADVISORY_LOCK_CLASS, lockKey);
+                    if (Boolean.TRUE.equals(locked)) {
+                        maintain(table, current);
+                    }
+                });
+            } catch (RuntimeException e) {
+                meterRegistry.counter("journey.partitions.failures", "table", table.name()).increment();
+                log.error("action=partition_maintenance_failed table={} error={}", table.name(), e.getMessage());
+            }
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("action=partition_maintenance_failed error={}", e.getMessage());
+        }
+    }
+
+    private void maintain(PartitionedTable table, YearMonth current) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class, table.name()))) {
+            log.warn("action=partition_maintenance_skipped table={} reason=not_partitioned", table.name());
+            return;
+        }
+        List<String> existing = jdbcTemplate.queryForList(SELECT_PARTITIONS_SQL, String.class, table.name());
+
+        for (int i = 0; i <= Math.max(0, config.getPremakeMonths()); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(table.partitionName(month))) {
+                create(table, month);
+            }
+        }
+
+        int retentionMonths = table.retention().getRetentionMonths();
+        if (retentionMonths <= 0) {
+            return;
+        }
+        // Expired once the whole month is older than the retention period
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (String partition : existing) {
+            YearMonth month = table.monthOf(partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                expire(table, partition);
+            }
+        }
+        if (table.retention().getExpired() == ExpiredPartitions.DROP) {
+            int deleted = jdbcTemplate.update(String.format("DELETE FROM %s_default WHERE %s < '%s'",
+                    table.name(), table.column(), lowerBound(oldestKept)));
+            if (deleted > 0) {
+                log.info("action=partition_default_expired table={} rows={}", table.name(), deleted);
+            }
+        }
+        if (table.idsTable() != null) {
+            int pruned = jdbcTemplate.update(String.format("DELETE FROM %s WHERE recorded_at < '%s'",
+                    table.idsTable(), lowerBound(oldestKept)));
+            if (pruned > 0) {
+                log.info("action=partition_ids_expired table={} ids={}", table.idsTable(), pruned);
+            }
+        }
+    }
+
+    /**
+     * Creates the month's partition as a plain table, moves that month's rows
+     * out of the default partition into it, then attaches it.
+     */
+    private void create(PartitionedTable table, YearMonth month) {
+        String partition = table.partitionName(month);
+        String from = lowerBound(month);
+        String to = lowerBound(month.plusMonths(1));
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", partition, table.name()));
+        int moved = jdbcTemplate.update(String.format(
+                "WITH moved AS (DELETE FROM %1$s_default WHERE %2$s >= '%3$s' AND %2$s < '%4$s' RETURNING *) "
+                        + "INSERT INTO %5$s SELECT * FROM moved",
+                table.name(), table.column(), from, to, partition));
+        jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                table.name(), partition, from, to));
+        meterRegistry.counter("journey.partitions.created", "table", table.name()).increment();
+        log.info("action=partition_created table={} partition={} movedFromDefault={}",
+                table.name(), partition, moved);
+    }
+
+    private void expire(PartitionedTable table, String partition) {
+        ExpiredPartitions policy = table.retention().getExpired();
+        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", table.name(), partition));
+        if (policy == ExpiredPartitions.DROP) {
+            jdbcTemplate.execute(String.format("DROP TABLE %s", partition));
+        }
+        meterRegistry.counter("journey.partitions.expired", "table", table.name(), "policy", policy.name().toLowerCase())
+                .increment();
+        log.info("action=partition_expired table={} partition={} policy={}", table.name(), partition, policy);
+    }
+
+    private static String lowerBound(YearMonth month) {
+        return month.atDay(1) + " 00:00:00";
+    }
+
+    /**
+     * @param idsTable unpartitioned table deduplicating the rows' ids, pruned
+     *                 along with expired partitions; null if there is none
+     */
+    private record PartitionedTable(String name, String column, JourneyProperties.Retention retention,
+            String idsTable, Pattern partitionPattern) {
+
+        PartitionedTable(String name, String column, JourneyProperties.Retention retention, String idsTable) {
+            this(name, column, retention, idsTable, Pattern.compile(Pattern.quote(name) + "_p(\\d{4})_(\\d{2})"));
+        }
+
+        String partitionName(YearMonth month) {
+            return String.format("%s_p%04d_%02d", name, month.getYear(), month.getMonthValue());
+        }
+
+        /** The month of a monthly partition, null for any other (the default partition). */
+        YearMonth monthOf(String partition) {
+            Matcher matcher = partitionPattern.matcher(partition);
+            return matcher.matches()
+                    ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                    : null;
+        }
+    }
+}
@@ -4,112 +4,191 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.bootstrap.config.JourneyProperties;
 import com.banking.journey.domain.entity.CustomerEvent;
 import com.banking.journey.domain.valueobject.EventType;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * PostgreSQL implementation of the EventStore outbound port.
  * <p>
  * Uses JDBC with ON CONFLICT DO NOTHING for idempotent writes.
  * JSONB column stores full event payload/metadata.
  * </p>
+ * <p>
+ * {@link #saveAsync} runs the insert on the shared {@code portIoExecutor}.
+ * With {@code journey.group-commit.enabled=true} both variants queue the
+ * row on a {@link GroupCommitWriter} instead, which inserts the events of all
+ * consumer threads in batches. {@link #saveAll} (the audit sink) writes
+ * one JDBC batch.
+ * </p>
+ * <p>
+ * {@code events} is partitioned by month on {@code timestamp}: reads are
+ * bounded to {@code journey.partitions.query-window-months} so the planner
+ * prunes the older partitions.
+ * </p>
  */
 @Component
-public class PostgresEventStore implements EventStore {
+public class PostgresEventStore implements EventStore, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(PostgresEventStore.class);
 
-    // Idempotent upsert: duplicate eventId silently ignored
+    // Idempotent upsert: duplicate event silently ignored. No conflict target, so it
+    // holds for the (event_id, timestamp) key and for event_id before partitioning
     private static final String INSERT_EVENT_SQL = "INSERT INTO events (event_id, customer_id, event_type, timestamp, payload) "
             +
             "VALUES (?, ?, ?, ?, ?::jsonb) " +
-            "ON CONFLICT (event_id) DO NOTHING";
+            "ON CONFLICT DO NOTHING";
 
     private static final String SELECT_BY_CUSTOMER_SQL = "SELECT event_id, customer_id, event_type, timestamp, payload "
             +
-            "FROM events WHERE customer_id = ? " +
+            "FROM events WHERE customer_id = ? AND timestamp >= ? " +
             "ORDER BY timestamp DESC LIMIT ?";
 
-    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM events";
+    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM events WHERE timestamp >= ?";
 
-    private static final String COUNT_BY_TYPE_SQL = "SELECT event_type, COUNT(*) as cnt FROM events GROUP BY event_type ORDER BY cnt DESC";
+    private static final String COUNT_BY_TYPE_SQL = "SELECT event_type, COUNT(*) as cnt FROM events WHERE timestamp >= ? "
+            + "GROUP BY event_type ORDER BY cnt DESC";
 
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
-
-    public PostgresEventStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    private final ExecutorService ioExecutor;
+    private final GroupCommitWriter writer;
+    private final JourneyProperties.Partitions partitions;
+
+    public PostgresEventStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            @Qualifier("portIoExecutor") ExecutorService ioExecutor,
+            PlatformTransactionManager transactionManager,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
+        this.ioExecutor = ioExecutor;
+        this.partitions = journeyProperties.getPartitions();
+        JourneyProperties.GroupCommit groupCommit = journeyProperties.getGroupCommit();
+        this.writer = groupCommit.isEnabled()
+                ? new GroupCommitWriter("events", INSERT_EVENT_SQL, jdbcTemplate, transactionManager, groupCommit,
+                        meterRegistry)
+                : null;
     }
 
     @Override
     public void save(CustomerEvent event) {
-        try {
-            String payloadJson = objectMapper.writeValueAsString(
-                    Map.of(
-                            "event_id", event.getEventId(),
-                            "customer_id", event.getCustomerId(),
-                            "event_type", event.getEventType().name(),
-                            "timestamp", event.getTimestamp().toString(),
-                            "metadata", event.getMetadata()));
+        Object[] row = toRow(event);
+        if (writer != null) {
+            writer.write(row);
+            return;
+        }
 
-            int rows = jdbcTemplate.update(
-                    INSERT_EVENT_SQL,
-                    event.getEventId(),
-                    event.getCustomerId(),
-                    event.getEventType().name(),
-                    Timestamp.from(event.getTimestamp()),
-                    payloadJson);
+        int rows = jdbcTemplate.update(INSERT_EVENT_SQL, row);
+        if (rows > 0) {
+            log.debug("action=event_saved eventId={} customerId={}",
+                    event.getEventId(), event.getCustomerId());
+        } else {
+            log.debug("action=event_duplicate_skipped eventId={}", event.getEventId());
+        }
+    }
 
-            if (rows > 0) {
-                log.debug("action=event_saved eventId={} customerId={}",
-                        event.getEventId(), event.getCustomerId());
-            } else {
-                log.debug("action=event_duplicate_skipped eventId={}", event.getEventId());
-            }
-        } catch (JsonProcessingException e) {
-            log.error("action=event_serialize_error eventId={} error={}",
-                    event.getEventId(), e.getMessage());
-            throw new RuntimeException("Failed to serialize event payload", e);
+    @Override
+    public CompletableFuture<Void> saveAsync(CustomerEvent event) {
+        if (writer == null) {
+            return CompletableFuture.runAsync(() -> save(event), ioExecutor);
+        }
+        try {
+            return writer.submit(toRow(event));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
+    @Override
+    public void saveAll(List<CustomerEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (CustomerEvent event : events) {
+            rows.add(toRow(event));
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, rows);
+    }
+
     @Override
     public List<CustomerEvent> findByCustomerId(String customerId, int limit) {
         return jdbcTemplate.query(
                 SELECT_BY_CUSTOMER_SQL,
                 (rs, rowNum) -> mapRowToEvent(rs),
                 customerId,
+                windowStart(),
                 limit);
     }
 
     @Override
     public long countAll() {
-        Long count = jdbcTemplate.queryForObject(COUNT_ALL_SQL, Long.class);
+        Long count = jdbcTemplate.queryForObject(COUNT_ALL_SQL, Long.class, windowStart());
         return count != null ? count : 0;
     }
 
     @Override
     public List<Object[]> countByEventType() {
         return jdbcTemplate.query(COUNT_BY_TYPE_SQL,
-                (rs, rowNum) -> new Object[] { rs.getString("event_type"), rs.getLong("cnt") });
+                (rs, rowNum) -> new Object[] { rs.getString("event_type"), rs.getLong("cnt") },
+                windowStart());
+    }
+
+    @Override
+    public void destroy() {
+        if (writer != null) {
+            writer.close();
+        }
     }
 
     // ─────────────────── Private Helpers ───────────────────
 
+    private Timestamp windowStart() {
+        return Timestamp.valueOf(partitions.queryWindowStart());
+    }
+
+    /** INSERT_EVENT_SQL parameters; the payload is serialized here. */
+    private Object[] toRow(CustomerEvent event) {
+        try {
+            String payloadJson = objectMapper.writeValueAsString(
+                    Map.of(
+                            "event_id", event.getEventId(),
+                            "customer_id", event.getCustomerId(),
+                            "event_type", event.getEventType().name(),
+                            "timestamp", event.getTimestamp().toString(),
+                            "metadata", event.getMetadata()));
+            return new Object[] {
+                    event.getEventId(),
+                    event.getCustomerId(),
+                    event.getEventType().name(),
+                    Timestamp.from(event.getTimestamp()),
+                    payloadJson };
+        } catch (JsonProcessingException e) {
+            log.error("action=event_serialize_error eventId={} error={}",
+                    event.getEventId(), e.getMessage());
+            throw new RuntimeException("Failed to serialize event payload", e);
+        }
+    }
+
     private CustomerEvent mapRowToEvent(ResultSet rs) throws SQLException {
         String payloadStr = rs.getString("payload");
         Map<String, String> metadata = parseMetadata(payloadStr);
@@ -0,0 +1,74 @@
+package com.banking.journey.adapters.out.redis;
+
+import java.nio.charset.StandardCharsets;
+
+import net.jpountz.xxhash.XXHash64;
+import net.jpountz.xxhash.XXHashFactory;
+
+/**
+ * Size and bit offsets of the Bloom filters of {@link IdempotencyLedger}.
+ * <p>
+ * {@code bits = -n·ln(p) / ln(2)²} (rounded up to whole 64-bit words) and
+ * {@code hashFunctions = bits/n · ln(2)} for {@code n} insertions at
+ * false-positive rate {@code p}. Offsets are double hashed from two seeded
+ * xxHash64 values of the id, so every instance derives the same offsets.
+ * </p>
+ */
+final class BloomGeometry {
+
+    /** SETBIT offsets are limited to 2^32 bits (512 MB) per key. */
+    private static final long MAX_BITS = 1L << 32;
+
+    private static final XXHash64 HASH = XXHashFactory.fastestInstance().hash64();
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final long bits;
+    private final int hashFunctions;
+
+    private BloomGeometry(long bits, int hashFunctions) {
+        this.bits = bits;
+        this.hashFunctions = hashFunctions;
+    }
+
+    static BloomGeometry of(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be > 0: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1): " + falsePositiveRate);
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = (bits + 63) & ~63L;
+        if (bits > MAX_BITS) {
+            throw new IllegalArgumentException("Bloom filter of " + bits + " bits exceeds the Redis bitmap limit");
+        }
+        int hashFunctions = (int) Math.max(1, Math.round((double) bits / expectedInsertions * ln2));
+        return new BloomGeometry(bits, hashFunctions);
+    }
+
+    long bits() {
+        return bits;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /** Bytes of one filter, in Redis and in the local tier. */
+    long bytes() {
+        return bits / 8;
+    }
+
+    long[] offsets(String id) {
+        byte[] data = id.getBytes(StandardCharsets.UTF_8);
+        long h1 = HASH.hash(data, 0, data.length, SEED_1);
+        long h2 = HASH.hash(data, 0, data.length, SEED_2) | 1;
+        long[] offsets = new long[hashFunctions];
+        for (int i = 0; i < hashFunctions; i++) {
+            offsets[i] = Long.remainderUnsigned(h1 + i * h2, bits);
+        }
+        return offsets;
+    }
+}
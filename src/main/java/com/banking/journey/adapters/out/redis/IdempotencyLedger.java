@@ -0,0 +1,317 @@
+package com.banking.journey.adapters.out.redis;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ledger of published action ids for KafkaActionPublisher
+ * ({@code journey.idempotency-ledger.enabled=true}), replacing one
+ * {@code action:status:<id>} key per action with one Bloom filter bitmap per
+ * hour.
+ * <ul>
+ * <li><b>Redis tier:</b> {@code <key-prefix>{ledger}:<epoch hour>}, one hash
+ * slot so the check script reads the whole window in one call. A bitmap
+ * expires once it is {@code journey.redis.idempotency-ttl-hours} old.</li>
+ * <li><b>Local tier</b> ({@code local-tier}): a heap copy of the window's
+ * bitmaps plus the ids recorded here. Every {@code local-refresh-interval}
+ * the current and previous hour are merged in again, and older hours no
+ * longer change. A miss costs no network call. Ids recorded by other
+ * instances in the last interval are not seen yet; the deterministic action
+ * id still keeps such a duplicate out of the {@code actions} table.</li>
+ * </ul>
+ * <p>
+ * A filter hit is only "maybe": the publisher confirms it against the
+ * {@code actions} table and reports the result with {@link #confirmed}.
+ * </p>
+ * <p>
+ * Exports {@code journey.idempotency.ledger.lookups{tier,result=absent|hit}},
+ * {@code journey.idempotency.ledger.confirmations{result=duplicate|false_positive}}
+ * and {@code journey.idempotency.ledger.memory{tier=local|redis}} (bytes).
+ * </p>
+ */
+@Component
+public class IdempotencyLedger implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyLedger.class);
+
+    private static final RedisScript<Long> ADD_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/ledger-add.lua"), Long.class);
+    private static final RedisScript<Long> CHECK_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/ledger-check.lua"), Long.class);
+
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final boolean enabled;
+    private final boolean localTier;
+    private final BloomGeometry geometry;
+    private final String keyPrefix;
+    private final int windowHours;
+    private final byte[] ttlSeconds;
+    private final long refreshIntervalMs;
+
+    /** Local filters by epoch hour. */
+    private final Map<Long, AtomicLongArray> localFilters = new ConcurrentHashMap<>();
+    /** Hours whose bitmap existed in Redis at the last refresh. */
+    private final Set<Long> redisHours = ConcurrentHashMap.newKeySet();
+    private volatile boolean localReady;
+    private ScheduledExecutorService refresher;
+
+    private final Counter localAbsent;
+    private final Counter localHit;
+    private final Counter redisAbsent;
+    private final Counter redisHit;
+    private final Counter confirmedDuplicate;
+    private final Counter falsePositive;
+
+    public IdempotencyLedger(@Qualifier("stateRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        JourneyProperties.IdempotencyLedger ledger = journeyProperties.getIdempotencyLedger();
+        this.enabled = ledger.isEnabled();
+        this.localTier = ledger.isLocalTier();
+        this.geometry = BloomGeometry.of(ledger.getExpectedActionsPerHour(), ledger.getFalsePositiveRate());
+        this.keyPrefix = ledger.getKeyPrefix() + "{ledger}:";
+        this.windowHours = (int) Math.max(1, journeyProperties.getRedis().getIdempotencyTtlHours());
+        this.ttlSeconds = RedisStateStore.bytes(String.valueOf(TimeUnit.HOURS.toSeconds(windowHours + 1)));
+        this.refreshIntervalMs = ledger.getLocalRefreshInterval().toMillis();
+
+        this.localAbsent = meterRegistry.counter("journey.idempotency.ledger.lookups", "tier", "local", "result", "absent");
+        this.localHit = meterRegistry.counter("journey.idempotency.ledger.lookups", "tier", "local", "result", "hit");
+        this.redisAbsent = meterRegistry.counter("journey.idempotency.ledger.lookups", "tier", "redis", "result", "absent");
+        this.redisHit = meterRegistry.counter("journey.idempotency.ledger.lookups", "tier", "redis", "result", "hit");
+        this.confirmedDuplicate = meterRegistry.counter("journey.idempotency.ledger.confirmations", "result", "duplicate");
+        this.falsePositive = meterRegistry.counter("journey.idempotency.ledger.confirmations", "result", "false_positive");
+        Gauge.builder("journey.idempotency.ledger.memory", localFilters, filters -> filters.size() * geometry.bytes())
+                .tag("tier", "local")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("journey.idempotency.ledger.memory", redisHours, hours -> hours.size() * geometry.bytes())
+                .tag("tier", "redis")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || refresher != null) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("journey-idempotency-ledger").daemon(true).factory());
+        refresher.scheduleWithFixedDelay(this::refreshSafely, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("action=idempotency_ledger_started bitsPerHour={} hashFunctions={} windowHours={} localTier={}",
+                geometry.bits(), geometry.hashFunctions(), windowHours, localTier);
+    }
+
+    @Override
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refresher != null;
+    }
+
+    /**
+     * @return false if the action id was never recorded in the window; true
+     *         if it may have been (confirm before treating it as a duplicate)
+     */
+    public boolean mightContain(String actionId) {
+        long[] offsets = geometry.offsets(actionId);
+        long hour = currentHour();
+        if (localTier && localReady) {
+            boolean hit = containsLocally(offsets, hour - windowHours + 1);
+            (hit ? localHit : localAbsent).increment();
+            return hit;
+        }
+
+        List<String> keys = new ArrayList<>(windowHours);
+        for (long h = hour; h > hour - windowHours; h--) {
+            keys.add(key(h));
+        }
+        Long result = redisTemplate.execute(CHECK_SCRIPT, keys, (Object[]) offsetArgs(null, offsets));
+        boolean hit = result != null && result == 1L;
+        (hit ? redisHit : redisAbsent).increment();
+        return hit;
+    }
+
+    /** Records a published action id in the current hour's filter. */
+    public void record(String actionId) {
+        long[] offsets = geometry.offsets(actionId);
+        long hour = currentHour();
+        if (localTier) {
+            AtomicLongArray filter = localFilter(hour);
+            for (long offset : offsets) {
+                long mask = mask(offset);
+                int word = (int) (offset >>> 6);
+                if ((filter.get(word) & mask) == 0) {
+                    filter.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+                }
+            }
+        }
+        redisTemplate.execute(ADD_SCRIPT, List.of(key(hour)), (Object[]) offsetArgs(ttlSeconds, offsets));
+    }
+
+    /**
+     * Outcome of the exact check after a {@link #mightContain} hit.
+     *
+     * @param duplicate true if the action was published before, false for a
+     *                  false positive
+     */
+    public void confirmed(boolean duplicate) {
+        (duplicate ? confirmedDuplicate : falsePositive).increment();
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("action=idempotency_ledger_refresh_failed error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * Merges the Redis bitmaps into the local filters: every hour of the
+     * window on the first run, then the current and previous hour, which
+     * other instances may still write to. Without the local tier only tracks
+     * which bitmaps exist, for the memory gauge.
+     */
+    private void refresh() {
+        long hour = currentHour();
+        long oldest = hour - windowHours + 1;
+        localFilters.keySet().removeIf(h -> h < oldest);
+        redisHours.removeIf(h -> h < oldest);
+
+        for (long h = hour; h >= oldest; h--) {
+            boolean settled = localReady && h < hour - 1;
+            if (settled) {
+                continue;
+            }
+            if (!localTier) {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(key(h)))) {
+                    redisHours.add(h);
+                } else {
+                    redisHours.remove(h);
+                }
+                continue;
+            }
+            byte[] remote = redisTemplate.opsForValue().get(key(h));
+            if (remote != null) {
+                redisHours.add(h);
+                merge(localFilter(h), remote);
+            }
+        }
+        if (!localReady) {
+            localReady = true;
+            log.info("action=idempotency_ledger_loaded hours={} localBytes={}",
+                    redisHours.size(), localFilters.size() * geometry.bytes());
+        }
+    }
+
+    private boolean containsLocally(long[] offsets, long oldestHour) {
+        for (Map.Entry<Long, AtomicLongArray> entry : localFilters.entrySet()) {
+            if (entry.getKey() < oldestHour) {
+                continue;
+            }
+            AtomicLongArray filter = entry.getValue();
+            boolean all = true;
+            for (long offset : offsets) {
+                if ((filter.get((int) (offset >>> 6)) & mask(offset)) == 0) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AtomicLongArray localFilter(long hour) {
+        return localFilters.computeIfAbsent(hour, h -> new AtomicLongArray((int) (geometry.bits() >>> 6)));
+    }
+
+    /**
+     * ORs a Redis bitmap into a local filter. Both use the Redis bit order:
+     * offset 0 is the most significant bit of the first byte, which a
+     * big-endian read puts at the top of word 0. Redis stores the bitmap only
+     * up to its highest set bit.
+     */
+    private static void merge(AtomicLongArray filter, byte[] remote) {
+        ByteBuffer buffer = ByteBuffer.wrap(remote);
+        int fullWords = Math.min(filter.length(), remote.length / Long.BYTES);
+        for (int word = 0; word < fullWords; word++) {
+            long bits = buffer.getLong(word * Long.BYTES);
+            if (bits != 0) {
+                filter.getAndAccumulate(word, bits, (current, remoteBits) -> current | remoteBits);
+            }
+        }
+        if (fullWords < filter.length() && remote.length > fullWords * Long.BYTES) {
+            long bits = 0;
+            for (int i = fullWords * Long.BYTES; i < remote.length; i++) {
+                bits |= (remote[i] & 0xFFL) << (56 - 8 * (i - fullWords * Long.BYTES));
+            }
+            filter.getAndAccumulate(fullWords, bits, (current, remoteBits) -> current | remoteBits);
+        }
+    }
+
+    private static long mask(long offset) {
+        return 1L << (63 - (offset & 63));
+    }
+
+    private static byte[][] offsetArgs(byte[] first, long[] offsets) {
+        int start = first != null ? 1 : 0;
+        byte[][] args = new byte[offsets.length + start][];
+        if (first != null) {
+            args[0] = first;
+        }
+        for (int i = 0; i < offsets.length; i++) {
+            args[start + i] = RedisStateStore.bytes(Long.toString(offsets[i]));
+        }
+        return args;
+    }
+
+    private String key(long hour) {
+        return keyPrefix + hour;
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / HOUR_MS;
+    }
+}
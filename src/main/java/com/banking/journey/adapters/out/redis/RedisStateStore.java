@@ -1,72 +1,416 @@
 package com.banking.journey.adapters.out.redis;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import com.banking.journey.adapters.codec.StateWireCodec;
 import com.banking.journey.application.port.out.StateStore;
 import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.bootstrap.config.JourneyProperties.WireFormatType;
 import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.EventType;
 import com.banking.journey.domain.valueobject.StateType;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+/**
+ * Redis implementation of the StateStore outbound port, under
+ * {@code journey.redis.state-prefix}.
+ * <p>
+ * With the default {@code journey.redis.state-layout=key} every customer is
+ * its own key with its own TTL. With {@code hash} customers are fields of
+ * {@code state-bucket-count} bucket hashes ({@link StateBuckets}): small
+ * buckets stay listpack-encoded, which saves the per-key overhead that
+ * dominates small states. Customer keys left from the key layout are read as
+ * a fallback and removed on the next write, or moved in bulk by
+ * {@link StateBucketMaintenance#migrate}. A customer key and its bucket sit
+ * in different Redis Cluster slots, so the scripts below only ever touch the
+ * bucket: a customer key is moved into it first ({@link #moveLegacyKey}).
+ * </p>
+ * <p>
+ * Values are written as JSON ({@link StateDto}) or, with
+ * {@code journey.redis.state-format=binary}, as a compact
+ * {@link StateWireCodec} payload, optionally LZ4-compressed. Both formats
+ * are always readable (told apart by the first byte), so instances can be
+ * switched one at a time and states migrate as they are written.
+ * </p>
+ * <p>
+ * {@link #getStates} and {@link #saveStates} take one round trip for the
+ * whole batch: MGET and pipelined SETEX in the key layout, pipelined HGET and
+ * HSET + EXPIRE in the hash layout.
+ * </p>
+ * <p>
+ * {@link #compareAndSet} and {@link #applyTransition} run as Lua scripts
+ * ({@code scripts/state-*.lua}), so the version check, or the read, validate
+ * and write of a transition, take a single atomic round trip. States written
+ * before versioning read as version 0.
+ * </p>
+ */
 @Component
 public class RedisStateStore implements StateStore {
 
     private static final Logger log = LoggerFactory.getLogger(RedisStateStore.class);
 
-    private final StringRedisTemplate redisTemplate;
+    private static final RedisScript<Long> COMPARE_AND_SET_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/state-compare-and-set.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TRANSITION_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/state-transition.lua"), List.class);
+    private static final RedisScript<Long> ADOPT_FIELD_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/state-adopt-field.lua"), Long.class);
+
+    /** Compare-and-set reply: the field is missing and a customer key may hold the state. */
+    private static final long FIELD_MISSING = -1L;
+    private static final byte[] CHECK_LEGACY = bytes("1");
+    private static final byte[] SKIP_LEGACY = bytes("0");
+
+    /** StateType ordinals the transition script needs for binary values. */
+    private static final byte[][] TRANSITION_ORDINALS = {
+            bytes(String.valueOf(StateType.DOCUMENT_PENDING.ordinal())),
+            bytes(String.valueOf(StateType.UNDER_REVIEW.ordinal())),
+            bytes(String.valueOf(StateType.APPROVED.ordinal())),
+            bytes(String.valueOf(StateType.REJECTED.ordinal())) };
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
     private final ObjectMapper objectMapper;
-    private final String keyPrefix;
+    private final StateBuckets buckets;
+    private final boolean legacyFallback;
     private final long stateTtlDays;
+    private final byte[] stateTtlSeconds;
+    private final byte[] requiredDocumentCount;
+    private final boolean binaryFormat;
+    private final int compressionThreshold;
+    private final ExecutorService ioExecutor;
 
-    public RedisStateStore(StringRedisTemplate redisTemplate,
+    public RedisStateStore(@Qualifier("stateRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
             ObjectMapper objectMapper,
-            JourneyProperties journeyProperties) {
+            JourneyProperties journeyProperties,
+            @Qualifier("portIoExecutor") ExecutorService ioExecutor) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
-        this.keyPrefix = journeyProperties.getRedis().getStatePrefix();
-        this.stateTtlDays = journeyProperties.getRedis().getStateTtlDays();
+        this.ioExecutor = ioExecutor;
+        JourneyProperties.Redis redis = journeyProperties.getRedis();
+        this.buckets = new StateBuckets(redis);
+        this.legacyFallback = buckets.isHashLayout() && redis.isStateLegacyFallback();
+        this.stateTtlDays = redis.getStateTtlDays();
+        this.stateTtlSeconds = bytes(String.valueOf(TimeUnit.DAYS.toSeconds(stateTtlDays)));
+        this.requiredDocumentCount = bytes(String.valueOf(journeyProperties.getRequiredDocumentCount()));
+        this.binaryFormat = redis.getStateFormat() == WireFormatType.BINARY;
+        this.compressionThreshold = redis.getStateCompressionThresholdBytes();
     }
 
     @Override
     public CardApplicationState getState(String customerId) {
-        String key = buildKey(customerId);
-        String json = redisTemplate.opsForValue().get(key);
+        byte[] value = read(customerId);
 
-        if (json == null) {
+        if (value == null) {
             log.debug("action=state_not_found customerId={}", customerId);
             return null;
         }
 
-        try {
-            StateDto dto = objectMapper.readValue(json, StateDto.class);
-            CardApplicationState state = dto.toDomain();
-            log.debug("action=state_retrieved customerId={} step={}", customerId, state.getCurrentStep());
-            return state;
-        } catch (JsonProcessingException e) {
-            log.error("action=state_deserialize_error customerId={} error={}", customerId, e.getMessage());
-            throw new RuntimeException("Failed to deserialize state for customer: " + customerId, e);
+        CardApplicationState state = deserialize(customerId, value);
+        if (buckets.isExpired(state.getUpdatedAt(), Instant.now())) {
+            log.debug("action=state_expired customerId={} updatedAt={}", customerId, state.getUpdatedAt());
+            return null;
+        }
+        log.debug("action=state_retrieved customerId={} step={}", customerId, state.getCurrentStep());
+        return state;
+    }
+
+    @Override
+    public CompletableFuture<CardApplicationState> getStateAsync(String customerId) {
+        return CompletableFuture.supplyAsync(() -> getState(customerId), ioExecutor);
+    }
+
+    @Override
+    public Map<String, CardApplicationState> getStates(Collection<String> customerIds) {
+        List<String> ids = List.copyOf(customerIds);
+        List<byte[]> values = readAll(ids);
+
+        Instant now = Instant.now();
+        Map<String, CardApplicationState> states = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            byte[] value = values.get(i);
+            if (value != null) {
+                CardApplicationState state = deserialize(ids.get(i), value);
+                if (!buckets.isExpired(state.getUpdatedAt(), now)) {
+                    states.put(ids.get(i), state);
+                }
+            }
         }
+        log.debug("action=states_retrieved requested={} found={}", ids.size(), states.size());
+        return states;
     }
 
     @Override
     public void saveState(CardApplicationState state) {
-        String key = buildKey(state.getCustomerId());
+        String customerId = state.getCustomerId();
+        byte[] value = serialize(state);
+        if (buckets.isHashLayout()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                writeField(connection, customerId, value);
+                return null;
+            });
+        } else {
+            redisTemplate.opsForValue().set(buckets.customerKey(customerId), value, stateTtlDays, TimeUnit.DAYS);
+        }
+        log.debug("action=state_saved customerId={} step={} ttlDays={}",
+                state.getCustomerId(), state.getCurrentStep(), stateTtlDays);
+    }
+
+    @Override
+    public void saveStates(Collection<CardApplicationState> states) {
+        if (states.isEmpty()) {
+            return;
+        }
+        List<byte[]> values = new ArrayList<>(states.size());
+        for (CardApplicationState state : states) {
+            values.add(serialize(state));
+        }
+        long ttlSeconds = TimeUnit.DAYS.toSeconds(stateTtlDays);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            int i = 0;
+            for (CardApplicationState state : states) {
+                byte[] value = values.get(i++);
+                if (buckets.isHashLayout()) {
+                    writeField(connection, state.getCustomerId(), value);
+                } else {
+                    connection.stringCommands().setEx(bytes(buckets.customerKey(state.getCustomerId())),
+                            ttlSeconds, value);
+                }
+            }
+            return null;
+        });
+        log.debug("action=states_saved count={} ttlDays={}", states.size(), stateTtlDays);
+    }
+
+    @Override
+    public boolean compareAndSet(String customerId, long expectedVersion, CardApplicationState newState) {
+        if (newState.getVersion() != expectedVersion + 1) {
+            throw new IllegalArgumentException("State version " + newState.getVersion()
+                    + " does not follow expected version " + expectedVersion + " for customer: " + customerId);
+        }
+        byte[] expected = bytes(String.valueOf(expectedVersion));
+        byte[] value = serialize(newState);
+        Long written = redisTemplate.execute(COMPARE_AND_SET_SCRIPT, scriptKeys(customerId),
+                withLayoutArgs(customerId, Instant.now(), expected, value, stateTtlSeconds,
+                        legacyFallback ? CHECK_LEGACY : SKIP_LEGACY));
+        if (written != null && written == FIELD_MISSING) {
+            moveLegacyKey(redisTemplate, buckets, customerId, TimeUnit.DAYS.toSeconds(stateTtlDays));
+            written = redisTemplate.execute(COMPARE_AND_SET_SCRIPT, scriptKeys(customerId),
+                    withLayoutArgs(customerId, Instant.now(), expected, value, stateTtlSeconds, SKIP_LEGACY));
+        }
+        boolean saved = written != null && written == 1L;
+        if (saved) {
+            log.debug("action=state_saved customerId={} step={} version={}",
+                    customerId, newState.getCurrentStep(), newState.getVersion());
+        } else {
+            log.warn("action=state_version_conflict customerId={} expectedVersion={}", customerId, expectedVersion);
+        }
+        return saved;
+    }
+
+    @Override
+    public TransitionResult applyTransition(String customerId, EventType eventType) {
+        List<?> result = transition(customerId, eventType);
+        if ((result == null || result.isEmpty()) && legacyFallback
+                && moveLegacyKey(redisTemplate, buckets, customerId, TimeUnit.DAYS.toSeconds(stateTtlDays))) {
+            result = transition(customerId, eventType);
+        }
+        if (result == null || result.isEmpty()) {
+            log.debug("action=state_not_found customerId={}", customerId);
+            return TransitionResult.notApplied(null);
+        }
+
+        CardApplicationState previous = deserialize(customerId, (byte[]) result.get(0));
+        if (result.size() == 1) {
+            return TransitionResult.notApplied(previous);
+        }
+        CardApplicationState applied = deserialize(customerId, (byte[]) result.get(1));
+        log.debug("action=state_transitioned customerId={} oldStep={} newStep={} version={}",
+                customerId, previous.getCurrentStep(), applied.getCurrentStep(), applied.getVersion());
+        return TransitionResult.applied(previous, applied);
+    }
 
+    @Override
+    public void deleteState(String customerId) {
+        boolean deleted = false;
+        if (buckets.isHashLayout()) {
+            Long removed = redisTemplate.opsForHash().delete(buckets.bucketKey(customerId), customerId);
+            deleted = removed != null && removed > 0;
+        }
+        if (!buckets.isHashLayout() || legacyFallback) {
+            deleted |= Boolean.TRUE.equals(redisTemplate.delete(buckets.customerKey(customerId)));
+        }
+        log.info("action=state_deleted customerId={} existed={}", customerId, deleted);
+    }
+
+    /**
+     * Compares the stored value of one journey with what it takes in each
+     * format.
+     *
+     * @return the report, or null if the customer has no stored state
+     */
+    public StateSizeReport sizeReport(String customerId) {
+        byte[] value = read(customerId);
+        if (value == null) {
+            return null;
+        }
+        CardApplicationState state = deserialize(customerId, value);
+        return new StateSizeReport(
+                customerId,
+                StateWireCodec.isBinary(value) ? WireFormatType.BINARY : WireFormatType.JSON,
+                value.length,
+                toJson(state).length,
+                StateWireCodec.encode(state, 0).length,
+                StateWireCodec.encode(state, 1).length);
+    }
+
+    /**
+     * Moves the state a customer key of the key layout still holds into its
+     * bucket, unless the bucket already has a newer field, and deletes the
+     * key. The key and the bucket sit in different Cluster slots, so this is
+     * a read, a single-key script and a delete rather than one script.
+     *
+     * @param defaultTtlSeconds TTL for a customer key stored without one
+     * @return true if the state was moved into the bucket
+     */
+    static boolean moveLegacyKey(RedisTemplate<String, byte[]> redisTemplate, StateBuckets buckets,
+            String customerId, long defaultTtlSeconds) {
+        byte[] legacyKey = bytes(buckets.customerKey(customerId));
+        List<Object> legacy = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().get(legacyKey);
+            connection.keyCommands().ttl(legacyKey);
+            return null;
+        });
+        byte[] value = (byte[]) legacy.get(0);
+        if (value == null) {
+            return false;
+        }
+        long ttl = ((Number) legacy.get(1)).longValue();
+        Long stored = redisTemplate.execute(ADOPT_FIELD_SCRIPT, List.of(buckets.bucketKey(customerId)),
+                bytes(customerId), value, bytes(String.valueOf(ttl > 0 ? ttl : defaultTtlSeconds)));
+        redisTemplate.delete(buckets.customerKey(customerId));
+        boolean moved = stored != null && stored == 1L;
+        log.debug("action=state_legacy_key_moved customerId={} moved={}", customerId, moved);
+        return moved;
+    }
+
+    private List<?> transition(String customerId, EventType eventType) {
+        Instant now = Instant.now();
+        return redisTemplate.execute(TRANSITION_SCRIPT, scriptKeys(customerId),
+                withLayoutArgs(customerId, now,
+                        bytes(eventType.name()), requiredDocumentCount, bytes(now.toString()), stateTtlSeconds,
+                        bytes(String.valueOf(now.toEpochMilli())),
+                        TRANSITION_ORDINALS[0], TRANSITION_ORDINALS[1], TRANSITION_ORDINALS[2],
+                        TRANSITION_ORDINALS[3]));
+    }
+
+    private byte[] read(String customerId) {
+        if (!buckets.isHashLayout()) {
+            return redisTemplate.opsForValue().get(buckets.customerKey(customerId));
+        }
+        byte[] value = redisTemplate.<String, byte[]>opsForHash().get(buckets.bucketKey(customerId), customerId);
+        if (value == null && legacyFallback) {
+            value = redisTemplate.opsForValue().get(buckets.customerKey(customerId));
+        }
+        return value;
+    }
+
+    /** Values of several customers, in order, null where none is stored. */
+    private List<byte[]> readAll(List<String> customerIds) {
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        if (!buckets.isHashLayout()) {
+            List<String> keys = new ArrayList<>(customerIds.size());
+            customerIds.forEach(customerId -> keys.add(buckets.customerKey(customerId)));
+            return redisTemplate.opsForValue().multiGet(keys);
+        }
+
+        List<Object> fields = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String customerId : customerIds) {
+                connection.hashCommands().hGet(bytes(buckets.bucketKey(customerId)), bytes(customerId));
+            }
+            return null;
+        });
+        List<byte[]> values = new ArrayList<>(customerIds.size());
+        List<Integer> misses = new ArrayList<>();
+        for (int i = 0; i < customerIds.size(); i++) {
+            byte[] value = (byte[]) fields.get(i);
+            values.add(value);
+            if (value == null) {
+                misses.add(i);
+            }
+        }
+        if (legacyFallback && !misses.isEmpty()) {
+            List<String> legacyKeys = new ArrayList<>(misses.size());
+            misses.forEach(i -> legacyKeys.add(buckets.customerKey(customerIds.get(i))));
+            List<byte[]> legacy = redisTemplate.opsForValue().multiGet(legacyKeys);
+            for (int m = 0; m < misses.size(); m++) {
+                values.set(misses.get(m), legacy.get(m));
+            }
+        }
+        return values;
+    }
+
+    /** Queues HSET + EXPIRE of one field (hash layout) on a pipelined connection. */
+    private void writeField(RedisConnection connection, String customerId, byte[] value) {
+        byte[] bucket = bytes(buckets.bucketKey(customerId));
+        connection.hashCommands().hSet(bucket, bytes(customerId), value);
+        connection.keyCommands().expire(bucket, TimeUnit.DAYS.toSeconds(stateTtlDays));
+        if (legacyFallback) {
+            connection.keyCommands().del(bytes(buckets.customerKey(customerId)));
+        }
+    }
+
+    private List<String> scriptKeys(String customerId) {
+        return List.of(buckets.isHashLayout() ? buckets.bucketKey(customerId) : buckets.customerKey(customerId));
+    }
+
+    /** Appends the field and expiry cutoff arguments every state script takes last. */
+    private Object[] withLayoutArgs(String customerId, Instant now, byte[]... args) {
+        Object[] all = new Object[args.length + 3];
+        System.arraycopy(args, 0, all, 0, args.length);
+        if (buckets.isHashLayout()) {
+            Instant cutoff = buckets.expiryCutoff(now);
+            all[args.length] = bytes(customerId);
+            all[args.length + 1] = bytes(String.valueOf(cutoff.toEpochMilli()));
+            all[args.length + 2] = bytes(cutoff.toString());
+        } else {
+            all[args.length] = new byte[0];
+            all[args.length + 1] = bytes("0");
+            all[args.length + 2] = new byte[0];
+        }
+        return all;
+    }
+
+    private byte[] serialize(CardApplicationState state) {
+        return binaryFormat ? StateWireCodec.encode(state, compressionThreshold) : toJson(state);
+    }
+
+    private byte[] toJson(CardApplicationState state) {
         try {
-            StateDto dto = StateDto.fromDomain(state);
-            String json = objectMapper.writeValueAsString(dto);
-            redisTemplate.opsForValue().set(key, json, stateTtlDays, TimeUnit.DAYS);
-            log.debug("action=state_saved customerId={} step={} ttlDays={}",
-                    state.getCustomerId(), state.getCurrentStep(), stateTtlDays);
+            return objectMapper.writeValueAsBytes(StateDto.fromDomain(state));
         } catch (JsonProcessingException e) {
             log.error("action=state_serialize_error customerId={} error={}",
                     state.getCustomerId(), e.getMessage());
@@ -74,15 +418,29 @@ public class RedisStateStore implements StateStore {
         }
     }
 
-    @Override
-    public void deleteState(String customerId) {
-        String key = buildKey(customerId);
-        Boolean deleted = redisTemplate.delete(key);
-        log.info("action=state_deleted customerId={} existed={}", customerId, deleted);
+    private CardApplicationState deserialize(String customerId, byte[] value) {
+        try {
+            if (StateWireCodec.isBinary(value)) {
+                return StateWireCodec.decode(customerId, value);
+            }
+            return objectMapper.readValue(value, StateDto.class).toDomain();
+        } catch (Exception e) {
+            log.error("action=state_deserialize_error customerId={} error={}", customerId, e.getMessage());
+            throw new RuntimeException("Failed to deserialize state for customer: " + customerId, e);
+        }
+    }
+
+    static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 
-    private String buildKey(String customerId) {
-        return keyPrefix + customerId;
+    /**
+     * Stored size of one journey next to its size in each format: JSON,
+     * binary, and binary with the tail LZ4-compressed whenever that is
+     * smaller.
+     */
+    public record StateSizeReport(String customerId, WireFormatType storedFormat, int storedBytes,
+            int jsonBytes, int binaryBytes, int binaryCompressedBytes) {
     }
 
     public static class StateDto {
@@ -105,6 +463,9 @@ public class RedisStateStore implements StateStore {
         @JsonProperty("metadata")
         private Map<String, String> metadata;
 
+        @JsonProperty("version")
+        private long version;
+
         public StateDto() {
         }
 
@@ -116,6 +477,7 @@ public class RedisStateStore implements StateStore {
             dto.startedAt = state.getStartedAt().toString();
             dto.updatedAt = state.getUpdatedAt().toString();
             dto.metadata = state.getMetadata();
+            dto.version = state.getVersion();
             return dto;
         }
 
@@ -126,7 +488,8 @@ public class RedisStateStore implements StateStore {
                     documentCount,
                     Instant.parse(startedAt),
                     Instant.parse(updatedAt),
-                    metadata);
+                    metadata,
+                    version);
         }
 
         public String getCustomerId() {
@@ -176,5 +539,13 @@ public class RedisStateStore implements StateStore {
         public void setMetadata(Map<String, String> metadata) {
             this.metadata = metadata;
         }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public void setVersion(long version) {
+            this.version = version;
+        }
     }
 }
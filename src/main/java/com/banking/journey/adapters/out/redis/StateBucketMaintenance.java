@@ -0,0 +1,239 @@
+package com.banking.journey.adapters.out.redis;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.bootstrap.config.JourneyProperties.StateLayout;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Upkeep of the bucketed ({@code journey.redis.state-layout=hash}) journey
+ * state layout of {@link RedisStateStore}:
+ * <ul>
+ * <li><b>sweep:</b> every {@code state-sweep-interval-ms} the next
+ * {@code state-sweep-buckets} buckets drop fields older than the state TTL
+ * (bucket expiry alone would keep them while the bucket sees writes)</li>
+ * <li><b>migrate:</b> moves customer keys left from the key layout into their
+ * buckets; run once every instance uses the hash layout</li>
+ * <li><b>memory report:</b> {@code MEMORY USAGE} per journey of sampled
+ * customer keys and buckets, to compare the two layouts</li>
+ * </ul>
+ */
+@Component
+public class StateBucketMaintenance implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StateBucketMaintenance.class);
+
+    private static final RedisScript<Long> SWEEP_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/state-sweep-bucket.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> MEMORY_USAGE_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/state-memory-usage.lua"), List.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final StateBuckets buckets;
+    private final String keyPrefix;
+    private final long stateTtlSeconds;
+    private final long sweepIntervalMs;
+    private final int sweepBuckets;
+    private final Counter expiredFields;
+    private int nextBucket;
+    private ScheduledExecutorService scheduler;
+
+    public StateBucketMaintenance(@Qualifier("stateRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+            JourneyProperties journeyProperties,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        JourneyProperties.Redis redis = journeyProperties.getRedis();
+        this.buckets = new StateBuckets(redis);
+        this.keyPrefix = redis.getStatePrefix();
+        this.stateTtlSeconds = TimeUnit.DAYS.toSeconds(redis.getStateTtlDays());
+        this.sweepIntervalMs = redis.getStateSweepIntervalMs();
+        this.sweepBuckets = redis.getStateSweepBuckets();
+        this.expiredFields = meterRegistry.counter("journey.state.buckets.expired");
+        // Instances start at different buckets instead of sweeping in lockstep
+        this.nextBucket = ThreadLocalRandom.current().nextInt(buckets.bucketCount());
+    }
+
+    @Override
+    public void start() {
+        if (!buckets.isHashLayout() || sweepIntervalMs <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("journey-state-sweep").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(this::sweepSafely, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("action=state_sweep_started buckets={} bucketsPerRun={} intervalMs={}",
+                buckets.bucketCount(), sweepBuckets, sweepIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Removes expired fields from the next {@code count} buckets.
+     *
+     * @return the number of journey states removed
+     */
+    public synchronized long sweep(int count) {
+        Instant cutoff = buckets.expiryCutoff(Instant.now());
+        byte[] cutoffMillis = RedisStateStore.bytes(String.valueOf(cutoff.toEpochMilli()));
+        byte[] cutoffIso = RedisStateStore.bytes(cutoff.toString());
+
+        long removed = 0;
+        for (int i = 0; i < count; i++) {
+            Long expired = redisTemplate.execute(SWEEP_SCRIPT, List.of(buckets.bucketKey(nextBucket)),
+                    cutoffMillis, cutoffIso);
+            removed += expired != null ? expired : 0;
+            nextBucket = (nextBucket + 1) % buckets.bucketCount();
+        }
+        if (removed > 0) {
+            expiredFields.increment(removed);
+            log.info("action=state_sweep_completed buckets={} expired={}", count, removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Moves up to {@code maxKeys} customer keys of the key layout into their
+     * buckets. Call repeatedly until {@link MigrationReport#complete()}.
+     *
+     * @throws IllegalStateException if this instance does not use the hash layout
+     */
+    public MigrationReport migrate(int maxKeys) {
+        if (!buckets.isHashLayout()) {
+            throw new IllegalStateException("journey.redis.state-layout must be hash to migrate state keys");
+        }
+        int scanned = 0;
+        int migrated = 0;
+        boolean complete = true;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(keyPrefix + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                if (scanned >= maxKeys) {
+                    complete = false;
+                    break;
+                }
+                String key = keys.next();
+                if (buckets.isBucketKey(key)) {
+                    continue;
+                }
+                scanned++;
+                String customerId = key.substring(keyPrefix.length());
+                if (RedisStateStore.moveLegacyKey(redisTemplate, buckets, customerId, stateTtlSeconds)) {
+                    migrated++;
+                }
+            }
+        }
+        log.info("action=state_migration_batch scanned={} migrated={} complete={}", scanned, migrated, complete);
+        return new MigrationReport(scanned, migrated, complete);
+    }
+
+    /**
+     * Samples up to {@code sampleSize} customer keys and as many random
+     * buckets.
+     */
+    public StateMemoryReport memoryReport(int sampleSize) {
+        LayoutSample keySample = LayoutSample.EMPTY;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(keyPrefix + "*").count(1000).build())) {
+            while (keys.hasNext() && keySample.keys() < sampleSize) {
+                String key = keys.next();
+                if (!buckets.isBucketKey(key)) {
+                    keySample = keySample.plus(memoryUsage(key));
+                }
+            }
+        }
+
+        LayoutSample bucketSample = LayoutSample.EMPTY;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < Math.min(sampleSize, buckets.bucketCount()); i++) {
+            bucketSample = bucketSample.plus(memoryUsage(buckets.bucketKey(random.nextInt(buckets.bucketCount()))));
+        }
+
+        StateMemoryReport report = new StateMemoryReport(
+                buckets.isHashLayout() ? StateLayout.HASH : StateLayout.KEY, keySample, bucketSample);
+        log.info("action=state_memory_report layout={} keyBytesPerJourney={} bucketBytesPerJourney={}",
+                report.layout(), keySample.bytesPerJourney(), bucketSample.bytesPerJourney());
+        return report;
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private void sweepSafely() {
+        try {
+            sweep(sweepBuckets);
+        } catch (Exception e) {
+            log.warn("action=state_sweep_failed error={}", e.getMessage());
+        }
+    }
+
+    private LayoutSample memoryUsage(String key) {
+        List<?> usage = redisTemplate.execute(MEMORY_USAGE_SCRIPT, List.of(key));
+        long journeys = usage != null ? ((Number) usage.get(1)).longValue() : 0;
+        if (journeys == 0) {
+            return LayoutSample.EMPTY;
+        }
+        String encoding = new String((byte[]) usage.get(2));
+        return new LayoutSample(1, journeys, ((Number) usage.get(0)).longValue(),
+                "listpack".equals(encoding) ? 1 : 0);
+    }
+
+    /**
+     * One {@link #migrate} call: customer keys scanned and moved, and whether
+     * the scan reached the end of the keyspace.
+     */
+    public record MigrationReport(int scannedKeys, int migratedKeys, boolean complete) {
+    }
+
+    /**
+     * Sampled footprint of both layouts; either sample is empty when no state
+     * is stored that way.
+     */
+    public record StateMemoryReport(StateLayout layout, LayoutSample customerKeys, LayoutSample buckets) {
+    }
+
+    /**
+     * Redis keys sampled, the journeys they hold, their {@code MEMORY USAGE}
+     * and how many are listpack-encoded hashes.
+     */
+    public record LayoutSample(int keys, long journeys, long bytes, int listpackKeys) {
+
+        static final LayoutSample EMPTY = new LayoutSample(0, 0, 0, 0);
+
+        LayoutSample plus(LayoutSample other) {
+            return new LayoutSample(keys + other.keys, journeys + other.journeys, bytes + other.bytes,
+                    listpackKeys + other.listpackKeys);
+        }
+
+        public double bytesPerJourney() {
+            return journeys == 0 ? 0 : (double) bytes / journeys;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.journey.adapters.out.redis;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.bootstrap.config.JourneyProperties.StateLayout;
+
+/**
+ * Key addressing for journey states under {@code journey.redis.state-prefix}.
+ * <p>
+ * In the hash layout a customer is a field of bucket
+ * {@code <prefix>{<bucket>}}, where the bucket is
+ * {@code floorMod(customerId.hashCode(), state-bucket-count)}. The braces are
+ * a Redis Cluster hash tag, so a bucket never spans slots. The bucket count
+ * must not change once states are stored.
+ * </p>
+ * <p>
+ * A bucket's expiry is refreshed on every write, so it only stands in for the
+ * per-key TTL as a whole; fields whose {@code updated_at} is older than the
+ * TTL count as absent ({@link #isExpired}) until the sweeper removes them.
+ * </p>
+ */
+final class StateBuckets {
+
+    private final String keyPrefix;
+    private final boolean hashLayout;
+    private final int bucketCount;
+    private final Duration ttl;
+
+    StateBuckets(JourneyProperties.Redis redis) {
+        this.keyPrefix = redis.getStatePrefix();
+        this.hashLayout = redis.getStateLayout() == StateLayout.HASH;
+        this.bucketCount = redis.getStateBucketCount();
+        this.ttl = Duration.ofDays(redis.getStateTtlDays());
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("journey.redis.state-bucket-count must be positive: " + bucketCount);
+        }
+    }
+
+    boolean isHashLayout() {
+        return hashLayout;
+    }
+
+    int bucketCount() {
+        return bucketCount;
+    }
+
+    /** Per-customer key of the key layout (and the legacy key in the hash layout). */
+    String customerKey(String customerId) {
+        return keyPrefix + customerId;
+    }
+
+    String bucketKey(String customerId) {
+        return bucketKey(Math.floorMod(customerId.hashCode(), bucketCount));
+    }
+
+    String bucketKey(int bucket) {
+        return keyPrefix + "{" + bucket + "}";
+    }
+
+    /** @return true for keys matched by {@code <prefix>*} that are buckets, not customer keys */
+    boolean isBucketKey(String key) {
+        return key.startsWith("{", keyPrefix.length()) && key.endsWith("}");
+    }
+
+    /** Fields last updated before this instant count as expired (hash layout only). */
+    Instant expiryCutoff(Instant now) {
+        return now.minus(ttl);
+    }
+
+    boolean isExpired(Instant updatedAt, Instant now) {
+        return hashLayout && updatedAt.isBefore(expiryCutoff(now));
+    }
+}
@@ -1,5 +1,8 @@
 package com.banking.journey.application.port.in;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import com.banking.journey.domain.entity.CustomerEvent;
 
 /**
@@ -22,4 +25,58 @@ public interface ProcessEventUseCase {
      * @throws IllegalStateException if event processing fails due to invalid state
      */
     void process(CustomerEvent event);
+
+    /**
+     * Processes an event like {@link #process(CustomerEvent)}, but does not
+     * wait for its action to be published. The event is audited and its state
+     * change persisted before this returns, and failures up to that point are
+     * thrown as by {@code process}.
+     * <p>
+     * The default processes synchronously and returns a completed future.
+     * </p>
+     *
+     * @param event the customer event to process
+     * @return future completed once the event's action is published, or
+     *         failed with the publish error
+     */
+    default CompletableFuture<Void> processAsync(CustomerEvent event) {
+        process(event);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Processes a batch of customer events in order, in a single pass.
+     * <p>
+     * Processing halts at the first event that fails; events after it are
+     * left untouched so the caller can decide whether to skip the failed
+     * event and resubmit the remainder, or redeliver from that point.
+     * </p>
+     *
+     * @param events events to process, in partition order
+     * @return how many leading events were fully processed, plus the failure
+     *         that stopped the batch (if any)
+     */
+    BatchResult processBatch(List<CustomerEvent> events);
+
+    /**
+     * Outcome of {@link #processBatch(List)}.
+     *
+     * @param processedCount number of leading events fully processed
+     * @param failure        exception thrown by the event at index
+     *                       {@code processedCount}, or null if all succeeded
+     */
+    record BatchResult(int processedCount, RuntimeException failure) {
+
+        public static BatchResult completed(int processedCount) {
+            return new BatchResult(processedCount, null);
+        }
+
+        public static BatchResult failed(int processedCount, RuntimeException failure) {
+            return new BatchResult(processedCount, failure);
+        }
+
+        public boolean isComplete() {
+            return failure == null;
+        }
+    }
 }
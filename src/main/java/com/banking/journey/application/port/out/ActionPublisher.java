@@ -1,6 +1,7 @@
 package com.banking.journey.application.port.out;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.banking.journey.domain.entity.Action;
 
@@ -22,6 +23,27 @@ public interface ActionPublisher {
      */
     void publish(Action action);
 
+    /**
+     * Asynchronous variant of {@link #publish(Action)}, so several actions
+     * can be in flight at once. Duplicate and in-progress checks still happen
+     * before this returns, and throw as in {@code publish}.
+     * <p>
+     * The default publishes on the calling thread and returns a completed
+     * (or failed) future.
+     * </p>
+     *
+     * @param action action to publish
+     * @return future completed once the action is sent and recorded
+     */
+    default CompletableFuture<Void> publishAsync(Action action) {
+        try {
+            publish(action);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Retrieves recently published actions for dashboard display.
      *
@@ -31,7 +53,7 @@ public interface ActionPublisher {
     List<Action> getRecentActions(int limit);
 
     /**
-     * Counts total published actions.
+     * Counts total published actions (within the store's query window, if any).
      *
      * @return total action count
      */
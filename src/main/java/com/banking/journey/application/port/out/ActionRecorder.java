@@ -0,0 +1,23 @@
+package com.banking.journey.application.port.out;
+
+import java.util.List;
+
+import com.banking.journey.domain.entity.Action;
+
+/**
+ * Secondary (outbound) port: records actions published elsewhere.
+ * <p>
+ * Used by the audit sink to load actions that are already on the actions
+ * topic, without sending them again. Implemented by the action publishers
+ * that keep an {@code actions} table.
+ * </p>
+ */
+public interface ActionRecorder {
+
+    /**
+     * Records published actions. Idempotent by actionId.
+     *
+     * @param actions published actions
+     */
+    void recordAll(List<Action> actions);
+}
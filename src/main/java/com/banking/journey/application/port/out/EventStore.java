@@ -1,6 +1,7 @@
 package com.banking.journey.application.port.out;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.banking.journey.domain.entity.CustomerEvent;
 
@@ -21,8 +22,44 @@ public interface EventStore {
      */
     void save(CustomerEvent event);
 
+    /**
+     * Asynchronous variant of {@link #save(CustomerEvent)}, so the audit write
+     * can overlap other processing stages.
+     * <p>
+     * The default runs the write on the calling thread and returns a
+     * completed (or failed) future.
+     * </p>
+     *
+     * @param event event to store
+     * @return future completed once the event is durable
+     */
+    default CompletableFuture<Void> saveAsync(CustomerEvent event) {
+        try {
+            save(event);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Persists events read in bulk (the audit sink). Idempotent like
+     * {@link #save(CustomerEvent)}.
+     * <p>
+     * The default saves them one by one.
+     * </p>
+     *
+     * @param events events to store
+     */
+    default void saveAll(List<CustomerEvent> events) {
+        for (CustomerEvent event : events) {
+            save(event);
+        }
+    }
+
     /**
      * Retrieves a customer's event history, ordered by timestamp descending.
+     * Stores may limit reads to a recent query window.
      *
      * @param customerId customer identifier
      * @param limit      maximum events to return
@@ -31,7 +68,7 @@ public interface EventStore {
     List<CustomerEvent> findByCustomerId(String customerId, int limit);
 
     /**
-     * Counts total events in the store.
+     * Counts total events in the store (within its query window, if any).
      *
      * @return total event count
      */
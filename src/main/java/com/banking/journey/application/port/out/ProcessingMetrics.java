@@ -0,0 +1,80 @@
+package com.banking.journey.application.port.out;
+
+import java.time.Duration;
+
+import com.banking.journey.domain.valueobject.EventType;
+
+/**
+ * Secondary (outbound) port: Processing pipeline metrics.
+ * <p>
+ * Keeps the application layer free of a metrics library. Implementation
+ * could be Micrometer, StatsD, logs, etc. Recording must be cheap and must
+ * never throw.
+ * </p>
+ */
+public interface ProcessingMetrics {
+
+    /** No-op implementation, for callers that do not export metrics. */
+    ProcessingMetrics NOOP = new ProcessingMetrics() {
+        @Override
+        public void recordStage(Stage stage, long durationNanos) {
+        }
+
+        @Override
+        public void recordOutcome(ProcessingOutcome outcome, EventType eventType, long durationNanos) {
+        }
+
+        @Override
+        public void recordEndToEndLag(Duration lag) {
+        }
+    };
+
+    /**
+     * Pipeline stages of one event, in processing order.
+     */
+    enum Stage {
+        PARSE,
+        AUDIT,
+        STATE_GET,
+        /** Next-step decision plus the state transition */
+        DECIDE,
+        PERSIST,
+        ACTION_GENERATE,
+        PUBLISH
+    }
+
+    /**
+     * How processing of one event ended.
+     */
+    enum ProcessingOutcome {
+        SUCCESS,
+        SKIPPED_INVALID_TRANSITION,
+        SKIPPED_BUSINESS_RULE,
+        RETRYABLE_INFRA_FAILURE
+    }
+
+    /**
+     * Records how long one stage took for one event.
+     *
+     * @param stage         pipeline stage
+     * @param durationNanos elapsed time in nanoseconds
+     */
+    void recordStage(Stage stage, long durationNanos);
+
+    /**
+     * Records the outcome of one event.
+     *
+     * @param outcome       how processing ended
+     * @param eventType     type of the processed event
+     * @param durationNanos total processing time in nanoseconds
+     */
+    void recordOutcome(ProcessingOutcome outcome, EventType eventType, long durationNanos);
+
+    /**
+     * Records the end-to-end lag of a completed event: from its
+     * {@code CustomerEvent.getTimestamp()} to the end of processing.
+     *
+     * @param lag event timestamp to completion
+     */
+    void recordEndToEndLag(Duration lag);
+}
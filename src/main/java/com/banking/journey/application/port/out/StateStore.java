@@ -1,6 +1,12 @@
 package com.banking.journey.application.port.out;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.EventType;
 
 /**
  * Secondary (outbound) port: State persistence abstraction.
@@ -11,6 +17,9 @@ import com.banking.journey.domain.entity.CardApplicationState;
  */
 public interface StateStore {
 
+    /** Expected version of a customer with no stored state. */
+    long NO_VERSION = 0;
+
     /**
      * Retrieves the current journey state for a customer.
      *
@@ -19,6 +28,48 @@ public interface StateStore {
      */
     CardApplicationState getState(String customerId);
 
+    /**
+     * Asynchronous variant of {@link #getState(String)}, so the state read
+     * can overlap other processing stages.
+     * <p>
+     * The default reads on the calling thread and returns a completed (or
+     * failed) future.
+     * </p>
+     *
+     * @param customerId customer identifier
+     * @return future of the current state, completed with null if the
+     *         customer has no active journey
+     */
+    default CompletableFuture<CardApplicationState> getStateAsync(String customerId) {
+        try {
+            return CompletableFuture.completedFuture(getState(customerId));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Retrieves the journey states of several customers at once, so a store
+     * can answer them in a single round trip.
+     * <p>
+     * The default calls {@link #getState(String)} per customer.
+     * </p>
+     *
+     * @param customerIds customer identifiers
+     * @return states by customer id; customers with no active journey are
+     *         absent
+     */
+    default Map<String, CardApplicationState> getStates(Collection<String> customerIds) {
+        Map<String, CardApplicationState> states = new HashMap<>(customerIds.size() * 2);
+        for (String customerId : customerIds) {
+            CardApplicationState state = getState(customerId);
+            if (state != null) {
+                states.put(customerId, state);
+            }
+        }
+        return states;
+    }
+
     /**
      * Persists the journey state.
      *
@@ -26,10 +77,92 @@ public interface StateStore {
      */
     void saveState(CardApplicationState state);
 
+    /**
+     * Persists several journey states, unconditionally like
+     * {@link #saveState}.
+     * <p>
+     * The default calls {@link #saveState} per state.
+     * </p>
+     *
+     * @param states states to save
+     */
+    default void saveStates(Collection<CardApplicationState> states) {
+        for (CardApplicationState state : states) {
+            saveState(state);
+        }
+    }
+
+    /**
+     * Persists the journey state only if the stored version still equals
+     * {@code expectedVersion}, in one atomic step.
+     *
+     * @param customerId      customer identifier
+     * @param expectedVersion version the new state was derived from, or
+     *                        {@link #NO_VERSION} if no state was stored
+     * @param newState        state to save, carrying the next version
+     * @return true if saved, false if another writer got there first
+     */
+    boolean compareAndSet(String customerId, long expectedVersion, CardApplicationState newState);
+
+    /**
+     * Reads the journey state and, for the common event-driven transitions
+     * (document upload while documents are pending, approval or rejection
+     * under review), validates and persists the next state in the same
+     * call.
+     * <p>
+     * Everything else (no journey yet, the automatic APPLIED step, events the
+     * state machine ignores) is left to the caller, together with the state
+     * that was read. The default only reads.
+     * </p>
+     *
+     * @param customerId customer identifier
+     * @param eventType  type of the triggering event
+     * @return the state read and, if the store applied the transition, the
+     *         state it saved
+     */
+    default TransitionResult applyTransition(String customerId, EventType eventType) {
+        return TransitionResult.notApplied(getState(customerId));
+    }
+
     /**
      * Deletes state (for journey completion or expiry).
      *
      * @param customerId customer identifier
      */
     void deleteState(String customerId);
+
+    /**
+     * Outcome of {@link #applyTransition}.
+     *
+     * @param previous state before the event, or null if none was stored
+     * @param applied  state saved by the store, or null if the caller must
+     *                 decide and {@link #compareAndSet} itself
+     */
+    record TransitionResult(CardApplicationState previous, CardApplicationState applied) {
+
+        public static TransitionResult notApplied(CardApplicationState current) {
+            return new TransitionResult(current, null);
+        }
+
+        public static TransitionResult applied(CardApplicationState previous, CardApplicationState applied) {
+            return new TransitionResult(previous, applied);
+        }
+
+        public boolean isApplied() {
+            return applied != null;
+        }
+    }
+
+    /**
+     * Thrown when a state could not be saved because other writers kept
+     * changing it. Transient: redelivering the event re-reads the state.
+     */
+    class VersionConflictException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public VersionConflictException(String message) {
+            super(message);
+        }
+    }
 }
@@ -2,13 +2,26 @@ package com.banking.journey.application.service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.banking.journey.application.port.in.ProcessEventUseCase;
 import com.banking.journey.application.port.out.ActionPublisher;
 import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.application.port.out.ProcessingMetrics.ProcessingOutcome;
+import com.banking.journey.application.port.out.ProcessingMetrics.Stage;
 import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.application.port.out.StateStore.TransitionResult;
 import com.banking.journey.domain.entity.Action;
 import com.banking.journey.domain.entity.CardApplicationState;
 import com.banking.journey.domain.entity.Customer;
@@ -20,15 +33,52 @@ public class CardApplicationOrchestrator implements ProcessEventUseCase {
 
     private static final Logger log = Logger.getLogger(CardApplicationOrchestrator.class.getName());
 
+    private static final int MAX_PERSIST_ATTEMPTS = 3;
+
     private final EventStore eventStore;
     private final StateStore stateStore;
     private final StateMachineEngine stateMachineEngine;
     private final ActionPublisher actionPublisher;
+    private final ProcessingMetrics processingMetrics;
+    private final boolean serverSideTransitions;
+    private final boolean inlineAudit;
+
+    public CardApplicationOrchestrator(EventStore eventStore,
+            StateStore stateStore,
+            StateMachineEngine stateMachineEngine,
+            ActionPublisher actionPublisher,
+            ProcessingMetrics processingMetrics) {
+        this(eventStore, stateStore, stateMachineEngine, actionPublisher, processingMetrics, false);
+    }
+
+    /**
+     * @param serverSideTransitions let the StateStore read, validate and write
+     *                              the common transitions in one call
+     *                              ({@link StateStore#applyTransition}); the
+     *                              state machine decides the rest
+     */
+    public CardApplicationOrchestrator(EventStore eventStore,
+            StateStore stateStore,
+            StateMachineEngine stateMachineEngine,
+            ActionPublisher actionPublisher,
+            ProcessingMetrics processingMetrics,
+            boolean serverSideTransitions) {
+        this(eventStore, stateStore, stateMachineEngine, actionPublisher, processingMetrics, serverSideTransitions,
+                true);
+    }
 
+    /**
+     * @param inlineAudit write each event to the EventStore before its state
+     *                    change; false when a separate audit sink loads the
+     *                    events table from the topic
+     */
     public CardApplicationOrchestrator(EventStore eventStore,
             StateStore stateStore,
             StateMachineEngine stateMachineEngine,
-            ActionPublisher actionPublisher) {
+            ActionPublisher actionPublisher,
+            ProcessingMetrics processingMetrics,
+            boolean serverSideTransitions,
+            boolean inlineAudit) {
         if (eventStore == null)
             throw new IllegalArgumentException("eventStore cannot be null");
         if (stateStore == null)
@@ -37,16 +87,40 @@ public class CardApplicationOrchestrator implements ProcessEventUseCase {
             throw new IllegalArgumentException("stateMachineEngine cannot be null");
         if (actionPublisher == null)
             throw new IllegalArgumentException("actionPublisher cannot be null");
+        if (processingMetrics == null)
+            throw new IllegalArgumentException("processingMetrics cannot be null");
 
         this.eventStore = eventStore;
         this.stateStore = stateStore;
         this.stateMachineEngine = stateMachineEngine;
         this.actionPublisher = actionPublisher;
+        this.processingMetrics = processingMetrics;
+        this.serverSideTransitions = serverSideTransitions;
+        this.inlineAudit = inlineAudit;
     }
 
     @Override
     public void process(CustomerEvent event) {
-        Instant startTime = Instant.now();
+        process(event, null, false);
+    }
+
+    @Override
+    public CompletableFuture<Void> processAsync(CustomerEvent event) {
+        return process(event, null, true);
+    }
+
+    /**
+     * @param prefetched   states read ahead for a batch (null value: no state
+     *                     stored), or null; the entry of this event's customer
+     *                     is consumed and replaced by the state it leaves
+     * @param asyncPublish hand the action to {@link ActionPublisher#publishAsync}
+     *                     instead of waiting for it
+     * @return future of the action publish; completed if there was none or
+     *         it was published synchronously
+     */
+    private CompletableFuture<Void> process(CustomerEvent event, Map<String, CardApplicationState> prefetched,
+            boolean asyncPublish) {
+        long startNanos = System.nanoTime();
         String customerId = event.getCustomerId();
         String eventId = event.getEventId();
 
@@ -54,27 +128,62 @@ public class CardApplicationOrchestrator implements ProcessEventUseCase {
                 eventId, customerId, event.getEventType()));
 
         ProcessingOutcome outcome = ProcessingOutcome.SUCCESS;
+        CompletableFuture<Void> published = CompletableFuture.completedFuture(null);
 
         try {
-            auditEvent(event);
-            CardApplicationState currentState = retrieveState(customerId);
-            StateType nextStep = decideNextStep(currentState, event);
+            CompletableFuture<Void> audit = auditEvent(event);
+            StateChange change;
+            Segment segment;
+            if (serverSideTransitions) {
+                // The store writes as it decides: only once the audit row is durable
+                await(audit);
+                change = transitionInStore(event);
+                segment = resolveSegment(customerId, metadataOf(change.current(), event));
+            } else {
+                // Audit write, state read and segment resolution run concurrently;
+                // the transition only needs the state, persisting also needs the audit
+                CompletableFuture<CardApplicationState> stateFuture = prefetched != null
+                        && prefetched.containsKey(customerId)
+                                ? CompletableFuture.completedFuture(prefetched.remove(customerId))
+                                : retrieveState(customerId);
+                CompletableFuture<Segment> segmentFuture = stateFuture.thenApply(
+                        state -> resolveSegment(customerId, metadataOf(state, event)));
+                try {
+                    change = decide(await(stateFuture), event);
+                } catch (RuntimeException e) {
+                    // The audit outcome comes first, as when the stages ran in sequence:
+                    // a failed audit write must be redelivered, not skipped
+                    await(audit);
+                    throw e;
+                }
+                await(audit);
+                segment = await(segmentFuture);
+            }
 
-            if (nextStep == null) {
+            change = persistState(change, event);
+            if (prefetched != null) {
+                // Later events of this customer in the batch start from here
+                prefetched.put(customerId, change.nextStep() != null ? change.next() : change.current());
+            }
+            CardApplicationState currentState = change.current();
+            if (change.nextStep() == null) {
                 outcome = ProcessingOutcome.SKIPPED_INVALID_TRANSITION;
                 log.warning(String.format(
                         "action=skip_invalid_event eventId=%s customerId=%s eventType=%s currentStep=%s reason=no_valid_transition",
                         eventId, customerId, event.getEventType(),
                         currentState != null ? currentState.getCurrentStep() : "null"));
-                return;
+                return published;
             }
 
-            CardApplicationState newState = transitionState(currentState, nextStep, event);
-            persistState(newState);
-            Action action = generateAction(newState);
+            CardApplicationState newState = change.next();
+            Action action = generateAction(newState, segment, eventId);
 
             if (action != null) {
-                publishAction(action);
+                if (asyncPublish) {
+                    published = publishActionAsync(action);
+                } else {
+                    publishAction(action);
+                }
             }
 
             log.info(String.format(
@@ -82,12 +191,14 @@ public class CardApplicationOrchestrator implements ProcessEventUseCase {
                     eventId, customerId, event.getEventType(),
                     currentState != null ? currentState.getCurrentStep() : "null",
                     newState.getCurrentStep(), outcome));
+            return published;
 
         } catch (IllegalStateException e) {
             outcome = ProcessingOutcome.SKIPPED_BUSINESS_RULE;
             log.log(Level.WARNING, String.format(
                     "action=invalid_transition eventId=%s customerId=%s error=%s",
                     eventId, customerId, e.getMessage()), e);
+            return published;
 
         } catch (Exception e) {
             outcome = ProcessingOutcome.RETRYABLE_INFRA_FAILURE;
@@ -97,19 +208,89 @@ public class CardApplicationOrchestrator implements ProcessEventUseCase {
             throw e;
 
         } finally {
-            long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            processingMetrics.recordOutcome(outcome, event.getEventType(), elapsedNanos);
+            if (outcome != ProcessingOutcome.RETRYABLE_INFRA_FAILURE) {
+                processingMetrics.recordEndToEndLag(Duration.between(event.getTimestamp(), Instant.now()));
+            }
             log.info(String.format(
                     "action=process_end eventId=%s customerId=%s outcome=%s latency=%dms",
-                    eventId, customerId, outcome, latencyMs));
+                    eventId, customerId, outcome, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
         }
     }
 
-    private void auditEvent(CustomerEvent event) {
-        eventStore.save(event);
+    @Override
+    public BatchResult processBatch(List<CustomerEvent> events) {
+        Instant startTime = Instant.now();
+        int processed = 0;
+
+        try {
+            Map<String, CardApplicationState> prefetched = prefetchStates(events);
+            for (CustomerEvent event : events) {
+                try {
+                    process(event, prefetched, false);
+                } catch (RuntimeException e) {
+                    log.warning(String.format(
+                            "action=batch_halted eventId=%s customerId=%s processed=%d size=%d",
+                            event.getEventId(), event.getCustomerId(), processed, events.size()));
+                    return BatchResult.failed(processed, e);
+                }
+                processed++;
+            }
+            return BatchResult.completed(processed);
+        } finally {
+            long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
+            log.info(String.format("action=batch_end size=%d processed=%d latency=%dms",
+                    events.size(), processed, latencyMs));
+        }
+    }
+
+    /**
+     * Reads the states of every customer in the batch with one
+     * {@link StateStore#getStates} call; timed as STATE_GET. Skipped with
+     * server-side transitions, where the store reads as it transitions.
+     *
+     * @return states by customer id (null value: no state stored), or null
+     *         to read per event
+     */
+    private Map<String, CardApplicationState> prefetchStates(List<CustomerEvent> events) {
+        if (serverSideTransitions || events.size() < 2) {
+            return null;
+        }
+        Set<String> customerIds = new LinkedHashSet<>();
+        for (CustomerEvent event : events) {
+            customerIds.add(event.getCustomerId());
+        }
+
+        long start = System.nanoTime();
+        Map<String, CardApplicationState> found;
+        try {
+            found = stateStore.getStates(customerIds);
+        } catch (RuntimeException e) {
+            // Not fatal: each event reads its own state, and fails on its own
+            log.log(Level.WARNING, String.format("action=batch_prefetch_failed size=%d error=%s",
+                    customerIds.size(), e.getMessage()), e);
+            return null;
+        } finally {
+            processingMetrics.recordStage(Stage.STATE_GET, System.nanoTime() - start);
+        }
+
+        Map<String, CardApplicationState> prefetched = new HashMap<>(customerIds.size() * 2);
+        for (String customerId : customerIds) {
+            prefetched.put(customerId, found.get(customerId));
+        }
+        return prefetched;
+    }
+
+    private CompletableFuture<Void> auditEvent(CustomerEvent event) {
+        if (!inlineAudit) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return timed(Stage.AUDIT, () -> eventStore.saveAsync(event));
     }
 
-    private CardApplicationState retrieveState(String customerId) {
-        return stateStore.getState(customerId);
+    private CompletableFuture<CardApplicationState> retrieveState(String customerId) {
+        return timed(Stage.STATE_GET, () -> stateStore.getStateAsync(customerId));
     }
 
     private StateType decideNextStep(CardApplicationState currentState, CustomerEvent event) {
@@ -127,39 +308,170 @@ public class CardApplicationOrchestrator implements ProcessEventUseCase {
         return currentState.transitionTo(nextStep, event);
     }
 
-    private void persistState(CardApplicationState state) {
-        stateStore.saveState(state);
+    /**
+     * Runs the state machine on the current state. The result is not
+     * persisted yet.
+     */
+    private StateChange decide(CardApplicationState currentState, CustomerEvent event) {
+        long start = System.nanoTime();
+        try {
+            StateType nextStep = decideNextStep(currentState, event);
+            CardApplicationState newState = nextStep != null
+                    ? transitionState(currentState, nextStep, event)
+                    : null;
+            return new StateChange(currentState, nextStep, newState, false);
+        } finally {
+            processingMetrics.recordStage(Stage.DECIDE, System.nanoTime() - start);
+        }
     }
 
-    private Action generateAction(CardApplicationState state) {
-        Segment segment = resolveSegment(state);
-        Customer customer = new Customer(state.getCustomerId(), segment);
-        return stateMachineEngine.generateAction(state, customer);
+    /**
+     * One StateStore call that reads the state and, for the common cases,
+     * persists the transition; timed as STATE_GET. Anything the store left
+     * open is decided locally.
+     */
+    private StateChange transitionInStore(CustomerEvent event) {
+        long start = System.nanoTime();
+        TransitionResult result;
+        try {
+            result = stateStore.applyTransition(event.getCustomerId(), event.getEventType());
+        } finally {
+            processingMetrics.recordStage(Stage.STATE_GET, System.nanoTime() - start);
+        }
+        if (result.isApplied()) {
+            return new StateChange(result.previous(), result.applied().getCurrentStep(), result.applied(), true);
+        }
+        return decide(result.previous(), event);
+    }
+
+    /**
+     * Saves a locally decided change with compare-and-set on the version it
+     * was derived from. On a conflict the state is re-read and the event
+     * decided again, up to {@value #MAX_PERSIST_ATTEMPTS} attempts.
+     *
+     * @return the change that was persisted, or one without a next step if
+     *         the event no longer applies to the re-read state
+     * @throws StateStore.VersionConflictException if every attempt conflicted
+     */
+    private StateChange persistState(StateChange change, CustomerEvent event) {
+        String customerId = event.getCustomerId();
+        for (int attempt = 1; change.nextStep() != null && !change.persisted(); attempt++) {
+            long expectedVersion = change.current() != null ? change.current().getVersion() : StateStore.NO_VERSION;
+            long start = System.nanoTime();
+            boolean saved;
+            try {
+                saved = stateStore.compareAndSet(customerId, expectedVersion, change.next());
+            } finally {
+                processingMetrics.recordStage(Stage.PERSIST, System.nanoTime() - start);
+            }
+            if (saved) {
+                return change.asPersisted();
+            }
+
+            if (attempt == MAX_PERSIST_ATTEMPTS) {
+                throw new StateStore.VersionConflictException(String.format(
+                        "State of customer %s kept changing, gave up after %d attempts",
+                        customerId, attempt));
+            }
+            log.warning(String.format("action=state_version_conflict eventId=%s customerId=%s expectedVersion=%d attempt=%d",
+                    event.getEventId(), customerId, expectedVersion, attempt));
+            change = decide(await(retrieveState(customerId)), event);
+        }
+        return change;
+    }
+
+    private Action generateAction(CardApplicationState state, Segment segment, String eventId) {
+        long start = System.nanoTime();
+        try {
+            Customer customer = new Customer(state.getCustomerId(), segment);
+            return stateMachineEngine.generateAction(state, customer, eventId);
+        } finally {
+            processingMetrics.recordStage(Stage.ACTION_GENERATE, System.nanoTime() - start);
+        }
     }
 
     private void publishAction(Action action) {
         log.info(String.format("action=publish_action actionId=%s customerId=%s type=%s",
                 action.getActionId(), action.getCustomerId(), action.getActionType()));
-        actionPublisher.publish(action);
+        long start = System.nanoTime();
+        try {
+            actionPublisher.publish(action);
+        } finally {
+            processingMetrics.recordStage(Stage.PUBLISH, System.nanoTime() - start);
+        }
     }
 
-    private Segment resolveSegment(CardApplicationState state) {
-        String segmentStr = state.getMetadata().get("segment");
+    /**
+     * Starts the publish and returns without waiting for the broker; timed as
+     * PUBLISH on completion. Duplicate and in-progress checks still throw
+     * here.
+     */
+    private CompletableFuture<Void> publishActionAsync(Action action) {
+        log.info(String.format("action=publish_action actionId=%s customerId=%s type=%s async=true",
+                action.getActionId(), action.getCustomerId(), action.getActionType()));
+        return timed(Stage.PUBLISH, () -> actionPublisher.publishAsync(action)).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.log(Level.SEVERE, String.format("action=publish_failed actionId=%s customerId=%s error=%s",
+                        action.getActionId(), action.getCustomerId(), error.getMessage()), error);
+            }
+        });
+    }
+
+    private Segment resolveSegment(String customerId, Map<String, String> metadata) {
+        String segmentStr = metadata.get("segment");
         if (segmentStr != null) {
             try {
                 return Segment.valueOf(segmentStr.toUpperCase());
             } catch (IllegalArgumentException e) {
                 log.warning(String.format("action=invalid_segment customerId=%s segment=%s",
-                        state.getCustomerId(), segmentStr));
+                        customerId, segmentStr));
             }
         }
         return Segment.REGULAR;
     }
 
-    private enum ProcessingOutcome {
-        SUCCESS,
-        SKIPPED_INVALID_TRANSITION,
-        SKIPPED_BUSINESS_RULE,
-        RETRYABLE_INFRA_FAILURE
+    private static Map<String, String> metadataOf(CardApplicationState state, CustomerEvent event) {
+        return state != null ? state.getMetadata() : event.getMetadata();
+    }
+
+    /**
+     * Starts an async port call and records its stage latency on completion.
+     */
+    private <T> CompletableFuture<T> timed(Stage stage, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete(
+                (result, error) -> processingMetrics.recordStage(stage, System.nanoTime() - start));
+    }
+
+    /**
+     * Waits for a stage and rethrows its failure unwrapped, so callers see the
+     * same exception types as the synchronous port calls.
+     */
+    private static <T> T await(CompletableFuture<T> stage) {
+        try {
+            return stage.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A decided transition: the state it starts from, the next step (null if
+     * the event does not apply) and the new state, and whether the store has
+     * saved it already.
+     */
+    private record StateChange(CardApplicationState current, StateType nextStep,
+            CardApplicationState next, boolean persisted) {
+
+        StateChange asPersisted() {
+            return new StateChange(current, nextStep, next, true);
+        }
     }
 }
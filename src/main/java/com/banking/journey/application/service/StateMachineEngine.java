@@ -46,6 +46,16 @@ public class StateMachineEngine {
     }
 
     public Action generateAction(CardApplicationState state, Customer customer) {
+        return generateAction(state, customer, null);
+    }
+
+    /**
+     * @param sourceEventId event that moved the journey to {@code state}; the
+     *                      actionId is derived from it and the step, so a
+     *                      redelivered event produces the same action. A
+     *                      random id if null.
+     */
+    public Action generateAction(CardApplicationState state, Customer customer, String sourceEventId) {
         if (state == null) {
             return null;
         }
@@ -57,12 +67,23 @@ public class StateMachineEngine {
             return null;
         }
 
-        return Action.create(
+        if (sourceEventId == null) {
+            return Action.create(
+                    customerId,
+                    Action.TYPE_PUSH_NOTIFICATION,
+                    message,
+                    Action.CHANNEL_MOBILE_APP,
+                    CAMPAIGN_CARD_ONBOARDING,
+                    null);
+        }
+        return new Action(
+                Action.idFor(sourceEventId, state.getCurrentStep().name()),
                 customerId,
                 Action.TYPE_PUSH_NOTIFICATION,
                 message,
                 Action.CHANNEL_MOBILE_APP,
                 CAMPAIGN_CARD_ONBOARDING,
+                null,
                 null);
     }
 
@@ -1,11 +1,17 @@
 package com.banking.journey.bootstrap.config;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.banking.journey.adapters.flowcontrol.BackpressureController;
+import com.banking.journey.adapters.out.cache.LocalStateCache;
 import com.banking.journey.application.port.out.ActionPublisher;
 import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.application.port.out.ProcessingMetrics;
 import com.banking.journey.application.port.out.StateStore;
 import com.banking.journey.application.service.CardApplicationOrchestrator;
 import com.banking.journey.application.service.StateMachineEngine;
@@ -29,6 +35,22 @@ public class ApplicationConfig {
         return mapper;
     }
 
+    /**
+     * Runs the blocking calls behind the async port variants
+     * ({@code EventStore.saveAsync}, {@code StateStore.getStateAsync}).
+     * One virtual thread per call in virtual-thread mode, otherwise a fixed
+     * pool of {@code journey.execution.port-io-threads}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService portIoExecutor(JourneyProperties journeyProperties) {
+        JourneyProperties.Execution execution = journeyProperties.getExecution();
+        if (execution.isVirtualThreads()) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("journey-io-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(execution.getPortIoThreads(),
+                Thread.ofPlatform().name("journey-io-", 0).daemon(true).factory());
+    }
+
     @Bean
     public StateMachineEngine stateMachineEngine(JourneyProperties journeyProperties) {
         CardApplicationState.configureRequiredDocumentCount(journeyProperties.getRequiredDocumentCount());
@@ -40,8 +62,20 @@ public class ApplicationConfig {
             EventStore eventStore,
             StateStore stateStore,
             StateMachineEngine stateMachineEngine,
-            ActionPublisher actionPublisher) {
+            ActionPublisher actionPublisher,
+            ProcessingMetrics processingMetrics,
+            BackpressureController backpressureController,
+            LocalStateCache localStateCache,
+            JourneyProperties journeyProperties) {
+        // Ports are wrapped for latency tracking only when backpressure is enabled;
+        // the state cache sits outside it so hits are not counted as store calls
         return new CardApplicationOrchestrator(
-                eventStore, stateStore, stateMachineEngine, actionPublisher);
+                backpressureController.observe(eventStore),
+                localStateCache.decorate(backpressureController.observe(stateStore)),
+                stateMachineEngine,
+                backpressureController.observe(actionPublisher),
+                processingMetrics,
+                journeyProperties.getRedis().isServerSideTransitions(),
+                !journeyProperties.getAuditSink().isEnabled());
     }
 }
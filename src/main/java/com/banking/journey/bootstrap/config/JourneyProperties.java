@@ -1,5 +1,10 @@
 package com.banking.journey.bootstrap.config;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "journey")
@@ -9,6 +14,15 @@ public class JourneyProperties {
     private final Kafka kafka = new Kafka();
     private final Redis redis = new Redis();
     private final Dashboard dashboard = new Dashboard();
+    private final Execution execution = new Execution();
+    private final Backpressure backpressure = new Backpressure();
+    private final StateCache stateCache = new StateCache();
+    private final EmbeddedState embeddedState = new EmbeddedState();
+    private final Outbox outbox = new Outbox();
+    private final IdempotencyLedger idempotencyLedger = new IdempotencyLedger();
+    private final GroupCommit groupCommit = new GroupCommit();
+    private final AuditSink auditSink = new AuditSink();
+    private final Partitions partitions = new Partitions();
 
     public int getRequiredDocumentCount() {
         return requiredDocumentCount;
@@ -30,8 +44,48 @@ public class JourneyProperties {
         return dashboard;
     }
 
+    public Execution getExecution() {
+        return execution;
+    }
+
+    public Backpressure getBackpressure() {
+        return backpressure;
+    }
+
+    public StateCache getStateCache() {
+        return stateCache;
+    }
+
+    public EmbeddedState getEmbeddedState() {
+        return embeddedState;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public IdempotencyLedger getIdempotencyLedger() {
+        return idempotencyLedger;
+    }
+
+    public GroupCommit getGroupCommit() {
+        return groupCommit;
+    }
+
+    public AuditSink getAuditSink() {
+        return auditSink;
+    }
+
+    public Partitions getPartitions() {
+        return partitions;
+    }
+
     public static class Kafka {
         private final Topics topics = new Topics();
+        private final Retry retry = new Retry();
+        private final Streams streams = new Streams();
+        private final AsyncPublish asyncPublish = new AsyncPublish();
+        private final Transactions transactions = new Transactions();
         private int partitions = 10;
         private int replicationFactor = 1;
         private int dlqRetentionDays = 30;
@@ -39,11 +93,31 @@ public class JourneyProperties {
         private int consumerMaxPollRecords = 100;
         private int consumerMaxPollIntervalMs = 300000;
         private int consumerSessionTimeoutMs = 30000;
+        private ConsumerMode consumerMode = ConsumerMode.RECORD;
+        private long consumerBatchRedeliveryBackoffMs = 1000;
+        private int consumerParallelism = 16;
+        private WireFormatType actionWireFormat = WireFormatType.JSON;
 
         public Topics getTopics() {
             return topics;
         }
 
+        public Retry getRetry() {
+            return retry;
+        }
+
+        public Streams getStreams() {
+            return streams;
+        }
+
+        public AsyncPublish getAsyncPublish() {
+            return asyncPublish;
+        }
+
+        public Transactions getTransactions() {
+            return transactions;
+        }
+
         public int getPartitions() {
             return partitions;
         }
@@ -101,6 +175,76 @@ public class JourneyProperties {
         public void setPublishAckTimeoutMs(long publishAckTimeoutMs) {
             this.publishAckTimeoutMs = publishAckTimeoutMs;
         }
+
+        public ConsumerMode getConsumerMode() {
+            return consumerMode;
+        }
+
+        public void setConsumerMode(ConsumerMode consumerMode) {
+            this.consumerMode = consumerMode;
+        }
+
+        public long getConsumerBatchRedeliveryBackoffMs() {
+            return consumerBatchRedeliveryBackoffMs;
+        }
+
+        public void setConsumerBatchRedeliveryBackoffMs(long consumerBatchRedeliveryBackoffMs) {
+            this.consumerBatchRedeliveryBackoffMs = consumerBatchRedeliveryBackoffMs;
+        }
+
+        public int getConsumerParallelism() {
+            return consumerParallelism;
+        }
+
+        public void setConsumerParallelism(int consumerParallelism) {
+            this.consumerParallelism = consumerParallelism;
+        }
+
+        public WireFormatType getActionWireFormat() {
+            return actionWireFormat;
+        }
+
+        public void setActionWireFormat(WireFormatType actionWireFormat) {
+            this.actionWireFormat = actionWireFormat;
+        }
+    }
+
+    /**
+     * How the customer-events listener container hands records to the adapter,
+     * or that the Kafka Streams topology consumes them instead.
+     */
+    public enum ConsumerMode {
+        /** One record per listener invocation (EventConsumer) */
+        RECORD,
+        /** Whole poll per listener invocation (BatchEventConsumer) */
+        BATCH,
+        /** Whole poll, fanned out by record key over a worker pool (ParallelEventConsumer) */
+        PARALLEL,
+        /** No listener: a Kafka Streams topology with partition-local state (JourneyStreamsTopology) */
+        STREAMS;
+
+        public boolean isBatchListener() {
+            return this == BATCH || this == PARALLEL;
+        }
+    }
+
+    /**
+     * Payload encoding for records this service produces, and for journey
+     * states in Redis. Readers accept either (content-type header for
+     * records, first byte for states).
+     */
+    public enum WireFormatType {
+        JSON,
+        BINARY
+    }
+
+    /**
+     * How journey states are laid out in Redis: one key per customer, or the
+     * customer as a field of one of {@code state-bucket-count} hashes.
+     */
+    public enum StateLayout {
+        KEY,
+        HASH
     }
 
     public static class Topics {
@@ -133,12 +277,232 @@ public class JourneyProperties {
         }
     }
 
+    /**
+     * Non-blocking retry tiers for transient failures: one topic per delay,
+     * named {@code <customer-events>-retry-<delay>}, before the DLQ.
+     */
+    public static class Retry {
+        private boolean enabled = false;
+        private List<Duration> delays = new ArrayList<>(List.of(
+                Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(60)));
+        private String keyPrefix = "journey:retry:";
+        private Duration parkedTtl = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Duration> getDelays() {
+            return delays;
+        }
+
+        public void setDelays(List<Duration> delays) {
+            this.delays = delays;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+
+        public Duration getParkedTtl() {
+            return parkedTtl;
+        }
+
+        public void setParkedTtl(Duration parkedTtl) {
+            this.parkedTtl = parkedTtl;
+        }
+
+        public String topicName(String customerEventsTopic, int tier) {
+            Duration delay = delays.get(tier);
+            String label = delay.toMillis() % 1000 == 0 ? delay.toSeconds() + "s" : delay.toMillis() + "ms";
+            return customerEventsTopic + "-retry-" + label;
+        }
+    }
+
+    /**
+     * Asynchronous action publishing in {@code consumer-mode=record}: the
+     * listener moves on once an event's state change is persisted, and its
+     * record is acknowledged when the event's action is published. Up to
+     * {@code max-pending-records} records per listener wait for their
+     * actions; the producers keep {@code max-in-flight-requests} requests in
+     * flight per connection (otherwise 1).
+     */
+    public static class AsyncPublish {
+        private boolean enabled = false;
+        private int maxInFlightRequests = 5;
+        private int maxPendingRecords = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxInFlightRequests() {
+            return maxInFlightRequests;
+        }
+
+        public void setMaxInFlightRequests(int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+        }
+
+        public int getMaxPendingRecords() {
+            return maxPendingRecords;
+        }
+
+        public void setMaxPendingRecords(int maxPendingRecords) {
+            this.maxPendingRecords = maxPendingRecords;
+        }
+
+        /** Producer {@code max.in.flight.requests.per.connection}. */
+        public int producerMaxInFlight() {
+            return enabled ? maxInFlightRequests : 1;
+        }
+    }
+
+    /**
+     * Transactional read-write in {@code consumer-mode=record} or
+     * {@code batch}: each listener call runs in a Kafka transaction that holds
+     * the actions it produced and the consumed offsets, so both commit or
+     * neither does. Action ids are deterministic, so the Redis idempotency
+     * markers are skipped. Consumers of the actions topic must read with
+     * {@code isolation.level=read_committed}. The transactional id prefix
+     * must be unique per instance.
+     * <p>
+     * Not exactly-once end to end: the journey state is written to the
+     * StateStore outside the transaction. If the transaction aborts after the
+     * state write, the redelivered event meets the advanced state. It is then
+     * either rejected as an invalid transition, so its action is never sent,
+     * or applied a second time (a document counted twice).
+     * </p>
+     */
+    public static class Transactions {
+        private boolean enabled = false;
+        private String transactionalIdPrefix = "journey-tx-";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getTransactionalIdPrefix() {
+            return transactionalIdPrefix;
+        }
+
+        public void setTransactionalIdPrefix(String transactionalIdPrefix) {
+            this.transactionalIdPrefix = transactionalIdPrefix;
+        }
+    }
+
+    /**
+     * Kafka Streams runtime of {@code consumer-mode=streams}. Journey states
+     * live in a RocksDB store per customer-events partition, backed by a
+     * compacted changelog topic; {@code num-standby-replicas} instances keep
+     * warm copies for fail-over. The application id is the consumer group, so
+     * the default resumes from the listener group's committed offsets.
+     */
+    public static class Streams {
+        private String applicationId = "journey-orchestrator";
+        private String stateDir = "./data/kafka-streams";
+        private int numStreamThreads = 2;
+        private int numStandbyReplicas = 1;
+        private Duration commitInterval = Duration.ofSeconds(1);
+        private String processingGuarantee = "at_least_once";
+        private boolean stateFallback = true;
+        private Duration stateSweepInterval = Duration.ofMinutes(10);
+
+        public String getApplicationId() {
+            return applicationId;
+        }
+
+        public void setApplicationId(String applicationId) {
+            this.applicationId = applicationId;
+        }
+
+        public String getStateDir() {
+            return stateDir;
+        }
+
+        public void setStateDir(String stateDir) {
+            this.stateDir = stateDir;
+        }
+
+        public int getNumStreamThreads() {
+            return numStreamThreads;
+        }
+
+        public void setNumStreamThreads(int numStreamThreads) {
+            this.numStreamThreads = numStreamThreads;
+        }
+
+        public int getNumStandbyReplicas() {
+            return numStandbyReplicas;
+        }
+
+        public void setNumStandbyReplicas(int numStandbyReplicas) {
+            this.numStandbyReplicas = numStandbyReplicas;
+        }
+
+        public Duration getCommitInterval() {
+            return commitInterval;
+        }
+
+        public void setCommitInterval(Duration commitInterval) {
+            this.commitInterval = commitInterval;
+        }
+
+        public String getProcessingGuarantee() {
+            return processingGuarantee;
+        }
+
+        public void setProcessingGuarantee(String processingGuarantee) {
+            this.processingGuarantee = processingGuarantee;
+        }
+
+        public boolean isStateFallback() {
+            return stateFallback;
+        }
+
+        public void setStateFallback(boolean stateFallback) {
+            this.stateFallback = stateFallback;
+        }
+
+        public Duration getStateSweepInterval() {
+            return stateSweepInterval;
+        }
+
+        public void setStateSweepInterval(Duration stateSweepInterval) {
+            this.stateSweepInterval = stateSweepInterval;
+        }
+    }
+
     public static class Redis {
         private String statePrefix = "journey:state:";
         private String idempotencyPrefix = "action:status:";
         private long stateTtlDays = 30;
         private long idempotencyTtlHours = 24;
         private long processingTtlMinutes = 5;
+        private boolean serverSideTransitions = false;
+        private WireFormatType stateFormat = WireFormatType.JSON;
+        private int stateCompressionThresholdBytes = 0;
+        private StateLayout stateLayout = StateLayout.KEY;
+        private int stateBucketCount = 16384;
+        private boolean stateLegacyFallback = true;
+        private long stateSweepIntervalMs = 60000;
+        private int stateSweepBuckets = 64;
 
         public String getStatePrefix() {
             return statePrefix;
@@ -179,6 +543,70 @@ public class JourneyProperties {
         public void setProcessingTtlMinutes(long processingTtlMinutes) {
             this.processingTtlMinutes = processingTtlMinutes;
         }
+
+        public boolean isServerSideTransitions() {
+            return serverSideTransitions;
+        }
+
+        public void setServerSideTransitions(boolean serverSideTransitions) {
+            this.serverSideTransitions = serverSideTransitions;
+        }
+
+        public WireFormatType getStateFormat() {
+            return stateFormat;
+        }
+
+        public void setStateFormat(WireFormatType stateFormat) {
+            this.stateFormat = stateFormat;
+        }
+
+        public int getStateCompressionThresholdBytes() {
+            return stateCompressionThresholdBytes;
+        }
+
+        public void setStateCompressionThresholdBytes(int stateCompressionThresholdBytes) {
+            this.stateCompressionThresholdBytes = stateCompressionThresholdBytes;
+        }
+
+        public StateLayout getStateLayout() {
+            return stateLayout;
+        }
+
+        public void setStateLayout(StateLayout stateLayout) {
+            this.stateLayout = stateLayout;
+        }
+
+        public int getStateBucketCount() {
+            return stateBucketCount;
+        }
+
+        public void setStateBucketCount(int stateBucketCount) {
+            this.stateBucketCount = stateBucketCount;
+        }
+
+        public boolean isStateLegacyFallback() {
+            return stateLegacyFallback;
+        }
+
+        public void setStateLegacyFallback(boolean stateLegacyFallback) {
+            this.stateLegacyFallback = stateLegacyFallback;
+        }
+
+        public long getStateSweepIntervalMs() {
+            return stateSweepIntervalMs;
+        }
+
+        public void setStateSweepIntervalMs(long stateSweepIntervalMs) {
+            this.stateSweepIntervalMs = stateSweepIntervalMs;
+        }
+
+        public int getStateSweepBuckets() {
+            return stateSweepBuckets;
+        }
+
+        public void setStateSweepBuckets(int stateSweepBuckets) {
+            this.stateSweepBuckets = stateSweepBuckets;
+        }
     }
 
     public static class Dashboard {
@@ -201,4 +629,594 @@ public class JourneyProperties {
             this.maxRecentActionsLimit = maxRecentActionsLimit;
         }
     }
+
+    public static class Execution {
+        private boolean virtualThreads = false;
+        private int maxInFlight = 1024;
+        private int portIoThreads = 32;
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public int getPortIoThreads() {
+            return portIoThreads;
+        }
+
+        public void setPortIoThreads(int portIoThreads) {
+            this.portIoThreads = portIoThreads;
+        }
+    }
+
+    /**
+     * Adaptive flow control between the listeners and the EventStore,
+     * StateStore and ActionPublisher ports: AIMD on in-flight concurrency,
+     * partition pause once it is at the floor.
+     */
+    public static class Backpressure {
+        private boolean enabled = false;
+        private long evaluationIntervalMs = 1000;
+        private int windowSize = 2048;
+        private int minSamples = 20;
+        private long p99ThresholdMs = 250;
+        private double errorRateThreshold = 0.2;
+        private int minConcurrency = 1;
+        private int maxConcurrency = 256;
+        private int additiveIncrease = 1;
+        private double multiplicativeDecrease = 0.5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getEvaluationIntervalMs() {
+            return evaluationIntervalMs;
+        }
+
+        public void setEvaluationIntervalMs(long evaluationIntervalMs) {
+            this.evaluationIntervalMs = evaluationIntervalMs;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public long getP99ThresholdMs() {
+            return p99ThresholdMs;
+        }
+
+        public void setP99ThresholdMs(long p99ThresholdMs) {
+            this.p99ThresholdMs = p99ThresholdMs;
+        }
+
+        public double getErrorRateThreshold() {
+            return errorRateThreshold;
+        }
+
+        public void setErrorRateThreshold(double errorRateThreshold) {
+            this.errorRateThreshold = errorRateThreshold;
+        }
+
+        public int getMinConcurrency() {
+            return minConcurrency;
+        }
+
+        public void setMinConcurrency(int minConcurrency) {
+            this.minConcurrency = minConcurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getAdditiveIncrease() {
+            return additiveIncrease;
+        }
+
+        public void setAdditiveIncrease(int additiveIncrease) {
+            this.additiveIncrease = additiveIncrease;
+        }
+
+        public double getMultiplicativeDecrease() {
+            return multiplicativeDecrease;
+        }
+
+        public void setMultiplicativeDecrease(double multiplicativeDecrease) {
+            this.multiplicativeDecrease = multiplicativeDecrease;
+        }
+    }
+
+    /**
+     * Write-through local cache in front of the StateStore, scoped to the
+     * customer-events partitions this instance owns.
+     */
+    public static class StateCache {
+        private boolean enabled = false;
+        private int maxEntries = 100_000;
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Memory-mapped StateStore on local disk, replacing Redis for journey
+     * states on single-node deployments. States expire after
+     * {@code journey.redis.state-ttl-days} like the Redis ones.
+     */
+    public static class EmbeddedState {
+        private boolean enabled = false;
+        private String directory = "./data/journey-state";
+        private long maxEntries = 10_000_000;
+        private int slotBytes = 256;
+        private int maxCustomerIdLength = 48;
+        private int lockStripes = 1024;
+        private int compressionThresholdBytes = 96;
+        private boolean syncWrites = false;
+        private Duration checkpointInterval = Duration.ofSeconds(30);
+        private Duration sweepInterval = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getSlotBytes() {
+            return slotBytes;
+        }
+
+        public void setSlotBytes(int slotBytes) {
+            this.slotBytes = slotBytes;
+        }
+
+        public int getMaxCustomerIdLength() {
+            return maxCustomerIdLength;
+        }
+
+        public void setMaxCustomerIdLength(int maxCustomerIdLength) {
+            this.maxCustomerIdLength = maxCustomerIdLength;
+        }
+
+        public int getLockStripes() {
+            return lockStripes;
+        }
+
+        public void setLockStripes(int lockStripes) {
+            this.lockStripes = lockStripes;
+        }
+
+        public int getCompressionThresholdBytes() {
+            return compressionThresholdBytes;
+        }
+
+        public void setCompressionThresholdBytes(int compressionThresholdBytes) {
+            this.compressionThresholdBytes = compressionThresholdBytes;
+        }
+
+        public boolean isSyncWrites() {
+            return syncWrites;
+        }
+
+        public void setSyncWrites(boolean syncWrites) {
+            this.syncWrites = syncWrites;
+        }
+
+        public Duration getCheckpointInterval() {
+            return checkpointInterval;
+        }
+
+        public void setCheckpointInterval(Duration checkpointInterval) {
+            this.checkpointInterval = checkpointInterval;
+        }
+
+        public Duration getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+    }
+
+    /**
+     * Transactional outbox for actions: the publisher records an action and
+     * queues it in {@code action_outbox} in one statement, and relays drain
+     * the queue to the actions topic. Rows are spread over {@code shards} by
+     * customer; one relay at a time holds a shard, so a customer's actions
+     * keep their order. Change {@code shards} only while the outbox is empty.
+     */
+    public static class Outbox {
+        private boolean enabled = false;
+        private int shards = 64;
+        private int batchSize = 500;
+        private int relayThreads = 2;
+        private Duration pollInterval = Duration.ofMillis(200);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getRelayThreads() {
+            return relayThreads;
+        }
+
+        public void setRelayThreads(int relayThreads) {
+            this.relayThreads = relayThreads;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+    }
+
+    /**
+     * Idempotency ledger of published actions replacing the per-action
+     * {@code action:status:} keys: one Bloom filter bitmap in Redis per hour,
+     * kept for {@code journey.redis.idempotency-ttl-hours}, sized for
+     * {@code expected-actions-per-hour} at {@code false-positive-rate}. A
+     * filter hit is confirmed against the {@code actions} table. With
+     * {@code local-tier} the filters are mirrored in the heap and refreshed
+     * every {@code local-refresh-interval}.
+     */
+    public static class IdempotencyLedger {
+        private boolean enabled = false;
+        private String keyPrefix = "action:ledger:";
+        private long expectedActionsPerHour = 1_000_000;
+        private double falsePositiveRate = 0.001;
+        private boolean localTier = true;
+        private Duration localRefreshInterval = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+
+        public long getExpectedActionsPerHour() {
+            return expectedActionsPerHour;
+        }
+
+        public void setExpectedActionsPerHour(long expectedActionsPerHour) {
+            this.expectedActionsPerHour = expectedActionsPerHour;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public boolean isLocalTier() {
+            return localTier;
+        }
+
+        public void setLocalTier(boolean localTier) {
+            this.localTier = localTier;
+        }
+
+        public Duration getLocalRefreshInterval() {
+            return localRefreshInterval;
+        }
+
+        public void setLocalRefreshInterval(Duration localRefreshInterval) {
+            this.localRefreshInterval = localRefreshInterval;
+        }
+    }
+
+    /**
+     * Group commit of the audit ({@code events}) and {@code actions} inserts:
+     * rows from all consumer threads are written in batches of up to
+     * {@code max-batch-size}, one transaction each, waiting at most
+     * {@code max-latency} for a batch to fill. Callers block while
+     * {@code queue-capacity} rows are waiting.
+     */
+    public static class GroupCommit {
+        private boolean enabled = false;
+        private int maxBatchSize = 500;
+        private Duration maxLatency = Duration.ofMillis(2);
+        private int queueCapacity = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getMaxLatency() {
+            return maxLatency;
+        }
+
+        public void setMaxLatency(Duration maxLatency) {
+            this.maxLatency = maxLatency;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Audit trail loaded by its own consumer group instead of the
+     * orchestrator: {@code concurrency} batch consumers in {@code group-id}
+     * read customer-events and actions, up to {@code max-poll-records} per
+     * poll, and bulk-insert them into {@code events} and {@code actions}. The
+     * orchestrator then neither writes the audit row nor the actions row.
+     * A failed write is retried every {@code retry-backoff} until it succeeds.
+     */
+    public static class AuditSink {
+        private boolean enabled = false;
+        private String groupId = "journey-audit-sink";
+        private int concurrency = 2;
+        private int maxPollRecords = 2000;
+        private Duration fetchMaxWait = Duration.ofMillis(500);
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public void setGroupId(String groupId) {
+            this.groupId = groupId;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        public void setMaxPollRecords(int maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+
+        public Duration getFetchMaxWait() {
+            return fetchMaxWait;
+        }
+
+        public void setFetchMaxWait(Duration fetchMaxWait) {
+            this.fetchMaxWait = fetchMaxWait;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+    }
+
+    /**
+     * Monthly range partitions of {@code events} (on {@code timestamp}) and
+     * {@code actions} (on {@code sent_at}): every {@code check-interval} the
+     * partitions of the current and the next {@code premake-months} months are
+     * created, and those older than a table's {@code retention-months} are
+     * detached or dropped. Reads cover the last {@code query-window-months},
+     * so they only touch those partitions.
+     */
+    public static class Partitions {
+        private boolean enabled = true;
+        private int premakeMonths = 3;
+        private Duration checkInterval = Duration.ofHours(1);
+        private int queryWindowMonths = 3;
+        private final Retention events = new Retention();
+        private final Retention actions = new Retention();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPremakeMonths() {
+            return premakeMonths;
+        }
+
+        public void setPremakeMonths(int premakeMonths) {
+            this.premakeMonths = premakeMonths;
+        }
+
+        public Duration getCheckInterval() {
+            return checkInterval;
+        }
+
+        public void setCheckInterval(Duration checkInterval) {
+            this.checkInterval = checkInterval;
+        }
+
+        public int getQueryWindowMonths() {
+            return queryWindowMonths;
+        }
+
+        public void setQueryWindowMonths(int queryWindowMonths) {
+            this.queryWindowMonths = queryWindowMonths;
+        }
+
+        public Retention getEvents() {
+            return events;
+        }
+
+        public Retention getActions() {
+            return actions;
+        }
+
+        /** Lower bound of reads, in the JVM zone like the stored timestamps; 0 months = unbounded. */
+        public LocalDateTime queryWindowStart() {
+            return queryWindowMonths > 0
+                    ? LocalDateTime.now().minusMonths(queryWindowMonths)
+                    : LocalDateTime.of(1970, 1, 1, 0, 0);
+        }
+    }
+
+    /**
+     * How long a partitioned table keeps its monthly partitions
+     * (0 = forever), and what happens to expired ones.
+     */
+    public static class Retention {
+        private int retentionMonths = 0;
+        private ExpiredPartitions expired = ExpiredPartitions.DETACH;
+
+        public int getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(int retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+
+        public ExpiredPartitions getExpired() {
+            return expired;
+        }
+
+        public void setExpired(ExpiredPartitions expired) {
+            this.expired = expired;
+        }
+    }
+
+    /**
+     * DETACH keeps an expired partition as a standalone table (to archive and
+     * drop by hand); DROP deletes it.
+     */
+    public enum ExpiredPartitions {
+        DETACH,
+        DROP
+    }
 }
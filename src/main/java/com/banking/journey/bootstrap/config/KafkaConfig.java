@@ -6,19 +6,32 @@ import java.util.Map;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.banking.journey.adapters.out.cache.LocalStateCache;
+import com.banking.journey.bootstrap.config.JourneyProperties.ConsumerMode;
 
 @Configuration
 public class KafkaConfig {
@@ -57,27 +70,99 @@ public class KafkaConfig {
                 .build();
     }
 
+    /**
+     * Retry tier topics, co-partitioned with customer-events (same key → same
+     * partition number). Only created when non-blocking retries are enabled.
+     */
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public KafkaAdmin.NewTopics retryTopics() {
+        JourneyProperties.Retry retry = journeyProperties.getKafka().getRetry();
+        if (!retry.isEnabled()) {
+            return new KafkaAdmin.NewTopics();
+        }
+        String customerEvents = journeyProperties.getKafka().getTopics().getCustomerEvents();
+        NewTopic[] topics = new NewTopic[retry.getDelays().size()];
+        for (int tier = 0; tier < topics.length; tier++) {
+            topics[tier] = TopicBuilder.name(retry.topicName(customerEvents, tier))
+                    .partitions(journeyProperties.getKafka().getPartitions())
+                    .replicas(journeyProperties.getKafka().getReplicationFactor())
+                    .build();
+        }
+        return new KafkaAdmin.NewTopics(topics);
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "journey-orchestrator");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Raw bytes: CustomerEventParser decodes JSON straight from the record buffer
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, journeyProperties.getKafka().getConsumerMaxPollRecords());
         props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, journeyProperties.getKafka().getConsumerMaxPollIntervalMs());
         props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, journeyProperties.getKafka().getConsumerSessionTimeoutMs());
+        if (journeyProperties.getKafka().getTransactions().isEnabled()) {
+            // Transactional input side: skip events of aborted upstream transactions
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
-            ConsumerFactory<String, String> consumerFactory) {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            LocalStateCache localStateCache,
+            @Qualifier("transactionalKafkaTemplate") ObjectProvider<KafkaTemplate<String, byte[]>> transactionalKafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // Cached states are only valid for the customer-events partitions owned here
+        factory.getContainerProperties().setConsumerRebalanceListener(localStateCache);
+        // Batch/parallel modes hand the whole poll (max.poll.records) to the listener
+        factory.setBatchListener(journeyProperties.getKafka().getConsumerMode().isBatchListener());
+        if (journeyProperties.getKafka().getAsyncPublish().isEnabled()) {
+            // Idle callbacks re-seek records whose publish failed after the last poll
+            factory.getContainerProperties().setIdleEventInterval(
+                    journeyProperties.getKafka().getConsumerBatchRedeliveryBackoffMs());
+        }
+        KafkaTemplate<String, byte[]> transactional = transactionalKafkaTemplate.getIfAvailable();
+        if (transactional != null) {
+            checkTransactionsSupported();
+            // Each listener call runs in a Kafka transaction; acknowledged offsets
+            // are sent to it, actions sent through the template join it
+            factory.getContainerProperties().setTransactionManager(
+                    new KafkaTransactionManager<>(transactional.getProducerFactory()));
+        }
+        return factory;
+    }
+
+    /**
+     * Batch listener containers of the audit sink: their own consumer group
+     * and poll size, committed offsets only, and a failed batch retried until
+     * the database takes it (ack per batch, so nothing is skipped).
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "journey.audit-sink", name = "enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> auditSinkContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory) {
+        JourneyProperties.AuditSink auditSink = journeyProperties.getAuditSink();
+        Map<String, Object> props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, auditSink.getGroupId());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, auditSink.getMaxPollRecords());
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) auditSink.getFetchMaxWait().toMillis());
+        // Never audit events or actions of aborted transactions
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setConcurrency(auditSink.getConcurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(auditSink.getRetryBackoff().toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS)));
         return factory;
     }
 
@@ -90,7 +175,9 @@ public class KafkaConfig {
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         props.put(ProducerConfig.RETRIES_CONFIG, 3);
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
+        // Up to 5 with async publishing: idempotence keeps per-partition order
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+                journeyProperties.getKafka().getAsyncPublish().producerMaxInFlight());
         return new DefaultKafkaProducerFactory<>(props);
     }
 
@@ -98,4 +185,66 @@ public class KafkaConfig {
     public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
         return new KafkaTemplate<>(producerFactory);
     }
+
+    /**
+     * Producer for binary wire-format records (content-type header set per record).
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> binaryProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.RETRIES_CONFIG, 3);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // Up to 5 with async publishing: idempotence keeps per-partition order
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+                journeyProperties.getKafka().getAsyncPublish().producerMaxInFlight());
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, byte[]> binaryKafkaTemplate(ProducerFactory<String, byte[]> binaryProducerFactory) {
+        return new KafkaTemplate<>(binaryProducerFactory);
+    }
+
+    /**
+     * Transactional producer for actions ({@code journey.kafka.transactions.enabled}).
+     * Carries both wire formats as bytes (JSON as UTF-8). Sends only succeed
+     * inside the listener container's transaction.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "journey.kafka.transactions", name = "enabled", havingValue = "true")
+    public KafkaTemplate<String, byte[]> transactionalKafkaTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(props);
+        producerFactory.setTransactionIdPrefix(
+                journeyProperties.getKafka().getTransactions().getTransactionalIdPrefix());
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    /**
+     * The transaction is bound to the listener thread: records must be
+     * processed and their actions sent on it before the call returns.
+     */
+    private void checkTransactionsSupported() {
+        JourneyProperties.Kafka kafka = journeyProperties.getKafka();
+        ConsumerMode mode = kafka.getConsumerMode();
+        if (mode != ConsumerMode.RECORD && mode != ConsumerMode.BATCH) {
+            throw new IllegalStateException(
+                    "journey.kafka.transactions requires consumer-mode record or batch, not " + mode);
+        }
+        if (kafka.getAsyncPublish().isEnabled()) {
+            throw new IllegalStateException("journey.kafka.transactions cannot be combined with async-publish");
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.banking.journey.bootstrap.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+
+import com.banking.journey.adapters.in.streams.JourneyStreamsTopology;
+
+/**
+ * Kafka Streams runtime, only in {@code journey.kafka.consumer-mode=streams}
+ * (no listener consumer is created then).
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(prefix = "journey.kafka", name = "consumer-mode", havingValue = "streams")
+public class KafkaStreamsConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    private final JourneyProperties journeyProperties;
+
+    public KafkaStreamsConfig(JourneyProperties journeyProperties) {
+        this.journeyProperties = journeyProperties;
+    }
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        JourneyProperties.Kafka kafka = journeyProperties.getKafka();
+        JourneyProperties.Streams streams = kafka.getStreams();
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, streams.getApplicationId());
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.ByteArraySerde.class);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, streams.getStateDir());
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, streams.getNumStreamThreads());
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, streams.getNumStandbyReplicas());
+        props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, streams.getCommitInterval().toMillis());
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, streams.getProcessingGuarantee());
+        // Changelog topics are replicated like customer-events
+        props.put(StreamsConfig.REPLICATION_FACTOR_CONFIG, kafka.getReplicationFactor());
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG), "earliest");
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.MAX_POLL_RECORDS_CONFIG), kafka.getConsumerMaxPollRecords());
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG), kafka.getConsumerMaxPollIntervalMs());
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG), kafka.getConsumerSessionTimeoutMs());
+        return new KafkaStreamsConfiguration(props);
+    }
+
+    /**
+     * A transient failure kills the stream thread; replace it so the task
+     * resumes from its last committed offset, like a listener redelivery.
+     */
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer journeyStreamsConfigurer() {
+        return factoryBean -> factoryBean.setStreamsUncaughtExceptionHandler(
+                exception -> StreamThreadExceptionResponse.REPLACE_THREAD);
+    }
+
+    @Bean
+    public KStream<String, byte[]> customerEventStream(StreamsBuilder streamsBuilder, JourneyStreamsTopology topology) {
+        return topology.build(streamsBuilder);
+    }
+}
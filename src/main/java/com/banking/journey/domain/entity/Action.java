@@ -1,5 +1,6 @@
 package com.banking.journey.domain.entity;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
@@ -18,7 +19,9 @@ import java.util.UUID;
  *
  * <p>
  * <b>Idempotency:</b> The actionId is used as an idempotency key to prevent
- * duplicate action delivery.
+ * duplicate action delivery. Actions of the state machine derive it from the
+ * event that caused them ({@link #idFor}), so reprocessing that event yields
+ * the same actionId.
  * </p>
  */
 public final class Action {
@@ -104,6 +107,21 @@ public final class Action {
                 metadata);
     }
 
+    /**
+     * Deterministic action id: a name-based (type 3) UUID of the source event
+     * id and the step the action announces.
+     *
+     * @param sourceEventId event that caused the action
+     * @param step          step (or other discriminator) the action is about
+     * @return UUID string, equal for equal arguments
+     */
+    public static String idFor(String sourceEventId, String step) {
+        if (sourceEventId == null || sourceEventId.isBlank()) {
+            throw new IllegalArgumentException("sourceEventId cannot be null or blank");
+        }
+        return UUID.nameUUIDFromBytes((sourceEventId + '|' + step).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
     /**
      * Creates a push notification action (most common type).
      */
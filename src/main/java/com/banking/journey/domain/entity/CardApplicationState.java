@@ -53,12 +53,13 @@ public final class CardApplicationState {
     private final Instant startedAt;
     private final Instant updatedAt;
     private final Map<String, String> metadata;
+    private final long version;
 
     // ─────────────────── Private Constructor ───────────────────
 
     private CardApplicationState(String customerId, StateType currentStep,
             int documentCount, Instant startedAt,
-            Instant updatedAt, Map<String, String> metadata) {
+            Instant updatedAt, Map<String, String> metadata, long version) {
         if (customerId == null || customerId.isBlank()) {
             throw new IllegalArgumentException("customerId cannot be null or blank");
         }
@@ -73,6 +74,9 @@ public final class CardApplicationState {
         if (startedAt == null) {
             throw new IllegalArgumentException("startedAt cannot be null");
         }
+        if (version < 0) {
+            throw new IllegalArgumentException("version cannot be negative, got: " + version);
+        }
 
         this.customerId = customerId;
         this.currentStep = currentStep;
@@ -82,6 +86,7 @@ public final class CardApplicationState {
         this.metadata = metadata != null
                 ? Collections.unmodifiableMap(metadata)
                 : Collections.emptyMap();
+        this.version = version;
     }
 
 
@@ -103,7 +108,7 @@ public final class CardApplicationState {
      *
      * @param customerId the customer starting the journey
      * @param event      the triggering CARD_APPLY event
-     * @return new CardApplicationState in APPLIED step
+     * @return new CardApplicationState in APPLIED step, version 1
      * @throws IllegalArgumentException if the event is not CARD_APPLY
      */
     public static CardApplicationState start(String customerId, CustomerEvent event) {
@@ -117,7 +122,8 @@ public final class CardApplicationState {
                 0,
                 Instant.now(),
                 Instant.now(),
-                event.getMetadata());
+                event.getMetadata(),
+                1);
     }
 
     /**
@@ -125,13 +131,26 @@ public final class CardApplicationState {
      * deserialization).
      * Bypasses event validation since this is a reconstruction, not a transition.
      *
-     * @return reconstructed CardApplicationState
+     * @return reconstructed CardApplicationState, version 0 (unversioned)
      */
     public static CardApplicationState reconstruct(String customerId, StateType currentStep,
             int documentCount, Instant startedAt,
             Instant updatedAt, Map<String, String> metadata) {
+        return reconstruct(customerId, currentStep, documentCount, startedAt, updatedAt, metadata, 0);
+    }
+
+    /**
+     * Reconstructs a stored CardApplicationState together with its store
+     * version.
+     *
+     * @param version number of writes the stored state went through
+     * @return reconstructed CardApplicationState
+     */
+    public static CardApplicationState reconstruct(String customerId, StateType currentStep,
+            int documentCount, Instant startedAt,
+            Instant updatedAt, Map<String, String> metadata, long version) {
         return new CardApplicationState(customerId, currentStep, documentCount,
-                startedAt, updatedAt, metadata);
+                startedAt, updatedAt, metadata, version);
     }
 
     // ─────────────────── State Transition (CRITICAL!) ───────────────────
@@ -145,7 +164,8 @@ public final class CardApplicationState {
      *
      * @param newStep the target state
      * @param event   the event triggering the transition
-     * @return a NEW CardApplicationState instance with updated step
+     * @return a NEW CardApplicationState instance with updated step and the
+     *         next version
      * @throws IllegalStateException if the transition is invalid
      */
     public CardApplicationState transitionTo(StateType newStep, CustomerEvent event) {
@@ -177,7 +197,8 @@ public final class CardApplicationState {
                 newDocumentCount,
                 this.startedAt,
                 Instant.now(),
-                this.metadata);
+                this.metadata,
+                this.version + 1);
     }
 
     // ─────────────────── Transition Validation ───────────────────
@@ -258,6 +279,14 @@ public final class CardApplicationState {
         return metadata;
     }
 
+    /**
+     * Optimistic-concurrency version: 1 for a new journey, +1 per
+     * transition, 0 for states stored before versioning.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     // ─────────────────── Identity ───────────────────
 
     @Override
@@ -281,6 +310,7 @@ public final class CardApplicationState {
         return "CardApplicationState{customerId='" + customerId
                 + "', currentStep=" + currentStep
                 + ", documentCount=" + documentCount
-                + ", startedAt=" + startedAt + "}";
+                + ", startedAt=" + startedAt
+                + ", version=" + version + "}";
     }
 }
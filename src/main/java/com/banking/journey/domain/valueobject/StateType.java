@@ -12,6 +12,9 @@ package com.banking.journey.domain.valueobject;
  *   APPLIED → DOCUMENT_PENDING → UNDER_REVIEW → APPROVED
  *                                              → REJECTED
  * </pre>
+ * <p>
+ * Binary-encoded states store the ordinal: only append new constants.
+ * </p>
  */
 public enum StateType {
 
@@ -0,0 +1,16 @@
+-- Records an action id in the idempotency ledger filter of the current hour
+-- (IdempotencyLedger). The bitmap expires once it leaves the ledger window.
+--
+-- KEYS[1]  bitmap of the current hour
+-- ARGV[1]  bitmap TTL in seconds
+-- ARGV[2…] bit offsets of the action id
+--
+-- Returns 1.
+
+for i = 2, #ARGV do
+    redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+end
+if redis.call('TTL', KEYS[1]) < 0 then
+    redis.call('EXPIRE', KEYS[1], ARGV[1])
+end
+return 1
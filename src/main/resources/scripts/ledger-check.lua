@@ -0,0 +1,22 @@
+-- Checks whether an action id may be in any hourly idempotency ledger filter
+-- (IdempotencyLedger). Missing bitmaps read as all zeros.
+--
+-- KEYS     bitmaps of the ledger window, newest first
+-- ARGV     bit offsets of the action id
+--
+-- Returns 1 if some bitmap has every offset set (possibly a false positive),
+-- 0 if the id was never recorded.
+
+for _, key in ipairs(KEYS) do
+    local hit = 1
+    for i = 1, #ARGV do
+        if redis.call('GETBIT', key, ARGV[i]) == 0 then
+            hit = 0
+            break
+        end
+    end
+    if hit == 1 then
+        return 1
+    end
+end
+return 0
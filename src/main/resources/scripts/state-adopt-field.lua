@@ -0,0 +1,24 @@
+-- Stores a journey state read from a per-customer key of the key layout as
+-- its field of the hash layout (RedisStateStore.moveLegacyKey). The legacy
+-- key hashes to another Cluster slot than the bucket, so the caller reads
+-- and deletes it outside this script.
+--
+-- KEYS[1]  bucket hash
+-- ARGV[1]  field (customer id)
+-- ARGV[2]  state value read from the legacy key
+-- ARGV[3]  the legacy key's remaining TTL in seconds
+--
+-- A field already in the bucket was written after the switch to the hash
+-- layout and wins. The bucket keeps the longer of its own and the legacy
+-- key's remaining TTL.
+--
+-- Returns 1 if the field was stored, 0 otherwise.
+
+if redis.call('HSETNX', KEYS[1], ARGV[1], ARGV[2]) == 0 then
+    return 0
+end
+local ttl = tonumber(ARGV[3])
+if redis.call('TTL', KEYS[1]) < ttl then
+    redis.call('EXPIRE', KEYS[1], ttl)
+end
+return 1
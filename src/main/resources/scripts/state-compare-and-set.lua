@@ -0,0 +1,83 @@
+-- Compare-and-set of a journey state by version (RedisStateStore.compareAndSet).
+-- The stored value may be a JSON StateDto or a binary StateWireCodec payload.
+--
+-- KEYS[1]  state key, or bucket hash in the hash layout
+-- ARGV[1]  expected version (0: no state stored, or stored before versioning)
+-- ARGV[2]  new state value
+-- ARGV[3]  TTL in seconds
+-- ARGV[4]  '1' if a legacy per-customer key may still hold the state (hash
+--          layout): a missing field is reported instead of read as version 0
+-- ARGV[5]  field (customer id) in the hash layout, '' for the key layout
+-- ARGV[6]  hash layout: fields updated before these epoch millis count as absent
+-- ARGV[7]  the same cutoff as ISO-8601, for JSON values (compared as strings, exact to the second)
+--
+-- The legacy key hashes to another Cluster slot than the bucket, so the
+-- caller moves it into the bucket (state-adopt-field.lua) and runs the script
+-- again.
+--
+-- Returns 1 if the state was written, 0 if the stored version differs, -1 if
+-- the field is missing and ARGV[4] is '1'.
+
+local FIELD = ARGV[5]
+
+local function readVarint(s, pos)
+    local result, scale = 0, 1
+    while true do
+        local b = string.byte(s, pos)
+        pos = pos + 1
+        result = result + (b % 128) * scale
+        if b < 128 then
+            return result, pos
+        end
+        scale = scale * 128
+    end
+end
+
+local function isExpired(value)
+    if string.byte(value, 1) == 74 then
+        -- 'J': binary envelope (3 bytes), head varints flags, version, step, documents, updated_at
+        local pos = 4
+        for i = 1, 4 do
+            pos = select(2, readVarint(value, pos))
+        end
+        return readVarint(value, pos) / 2 < tonumber(ARGV[6])
+    end
+    local updatedAt = cjson.decode(value)['updated_at']
+    return type(updatedAt) == 'string' and updatedAt < ARGV[7]
+end
+
+local function load()
+    if FIELD == '' then
+        return redis.call('GET', KEYS[1])
+    end
+    local value = redis.call('HGET', KEYS[1], FIELD)
+    if value and isExpired(value) then
+        return false
+    end
+    return value
+end
+
+local function storedVersion(value)
+    if not value then
+        return 0
+    end
+    if string.byte(value, 1) == 74 then
+        local pos = select(2, readVarint(value, 4))
+        return (readVarint(value, pos))
+    end
+    return tonumber(cjson.decode(value)['version']) or 0
+end
+
+if FIELD ~= '' and ARGV[4] == '1' and redis.call('HEXISTS', KEYS[1], FIELD) == 0 then
+    return -1
+end
+if storedVersion(load()) ~= tonumber(ARGV[1]) then
+    return 0
+end
+if FIELD == '' then
+    redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+else
+    redis.call('HSET', KEYS[1], FIELD, ARGV[2])
+    redis.call('EXPIRE', KEYS[1], ARGV[3])
+end
+return 1
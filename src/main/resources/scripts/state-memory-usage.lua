@@ -0,0 +1,16 @@
+-- Memory footprint of one journey state key or bucket
+-- (StateBucketMaintenance.memoryReport).
+--
+-- KEYS[1]  state key or bucket hash
+--
+-- Returns {bytes, journeys, encoding}; {0, 0, 'none'} if the key does not exist.
+
+local usage = redis.call('MEMORY', 'USAGE', KEYS[1], 'SAMPLES', '0')
+if not usage then
+    return { 0, 0, 'none' }
+end
+local journeys = 1
+if redis.call('TYPE', KEYS[1])['ok'] == 'hash' then
+    journeys = redis.call('HLEN', KEYS[1])
+end
+return { usage, journeys, redis.call('OBJECT', 'ENCODING', KEYS[1]) }
@@ -0,0 +1,44 @@
+-- Removes expired journey states from one bucket of the hash layout
+-- (StateBucketMaintenance). A bucket's own expiry is refreshed by every write
+-- to it, so fields are expired here by their updated_at instead.
+--
+-- KEYS[1]  bucket hash
+-- ARGV[1]  fields updated before these epoch millis are removed
+-- ARGV[2]  the same cutoff as ISO-8601, for JSON values (compared as strings, exact to the second)
+--
+-- Returns the number of fields removed.
+
+local function readVarint(s, pos)
+    local result, scale = 0, 1
+    while true do
+        local b = string.byte(s, pos)
+        pos = pos + 1
+        result = result + (b % 128) * scale
+        if b < 128 then
+            return result, pos
+        end
+        scale = scale * 128
+    end
+end
+
+local function isExpired(value)
+    if string.byte(value, 1) == 74 then
+        local pos = 4
+        for i = 1, 4 do
+            pos = select(2, readVarint(value, pos))
+        end
+        return readVarint(value, pos) / 2 < tonumber(ARGV[1])
+    end
+    local updatedAt = cjson.decode(value)['updated_at']
+    return type(updatedAt) == 'string' and updatedAt < ARGV[2]
+end
+
+local entries = redis.call('HGETALL', KEYS[1])
+local removed = 0
+for i = 1, #entries, 2 do
+    if isExpired(entries[i + 1]) then
+        redis.call('HDEL', KEYS[1], entries[i])
+        removed = removed + 1
+    end
+end
+return removed
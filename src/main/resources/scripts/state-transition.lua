@@ -0,0 +1,159 @@
+-- Reads a journey state and applies the common event-driven transitions in
+-- the same round trip (RedisStateStore.applyTransition). Mirrors
+-- StateMachineEngine and the CardApplicationState transition table:
+--
+--   DOCUMENT_PENDING --DOCUMENT_UPLOAD--> DOCUMENT_PENDING | UNDER_REVIEW
+--   UNDER_REVIEW     --APPROVAL-------->  APPROVED
+--   UNDER_REVIEW     --REJECTION------->  REJECTED
+--
+-- Every other case is left to the caller, which decides with the state
+-- machine and writes with state-compare-and-set.lua. The value keeps the
+-- format it was read in: a JSON StateDto is rewritten with cjson, a binary
+-- StateWireCodec payload only has its head varints replaced.
+--
+-- KEYS[1]  state key, or bucket hash in the hash layout
+-- ARGV[1]  event type
+-- ARGV[2]  required document count
+-- ARGV[3]  updated_at (ISO-8601, JSON)
+-- ARGV[4]  TTL in seconds
+-- ARGV[5]  updated_at (epoch millis, binary)
+-- ARGV[6..9]  StateType ordinals of DOCUMENT_PENDING, UNDER_REVIEW, APPROVED, REJECTED
+-- ARGV[10] field (customer id) in the hash layout, '' for the key layout
+-- ARGV[11] hash layout: fields updated before these epoch millis count as absent
+-- ARGV[12] the same cutoff as ISO-8601, for JSON values (compared as strings, exact to the second)
+--
+-- Returns {} if no state is stored, {current} if the caller must decide,
+-- {current, updated} if the transition was applied. A legacy per-customer
+-- key hashes to another Cluster slot than the bucket and is not read here:
+-- on {} the caller moves it into the bucket (state-adopt-field.lua) and runs
+-- the script again.
+
+local ORDINALS = {
+    DOCUMENT_PENDING = tonumber(ARGV[6]),
+    UNDER_REVIEW = tonumber(ARGV[7]),
+    APPROVED = tonumber(ARGV[8]),
+    REJECTED = tonumber(ARGV[9]),
+}
+local FIELD = ARGV[10]
+local NAMES = {}
+for name, ordinal in pairs(ORDINALS) do
+    NAMES[ordinal] = name
+end
+
+local function readVarint(s, pos)
+    local result, scale = 0, 1
+    while true do
+        local b = string.byte(s, pos)
+        pos = pos + 1
+        result = result + (b % 128) * scale
+        if b < 128 then
+            return result, pos
+        end
+        scale = scale * 128
+    end
+end
+
+local function writeVarint(n)
+    local out = {}
+    repeat
+        local b = n % 128
+        n = (n - b) / 128
+        if n > 0 then
+            b = b + 128
+        end
+        out[#out + 1] = string.char(b)
+    until n == 0
+    return table.concat(out)
+end
+
+local function isExpired(value)
+    if string.byte(value, 1) == 74 then
+        local pos = 4
+        for i = 1, 4 do
+            pos = select(2, readVarint(value, pos))
+        end
+        return readVarint(value, pos) / 2 < tonumber(ARGV[11])
+    end
+    local updatedAt = cjson.decode(value)['updated_at']
+    return type(updatedAt) == 'string' and updatedAt < ARGV[12]
+end
+
+local function load()
+    if FIELD == '' then
+        return redis.call('GET', KEYS[1])
+    end
+    local value = redis.call('HGET', KEYS[1], FIELD)
+    if value and isExpired(value) then
+        return false
+    end
+    return value
+end
+
+local function store(value)
+    if FIELD == '' then
+        redis.call('SET', KEYS[1], value, 'EX', ARGV[4])
+        return
+    end
+    redis.call('HSET', KEYS[1], FIELD, value)
+    redis.call('EXPIRE', KEYS[1], ARGV[4])
+end
+
+-- Returns the next step and document count, or nil if the caller must decide
+local function decide(step, documents)
+    local event = ARGV[1]
+    if step == 'DOCUMENT_PENDING' and event == 'DOCUMENT_UPLOAD' then
+        local required = tonumber(ARGV[2])
+        documents = math.min(documents + 1, required)
+        if documents >= required then
+            return 'UNDER_REVIEW', documents
+        end
+        return 'DOCUMENT_PENDING', documents
+    elseif step == 'UNDER_REVIEW' and event == 'APPROVAL' then
+        return 'APPROVED', documents
+    elseif step == 'UNDER_REVIEW' and event == 'REJECTION' then
+        return 'REJECTED', documents
+    end
+    return nil
+end
+
+local current = load()
+if not current then
+    return {}
+end
+
+local updated
+if string.byte(current, 1) == 74 then
+    -- 'J': binary envelope (3 bytes), head varints, then an untouched tail
+    local flags, version, step, documents, updatedAt, pos
+    flags, pos = readVarint(current, 4)
+    version, pos = readVarint(current, pos)
+    step, pos = readVarint(current, pos)
+    documents, pos = readVarint(current, pos)
+    updatedAt, pos = readVarint(current, pos)
+
+    local nextStep, nextDocuments = decide(NAMES[step], documents)
+    if not nextStep then
+        return { current }
+    end
+    updated = string.sub(current, 1, 3)
+        .. writeVarint(flags)
+        .. writeVarint(version + 1)
+        .. writeVarint(ORDINALS[nextStep])
+        .. writeVarint(nextDocuments)
+        .. writeVarint(2 * tonumber(ARGV[5]))
+        .. string.sub(current, pos)
+else
+    local state = cjson.decode(current)
+    local nextStep, nextDocuments = decide(state['current_step'], tonumber(state['document_count']) or 0)
+    if not nextStep then
+        return { current }
+    end
+    state['current_step'] = nextStep
+    state['document_count'] = nextDocuments
+    state['updated_at'] = ARGV[3]
+    state['version'] = (tonumber(state['version']) or 0) + 1
+    updated = cjson.encode(state)
+end
+
+store(updated)
+return { current, updated }
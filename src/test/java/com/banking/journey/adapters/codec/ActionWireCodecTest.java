@@ -0,0 +1,138 @@
+package com.banking.journey.adapters.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.banking.journey.domain.entity.Action;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ActionWireCodecTest {
+
+    @Test
+    void roundTripPreservesEveryField() {
+        Action action = sample();
+
+        assertSameAction(ActionWireCodec.decode(ActionWireCodec.encode(action)), action);
+    }
+
+    @Test
+    void roundTripWithoutOptionalFields() {
+        Action action = new Action("act-0002", "cust-7", Action.TYPE_SMS, "Your card is on its way", "SMS",
+                null, Instant.parse("2024-03-01T10:15:31Z"), null);
+
+        Action decoded = ActionWireCodec.decode(ActionWireCodec.encode(action));
+
+        assertSameAction(decoded, action);
+        assertThat(decoded.getCampaignId()).isNull();
+        assertThat(decoded.getMetadata()).isEmpty();
+    }
+
+    @Test
+    void encodesGoldenV1Fixture() {
+        assertThat(ActionWireCodec.encode(sample())).isEqualTo(WireFixtures.load("action-v1.hex"));
+    }
+
+    @Test
+    void decodesGoldenV1Fixture() {
+        assertSameAction(ActionWireCodec.decode(WireFixtures.load("action-v1.hex")), sample());
+    }
+
+    @Test
+    void binaryCarriesTheSameFieldsAsTheJsonRecord() throws Exception {
+        // The JSON record of KafkaActionPublisher and AuditSinkConsumer
+        JsonNode json = new ObjectMapper().readTree("""
+                {"action_id":"act-0001","customer_id":"cust-42","action_type":"PUSH_NOTIFICATION",\
+                "message":"Upload one more document","channel":"PUSH","created_at":"2024-03-01T10:15:30.500Z"}""");
+
+        Action decoded = ActionWireCodec.decode(WireFixtures.load("action-v1.hex"));
+
+        assertThat(decoded.getActionId()).isEqualTo(json.get("action_id").asText());
+        assertThat(decoded.getCustomerId()).isEqualTo(json.get("customer_id").asText());
+        assertThat(decoded.getActionType()).isEqualTo(json.get("action_type").asText());
+        assertThat(decoded.getMessage()).isEqualTo(json.get("message").asText());
+        assertThat(decoded.getChannel()).isEqualTo(json.get("channel").asText());
+        assertThat(decoded.getCreatedAt()).isEqualTo(Instant.parse(json.get("created_at").asText()));
+    }
+
+    @Test
+    void skipsFieldsAddedByANewerWriter() {
+        Action action = sample();
+        WireWriter writer = new WireWriter(256);
+        writer.header(WireFormat.KIND_ACTION);
+        writer.writeString(ActionWireCodec.FIELD_ACTION_ID, action.getActionId());
+        writer.writeString(ActionWireCodec.FIELD_CUSTOMER_ID, action.getCustomerId());
+        writer.writeVarintField(20, 7);
+        writer.writeString(ActionWireCodec.FIELD_ACTION_TYPE, action.getActionType());
+        writer.writeString(ActionWireCodec.FIELD_MESSAGE, action.getMessage());
+        writer.writeString(ActionWireCodec.FIELD_CHANNEL, action.getChannel());
+        writer.writeString(ActionWireCodec.FIELD_CAMPAIGN_ID, action.getCampaignId());
+        writer.writeString(21, "priority=high");
+        writer.writeSignedField(ActionWireCodec.FIELD_CREATED_AT_SECONDS, action.getCreatedAt().getEpochSecond());
+        writer.writeVarintField(ActionWireCodec.FIELD_CREATED_AT_NANOS, action.getCreatedAt().getNano());
+        writer.writeStringMap(ActionWireCodec.FIELD_METADATA, action.getMetadata());
+
+        assertSameAction(ActionWireCodec.decode(writer.toByteArray()), action);
+    }
+
+    @Test
+    void rejectsNewerVersionsAndOtherRecordKinds() {
+        assertThatThrownBy(() -> ActionWireCodec.decode(WireFixtures.withVersion(WireFixtures.load("action-v1.hex"), 2)))
+                .isInstanceOf(WireFormatException.class)
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> ActionWireCodec.decode(WireFixtures.load("customer-event-v1.hex")))
+                .isInstanceOf(WireFormatException.class)
+                .hasMessageContaining("record kind");
+        assertThatThrownBy(() -> ActionWireCodec.decode("{}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(WireFormatException.class);
+    }
+
+    /**
+     * A cut inside a field must be rejected; a cut between fields reads as the
+     * record without its trailing fields (there is no length prefix), so it
+     * must re-encode to exactly the bytes that were read.
+     */
+    @Test
+    void neverMisreadsTruncatedPayloads() {
+        byte[] golden = WireFixtures.load("action-v1.hex");
+
+        for (int length = 0; length < golden.length; length++) {
+            byte[] truncated = Arrays.copyOf(golden, length);
+            Action decoded;
+            try {
+                decoded = ActionWireCodec.decode(truncated);
+            } catch (WireFormatException | IllegalArgumentException rejected) {
+                continue;
+            }
+            assertThat(ActionWireCodec.encode(decoded)).as("truncated to %d bytes", length).isEqualTo(truncated);
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private static Action sample() {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("step", "DOCUMENT_PENDING");
+        return new Action("act-0001", "cust-42", Action.TYPE_PUSH_NOTIFICATION, "Upload one more document", "PUSH",
+                "spring-24", Instant.parse("2024-03-01T10:15:30.500Z"), metadata);
+    }
+
+    private static void assertSameAction(Action actual, Action expected) {
+        assertThat(actual.getActionId()).isEqualTo(expected.getActionId());
+        assertThat(actual.getCustomerId()).isEqualTo(expected.getCustomerId());
+        assertThat(actual.getActionType()).isEqualTo(expected.getActionType());
+        assertThat(actual.getMessage()).isEqualTo(expected.getMessage());
+        assertThat(actual.getChannel()).isEqualTo(expected.getChannel());
+        assertThat(actual.getCampaignId()).isEqualTo(expected.getCampaignId());
+        assertThat(actual.getCreatedAt()).isEqualTo(expected.getCreatedAt());
+        assertThat(actual.getMetadata()).isEqualTo(expected.getMetadata());
+    }
+}
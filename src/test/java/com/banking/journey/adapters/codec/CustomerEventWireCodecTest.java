@@ -0,0 +1,202 @@
+package com.banking.journey.adapters.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.jupiter.api.Test;
+
+import com.banking.journey.adapters.in.kafka.CustomerEventParser;
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.domain.entity.CustomerEvent;
+import com.banking.journey.domain.valueobject.EventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CustomerEventWireCodecTest {
+
+    private static final String SAMPLE_JSON = """
+            {"event_id":"evt-0001","customer_id":"cust-42","event_type":"DOCUMENT_UPLOAD",\
+            "timestamp":"2024-03-01T10:15:30.123456789Z","metadata":{"channel":"mobile","doc":"passport"}}""";
+
+    private final CustomerEventParser jsonParser = new CustomerEventParser(new ObjectMapper(), ProcessingMetrics.NOOP);
+
+    @Test
+    void roundTripPreservesEveryField() {
+        CustomerEvent event = sample();
+
+        CustomerEvent decoded = CustomerEventWireCodec.decode(CustomerEventWireCodec.encode(event));
+
+        assertSameEvent(decoded, event);
+    }
+
+    @Test
+    void roundTripWithoutNanosOrMetadata() {
+        CustomerEvent event = new CustomerEvent("evt-0002", "cust-7", EventType.CARD_APPLY,
+                Instant.parse("1969-12-31T23:59:59Z"), null);
+
+        CustomerEvent decoded = CustomerEventWireCodec.decode(CustomerEventWireCodec.encode(event));
+
+        assertSameEvent(decoded, event);
+        assertThat(decoded.getMetadata()).isEmpty();
+    }
+
+    @Test
+    void encodesGoldenV1Fixture() {
+        assertThat(CustomerEventWireCodec.encode(sample())).isEqualTo(WireFixtures.load("customer-event-v1.hex"));
+    }
+
+    @Test
+    void decodesGoldenV1Fixture() {
+        assertSameEvent(CustomerEventWireCodec.decode(WireFixtures.load("customer-event-v1.hex")), sample());
+    }
+
+    @Test
+    void binaryAndJsonDecodeToTheSameEvent() throws Exception {
+        CustomerEvent fromJson = jsonParser.parse(SAMPLE_JSON.getBytes(StandardCharsets.UTF_8));
+        CustomerEvent fromBinary = CustomerEventWireCodec.decode(CustomerEventWireCodec.encode(fromJson));
+
+        assertSameEvent(fromBinary, fromJson);
+        assertSameEvent(fromJson, sample());
+    }
+
+    @Test
+    void parserPicksTheFormatFromTheContentTypeHeader() throws Exception {
+        ConsumerRecord<String, byte[]> json = new ConsumerRecord<>("customer-events", 0, 0, "cust-42",
+                SAMPLE_JSON.getBytes(StandardCharsets.UTF_8));
+        ConsumerRecord<String, byte[]> binary = new ConsumerRecord<>("customer-events", 0, 1, "cust-42",
+                CustomerEventWireCodec.encode(sample()));
+        binary.headers().add(new RecordHeader(WireFormat.CONTENT_TYPE_HEADER,
+                WireFormat.contentTypeValue(WireFormat.BINARY)));
+
+        assertSameEvent(jsonParser.parse(json), sample());
+        assertSameEvent(jsonParser.parse(binary), sample());
+    }
+
+    @Test
+    void skipsFieldsAddedByANewerWriter() {
+        CustomerEvent event = sample();
+        WireWriter writer = new WireWriter(128);
+        writer.header(WireFormat.KIND_CUSTOMER_EVENT);
+        writer.writeString(15, "added later");
+        writer.writeString(CustomerEventWireCodec.FIELD_EVENT_ID, event.getEventId());
+        writer.writeVarintField(16, 1L << 40);
+        writer.writeString(CustomerEventWireCodec.FIELD_CUSTOMER_ID, event.getCustomerId());
+        writer.writeVarintField(CustomerEventWireCodec.FIELD_EVENT_TYPE, 2);
+        writer.writeSignedField(CustomerEventWireCodec.FIELD_TIMESTAMP_SECONDS, event.getTimestamp().getEpochSecond());
+        writer.writeVarintField(CustomerEventWireCodec.FIELD_TIMESTAMP_NANOS, event.getTimestamp().getNano());
+        writer.writeStringMap(CustomerEventWireCodec.FIELD_METADATA, event.getMetadata());
+        writer.writeSignedField(17, -5);
+
+        assertSameEvent(CustomerEventWireCodec.decode(writer.toByteArray()), event);
+    }
+
+    @Test
+    void rejectsNewerAndUnknownVersions() {
+        byte[] golden = WireFixtures.load("customer-event-v1.hex");
+
+        assertThatThrownBy(() -> CustomerEventWireCodec.decode(WireFixtures.withVersion(golden, 2)))
+                .isInstanceOf(WireFormatException.class)
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> CustomerEventWireCodec.decode(WireFixtures.withVersion(golden, 0)))
+                .isInstanceOf(WireFormatException.class);
+    }
+
+    @Test
+    void rejectsOtherRecordKindsAndJson() {
+        assertThatThrownBy(() -> CustomerEventWireCodec.decode(WireFixtures.load("action-v1.hex")))
+                .isInstanceOf(WireFormatException.class)
+                .hasMessageContaining("record kind");
+        assertThatThrownBy(() -> CustomerEventWireCodec.decode(SAMPLE_JSON.getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(WireFormatException.class);
+    }
+
+    /**
+     * A cut inside a field must be rejected; a cut between fields reads as the
+     * record without its trailing fields (there is no length prefix), so it
+     * must re-encode to exactly the bytes that were read.
+     */
+    @Test
+    void neverMisreadsTruncatedPayloads() {
+        byte[] golden = WireFixtures.load("customer-event-v1.hex");
+
+        for (int length = 0; length < golden.length; length++) {
+            byte[] truncated = Arrays.copyOf(golden, length);
+            CustomerEvent decoded;
+            try {
+                decoded = CustomerEventWireCodec.decode(truncated);
+            } catch (WireFormatException | IllegalArgumentException rejected) {
+                continue;
+            }
+            assertThat(CustomerEventWireCodec.encode(decoded)).as("truncated to %d bytes", length).isEqualTo(truncated);
+        }
+    }
+
+    @Test
+    void rejectsUnknownEventTypeCodes() {
+        WireWriter writer = new WireWriter(64);
+        writer.header(WireFormat.KIND_CUSTOMER_EVENT);
+        writer.writeString(CustomerEventWireCodec.FIELD_EVENT_ID, "evt-1");
+        writer.writeString(CustomerEventWireCodec.FIELD_CUSTOMER_ID, "cust-1");
+        writer.writeVarintField(CustomerEventWireCodec.FIELD_EVENT_TYPE, 99);
+        writer.writeSignedField(CustomerEventWireCodec.FIELD_TIMESTAMP_SECONDS, 0);
+
+        assertThatThrownBy(() -> CustomerEventWireCodec.decode(writer.toByteArray()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("event_type");
+    }
+
+    @Test
+    void rejectsKnownFieldsWithTheWrongWireType() {
+        WireWriter stringAsVarint = new WireWriter(64);
+        stringAsVarint.header(WireFormat.KIND_CUSTOMER_EVENT);
+        stringAsVarint.writeVarintField(CustomerEventWireCodec.FIELD_EVENT_ID, 7);
+
+        WireWriter varintAsString = new WireWriter(64);
+        varintAsString.header(WireFormat.KIND_CUSTOMER_EVENT);
+        varintAsString.writeString(CustomerEventWireCodec.FIELD_EVENT_ID, "evt-1");
+        varintAsString.writeString(CustomerEventWireCodec.FIELD_EVENT_TYPE, "CARD_APPLY");
+
+        assertThatThrownBy(() -> CustomerEventWireCodec.decode(stringAsVarint.toByteArray()))
+                .isInstanceOf(WireFormatException.class)
+                .hasMessageContaining("Field 1");
+        assertThatThrownBy(() -> CustomerEventWireCodec.decode(varintAsString.toByteArray()))
+                .isInstanceOf(WireFormatException.class)
+                .hasMessageContaining("Field 3");
+    }
+
+    @Test
+    void eventTypeCodesAreStable() {
+        assertThat(CustomerEventWireCodec.eventTypeCode(EventType.CARD_APPLY)).isEqualTo(1);
+        assertThat(CustomerEventWireCodec.eventTypeCode(EventType.DOCUMENT_UPLOAD)).isEqualTo(2);
+        assertThat(CustomerEventWireCodec.eventTypeCode(EventType.APPROVAL)).isEqualTo(3);
+        assertThat(CustomerEventWireCodec.eventTypeCode(EventType.REJECTION)).isEqualTo(4);
+        for (EventType type : EventType.values()) {
+            assertThat(CustomerEventWireCodec.eventTypeOf(CustomerEventWireCodec.eventTypeCode(type))).isEqualTo(type);
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private static CustomerEvent sample() {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("channel", "mobile");
+        metadata.put("doc", "passport");
+        return new CustomerEvent("evt-0001", "cust-42", EventType.DOCUMENT_UPLOAD,
+                Instant.parse("2024-03-01T10:15:30.123456789Z"), metadata);
+    }
+
+    private static void assertSameEvent(CustomerEvent actual, CustomerEvent expected) {
+        assertThat(actual.getEventId()).isEqualTo(expected.getEventId());
+        assertThat(actual.getCustomerId()).isEqualTo(expected.getCustomerId());
+        assertThat(actual.getEventType()).isEqualTo(expected.getEventType());
+        assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+        assertThat(actual.getMetadata()).isEqualTo(expected.getMetadata());
+    }
+}
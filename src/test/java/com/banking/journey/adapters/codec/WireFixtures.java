@@ -0,0 +1,41 @@
+package com.banking.journey.adapters.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+/**
+ * Golden payloads under {@code src/test/resources/codec}: hex, whitespace and
+ * {@code #} comments ignored. A fixture only ever changes with a codec
+ * version bump, since records already on the topics must stay readable.
+ */
+final class WireFixtures {
+
+    private WireFixtures() {
+    }
+
+    static byte[] load(String name) {
+        try (InputStream in = WireFixtures.class.getResourceAsStream("/codec/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing fixture " + name);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (String line : new String(in.readAllBytes(), StandardCharsets.US_ASCII).split("\n")) {
+                int comment = line.indexOf('#');
+                hex.append((comment >= 0 ? line.substring(0, comment) : line).replaceAll("\\s", ""));
+            }
+            return HexFormat.of().parseHex(hex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A copy of {@code payload} with the codec version byte replaced. */
+    static byte[] withVersion(byte[] payload, int version) {
+        byte[] copy = payload.clone();
+        copy[1] = (byte) version;
+        return copy;
+    }
+}
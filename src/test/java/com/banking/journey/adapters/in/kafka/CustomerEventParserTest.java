@@ -0,0 +1,31 @@
+package com.banking.journey.adapters.in.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CustomerEventParserTest {
+
+    private final CustomerEventParser parser = new CustomerEventParser(new ObjectMapper(), ProcessingMetrics.NOOP);
+
+    /** Classified as on the EventDto path, where valueOf/parse threw a NullPointerException. */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"event_id\":\"evt-1\",\"customer_id\":\"cust-1\",\"timestamp\":\"2024-01-15T10:30:00Z\"}",
+            "{\"event_id\":\"evt-1\",\"customer_id\":\"cust-1\",\"event_type\":null,\"timestamp\":\"2024-01-15T10:30:00Z\"}",
+            "{\"event_id\":\"evt-1\",\"customer_id\":\"cust-1\",\"event_type\":\"CARD_APPLY\"}",
+            "{\"event_id\":\"evt-1\",\"customer_id\":\"cust-1\",\"event_type\":\"CARD_APPLY\",\"timestamp\":null}" })
+    void missingEventTypeOrTimestampIsAnUnknownError(String json) {
+        Exception error = catchException(() -> parser.parse(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(error).isInstanceOf(NullPointerException.class);
+        assertThat(DeadLetterPublisher.classify(error)).isEqualTo(DeadLetterPublisher.UNKNOWN_ERROR);
+    }
+}
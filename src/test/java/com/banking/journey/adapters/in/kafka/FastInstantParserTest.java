@@ -0,0 +1,73 @@
+package com.banking.journey.adapters.in.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * FastInstantParser must accept and reject exactly what {@link Instant#parse}
+ * does, whether the fast path or the fallback handles the input.
+ */
+class FastInstantParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-01-15T10:30:00Z",
+            "1970-01-01T00:00:00Z",
+            "1969-12-31T23:59:59Z",
+            "0000-01-01T00:00:00Z",
+            "9999-12-31T23:59:59Z",
+            "2024-02-29T12:00:00Z",
+            "2000-02-29T00:00:00Z",
+            "2024-03-01T10:15:30.1Z",
+            "2024-03-01T10:15:30.12Z",
+            "2024-03-01T10:15:30.123Z",
+            "2024-03-01T10:15:30.000001Z",
+            "2024-03-01T10:15:30.123456789Z",
+            "2024-03-01T10:15:30.000000000Z",
+            "2024-03-01T10:15:30+02:00",
+            "2024-03-01T10:15:30.5-05:30",
+            "2024-03-01T10:15:30+00:00",
+            "2016-12-31T23:59:60Z",
+            "2024-03-01t10:15:30z",
+            "2024-01-15T24:00:00Z",
+            "2024-01-15T10:30:00.Z" })
+    void matchesInstantParse(String text) {
+        assertThat(parse(text)).isEqualTo(Instant.parse(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "2024-01-15",
+            "2024-01-15T10:30:00",
+            "2024-13-01T00:00:00Z",
+            "2024-00-01T00:00:00Z",
+            "2023-02-29T00:00:00Z",
+            "1900-02-29T00:00:00Z",
+            "2024-04-31T00:00:00Z",
+            "2024-01-15T10:60:00Z",
+            "2024-01-15T10:30:61Z",
+            "2024-01-15T10:30:00.1234567890Z",
+            "2024-01-15T10:30:00,5Z",
+            "2024-01-15T1a:30:00Z",
+            "2024-01-15 10:30:00Z",
+            "2024-01-15T10:30:00+25:00" })
+    void rejectsWhatInstantParseRejects(String text) {
+        assertThatThrownBy(() -> Instant.parse(text)).isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> parse(text)).isInstanceOf(DateTimeParseException.class);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    /** Parses text from the middle of a larger buffer, as Jackson hands it over. */
+    private static Instant parse(String text) {
+        char[] buffer = ("{\"timestamp\":\"" + text + "\"}").toCharArray();
+        return FastInstantParser.parse(buffer, 14, text.length());
+    }
+}
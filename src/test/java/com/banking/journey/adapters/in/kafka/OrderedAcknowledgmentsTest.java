@@ -0,0 +1,97 @@
+package com.banking.journey.adapters.in.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import com.banking.journey.adapters.in.kafka.OrderedAcknowledgments.Admission;
+
+class OrderedAcknowledgmentsTest {
+
+    private static final String TOPIC = "customer-events";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private final OrderedAcknowledgments acks = new OrderedAcknowledgments(100);
+    private final List<Long> acknowledged = new CopyOnWriteArrayList<>();
+    private final Consumer<?, ?> consumer = mock(Consumer.class);
+
+    @Test
+    void acknowledgesInOffsetOrderWhateverTheCompletionOrder() {
+        CompletableFuture<Boolean> first = track(10);
+        CompletableFuture<Boolean> second = track(11);
+        CompletableFuture<Boolean> third = track(12);
+
+        third.complete(true);
+        second.complete(true);
+        assertThat(acknowledged).isEmpty();
+
+        first.complete(true);
+        assertThat(acknowledged).containsExactly(10L, 11L, 12L);
+    }
+
+    @Test
+    void stopsBelowAFailedRecordAndSkipsLaterCompletionsOnRedelivery() {
+        CompletableFuture<Boolean> r10 = track(10);
+        CompletableFuture<Boolean> r11 = track(11);
+        CompletableFuture<Boolean> r12 = track(12);
+        CompletableFuture<Boolean> r13 = track(13);
+
+        // Out of order, and the middle record must be redelivered
+        r13.complete(true);
+        r11.complete(true);
+        r12.completeExceptionally(new IllegalStateException("publish failed"));
+        r10.complete(true);
+
+        assertThat(acknowledged).containsExactly(10L, 11L);
+
+        // The next delivery re-seeks to the failed record
+        assertThat(acks.admit(record(14), consumer)).isEqualTo(Admission.RESEEKED);
+        verify(consumer).seek(PARTITION, 12L);
+        // What the old poll still hands over comes again after the seek
+        assertThat(acks.admit(record(15), consumer)).isEqualTo(Admission.SKIP);
+
+        assertThat(acks.admit(record(12), consumer)).isEqualTo(Admission.PROCESS);
+        track(12).complete(true);
+        // Finished before the re-seek: acknowledged without processing it again
+        assertThat(acks.admit(record(13), consumer)).isEqualTo(Admission.COMPLETED);
+        track(13).complete(true);
+        assertThat(acks.admit(record(14), consumer)).isEqualTo(Admission.PROCESS);
+
+        assertThat(acknowledged).containsExactly(10L, 11L, 12L, 13L);
+    }
+
+    @Test
+    void reseeksFromTheIdleCallbackWhenNothingIsDelivered() {
+        track(10).complete(false);
+        List<Long> seeks = new CopyOnWriteArrayList<>();
+
+        assertThat(acks.reseekFailed((partition, offset) -> seeks.add(offset))).isTrue();
+        assertThat(acks.reseekFailed((partition, offset) -> seeks.add(offset))).isFalse();
+
+        assertThat(seeks).containsExactly(10L);
+        assertThat(acknowledged).isEmpty();
+        verifyNoInteractions(consumer);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private CompletableFuture<Boolean> track(long offset) {
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        acks.track(record(offset), () -> acknowledged.add(offset), done);
+        return done;
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset) {
+        return new ConsumerRecord<>(TOPIC, PARTITION.partition(), offset, "cust-" + offset, new byte[0]);
+    }
+}
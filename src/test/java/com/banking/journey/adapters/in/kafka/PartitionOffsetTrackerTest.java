@@ -0,0 +1,41 @@
+package com.banking.journey.adapters.in.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class PartitionOffsetTrackerTest {
+
+    private static final TopicPartition P0 = new TopicPartition("customer-events", 0);
+    private static final TopicPartition P1 = new TopicPartition("customer-events", 1);
+
+    private final PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+
+    @Test
+    void dropsOffsetsBelowTheCommit() {
+        tracker.markCompleted(P0, 5);
+        tracker.markCompleted(P0, 9);
+
+        tracker.committed(P0, 6);
+
+        assertThat(tracker.isCompleted(P0, 5)).isFalse();
+        assertThat(tracker.isCompleted(P0, 9)).isTrue();
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void forgetsRevokedPartitionsOnly() {
+        tracker.markCompleted(P0, 5);
+        tracker.markCompleted(P1, 7);
+
+        tracker.forget(List.of(P0));
+
+        // Offsets above the commit would otherwise stay tracked for good
+        assertThat(tracker.isCompleted(P0, 5)).isFalse();
+        assertThat(tracker.isCompleted(P1, 7)).isTrue();
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+    }
+}
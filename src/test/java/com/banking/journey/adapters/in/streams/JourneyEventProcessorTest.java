@@ -0,0 +1,159 @@
+package com.banking.journey.adapters.in.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banking.journey.adapters.in.kafka.CustomerEventParser;
+import com.banking.journey.adapters.in.kafka.DeadLetterPublisher;
+import com.banking.journey.application.port.out.ActionPublisher;
+import com.banking.journey.application.port.out.EventStore;
+import com.banking.journey.application.port.out.ProcessingMetrics;
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.application.service.StateMachineEngine;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.Action;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.StateType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs {@link JourneyStreamsTopology} in a {@link TopologyTestDriver}. A
+ * replay is simulated as Kafka Streams sees one after a failure under
+ * {@code at_least_once}: a task whose store was restored from the changelog
+ * receives again the records since its last committed offset.
+ */
+class JourneyEventProcessorTest {
+
+    private static final String CUSTOMER = "cust-42";
+
+    private static final List<String> EVENTS = List.of(
+            event("evt-1", "CARD_APPLY"),
+            event("evt-2", "DOCUMENT_UPLOAD"),
+            event("evt-3", "DOCUMENT_UPLOAD"));
+
+    @TempDir
+    Path stateDir;
+
+    private final JourneyProperties properties = properties();
+    private final ActionPublisher actionPublisher = mock(ActionPublisher.class);
+    private final DeadLetterPublisher deadLetterPublisher = mock(DeadLetterPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JourneyStreamsTopology topology = new JourneyStreamsTopology(
+            mock(EventStore.class, CALLS_REAL_METHODS),
+            mock(StateStore.class), new StateMachineEngine(properties), actionPublisher, ProcessingMetrics.NOOP,
+            new CustomerEventParser(new ObjectMapper(), ProcessingMetrics.NOOP), deadLetterPublisher, properties,
+            meterRegistry);
+
+    @Test
+    void replayedRecordsAreNotAppliedTwice() {
+        byte[] committed;
+        CardApplicationState before;
+        try (TopologyTestDriver driver = driver("first")) {
+            pipe(driver, EVENTS);
+            committed = store(driver).get(CUSTOMER);
+            before = state(driver);
+        }
+        verify(actionPublisher, times(3)).publish(any(Action.class));
+
+        // Restored from the changelog, then fed the uncommitted records again
+        try (TopologyTestDriver driver = driver("restored")) {
+            store(driver).put(CUSTOMER, committed);
+            pipe(driver, EVENTS);
+
+            CardApplicationState after = state(driver);
+            assertThat(after.getVersion()).isEqualTo(before.getVersion());
+            assertThat(after.getDocumentCount()).isEqualTo(before.getDocumentCount());
+            assertThat(after.getCurrentStep()).isEqualTo(before.getCurrentStep());
+            verify(actionPublisher, times(3)).publish(any(Action.class));
+            assertThat(meterRegistry.get("journey.streams.events.replayed").counter().count()).isEqualTo(3);
+
+            // The next record past the replay is applied: the third document
+            pipe(driver, List.of(event("evt-4", "DOCUMENT_UPLOAD")));
+            assertThat(state(driver).getCurrentStep()).isEqualTo(StateType.UNDER_REVIEW);
+            assertThat(state(driver).getVersion()).isEqualTo(before.getVersion() + 1);
+            verify(actionPublisher, times(4)).publish(any(Action.class));
+        }
+        verifyNoInteractions(deadLetterPublisher);
+    }
+
+    @Test
+    void aStateWithoutAnAppliedOffsetIsProcessedAsBefore() {
+        try (TopologyTestDriver driver = driver("unmarked")) {
+            pipe(driver, EVENTS.subList(0, 1));
+            KeyValueStore<String, byte[]> store = store(driver);
+            assertThat(new StreamsStateStore(store, null, Duration.ofDays(30), 0).appliedOffset(CUSTOMER))
+                    .isZero();
+
+            // As imported from the fallback store or written before the mark existed
+            CardApplicationState applied = state(driver);
+            new StreamsStateStore(store, null, Duration.ofDays(30), 0).saveState(applied);
+            pipe(driver, EVENTS.subList(1, 2));
+
+            assertThat(state(driver).getVersion()).isEqualTo(applied.getVersion() + 1);
+            assertThat(meterRegistry.get("journey.streams.events.replayed").counter().count()).isZero();
+        }
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private TopologyTestDriver driver(String name) {
+        StreamsBuilder builder = new StreamsBuilder();
+        topology.build(builder);
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "journey-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.resolve(name).toString());
+        return new TopologyTestDriver(builder.build(), config);
+    }
+
+    private void pipe(TopologyTestDriver driver, List<String> events) {
+        TestInputTopic<String, byte[]> input = driver.createInputTopic(topology.customerEventsTopic(),
+                Serdes.String().serializer(), Serdes.ByteArray().serializer());
+        for (String event : events) {
+            input.pipeInput(CUSTOMER, event.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static KeyValueStore<String, byte[]> store(TopologyTestDriver driver) {
+        return driver.getKeyValueStore(JourneyStreamsTopology.STATE_STORE);
+    }
+
+    private static CardApplicationState state(TopologyTestDriver driver) {
+        return new StreamsStateStore(store(driver), null, Duration.ofDays(30), 0).getState(CUSTOMER);
+    }
+
+    private static JourneyProperties properties() {
+        JourneyProperties properties = new JourneyProperties();
+        properties.setRequiredDocumentCount(3);
+        properties.getKafka().getStreams().setStateFallback(false);
+        return properties;
+    }
+
+    private static String event(String eventId, String eventType) {
+        return """
+                {"event_id":"%s","customer_id":"%s","event_type":"%s","timestamp":"2024-03-01T10:15:30Z"}"""
+                .formatted(eventId, CUSTOMER, eventType);
+    }
+}
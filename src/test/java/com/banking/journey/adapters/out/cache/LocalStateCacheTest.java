@@ -0,0 +1,109 @@
+package com.banking.journey.adapters.out.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.StateType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LocalStateCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private String topic;
+    private LocalStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        JourneyProperties properties = new JourneyProperties();
+        properties.getStateCache().setEnabled(true);
+        topic = properties.getKafka().getTopics().getCustomerEvents();
+        cache = new LocalStateCache(properties, meterRegistry);
+    }
+
+    @Test
+    void cachesStatesOfOwnedPartitions() {
+        cache.onPartitionsAssigned(consumerSeeing(4), partitions(0, 1, 2, 3));
+
+        cache.put(state("cust-1"), cache.generation());
+
+        assertThat(cache.get("cust-1")).isNotNull();
+        assertThat(meterRegistry.get("journey.state.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsAPutThatRacedARebalance() {
+        Consumer<?, ?> consumer = consumerSeeing(4);
+        cache.onPartitionsAssigned(consumer, partitions(0, 1, 2, 3));
+        long readGeneration = cache.generation();
+
+        // The store read is in flight while the partitions move away and back
+        cache.onPartitionsRevoked(partitions(0, 1, 2, 3));
+        cache.onPartitionsAssigned(consumer, partitions(0, 1, 2, 3));
+        cache.put(state("cust-1"), readGeneration);
+
+        assertThat(cache.get("cust-1")).isNull();
+        assertThat(cache.size()).isZero();
+
+        cache.put(state("cust-1"), cache.generation());
+        assertThat(cache.get("cust-1")).isNotNull();
+    }
+
+    @Test
+    void evictsEverythingWhenThePartitionCountChanges() {
+        cache.onPartitionsAssigned(consumerSeeing(4), partitions(0, 1, 2, 3));
+        for (int i = 0; i < 50; i++) {
+            cache.put(state("cust-" + i), cache.generation());
+        }
+        assertThat(cache.size()).isEqualTo(50);
+
+        // Only a new partition is assigned, but every key may map elsewhere now
+        cache.onPartitionsAssigned(consumerSeeing(8), partitions(4));
+
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("journey.state.cache.evictions").tag("cause", "rebalance").counter().count())
+                .isEqualTo(50);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private Consumer<?, ?> consumerSeeing(int partitionCount) {
+        List<PartitionInfo> infos = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            infos.add(new PartitionInfo(topic, i, null, null, null));
+        }
+        Consumer<?, ?> consumer = mock(Consumer.class);
+        when(consumer.partitionsFor(eq(topic), any(Duration.class))).thenReturn(infos);
+        return consumer;
+    }
+
+    private List<TopicPartition> partitions(int... numbers) {
+        List<TopicPartition> result = new ArrayList<>();
+        for (int number : numbers) {
+            result.add(new TopicPartition(topic, number));
+        }
+        return result;
+    }
+
+    private static CardApplicationState state(String customerId) {
+        Instant now = Instant.parse("2024-03-01T10:15:30Z");
+        return CardApplicationState.reconstruct(customerId, StateType.APPLIED, 0, now, now, Map.of(), 1);
+    }
+}
@@ -0,0 +1,214 @@
+package com.banking.journey.adapters.out.embedded;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banking.journey.application.port.out.StateStore;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.StateType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmbeddedStateStoreTest {
+
+    /** A 1024-slot table: inserts fail once 922 slots are used or tombstoned. */
+    private static final int SMALL_TABLE = 10;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<EmbeddedStateStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() throws IOException {
+        for (EmbeddedStateStore store : opened) {
+            store.stop();
+            store.destroy();
+        }
+    }
+
+    @Test
+    void concurrentCompareAndSetLosesNoVersions() throws Exception {
+        EmbeddedStateStore store = open(directory, SMALL_TABLE, Duration.ofMinutes(10));
+        assertThat(store.compareAndSet("cust-1", StateStore.NO_VERSION, state("cust-1", 1, Instant.now()))).isTrue();
+
+        int threads = 8;
+        int incrementsPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int done = 0; done < incrementsPerThread;) {
+                        long version = store.getState("cust-1").getVersion();
+                        if (store.compareAndSet("cust-1", version, state("cust-1", version + 1, Instant.now()))) {
+                            done++;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : workers) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(store.getState("cust-1").getVersion()).isEqualTo(1 + (long) threads * incrementsPerThread);
+    }
+
+    /**
+     * Simulates a crash before any mapped page reached the disk: only the
+     * redo log survives, with a torn record at its end.
+     */
+    @Test
+    void reopeningAfterAnUncleanCloseReplaysTheLog() throws Exception {
+        EmbeddedStateStore store = open(directory, SMALL_TABLE, Duration.ofMinutes(10));
+        Instant now = Instant.now();
+        for (int i = 0; i < 20; i++) {
+            store.saveState(state("cust-" + i, 1, now));
+        }
+        assertThat(store.compareAndSet("cust-3", 1, state("cust-3", 2, now))).isTrue();
+        store.deleteState("cust-7");
+
+        Path crashed = Files.createDirectory(directory.resolve("crashed"));
+        Files.copy(directory.resolve("states.log"), crashed.resolve("states.log"));
+        Files.write(crashed.resolve("states.log"), new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        EmbeddedStateStore reopened = open(crashed, SMALL_TABLE, Duration.ofMinutes(10));
+
+        assertThat(reopened.size()).isEqualTo(19);
+        assertThat(reopened.getState("cust-3").getVersion()).isEqualTo(2);
+        assertThat(reopened.getState("cust-7")).isNull();
+        assertThat(reopened.getState("cust-19").getCurrentStep()).isEqualTo(StateType.APPLIED);
+        // Replayed states were checkpointed into the table
+        assertThat(Files.size(crashed.resolve("states.log"))).isZero();
+    }
+
+    @Test
+    void aPutRejectedForCapacityLeavesNoStrayLogRecord() throws Exception {
+        EmbeddedStateStore store = open(directory, SMALL_TABLE, Duration.ofMinutes(10));
+        Instant now = Instant.now();
+        int stored = 0;
+        String rejected = null;
+        while (rejected == null) {
+            String customerId = "cust-" + stored;
+            try {
+                store.saveState(state(customerId, 1, now));
+                stored++;
+            } catch (EmbeddedStateStore.CapacityExceededException e) {
+                rejected = customerId;
+            }
+        }
+        long logBytes = Files.size(directory.resolve("states.log"));
+
+        // Random text, so compression cannot squeeze it into a slot
+        Map<String, String> oversized = new HashMap<>();
+        oversized.put("notes", HexFormat.of().formatHex(randomBytes(1024)));
+        assertThatThrownBy(() -> store.saveState(state("cust-0", 2, now, oversized)))
+                .isInstanceOf(EmbeddedStateStore.CapacityExceededException.class);
+        assertThat(Files.size(directory.resolve("states.log"))).isEqualTo(logBytes);
+
+        // Replayed into a table with room to spare, the rejected insert stays undone
+        JourneyProperties.EmbeddedState config = new JourneyProperties().getEmbeddedState();
+        try (MappedStateTable roomy = new MappedStateTable(directory.resolve("roomy.tbl"), 4096,
+                config.getSlotBytes(), config.getMaxCustomerIdLength());
+                StateAppendLog log = new StateAppendLog(directory.resolve("states.log"), roomy.maxKeyChars(),
+                        roomy.maxValueBytes(), false)) {
+            log.replay(roomy);
+
+            assertThat(roomy.size()).isEqualTo(stored);
+            assertThat(roomy.read(rejected, rejected.hashCode(), new MappedStateTable.ReadBuffer(roomy.maxValueBytes())))
+                    .isFalse();
+        }
+    }
+
+    @Test
+    void expirySweepRunsAndInsertsReuseTombstones() throws Exception {
+        EmbeddedStateStore store = open(directory, SMALL_TABLE, Duration.ofMillis(50));
+        Instant longAgo = Instant.now().minus(Duration.ofDays(31));
+        for (int i = 0; i < 100; i++) {
+            store.saveState(state("cust-" + i, 1, longAgo));
+        }
+        assertThat(store.getState("cust-0")).isNull();
+
+        store.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (store.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(store.size()).isZero();
+        assertThat(tombstones()).isEqualTo(100);
+        assertThat(meterRegistry.get("journey.state.embedded.expired").counter().count()).isEqualTo(100);
+
+        Instant now = Instant.now();
+        for (int i = 0; i < 100; i++) {
+            store.saveState(state("cust-" + i, 2, now));
+        }
+        assertThat(store.size()).isEqualTo(100);
+        assertThat(tombstones()).isZero();
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private EmbeddedStateStore open(Path dir, long maxEntries, Duration sweepInterval) throws IOException {
+        JourneyProperties properties = new JourneyProperties();
+        JourneyProperties.EmbeddedState config = properties.getEmbeddedState();
+        config.setEnabled(true);
+        config.setDirectory(dir.toString());
+        config.setMaxEntries(maxEntries);
+        config.setSweepInterval(sweepInterval);
+        EmbeddedStateStore store = new EmbeddedStateStore(properties, meterRegistry);
+        opened.add(store);
+        return store;
+    }
+
+    private static byte[] randomBytes(int count) {
+        byte[] bytes = new byte[count];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private double tombstones() {
+        return meterRegistry.get("journey.state.embedded.tombstones").gauge().value();
+    }
+
+    private static CardApplicationState state(String customerId, long version, Instant updatedAt) {
+        return state(customerId, version, updatedAt, Map.of());
+    }
+
+    private static CardApplicationState state(String customerId, long version, Instant updatedAt,
+            Map<String, String> metadata) {
+        return CardApplicationState.reconstruct(customerId, StateType.APPLIED, 0, updatedAt, updatedAt, metadata,
+                version);
+    }
+}
@@ -0,0 +1,127 @@
+package com.banking.journey.adapters.out.postgres;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Timeout(10)
+class GroupCommitWriterTest {
+
+    private static final String SQL = "INSERT INTO t (id) VALUES (?) ON CONFLICT DO NOTHING";
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<GroupCommitWriter> writers = new ArrayList<>();
+
+    @AfterEach
+    void closeWriters() {
+        writers.forEach(GroupCommitWriter::close);
+    }
+
+    @Test
+    void aBadRowFailsOnlyItsOwnCaller() throws Exception {
+        GroupCommitWriter writer = writer(10, Duration.ofMillis(200));
+
+        List<CompletableFuture<Void>> good = new ArrayList<>();
+        good.add(writer.submit(new Object[] { "row-1" }));
+        good.add(writer.submit(new Object[] { "row-2" }));
+        CompletableFuture<Void> bad = writer.submit(new Object[] { "bad" });
+        good.add(writer.submit(new Object[] { "row-3" }));
+
+        for (CompletableFuture<Void> future : good) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbcTemplate.batchSizes).containsExactly(4);
+        assertThat(jdbcTemplate.singleRows).containsExactly("row-1", "row-2", "row-3");
+    }
+
+    @Test
+    void aSubmitAfterCloseFailsInsteadOfHanging() {
+        GroupCommitWriter writer = writer(10, Duration.ofMillis(2));
+        writer.close();
+
+        CompletableFuture<Void> late = writer.submit(new Object[] { "row-1" });
+
+        assertThat(late).isCompletedExceptionally();
+        assertThatThrownBy(() -> writer.write(new Object[] { "row-2" }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("closed");
+        assertThat(jdbcTemplate.batchSizes).isEmpty();
+    }
+
+    @Test
+    void aLoneCallerCompletesWithinMaxLatency() throws Exception {
+        Duration maxLatency = Duration.ofMillis(100);
+        GroupCommitWriter writer = writer(500, maxLatency);
+
+        long start = System.nanoTime();
+        writer.submit(new Object[] { "row-1" }).get(5, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // The batch never fills: the deadline flushes it, with slack for a slow machine
+        assertThat(elapsedMs).isLessThan(maxLatency.toMillis() + 400);
+        assertThat(jdbcTemplate.batchSizes).containsExactly(1);
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private GroupCommitWriter writer(int maxBatchSize, Duration maxLatency) {
+        JourneyProperties.GroupCommit config = new JourneyProperties.GroupCommit();
+        config.setEnabled(true);
+        config.setMaxBatchSize(maxBatchSize);
+        config.setMaxLatency(maxLatency);
+        GroupCommitWriter writer = new GroupCommitWriter("test", SQL, jdbcTemplate,
+                mock(PlatformTransactionManager.class), config, meterRegistry);
+        writers.add(writer);
+        return writer;
+    }
+
+    /** Fails any batch or row holding "bad", as a constraint violation would. */
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final List<Object> singleRows = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            batchSizes.add(batchArgs.size());
+            for (Object[] args : batchArgs) {
+                if ("bad".equals(args[0])) {
+                    throw new DataIntegrityViolationException("bad row in batch");
+                }
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if ("bad".equals(args[0])) {
+                throw new DataIntegrityViolationException("bad row");
+            }
+            singleRows.add(args[0]);
+            return 1;
+        }
+    }
+}
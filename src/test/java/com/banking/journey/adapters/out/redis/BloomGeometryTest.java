@@ -0,0 +1,77 @@
+package com.banking.journey.adapters.out.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class BloomGeometryTest {
+
+    /** Expected sizes from m = -n·ln(p)/ln(2)² and k = m/n·ln(2). */
+    @ParameterizedTest
+    @CsvSource({
+            "1000000, 0.001, 14377588, 10",
+            "1000000, 0.01,  9585059,  7",
+            "10000,   0.05,  62353,    4",
+            "1000,    0.1,   4793,     3" })
+    void sizesTheFilterForTheTargetRate(long insertions, double rate, long minBits, int hashFunctions) {
+        BloomGeometry geometry = BloomGeometry.of(insertions, rate);
+
+        assertThat(geometry.bits()).isBetween(minBits, minBits + 64);
+        assertThat(geometry.bits() % 64).isZero();
+        assertThat(geometry.bytes()).isEqualTo(geometry.bits() / 8);
+        assertThat(geometry.hashFunctions()).isEqualTo(hashFunctions);
+    }
+
+    @Test
+    void offsetsAreDeterministicAndInRange() {
+        BloomGeometry geometry = BloomGeometry.of(10_000, 0.01);
+
+        long[] offsets = geometry.offsets("act-1");
+
+        assertThat(offsets).hasSize(geometry.hashFunctions()).containsExactly(geometry.offsets("act-1"));
+        for (long offset : offsets) {
+            assertThat(offset).isBetween(0L, geometry.bits() - 1);
+        }
+        assertThat(geometry.offsets("act-2")).isNotEqualTo(offsets);
+    }
+
+    @Test
+    void meetsTheTargetFalsePositiveRateAtCapacity() {
+        int insertions = 20_000;
+        double rate = 0.01;
+        BloomGeometry geometry = BloomGeometry.of(insertions, rate);
+        BitSet bits = new BitSet((int) geometry.bits());
+        for (int i = 0; i < insertions; i++) {
+            for (long offset : geometry.offsets("recorded-" + i)) {
+                bits.set((int) offset);
+            }
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            boolean all = true;
+            for (long offset : geometry.offsets("absent-" + i)) {
+                all &= bits.get((int) offset);
+            }
+            falsePositives += all ? 1 : 0;
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(rate * 1.5);
+    }
+
+    @Test
+    void rejectsImpossibleTargets() {
+        assertThatThrownBy(() -> BloomGeometry.of(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomGeometry.of(1000, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomGeometry.of(1000, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomGeometry.of(1_000_000_000, 0.0000001))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Redis bitmap limit");
+    }
+}
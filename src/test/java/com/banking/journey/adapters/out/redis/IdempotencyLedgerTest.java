@@ -0,0 +1,195 @@
+package com.banking.journey.adapters.out.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.banking.journey.bootstrap.config.JourneyProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Runs {@link IdempotencyLedger} and the {@code scripts/ledger-*.lua} scripts
+ * against a real (embedded) Redis server. The ledger reads the wall clock, so
+ * an hour passing is simulated by renaming the current hour's bitmap.
+ */
+class IdempotencyLedgerTest {
+
+    private static final String KEY_PREFIX = "action:ledger:{ledger}:";
+    private static final int WINDOW_HOURS = 3;
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, byte[]> template;
+
+    private final List<IdempotencyLedger> ledgers = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new RedisServer(port);
+        server.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        template.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void stopLedgers() {
+        ledgers.forEach(IdempotencyLedger::stop);
+    }
+
+    @Test
+    void localTierFallsBackToRedisUntilItHasLoaded() throws Exception {
+        ledger(false, new SimpleMeterRegistry()).record("act-1");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IdempotencyLedger ledger = ledger(true, meterRegistry);
+
+        // Not started: the local filters are empty, so Redis answers
+        assertThat(ledger.mightContain("act-1")).isTrue();
+        assertThat(ledger.mightContain("act-2")).isFalse();
+        assertThat(lookups(meterRegistry, "redis", "hit")).isEqualTo(1);
+        assertThat(lookups(meterRegistry, "redis", "absent")).isEqualTo(1);
+
+        ledger.start();
+        awaitLocalHit(ledger, meterRegistry, "act-1");
+
+        assertThat(ledger.mightContain("act-2")).isFalse();
+        assertThat(lookups(meterRegistry, "local", "absent")).isEqualTo(1);
+        assertThat(lookups(meterRegistry, "redis", "absent")).isEqualTo(1);
+    }
+
+    @Test
+    void redisTierFindsIdsUntilTheirHourLeavesTheWindow() {
+        IdempotencyLedger ledger = ledger(false, new SimpleMeterRegistry());
+        ledger.record("act-1");
+        long hour = recordedHour();
+
+        // Still inside the window even if the clock moves on meanwhile
+        template.rename(KEY_PREFIX + hour, KEY_PREFIX + (hour - 1));
+        assertThat(ledger.mightContain("act-1")).isTrue();
+
+        template.rename(KEY_PREFIX + (hour - 1), KEY_PREFIX + (hour - WINDOW_HOURS - 1));
+        assertThat(ledger.mightContain("act-1")).isFalse();
+
+        // A new hour starts a new bitmap
+        ledger.record("act-2");
+        assertThat(template.keys(KEY_PREFIX + "*")).hasSize(2);
+        assertThat(ledger.mightContain("act-2")).isTrue();
+    }
+
+    @Test
+    void localTierLoadsEarlierHoursOfTheWindowOnly() throws Exception {
+        IdempotencyLedger writer = ledger(false, new SimpleMeterRegistry());
+        writer.record("act-old");
+        long hour = recordedHour();
+        template.rename(KEY_PREFIX + hour, KEY_PREFIX + (hour - WINDOW_HOURS - 1));
+        writer.record("act-previous");
+        template.rename(KEY_PREFIX + hour, KEY_PREFIX + (hour - 1));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IdempotencyLedger ledger = ledger(true, meterRegistry);
+        ledger.start();
+        awaitLocalHit(ledger, meterRegistry, "act-previous");
+
+        assertThat(ledger.mightContain("act-old")).isFalse();
+        long filterBytes = BloomGeometry.of(10_000, 0.001).bytes();
+        assertThat(memory(meterRegistry, "local")).isEqualTo(filterBytes);
+
+        // Recorded here: seen locally at once, and in Redis by other instances
+        ledger.record("act-new");
+        assertThat(ledger.mightContain("act-new")).isTrue();
+        assertThat(ledger(false, new SimpleMeterRegistry()).mightContain("act-new")).isTrue();
+        assertThat(lookups(meterRegistry, "local", "absent")).isEqualTo(1);
+        assertThat(lookups(meterRegistry, "redis", "absent")).isZero();
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private IdempotencyLedger ledger(boolean localTier, SimpleMeterRegistry meterRegistry) {
+        JourneyProperties properties = new JourneyProperties();
+        properties.getRedis().setIdempotencyTtlHours(WINDOW_HOURS);
+        JourneyProperties.IdempotencyLedger config = properties.getIdempotencyLedger();
+        config.setEnabled(true);
+        config.setExpectedActionsPerHour(10_000);
+        config.setFalsePositiveRate(0.001);
+        config.setLocalTier(localTier);
+        config.setLocalRefreshInterval(Duration.ofMinutes(10));
+        IdempotencyLedger ledger = new IdempotencyLedger(template, properties, meterRegistry);
+        ledgers.add(ledger);
+        return ledger;
+    }
+
+    /** The epoch hour of the only bitmap written so far. */
+    private static long recordedHour() {
+        Set<String> keys = template.keys(KEY_PREFIX + "*");
+        assertThat(keys).hasSize(1);
+        return Long.parseLong(keys.iterator().next().substring(KEY_PREFIX.length()));
+    }
+
+    /** Waits for the first refresh, after which the local tier answers. */
+    private static void awaitLocalHit(IdempotencyLedger ledger, SimpleMeterRegistry meterRegistry, String actionId)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            assertThat(ledger.mightContain(actionId)).isTrue();
+            if (lookups(meterRegistry, "local", "hit") > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("local tier not loaded");
+    }
+
+    private static double memory(SimpleMeterRegistry meterRegistry, String tier) {
+        return meterRegistry.get("journey.idempotency.ledger.memory").tag("tier", tier).gauge().value();
+    }
+
+    private static double lookups(SimpleMeterRegistry meterRegistry, String tier, String result) {
+        return meterRegistry.get("journey.idempotency.ledger.lookups").tag("tier", tier).tag("result", result)
+                .counter().count();
+    }
+}
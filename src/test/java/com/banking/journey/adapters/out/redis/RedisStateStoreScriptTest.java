@@ -0,0 +1,265 @@
+package com.banking.journey.adapters.out.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.banking.journey.adapters.codec.StateWireCodec;
+import com.banking.journey.application.port.out.StateStore.TransitionResult;
+import com.banking.journey.bootstrap.config.JourneyProperties;
+import com.banking.journey.bootstrap.config.JourneyProperties.StateLayout;
+import com.banking.journey.bootstrap.config.JourneyProperties.WireFormatType;
+import com.banking.journey.domain.entity.CardApplicationState;
+import com.banking.journey.domain.valueobject.EventType;
+import com.banking.journey.domain.valueobject.StateType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Runs the {@code scripts/state-*.lua} scripts through {@link RedisStateStore}
+ * against a real (embedded) Redis server.
+ */
+class RedisStateStoreScriptTest {
+
+    private static final String CUSTOMER = "cust-42";
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, byte[]> template;
+    private static ExecutorService ioExecutor;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new RedisServer(port);
+        server.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+
+        ioExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        ioExecutor.shutdown();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        template.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    // ─────────────────── Compare-and-set ───────────────────
+
+    @ParameterizedTest
+    @EnumSource(StateLayout.class)
+    void compareAndSetRejectsStaleVersions(StateLayout layout) {
+        RedisStateStore store = store(layout, WireFormatType.JSON);
+
+        assertThat(store.compareAndSet(CUSTOMER, 0, state(StateType.DOCUMENT_PENDING, 0, Instant.now(), 1))).isTrue();
+        assertThat(store.compareAndSet(CUSTOMER, 0, state(StateType.DOCUMENT_PENDING, 1, Instant.now(), 1)))
+                .isFalse();
+        assertThat(store.compareAndSet(CUSTOMER, 1, state(StateType.DOCUMENT_PENDING, 1, Instant.now(), 2))).isTrue();
+
+        CardApplicationState stored = store.getState(CUSTOMER);
+        assertThat(stored.getVersion()).isEqualTo(2);
+        assertThat(stored.getDocumentCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(StateLayout.class)
+    void compareAndSetReadsBinaryVersions(StateLayout layout) {
+        RedisStateStore store = store(layout, WireFormatType.BINARY);
+        store.saveState(state(StateType.DOCUMENT_PENDING, 0, Instant.now(), 7));
+
+        assertThat(store.compareAndSet(CUSTOMER, 6, state(StateType.DOCUMENT_PENDING, 1, Instant.now(), 7)))
+                .isFalse();
+        assertThat(store.compareAndSet(CUSTOMER, 7, state(StateType.DOCUMENT_PENDING, 1, Instant.now(), 8))).isTrue();
+        assertThat(store.getState(CUSTOMER).getVersion()).isEqualTo(8);
+    }
+
+    // ─────────────────── Transitions ───────────────────
+
+    @ParameterizedTest
+    @EnumSource(WireFormatType.class)
+    void transitionAppliesDocumentUploadInPlace(WireFormatType format) {
+        RedisStateStore store = store(StateLayout.HASH, format);
+        store.saveState(state(StateType.DOCUMENT_PENDING, 1, Instant.now().minusSeconds(60), 3));
+
+        TransitionResult result = store.applyTransition(CUSTOMER, EventType.DOCUMENT_UPLOAD);
+
+        assertThat(result.isApplied()).isTrue();
+        assertThat(result.previous().getCurrentStep()).isEqualTo(StateType.DOCUMENT_PENDING);
+        assertThat(result.applied().getCurrentStep()).isEqualTo(StateType.UNDER_REVIEW);
+        assertThat(result.applied().getDocumentCount()).isEqualTo(2);
+        assertThat(result.applied().getVersion()).isEqualTo(4);
+        assertThat(result.applied().getUpdatedAt()).isAfter(result.previous().getUpdatedAt());
+        assertThat(result.applied().getMetadata()).isEqualTo(result.previous().getMetadata());
+        assertThat(store.getState(CUSTOMER)).isEqualTo(result.applied());
+        assertThat(StateWireCodec.isBinary(storedField(CUSTOMER))).isEqualTo(format == WireFormatType.BINARY);
+    }
+
+    @ParameterizedTest
+    @EnumSource(WireFormatType.class)
+    void transitionLeavesOtherCasesToTheCaller(WireFormatType format) {
+        RedisStateStore store = store(StateLayout.KEY, format);
+        CardApplicationState approved = state(StateType.APPROVED, 2, Instant.now(), 5);
+        store.saveState(approved);
+
+        TransitionResult result = store.applyTransition(CUSTOMER, EventType.APPROVAL);
+
+        assertThat(result.isApplied()).isFalse();
+        assertThat(result.previous()).isEqualTo(approved);
+        assertThat(store.getState(CUSTOMER).getVersion()).isEqualTo(5);
+    }
+
+    @Test
+    void transitionWithoutStateReturnsNothing() {
+        TransitionResult result = store(StateLayout.HASH, WireFormatType.JSON)
+                .applyTransition(CUSTOMER, EventType.DOCUMENT_UPLOAD);
+
+        assertThat(result.isApplied()).isFalse();
+        assertThat(result.previous()).isNull();
+    }
+
+    // ─────────────────── Expired fields ───────────────────
+
+    @ParameterizedTest
+    @EnumSource(WireFormatType.class)
+    void expiredFieldsCountAsAbsent(WireFormatType format) {
+        RedisStateStore store = store(StateLayout.HASH, format);
+        // Older than the 30-day TTL, but kept alive by its bucket
+        store.saveState(state(StateType.UNDER_REVIEW, 2, Instant.now().minus(Duration.ofDays(31)), 4));
+
+        assertThat(store.getState(CUSTOMER)).isNull();
+        assertThat(store.applyTransition(CUSTOMER, EventType.APPROVAL).previous()).isNull();
+        assertThat(store.compareAndSet(CUSTOMER, 4, state(StateType.APPROVED, 2, Instant.now(), 5))).isFalse();
+        assertThat(store.compareAndSet(CUSTOMER, 0, state(StateType.DOCUMENT_PENDING, 0, Instant.now(), 1))).isTrue();
+    }
+
+    // ─────────────────── Legacy keys ───────────────────
+
+    @Test
+    void compareAndSetFallsBackToTheLegacyKeyAndRemovesIt() {
+        store(StateLayout.KEY, WireFormatType.JSON).saveState(state(StateType.DOCUMENT_PENDING, 1, Instant.now(), 2));
+        RedisStateStore store = store(StateLayout.HASH, WireFormatType.JSON);
+
+        assertThat(store.getState(CUSTOMER).getVersion()).isEqualTo(2);
+        assertThat(store.compareAndSet(CUSTOMER, 0, state(StateType.UNDER_REVIEW, 2, Instant.now(), 1))).isFalse();
+        assertThat(store.compareAndSet(CUSTOMER, 2, state(StateType.UNDER_REVIEW, 2, Instant.now(), 3))).isTrue();
+
+        assertThat(template.hasKey(buckets(StateLayout.HASH).customerKey(CUSTOMER))).isFalse();
+        assertThat(storedField(CUSTOMER)).isNotNull();
+        assertThat(store.getState(CUSTOMER).getCurrentStep()).isEqualTo(StateType.UNDER_REVIEW);
+    }
+
+    @Test
+    void transitionFallsBackToTheLegacyKeyAndRemovesIt() {
+        store(StateLayout.KEY, WireFormatType.BINARY)
+                .saveState(state(StateType.UNDER_REVIEW, 2, Instant.now(), 4));
+        RedisStateStore store = store(StateLayout.HASH, WireFormatType.BINARY);
+
+        TransitionResult result = store.applyTransition(CUSTOMER, EventType.REJECTION);
+
+        assertThat(result.isApplied()).isTrue();
+        assertThat(result.applied().getCurrentStep()).isEqualTo(StateType.REJECTED);
+        assertThat(template.hasKey(buckets(StateLayout.HASH).customerKey(CUSTOMER))).isFalse();
+        assertThat(store.getState(CUSTOMER)).isEqualTo(result.applied());
+    }
+
+    @Test
+    void migrationKeepsFieldsWrittenAfterTheSwitch() {
+        RedisStateStore keyStore = store(StateLayout.KEY, WireFormatType.JSON);
+        keyStore.saveState(state(StateType.DOCUMENT_PENDING, 1, Instant.now(), 2));
+        keyStore.saveState(CardApplicationState.reconstruct("cust-7", StateType.APPROVED, 2,
+                Instant.now().minus(Duration.ofHours(1)), Instant.now().truncatedTo(ChronoUnit.MILLIS), Map.of(), 6));
+        RedisStateStore store = store(StateLayout.HASH, WireFormatType.JSON);
+        store.saveState(state(StateType.UNDER_REVIEW, 2, Instant.now(), 3));
+        // The hash-layout write already dropped this customer's key: put it back as a stale leftover
+        keyStore.saveState(state(StateType.DOCUMENT_PENDING, 1, Instant.now(), 2));
+
+        StateBucketMaintenance maintenance = new StateBucketMaintenance(template,
+                properties(StateLayout.HASH, WireFormatType.JSON), new SimpleMeterRegistry());
+        StateBucketMaintenance.MigrationReport report = maintenance.migrate(100);
+
+        assertThat(report.scannedKeys()).isEqualTo(2);
+        assertThat(report.migratedKeys()).isEqualTo(1);
+        assertThat(report.complete()).isTrue();
+        assertThat(store.getState(CUSTOMER).getCurrentStep()).isEqualTo(StateType.UNDER_REVIEW);
+        assertThat(store.getState("cust-7").getVersion()).isEqualTo(6);
+        assertThat(template.hasKey(buckets(StateLayout.HASH).customerKey(CUSTOMER))).isFalse();
+        assertThat(template.hasKey(buckets(StateLayout.HASH).customerKey("cust-7"))).isFalse();
+        assertThat(template.getExpire(buckets(StateLayout.HASH).bucketKey("cust-7"))).isPositive();
+    }
+
+    // ─────────────────── Private Helpers ───────────────────
+
+    private static RedisStateStore store(StateLayout layout, WireFormatType format) {
+        return new RedisStateStore(template, new ObjectMapper(), properties(layout, format), ioExecutor);
+    }
+
+    private static JourneyProperties properties(StateLayout layout, WireFormatType format) {
+        JourneyProperties properties = new JourneyProperties();
+        properties.getRedis().setStateLayout(layout);
+        properties.getRedis().setStateFormat(format);
+        properties.getRedis().setStateBucketCount(16);
+        return properties;
+    }
+
+    private static StateBuckets buckets(StateLayout layout) {
+        return new StateBuckets(properties(layout, WireFormatType.JSON).getRedis());
+    }
+
+    /** Raw value of the customer's field in its hash-layout bucket. */
+    private static byte[] storedField(String customerId) {
+        String bucket = buckets(StateLayout.HASH).bucketKey(customerId);
+        return template.<String, byte[]>opsForHash().get(bucket, customerId);
+    }
+
+    private static CardApplicationState state(StateType step, int documents, Instant updatedAt, long version) {
+        // JSON keeps nanoseconds and binary millis: compare states at millisecond precision
+        Instant updated = updatedAt.truncatedTo(ChronoUnit.MILLIS);
+        return CardApplicationState.reconstruct(CUSTOMER, step, documents, updated.minus(Duration.ofHours(1)),
+                updated, Map.of("channel", "MOBILE"), version);
+    }
+}